@@ -0,0 +1,144 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.analytics.CorpusGenerator;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.records.GameArchive;
+import cpsc2150.extendedCheckers.records.GameArchiveWriter;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.records.GameRecordCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArchiveBenchmark writes a GameArchive of random 8x8 games and measures reading it back: a sequential scan that
+ * replays every game into one reused board, random fetches by id, and, for comparison, the per-game approach the
+ * archive replaces, which reads each game with its own positioned file read, decodes it into a GameRecord and
+ * replays it on a new board.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='ArchiveBenchmark [JMH options]'
+ *      for example -PjmhArgs='ArchiveBenchmark -p games=30000000' for a file larger than 2 GB
+ *
+ * The games are a pool of distinct random games appended over and over to a temporary file, which is deleted after
+ * the trial. One scan operation replays the whole archive; one get or perGameRead operation reads one game of a
+ * random id.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveBenchmark {
+
+    private static final int POOL = 10_000;
+    private static final long SEED = 7;
+
+    @Param({"1000000"})
+    public long games;
+
+    private Path path;
+    private GameArchive archive;
+    private FileChannel channel;
+    private ICheckerBoard scanBoard;
+    private long[] steps;
+
+    /**
+     * The ids one thread fetches, in a random order of its own.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new SplittableRandom(SEED);
+        }
+
+        long next(long games) {
+            return random.nextLong(games);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        GameConfig config = new GameConfig();
+        CorpusGenerator generator = new CorpusGenerator(SEED, config.getDimension());
+        GameRecord[] pool = new GameRecord[POOL];
+        for (int i = 0; i < POOL; i++) {
+            pool[i] = generator.generate(i);
+        }
+        path = Files.createTempFile("archive", ".cka");
+        Files.delete(path);
+        try (GameArchiveWriter writer = GameArchiveWriter.open(path)) {
+            for (long id = 0; id < games; id++) {
+                writer.append(pool[(int) (id % POOL)]);
+            }
+        }
+        archive = GameArchive.open(path);
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        scanBoard = new CheckerBoard(config);
+        steps = new long[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.close();
+        archive = null;
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scan() {
+        steps[0] = 0;
+        archive.scan(0, games, scanBoard, (id, finalBoard, stepCount, winner) -> steps[0] += stepCount);
+        return steps[0];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public GameRecord get(Ids ids) {
+        return archive.get(ids.next(games));
+    }
+
+    /**
+     * Reads one game the way the archive replaces: a positioned read into a new buffer, a decode into a GameRecord
+     * and a replay on a new board. The offsets come from the archive so only the reading differs.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int perGameRead(Ids ids) throws IOException {
+        long id = ids.next(games);
+        long at = archive.getOffset(id);
+        ByteBuffer bytes = ByteBuffer.allocate(archive.getBytes(id).remaining());
+        while (bytes.hasRemaining()) {
+            at += channel.read(bytes, at);
+        }
+        GameRecord record = GameRecordCodec.decode(bytes.array());
+        return record.replay().getPieceCounts().size() + record.getStepCount();
+    }
+}
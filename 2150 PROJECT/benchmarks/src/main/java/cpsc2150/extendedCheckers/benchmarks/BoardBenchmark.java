@@ -0,0 +1,366 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.models.BoardPosition;
+import cpsc2150.extendedCheckers.models.BoardRenderer;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.CheckerBoardBit;
+import cpsc2150.extendedCheckers.models.CheckerBoardMem;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoardBenchmark compares the board implementations behind CheckersFE's "fast" (CheckerBoard), "memory efficient"
+ * (CheckerBoardMem) and "bitboard" (CheckerBoardBit) modes, operation by operation, over every board size and
+ * several piece densities, in throughput and average time.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='BoardBenchmark [JMH options]'
+ *      for example -PjmhArgs='BoardBenchmark.movePiece -p board=CheckerBoard,CheckerBoardMem -p dimension=8,16'
+ *
+ * Every operation except playout runs on a FilledBoard: a board with randomly placed men of both players on
+ * density percent of its dark squares. placePiece, movePiece and jumpPiece put the board back as they found it,
+ * and that restoring work is part of the measured operation: one placePiece operation places a piece and puts
+ * back what was there, one movePiece operation moves a man and moves it back, and one jumpPiece operation makes
+ * a jump and restores the three squares it changed. renderWriter streams the board through BoardRenderer to a
+ * Writer that discards what it is given, and renderBytes renders it into a reused ByteBuffer; both write the same
+ * text as toString. playout runs on a StartingBoard and plays one random game from the starting position with
+ * MoveGenerator and applyMove, then takes it back with undoMove.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int MAX_PLAYOUT_PLIES = 400;
+    private static final long SEED = 2150;
+    //fillings tried, from SEED up, for one with both a step and a jump to measure
+    private static final int MAX_FILLINGS = 64;
+
+    /**
+     * A board of the given kind and size filled to the given density, with the squares and moves each operation
+     * cycles through.
+     */
+    @State(Scope.Thread)
+    public static class FilledBoard {
+
+        @Param({"CheckerBoard", "CheckerBoardMem", "CheckerBoardBit"})
+        public String board;
+
+        @Param({"8", "10", "12", "14", "16"})
+        public int dimension;
+
+        @Param({"25", "50", "75"})
+        public int density;
+
+        ICheckerBoard target;
+        GameConfig config;
+        BoardPosition[] squares;
+        BoardPosition[] tiles;
+        BoardPosition[] stepFrom;
+        DirectionEnum[] stepDirections;
+        int[][] jumps;
+        BoardRenderer renderer;
+        ByteBuffer bytes;
+        Writer discard;
+        long written;
+
+        int nextSquare;
+        int nextTile;
+        int nextStep;
+        int nextJump;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            config = new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, dimension);
+            for (int filling = 0; stepFrom == null || jumps.length == 0; filling++) {
+                if (filling == MAX_FILLINGS) {
+                    throw new IllegalStateException("No filling of " + board + " at " + dimension + "x" +
+                            dimension + ", " + density + "% has both a step and a jump");
+                }
+                target = makeBoard(board, config);
+                Random random = new Random(SEED + filling);
+                fill(target, config, density, random);
+                findSteps(random);
+                jumps = findJumps(target, random);
+            }
+
+            List<BoardPosition> all = new ArrayList<>();
+            for (int row = 0; row < dimension; row++) {
+                for (int col = 0; col < dimension; col++) {
+                    all.add(new BoardPosition(row, col));
+                }
+            }
+            Random random = new Random(SEED);
+            Collections.shuffle(all, random);
+            squares = all.toArray(new BoardPosition[0]);
+            List<BoardPosition> dark = whiteTiles(target);
+            Collections.shuffle(dark, random);
+            tiles = dark.toArray(new BoardPosition[0]);
+
+            renderer = BoardRenderer.forDimension(dimension);
+            bytes = ByteBuffer.allocate(renderer.getLength());
+            discard = new Writer() {
+                @Override
+                public void write(char[] text, int offset, int length) {
+                    written += length;
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+
+        /**
+         * Finds every man that can step onto an empty square off the crowning rows, or leaves stepFrom null if
+         * there is none.
+         */
+        private void findSteps(Random random) {
+            List<int[]> steps = new ArrayList<>();
+            NeighborTable neighbors = target.getNeighborTable();
+            for (BoardPosition tile : whiteTiles(target)) {
+                int square = target.getSquare(tile.getRow(), tile.getColumn());
+                if (!Character.isLetter(target.whatsAtPos(square))) {
+                    continue;
+                }
+                for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+                    int to = neighbors.getStep(square, dir);
+                    if (to != NeighborTable.OFF_BOARD && target.whatsAtPos(to) == CheckerBoard.EMPTY_POS &&
+                            !isCrowningRow(target, to)) {
+                        steps.add(new int[]{square, dir});
+                    }
+                }
+            }
+            stepFrom = null;
+            if (steps.isEmpty()) {
+                return;
+            }
+            Collections.shuffle(steps, random);
+            stepFrom = new BoardPosition[steps.size()];
+            stepDirections = new DirectionEnum[steps.size()];
+            for (int i = 0; i < steps.size(); i++) {
+                int square = steps.get(i)[0];
+                stepFrom[i] = new BoardPosition(target.getSquareRow(square), target.getSquareColumn(square));
+                stepDirections[i] = DirectionEnum.fromOrdinal(steps.get(i)[1]);
+            }
+        }
+    }
+
+    /**
+     * A board of the given kind and size in its starting position.
+     */
+    @State(Scope.Thread)
+    public static class StartingBoard {
+
+        @Param({"CheckerBoard", "CheckerBoardMem", "CheckerBoardBit"})
+        public String board;
+
+        @Param({"8", "10", "12", "14", "16"})
+        public int dimension;
+
+        ICheckerBoard target;
+        GameConfig config;
+        MoveBuffer moves;
+        Random random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            config = new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, dimension);
+            target = makeBoard(board, config);
+            moves = new MoveBuffer();
+            random = new Random(SEED);
+        }
+    }
+
+    @Benchmark
+    public char whatsAtPos(FilledBoard state) {
+        BoardPosition pos = state.squares[state.nextSquare];
+        state.nextSquare = (state.nextSquare + 1 == state.squares.length) ? 0 : state.nextSquare + 1;
+        return state.target.whatsAtPos(pos);
+    }
+
+    @Benchmark
+    public char placePiece(FilledBoard state) {
+        BoardPosition pos = state.tiles[state.nextTile];
+        state.nextTile = (state.nextTile + 1 == state.tiles.length) ? 0 : state.nextTile + 1;
+        char saved = state.target.whatsAtPos(pos);
+        state.target.placePiece(pos, state.config.getPlayerTwo());
+        state.target.placePiece(pos, saved);
+        return saved;
+    }
+
+    @Benchmark
+    public BoardPosition movePiece(FilledBoard state) {
+        int step = state.nextStep;
+        state.nextStep = (step + 1 == state.stepFrom.length) ? 0 : step + 1;
+        BoardPosition moved = state.target.movePiece(state.stepFrom[step], state.stepDirections[step]);
+        return state.target.movePiece(moved, opposite(state.stepDirections[step]));
+    }
+
+    @Benchmark
+    public int jumpPiece(FilledBoard state) {
+        int[] jump = state.jumps[state.nextJump];
+        state.nextJump = (state.nextJump + 1 == state.jumps.length) ? 0 : state.nextJump + 1;
+        ICheckerBoard board = state.target;
+        int square = jump[0];
+        int middle = jump[2];
+        char piece = board.whatsAtPos(square);
+        char jumped = board.whatsAtPos(middle);
+        int landing = board.jumpPiece(square, DirectionEnum.fromOrdinal(jump[1]));
+        board.placePiece(landing, CheckerBoard.EMPTY_POS);
+        board.placePiece(middle, jumped);
+        board.placePiece(square, piece);
+        return landing;
+    }
+
+    @Benchmark
+    public void scanSurroundingPositions(FilledBoard state, Blackhole blackhole) {
+        BoardPosition pos = state.tiles[state.nextTile];
+        state.nextTile = (state.nextTile + 1 == state.tiles.length) ? 0 : state.nextTile + 1;
+        blackhole.consume(state.target.scanSurroundingPositions(pos));
+    }
+
+    @Benchmark
+    public String toString(FilledBoard state) {
+        return state.target.toString();
+    }
+
+    @Benchmark
+    public long renderWriter(FilledBoard state) throws IOException {
+        state.renderer.render(state.target, state.discard);
+        return state.written;
+    }
+
+    @Benchmark
+    public int renderBytes(FilledBoard state) {
+        state.bytes.clear();
+        return state.renderer.render(state.target, state.bytes);
+    }
+
+    @Benchmark
+    public int playout(StartingBoard state) {
+        ICheckerBoard board = state.target;
+        char player = state.config.getPlayerOne();
+        int ply = 0;
+        while (ply < MAX_PLAYOUT_PLIES && MoveGenerator.generateMoves(board, player, state.moves) > 0) {
+            board.applyMove(state.moves.get(state.random.nextInt(state.moves.size())));
+            player = (player == state.config.getPlayerOne()) ? state.config.getPlayerTwo()
+                    : state.config.getPlayerOne();
+            ply++;
+        }
+        for (int undo = 0; undo < ply; undo++) {
+            board.undoMove();
+        }
+        return ply;
+    }
+
+    static ICheckerBoard makeBoard(String type, GameConfig config) {
+        switch (type) {
+            case "CheckerBoardMem":
+                return new CheckerBoardMem(config);
+            case "CheckerBoardBit":
+                return new CheckerBoardBit(config);
+            case "CheckerBoard":
+                return new CheckerBoard(config);
+            default:
+                throw new IllegalArgumentException("Unknown board " + type);
+        }
+    }
+
+    /**
+     * Empties the board and puts men of alternating players on the given percentage of dark squares, chosen at
+     * random.
+     */
+    private static void fill(ICheckerBoard board, GameConfig config, int percent, Random random) {
+        List<BoardPosition> whiteTiles = whiteTiles(board);
+        for (BoardPosition tile : whiteTiles) {
+            board.placePiece(tile, CheckerBoard.EMPTY_POS);
+        }
+        Collections.shuffle(whiteTiles, random);
+        int pieces = whiteTiles.size() * percent / 100;
+        for (int i = 0; i < pieces; i++) {
+            board.placePiece(whiteTiles.get(i), i % 2 == 0 ? config.getPlayerOne() : config.getPlayerTwo());
+        }
+    }
+
+    private static List<BoardPosition> whiteTiles(ICheckerBoard board) {
+        List<BoardPosition> tiles = new ArrayList<>();
+        for (int row = 0; row < board.getRowNum(); row++) {
+            for (int col = row % 2; col < board.getColNum(); col += 2) {
+                tiles.add(new BoardPosition(row, col));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Returns (square, direction, jumped square) of every man that can jump an opponent onto an empty square off
+     * the crowning rows.
+     */
+    private static int[][] findJumps(ICheckerBoard board, Random random) {
+        List<int[]> jumps = new ArrayList<>();
+        NeighborTable neighbors = board.getNeighborTable();
+        for (BoardPosition tile : whiteTiles(board)) {
+            int square = board.getSquare(tile.getRow(), tile.getColumn());
+            char piece = board.whatsAtPos(square);
+            if (!Character.isLetter(piece)) {
+                continue;
+            }
+            for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+                int landing = neighbors.getJump(square, dir);
+                if (landing == NeighborTable.OFF_BOARD || board.whatsAtPos(landing) != CheckerBoard.EMPTY_POS ||
+                        isCrowningRow(board, landing)) {
+                    continue;
+                }
+                char middle = board.whatsAtPos(neighbors.getStep(square, dir));
+                if (Character.isLetter(middle) && Character.toLowerCase(middle) != Character.toLowerCase(piece)) {
+                    jumps.add(new int[]{square, dir, neighbors.getStep(square, dir)});
+                }
+            }
+        }
+        Collections.shuffle(jumps, random);
+        return jumps.toArray(new int[0][]);
+    }
+
+    private static boolean isCrowningRow(ICheckerBoard board, int square) {
+        int row = board.getSquareRow(square);
+        return row == 0 || row == board.getRowNum() - 1;
+    }
+
+    private static DirectionEnum opposite(DirectionEnum direction) {
+        // NE/SW and NW/SE have ordinals that add up to COUNT - 1
+        return DirectionEnum.fromOrdinal(DirectionEnum.COUNT - 1 - direction.ordinal());
+    }
+}
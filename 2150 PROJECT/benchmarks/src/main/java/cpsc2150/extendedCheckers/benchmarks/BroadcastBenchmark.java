@@ -0,0 +1,169 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.server.BoardFrame;
+import cpsc2150.extendedCheckers.server.DeltaBroadcaster;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * BroadcastBenchmark fans one 16x16 game out to many local subscribers through a DeltaBroadcaster. One thread
+ * plays random moves and flushes a frame after each; reader threads each serve an equal share of the subscribers
+ * by polling them in turn and applying every frame to the subscriber's own copy of the board.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='BroadcastBenchmark [JMH options]'
+ *      for example -PjmhArgs='BroadcastBenchmark -tg 1,16 -p subscribers=1000 -p movesPerSecond=1000'
+ *
+ * The group runs one mover and 4 readers unless -tg says otherwise. move reports moves per second and read passes
+ * over a reader's share per second; the frames, bytes and skipped counters total, per iteration, the frames
+ * delivered, the bytes they took, and the frames slow subscribers skipped by jumping to a keyframe. Sending every
+ * subscriber the full board text after every move would cost subscribers times the board text's length per move.
+ * Lower movesPerSecond, which is unlimited at 0, to see every subscriber keep up without skipping.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    private static final int DIMENSION = 16;
+    private static final int MAX_GAME_MOVES = 300;
+
+    /**
+     * The game, its broadcaster and the mover's random choices, shared by one mover and its readers.
+     */
+    @State(Scope.Group)
+    public static class Game {
+
+        @Param({"10000"})
+        public int subscribers;
+
+        @Param({"0"})
+        public int movesPerSecond;
+
+        GameSession session;
+        DeltaBroadcaster broadcaster;
+        Random random;
+        MoveBuffer moves;
+        long interval;
+        long nextMove;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            session = new GameSession(new GameConfig('x', 'o', DIMENSION));
+            broadcaster = new DeltaBroadcaster(session.getBoard());
+            random = new Random(1);
+            moves = new MoveBuffer();
+            interval = movesPerSecond > 0 ? 1_000_000_000L / movesPerSecond : 0;
+        }
+    }
+
+    /**
+     * One reader thread's share of the subscribers, each with its own copy of the board.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Reader {
+
+        public long frames;
+        public long bytes;
+        public long skipped;
+
+        DeltaBroadcaster.Subscription[] mine;
+        char[][] replicas;
+        long skippedBefore;
+
+        @Setup(Level.Trial)
+        public void setUp(Game game, ThreadParams threads) {
+            int readers = threads.getSubgroupThreadCount();
+            int reader = threads.getSubgroupThreadIndex();
+            int share = game.subscribers / readers + (reader < game.subscribers % readers ? 1 : 0);
+            mine = new DeltaBroadcaster.Subscription[share];
+            replicas = new char[share][DIMENSION * DIMENSION];
+            for (int i = 0; i < share; i++) {
+                mine[i] = game.broadcaster.subscribe();
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            frames = 0;
+            bytes = 0;
+            skipped = 0;
+            skippedBefore = skippedFrames();
+        }
+
+        //counted once per iteration, off the measured path, since it visits every subscription
+        @TearDown(Level.Iteration)
+        public void countSkipped() {
+            skipped = skippedFrames() - skippedBefore;
+        }
+
+        private long skippedFrames() {
+            long total = 0;
+            for (DeltaBroadcaster.Subscription subscription : mine) {
+                total += subscription.getSkippedFrames();
+            }
+            return total;
+        }
+    }
+
+    @Benchmark
+    @Group("broadcast")
+    @GroupThreads(1)
+    public int move(Game game) {
+        GameSession session = game.session;
+        if (session.getMoveCount() >= MAX_GAME_MOVES || session.getLegalMoves(game.moves) == 0) {
+            while (session.getMoveCount() > 0) {
+                session.undo();
+            }
+            session.getLegalMoves(game.moves);
+        }
+        session.play(game.moves.get(game.random.nextInt(game.moves.size())));
+        game.broadcaster.flush();
+        if (game.interval > 0) {
+            long now = System.nanoTime();
+            game.nextMove = Math.max(game.nextMove, now) + game.interval;
+            LockSupport.parkNanos(game.nextMove - now);
+        }
+        return session.getMoveCount();
+    }
+
+    @Benchmark
+    @Group("broadcast")
+    @GroupThreads(4)
+    public long read(Reader reader) {
+        DeltaBroadcaster.Subscription[] mine = reader.mine;
+        for (int i = 0; i < mine.length; i++) {
+            for (BoardFrame frame = mine[i].poll(); frame != null; frame = mine[i].poll()) {
+                frame.applyTo(reader.replicas[i]);
+                reader.frames++;
+                reader.bytes += frame.length();
+            }
+        }
+        return reader.frames;
+    }
+}
@@ -0,0 +1,154 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.server.GameRegistry;
+import cpsc2150.extendedCheckers.server.HostedGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * GameHostingBenchmark compares the two ways a GameRegistry can host games: as GameActors on a shared pool, and
+ * as SynchronizedGames that run each command under the game's lock on the calling thread.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='GameHostingBenchmark [JMH options]'
+ *      for example -PjmhArgs='GameHostingBenchmark -t 32 -p games=4 -p window=8'
+ *
+ * Every client thread, one per processor unless -t says otherwise, looks a random game up in the registry and asks
+ * it either to play a random legal move (restarting the game when it ends) or, as a spectator would, to render the
+ * board; reads is the percentage of renders. window is how many commands each client keeps in flight: with 1 every
+ * client waits for each answer, larger windows let actors queue work while a SynchronizedGame still answers one
+ * command at a time. The games parameter covers both the uncontended case and the hot-game case of fewer games
+ * than clients. One operation is one completed command.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class GameHostingBenchmark {
+
+    private static final int MAX_GAME_MOVES = 200;
+
+    private static final ThreadLocal<MoveBuffer> MOVES = ThreadLocal.withInitial(MoveBuffer::new);
+
+    private static final Function<GameSession, Integer> PLAY = session -> {
+        MoveBuffer moves = MOVES.get();
+        if (session.getMoveCount() >= MAX_GAME_MOVES || session.getLegalMoves(moves) == 0) {
+            while (session.getMoveCount() > 0) {
+                session.undo();
+            }
+            session.getLegalMoves(moves);
+        }
+        session.play(moves.get(ThreadLocalRandom.current().nextInt(moves.size())));
+        return session.getMoveCount();
+    };
+
+    private static final Function<GameSession, Integer> RENDER = session -> session.getBoard().toString().length();
+
+    /**
+     * The registry and its games, shared by every client.
+     */
+    @State(Scope.Benchmark)
+    public static class Hosting {
+
+        @Param({"synchronized", "actors"})
+        public String model;
+
+        @Param({"64", "2"})
+        public int games;
+
+        @Param({"80"})
+        public int reads;
+
+        @Param({"1"})
+        public int window;
+
+        GameRegistry registry;
+        String[] names;
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            if (model.equals("actors")) {
+                pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                        ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+                registry = GameRegistry.actors(pool);
+            } else {
+                registry = GameRegistry.synchronizedGames();
+            }
+            GameConfig config = new GameConfig();
+            names = new String[games];
+            for (int game = 0; game < games; game++) {
+                names[game] = "game-" + game;
+                registry.getOrCreate(names[game], config);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * The commands one client has in flight.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        CompletableFuture<?>[] inFlight;
+        int slot;
+
+        @Setup(Level.Iteration)
+        public void setUp(Hosting hosting) {
+            inFlight = new CompletableFuture<?>[hosting.window];
+            slot = 0;
+        }
+
+        //every command sent in an iteration finishes in it, so none runs on into the next
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            for (CompletableFuture<?> future : inFlight) {
+                if (future != null) {
+                    future.join();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Object command(Hosting hosting, Client client) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // The first window operations of an iteration only fill the window
+        CompletableFuture<?> previous = client.inFlight[client.slot];
+        Object answer = previous == null ? null : previous.join();
+        HostedGame game = hosting.registry.get(hosting.names[random.nextInt(hosting.games)]);
+        client.inFlight[client.slot] = game.ask(random.nextInt(100) < hosting.reads ? RENDER : PLAY);
+        client.slot = (client.slot + 1 == client.inFlight.length) ? 0 : client.slot + 1;
+        return answer;
+    }
+}
@@ -0,0 +1,92 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.fixtures.ListCheckerBoardMem;
+import cpsc2150.extendedCheckers.models.BoardPosition;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.CheckerBoardMem;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemLookupBenchmark measures whatsAtPos latency against the number of pieces on the board for the original
+ * list-based board (ListCheckerBoardMem) and the square-indexed CheckerBoardMem, on every supported dimension.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='MemLookupBenchmark [JMH options]'
+ *
+ * fill is the percentage of dark squares holding a piece, of alternating players. One operation is one whatsAtPos
+ * call, probing every square of the board in turn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemLookupBenchmark {
+
+    private static final long SEED = 2150;
+
+    @Param({"ListCheckerBoardMem", "CheckerBoardMem"})
+    public String board;
+
+    @Param({"8", "10", "12", "14", "16"})
+    public int dimension;
+
+    @Param({"5", "25", "50", "75", "100"})
+    public int fill;
+
+    private ICheckerBoard target;
+    private BoardPosition[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameConfig config = new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, dimension);
+        target = board.equals("ListCheckerBoardMem") ? new ListCheckerBoardMem(config) : new CheckerBoardMem(config);
+
+        List<BoardPosition> whiteTiles = new ArrayList<>();
+        for (int row = 0; row < dimension; row++) {
+            for (int col = row % 2; col < dimension; col += 2) {
+                whiteTiles.add(new BoardPosition(row, col));
+                target.placePiece(new BoardPosition(row, col), CheckerBoard.EMPTY_POS);
+            }
+        }
+        // Both boards get the same pieces on the same squares
+        Collections.shuffle(whiteTiles, new Random(SEED + dimension * 1000L + fill));
+        int pieces = Math.max(1, whiteTiles.size() * fill / 100);
+        for (int i = 0; i < pieces; i++) {
+            target.placePiece(whiteTiles.get(i), i % 2 == 0 ? config.getPlayerOne() : config.getPlayerTwo());
+        }
+
+        probes = new BoardPosition[dimension * dimension];
+        for (int square = 0; square < probes.length; square++) {
+            probes[square] = new BoardPosition(square / dimension, square % dimension);
+        }
+    }
+
+    @Benchmark
+    public char whatsAtPos() {
+        BoardPosition pos = probes[next];
+        next = (next + 1 == probes.length) ? 0 : next + 1;
+        return target.whatsAtPos(pos);
+    }
+}
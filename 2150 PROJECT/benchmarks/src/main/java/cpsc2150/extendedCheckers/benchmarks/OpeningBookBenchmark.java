@@ -0,0 +1,186 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.analytics.CorpusGenerator;
+import cpsc2150.extendedCheckers.engine.OpeningBook;
+import cpsc2150.extendedCheckers.engine.OpeningBookBuilder;
+import cpsc2150.extendedCheckers.engine.SearchEngine;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.records.GameRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpeningBookBenchmark builds an OpeningBook from a synthetic corpus and measures the build and the probes: raw
+ * lookups by position key that hit and that miss, and bestMove on boards, which hashes the position and checks the
+ * book move against the legal moves. A fixed-depth search of the same positions is measured for comparison.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='OpeningBookBenchmark [JMH options]'
+ *      for example -PjmhArgs='OpeningBookBenchmark.find -p games=1000000 -p maxPlies=16'
+ *
+ * The corpus is generated in memory once per trial. One build operation walks every game of it and writes the book
+ * with a minimum of minGames games per move; the probes run against a book written the same way to a temporary
+ * file, which is deleted after the trial. The probed positions are fresh random playouts of up to maxPlies plies,
+ * so most are ones the corpus reached too; findHit cycles through the keys of those that are in the book, and
+ * findMiss through random keys that are not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OpeningBookBenchmark {
+
+    private static final int SAMPLE_POSITIONS = 10_000;
+    private static final int SEARCH_DEPTH = 8;
+    private static final long SEARCH_MILLIS = 60_000;
+    private static final long SEED = 24;
+
+    @Param({"200000"})
+    public int games;
+
+    @Param({"12"})
+    public int maxPlies;
+
+    @Param({"2"})
+    public int minGames;
+
+    private GameRecord[] corpus;
+    private Path path;
+    private Path scratch;
+    private OpeningBook book;
+    private ICheckerBoard[] boards;
+    private char[] players;
+    private char[] opponents;
+    private long[] hits;
+    private long[] misses;
+    private SearchEngine engine;
+    private int nextSample;
+    private int nextHit;
+    private int nextMiss;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(SEED, GameConfig.DEFAULT_DIMENSION);
+        corpus = new GameRecord[games];
+        for (int i = 0; i < games; i++) {
+            corpus[i] = generator.generate(i);
+        }
+        path = Files.createTempFile("openings", ".ckb");
+        scratch = Files.createTempFile("openings", ".ckb");
+        build(path);
+        book = OpeningBook.open(path);
+
+        boards = new ICheckerBoard[SAMPLE_POSITIONS];
+        players = new char[SAMPLE_POSITIONS];
+        opponents = new char[SAMPLE_POSITIONS];
+        SplittableRandom random = new SplittableRandom(SEED);
+        MoveBuffer moves = new MoveBuffer();
+        for (int i = 0; i < SAMPLE_POSITIONS; i++) {
+            GameSession session = new GameSession(new GameConfig());
+            int plies = random.nextInt(maxPlies);
+            while (session.getMoveCount() < plies && session.getLegalMoves(moves) > 0) {
+                session.play(moves.get(random.nextInt(moves.size())));
+            }
+            boards[i] = session.getBoard();
+            players[i] = session.getCurrentPlayer();
+            opponents[i] = session.getConfig().getOpponent(players[i]);
+        }
+        hits = new long[SAMPLE_POSITIONS];
+        int found = 0;
+        for (int i = 0; i < SAMPLE_POSITIONS; i++) {
+            int index = book.find(boards[i]);
+            if (index != OpeningBook.NOT_FOUND) {
+                hits[found++] = book.getKey(index);
+            }
+        }
+        if (found == 0) {
+            throw new IllegalStateException("None of the sampled positions is in the book");
+        }
+        hits = Arrays.copyOf(hits, found);
+        misses = new long[SAMPLE_POSITIONS];
+        for (int i = 0; i < SAMPLE_POSITIONS; i++) {
+            do {
+                misses[i] = random.nextLong();
+            } while (book.find(misses[i]) != OpeningBook.NOT_FOUND);
+        }
+        engine = new SearchEngine();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        book = null;
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(scratch);
+    }
+
+    private int build(Path target) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        for (GameRecord record : corpus) {
+            builder.add(record);
+        }
+        return builder.write(target, minGames);
+    }
+
+    private int nextSample() {
+        int sample = nextSample;
+        nextSample = (sample + 1 == SAMPLE_POSITIONS) ? 0 : sample + 1;
+        return sample;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int build() throws IOException {
+        return build(scratch);
+    }
+
+    @Benchmark
+    public int findHit() {
+        long key = hits[nextHit];
+        nextHit = (nextHit + 1 == hits.length) ? 0 : nextHit + 1;
+        return book.find(key);
+    }
+
+    @Benchmark
+    public int findMiss() {
+        long key = misses[nextMiss];
+        nextMiss = (nextMiss + 1 == misses.length) ? 0 : nextMiss + 1;
+        return book.find(key);
+    }
+
+    @Benchmark
+    public long bestMove() {
+        int sample = nextSample();
+        return book.bestMove(boards[sample], players[sample]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long search() {
+        int sample = nextSample();
+        return engine.search(boards[sample], players[sample], opponents[sample], SEARCH_MILLIS, SEARCH_DEPTH)
+                .getBestMove();
+    }
+}
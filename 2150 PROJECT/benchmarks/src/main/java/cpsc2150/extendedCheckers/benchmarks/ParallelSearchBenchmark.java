@@ -0,0 +1,134 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.engine.ParallelSearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchResult;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParallelSearchBenchmark measures time-to-depth of ParallelSearchEngine against the single-threaded SearchEngine
+ * on a fixed set of 8x8 positions: the starting position and positions reached by seeded random openings.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='ParallelSearchBenchmark [JMH options]'
+ *      for example -PjmhArgs='ParallelSearchBenchmark -p depth=12 -p threads=0,1,8,32'
+ *
+ * threads 0 is the SearchEngine baseline; any other value is a ParallelSearchEngine with that many threads. One
+ * operation searches every position to depth, and the nodes counter totals the nodes searched per iteration. The
+ * speedup at n threads is the baseline's time over the time at n.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelSearchBenchmark {
+
+    private static final int POSITIONS = 8;
+    private static final int OPENING_PLIES = 6;
+    private static final long NO_TIME_LIMIT = Long.MAX_VALUE / 4_000_000L;
+
+    @Param({"10"})
+    public int depth;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private GameConfig config;
+    private List<ICheckerBoard> positions;
+    private SearchEngine baseline;
+    private ParallelSearchEngine engine;
+
+    /**
+     * The nodes searched in one iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Nodes {
+
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = new GameConfig();
+        positions = positions(new Random(2150));
+        if (threads == 0) {
+            baseline = new SearchEngine();
+        } else {
+            engine = new ParallelSearchEngine(threads);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    /**
+     * Returns the starting position followed by positions reached by random openings of OPENING_PLIES moves.
+     */
+    private List<ICheckerBoard> positions(Random random) {
+        List<ICheckerBoard> boards = new ArrayList<>();
+        boards.add(new CheckerBoard(config));
+        MoveBuffer moves = new MoveBuffer();
+        while (boards.size() < POSITIONS) {
+            ICheckerBoard board = new CheckerBoard(config);
+            char player = config.getPlayerOne();
+            for (int ply = 0; ply < OPENING_PLIES && MoveGenerator.generateMoves(board, player, moves) > 0; ply++) {
+                board.applyMove(moves.get(random.nextInt(moves.size())));
+                player = config.getOpponent(player);
+            }
+            board.getUndoJournal().clear();
+            // Every position is searched for player one, so only keep those where it is player one's turn
+            if (player == config.getPlayerOne()) {
+                boards.add(board);
+            }
+        }
+        return boards;
+    }
+
+    @Benchmark
+    public long search(Nodes counter) {
+        long best = 0;
+        for (ICheckerBoard position : positions) {
+            SearchResult result = (engine != null)
+                    ? engine.search(position, config.getPlayerOne(), config.getPlayerTwo(), NO_TIME_LIMIT, depth)
+                    : baseline.search(position, config.getPlayerOne(), config.getPlayerTwo(), NO_TIME_LIMIT, depth);
+            counter.nodes += result.getNodes();
+            best += result.getBestMove();
+        }
+        return best;
+    }
+}
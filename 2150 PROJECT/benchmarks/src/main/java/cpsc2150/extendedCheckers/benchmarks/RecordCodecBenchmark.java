@@ -0,0 +1,101 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.analytics.CorpusGenerator;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.records.GameRecordCodec;
+import cpsc2150.extendedCheckers.records.PdnCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecordCodecBenchmark measures how fast GameRecords are written and read, in the binary form of GameRecordCodec
+ * and as PDN text, over a corpus of random games on 8x8 and 16x16 boards. One operation encodes or decodes one
+ * game, cycling through the corpus.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='RecordCodecBenchmark [JMH options]'
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordCodecBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"8", "16"})
+    public int dimension;
+
+    @Param({"2000"})
+    public int games;
+
+    private GameRecord[] records;
+    private byte[][] binary;
+    private String[] text;
+    private ByteBuffer out;
+    private StringBuilder pdn;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CorpusGenerator generator = new CorpusGenerator(SEED, dimension);
+        records = new GameRecord[games];
+        binary = new byte[games][];
+        text = new String[games];
+        int longest = 0;
+        for (int i = 0; i < games; i++) {
+            records[i] = generator.generate(i);
+            binary[i] = GameRecordCodec.encode(records[i]);
+            text[i] = PdnCodec.toPdn(records[i]);
+            longest = Math.max(longest, binary[i].length);
+        }
+        out = ByteBuffer.allocate(longest);
+        pdn = new StringBuilder();
+    }
+
+    private int nextGame() {
+        int game = next;
+        next = (game + 1 == games) ? 0 : game + 1;
+        return game;
+    }
+
+    @Benchmark
+    public int encode() {
+        out.clear();
+        GameRecordCodec.encode(records[nextGame()], out);
+        return out.position();
+    }
+
+    @Benchmark
+    public GameRecord decode() {
+        return GameRecordCodec.decode(binary[nextGame()]);
+    }
+
+    @Benchmark
+    public int pdnWrite() throws IOException {
+        pdn.setLength(0);
+        PdnCodec.write(records[nextGame()], pdn);
+        return pdn.length();
+    }
+
+    @Benchmark
+    public GameRecord pdnParse() {
+        return PdnCodec.parse(text[nextGame()]);
+    }
+}
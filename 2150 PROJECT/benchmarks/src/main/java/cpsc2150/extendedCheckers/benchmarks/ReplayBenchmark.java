@@ -0,0 +1,93 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.analytics.CorpusGenerator;
+import cpsc2150.extendedCheckers.analytics.CorpusStatistics;
+import cpsc2150.extendedCheckers.analytics.ReplayPipeline;
+import cpsc2150.extendedCheckers.records.GameArchive;
+import cpsc2150.extendedCheckers.records.GameArchiveWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReplayBenchmark generates a synthetic corpus with CorpusGenerator and measures how fast ReplayPipeline replays
+ * it on a given number of threads. Run with the GC profiler, as gradle :benchmarks:jmh does, the allocation rate
+ * shows the heap staying flat as the corpus grows.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='ReplayBenchmark [JMH options]'
+ *      for example -PjmhArgs='ReplayBenchmark -p games=2000000 -p dimensions=8 -p threads=1,16'
+ *
+ * dimensions is a comma-separated list of the board sizes the corpus mixes. The corpus is written to a temporary
+ * file once per trial, on every processor, and deleted afterwards. One operation replays the whole corpus.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+    private static final long SEED = 2150;
+
+    @Param({"500000"})
+    public long games;
+
+    @Param({"8,10"})
+    public String dimensions;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path path;
+    private GameArchive archive;
+    private ReplayPipeline pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] sizes = dimensions.split(",");
+        int[] dims = new int[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            dims[i] = Integer.parseInt(sizes[i].trim());
+        }
+        path = Files.createTempFile("corpus", ".cka");
+        Files.delete(path);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try (GameArchiveWriter writer = GameArchiveWriter.open(path)) {
+            new CorpusGenerator(SEED, dims).writeTo(writer, games, pool);
+        } finally {
+            pool.shutdown();
+        }
+        archive = GameArchive.open(path);
+        pipeline = new ReplayPipeline(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pipeline.close();
+        archive = null;
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public CorpusStatistics replay() {
+        return pipeline.replay(archive);
+    }
+}
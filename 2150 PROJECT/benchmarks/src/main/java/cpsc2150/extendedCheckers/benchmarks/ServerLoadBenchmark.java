@@ -0,0 +1,206 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.models.BoardPosition;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.server.CheckersClient;
+import cpsc2150.extendedCheckers.server.CheckersServer;
+import cpsc2150.extendedCheckers.server.NioGateway;
+import cpsc2150.extendedCheckers.server.ServerGame;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ServerLoadBenchmark loads a CheckersServer or a NioGateway over loopback only: it holds many idle connections
+ * open and, at the same time, has pairs of clients play complete games as fast as the server answers.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='ServerLoadBenchmark [JMH options]'
+ *      for example -PjmhArgs='ServerLoadBenchmark -t 200 -p idle=10000 -p server=nio'
+ *
+ * Every benchmark thread, 100 unless -t says otherwise, is one pair of playing clients. server is "threads" for a
+ * CheckersServer started in this JVM, "nio" for a NioGateway with one game worker per processor, or a port number
+ * to load a server already running on this machine. Each idle connection takes two file descriptors when the
+ * server is in the same JVM, so raise the open file limit (ulimit -n) to match.
+ *
+ * Playing clients keep their own copy of each game, choose a random legal console move for the side to move, send
+ * it and wait for the reply. One operation is one move round trip: throughput gives moves per second and sample
+ * time the percentiles of the round trip. A pair starts its next game between operations, untimed.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(100)
+public class ServerLoadBenchmark {
+
+    private static final int MAX_GAME_MOVES = 300;
+
+    /**
+     * The server under load and its idle connections.
+     */
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"threads", "nio"})
+        public String server;
+
+        @Param({"1000"})
+        public int idle;
+
+        CheckersServer threads;
+        NioGateway gateway;
+        int port;
+        List<Socket> idleSockets;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, InterruptedException {
+            threads = server.equals("threads") ? new CheckersServer(0) : null;
+            gateway = server.equals("nio") ? new NioGateway(0, Runtime.getRuntime().availableProcessors()) : null;
+            port = threads != null ? threads.getPort() : gateway != null ? gateway.getPort() : Integer.parseInt(server);
+
+            idleSockets = new ArrayList<>(idle);
+            for (int i = 0; i < idle; i++) {
+                idleSockets.add(new Socket(InetAddress.getLoopbackAddress(), port));
+            }
+            while ((threads != null && threads.getConnectionCount() < idle) ||
+                    (gateway != null && gateway.getConnectionCount() < idle)) {
+                Thread.sleep(10);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            for (Socket socket : idleSockets) {
+                socket.close();
+            }
+            if (threads != null) {
+                threads.close();
+            }
+            if (gateway != null) {
+                gateway.close();
+            }
+        }
+    }
+
+    /**
+     * Two clients playing one game after another, with their own copy of the current game.
+     */
+    @State(Scope.Thread)
+    public static class Pair {
+
+        CheckersClient one;
+        CheckersClient two;
+        Random random;
+        String prefix;
+        int game;
+        ICheckerBoard mirror;
+        char player;
+        int moves;
+        boolean over;
+
+        @Setup(Level.Trial)
+        public void setUp(Server server, ThreadParams thread) throws IOException {
+            one = new CheckersClient(server.port);
+            two = new CheckersClient(server.port);
+            random = new Random(thread.getThreadIndex());
+            prefix = "load-" + thread.getThreadIndex() + "-";
+            over = true;
+        }
+
+        @Setup(Level.Invocation)
+        public void nextGame() throws IOException {
+            if (!over) {
+                return;
+            }
+            if (mirror != null) {
+                one.command("resign");
+                two.command("resign");
+            }
+            String name = prefix + game++;
+            expect(one.command("join " + name), "OK JOIN");
+            expect(two.command("join " + name), "OK JOIN");
+            mirror = new CheckerBoard(new GameConfig());
+            player = mirror.getConfig().getPlayerOne();
+            moves = 0;
+            over = false;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            one.close();
+            two.close();
+        }
+    }
+
+    @Benchmark
+    public String move(Pair pair) throws IOException {
+        ICheckerBoard mirror = pair.mirror;
+        int[] choice = randomMove(mirror, pair.player, pair.random);
+        if (choice == null) {
+            pair.over = true;
+            return null;
+        }
+        DirectionEnum direction = DirectionEnum.fromOrdinal(choice[2]);
+        CheckersClient mover = pair.player == mirror.getConfig().getPlayerOne() ? pair.one : pair.two;
+        String reply = mover.command("move " + choice[0] + " " + choice[1] + " " + direction);
+        expect(reply, "OK MOVE");
+
+        ServerGame.playTurn(mirror, pair.player, new BoardPosition(choice[0], choice[1]), direction);
+        pair.one.drainEvents();
+        pair.two.drainEvents();
+        pair.over = mirror.checkPlayerWin(pair.player) || ++pair.moves == MAX_GAME_MOVES;
+        pair.player = mirror.getConfig().getOpponent(pair.player);
+        return reply;
+    }
+
+    /**
+     * Returns {row, column, direction ordinal} of a random console move for player, or null if it has none.
+     */
+    private static int[] randomMove(ICheckerBoard board, char player, Random random) {
+        List<int[]> choices = new ArrayList<>();
+        for (int row = 0; row < board.getRowNum(); row++) {
+            for (int col = row % 2; col < board.getColNum(); col += 2) {
+                char piece = board.whatsAtPos(row, col);
+                if (piece == CheckerBoard.EMPTY_POS || Character.toLowerCase(piece) != player) {
+                    continue;
+                }
+                for (DirectionEnum direction : CheckersFE.filterValidDirections(board, player, new BoardPosition(row, col))) {
+                    choices.add(new int[] {row, col, direction.ordinal()});
+                }
+            }
+        }
+        return choices.isEmpty() ? null : choices.get(random.nextInt(choices.size()));
+    }
+
+    private static void expect(String reply, String prefix) {
+        if (!reply.startsWith(prefix)) {
+            throw new IllegalStateException("Expected " + prefix + " but the server sent: " + reply);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.server.GameRegistry;
+import cpsc2150.extendedCheckers.server.HostedGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * SpectatorBenchmark has one player move in a single game as fast as it can while many spectator threads keep
+ * reading the board, and reports how many boards the spectators read and how long each move took.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='SpectatorBenchmark [JMH options]'
+ *      for example -PjmhArgs='SpectatorBenchmark -tg 1,1000 -p model=actor'
+ *
+ * The group runs one mover and 64 spectators unless -tg says otherwise. The game is hosted either as a
+ * SynchronizedGame or as a GameActor, and spectators read it either "locked", by asking the game to render its
+ * board (which waits for the lock or the mailbox like any other command), or from the published BoardSnapshot,
+ * which never waits. Throughput gives reads and moves per second; sample time gives the move latency percentiles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectatorBenchmark {
+
+    private static final int MAX_GAME_MOVES = 200;
+
+    private static final Function<GameSession, String> RENDER = session -> session.getBoard().toString();
+
+    /**
+     * The watched game, shared by its player and its spectators.
+     */
+    @State(Scope.Group)
+    public static class Watched {
+
+        @Param({"synchronized", "actor"})
+        public String model;
+
+        @Param({"locked", "snapshot"})
+        public String read;
+
+        HostedGame game;
+        boolean snapshots;
+        ExecutorService pool;
+        Random random;
+        MoveBuffer moves;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            GameRegistry registry;
+            if (model.equals("actor")) {
+                pool = Executors.newSingleThreadExecutor();
+                registry = GameRegistry.actors(pool);
+            } else {
+                registry = GameRegistry.synchronizedGames();
+            }
+            game = registry.getOrCreate("watched", new GameConfig());
+            snapshots = read.equals("snapshot");
+            random = new Random(1);
+            moves = new MoveBuffer();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("watched")
+    @GroupThreads(1)
+    public int move(Watched watched) {
+        return watched.game.ask(session -> playRandomMove(session, watched.random, watched.moves)).join();
+    }
+
+    @Benchmark
+    @Group("watched")
+    @GroupThreads(64)
+    public String spectate(Watched watched) {
+        return watched.snapshots ? watched.game.getSnapshot().toString() : watched.game.ask(RENDER).join();
+    }
+
+    /**
+     * Plays a random legal move, starting the game over when it ends or runs long.
+     */
+    private static int playRandomMove(GameSession session, Random random, MoveBuffer moves) {
+        if (session.getMoveCount() >= MAX_GAME_MOVES || session.getLegalMoves(moves) == 0) {
+            while (session.getMoveCount() > 0) {
+                session.undo();
+            }
+            session.getLegalMoves(moves);
+        }
+        session.play(moves.get(random.nextInt(moves.size())));
+        return session.getMoveCount();
+    }
+}
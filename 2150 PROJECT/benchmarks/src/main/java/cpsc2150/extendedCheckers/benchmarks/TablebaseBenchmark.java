@@ -0,0 +1,152 @@
+package cpsc2150.extendedCheckers.benchmarks;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.tablebase.EndgameIndex;
+import cpsc2150.extendedCheckers.tablebase.Tablebase;
+import cpsc2150.extendedCheckers.tablebase.TablebaseGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TablebaseBenchmark solves the tablebase of up to a given number of pieces on a given number of threads, and
+ * measures probes of the mapped file: probe on boards, which reads the pieces off the board and ranks them, and
+ * bestMove, which probes the position after every legal move.
+ *
+ * Run with: gradle :benchmarks:jmh -PjmhArgs='TablebaseBenchmark [JMH options]'
+ *      for example -PjmhArgs='TablebaseBenchmark.generate -p pieces=4 -p threads=1,16'
+ *
+ * One generate operation solves every position of up to pieces pieces, so the speedup on n threads is the time on
+ * 1 over the time on n. The probes ignore threads and run against a tablebase solved once per trial on every
+ * processor, over random positions of random materials, half of them with player two to move. The tablebases are
+ * written to temporary files that are deleted after the trial.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+public class TablebaseBenchmark {
+
+    private static final int SAMPLE_POSITIONS = 10_000;
+    private static final long SEED = 25;
+
+    @Param({"3"})
+    public int pieces;
+
+    @Param({"1", "8"})
+    public int threads;
+
+    private Path path;
+    private Path scratch;
+    private Tablebase tablebase;
+
+    /**
+     * The sampled positions one thread probes, in turn.
+     */
+    @State(Scope.Thread)
+    public static class Samples {
+
+        ICheckerBoard[] boards;
+        char[] players;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(TablebaseBenchmark benchmark) {
+            List<EndgameIndex> materials = TablebaseGenerator.materials(benchmark.pieces);
+            GameConfig config = new GameConfig();
+            boards = new ICheckerBoard[SAMPLE_POSITIONS];
+            players = new char[SAMPLE_POSITIONS];
+            SplittableRandom random = new SplittableRandom(SEED);
+            int[] masks = new int[4];
+            char[] pieceChars = {config.getPlayerOne(), config.getPlayerTwo(),
+                    Character.toUpperCase(config.getPlayerOne()), Character.toUpperCase(config.getPlayerTwo())};
+            for (int i = 0; i < SAMPLE_POSITIONS; i++) {
+                EndgameIndex index = materials.get(random.nextInt(materials.size()));
+                index.unrank(random.nextLong(index.size()), masks);
+                boards[i] = new CheckerBoard(config);
+                for (int dark = 0; dark < EndgameIndex.SQUARES; dark++) {
+                    char piece = CheckerBoard.EMPTY_POS;
+                    for (int type = 0; type < pieceChars.length; type++) {
+                        if ((masks[type] & (1 << dark)) != 0) {
+                            piece = pieceChars[type];
+                        }
+                    }
+                    boards[i].placePiece(EndgameIndex.boardSquare(dark), piece);
+                }
+                players[i] = random.nextBoolean() ? config.getPlayerOne() : config.getPlayerTwo();
+            }
+        }
+
+        int next() {
+            int sample = next;
+            next = (sample + 1 == SAMPLE_POSITIONS) ? 0 : sample + 1;
+            return sample;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("endgames", ".ckt");
+        scratch = Files.createTempFile("endgames", ".ckt");
+        try (TablebaseGenerator generator = new TablebaseGenerator(pieces,
+                Runtime.getRuntime().availableProcessors())) {
+            tablebase = generator.generate(path, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tablebase = null;
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(scratch);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Tablebase generate() throws IOException {
+        try (TablebaseGenerator generator = new TablebaseGenerator(pieces, threads)) {
+            return generator.generate(scratch, null);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int probe(Samples samples) {
+        int sample = samples.next();
+        return tablebase.probe(samples.boards[sample], samples.players[sample]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public long bestMove(Samples samples) {
+        int sample = samples.next();
+        return tablebase.bestMove(samples.boards[sample], samples.players[sample]);
+    }
+}
@@ -0,0 +1,172 @@
+package cpsc2150.extendedCheckers.analytics;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.records.GameArchiveWriter;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.records.GameRecorder;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * CorpusGenerator makes a synthetic corpus of games for benchmarking the analytics offline. Every game is a random
+ * playout: the side to move picks uniformly among its legal moves until it has none or getMaxPlies() plies have
+ * been played, which leaves the game unfinished. Game index i uses a random generator seeded from the corpus seed
+ * and i alone, so a game is the same whichever thread makes it and a corpus is the same whatever the thread count.
+ *
+ * Run with: java cpsc2150.extendedCheckers.analytics.CorpusGenerator file games [dimensions] [seed] [threads]
+ *
+ * dimensions is a comma separated list of board sizes, 8 by default; each game's size is picked at random among
+ * them. Games are appended to file, which is created if it does not exist.
+ *
+ * @Invariant [getConfigs() is not empty] AND getMaxPlies() >= 0
+ */
+public final class CorpusGenerator
+{
+    public static final int DEFAULT_MAX_PLIES = 300;
+
+    //games made at once before being appended in order; bounds the memory whatever the corpus size
+    private static final int BATCH_GAMES = 4096;
+
+    private final long seed;
+    private final GameConfig[] configs;
+    private final int maxPlies;
+
+    /**
+     * Creates a generator of games between the default players.
+     *
+     * @param aSeed the seed of the corpus
+     * @param dimensions the board sizes to pick from
+     *
+     * @pre dimensions.length > 0 AND [every dimension is valid for a GameConfig]
+     *
+     * @post getSeed() = aSeed AND getMaxPlies() = DEFAULT_MAX_PLIES
+     */
+    public CorpusGenerator(long aSeed, int... dimensions) {
+        this(aSeed, configsOf(dimensions), DEFAULT_MAX_PLIES);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param aSeed the seed of the corpus
+     * @param someConfigs the configurations to pick from
+     * @param aMaxPlies the number of plies after which a game is left unfinished
+     *
+     * @pre someConfigs.size() > 0 AND aMaxPlies >= 0
+     *
+     * @post getSeed() = aSeed AND getConfigs() = someConfigs AND getMaxPlies() = aMaxPlies
+     */
+    public CorpusGenerator(long aSeed, List<GameConfig> someConfigs, int aMaxPlies) {
+        seed = aSeed;
+        configs = someConfigs.toArray(new GameConfig[0]);
+        maxPlies = aMaxPlies;
+    }
+
+    private static List<GameConfig> configsOf(int[] dimensions) {
+        List<GameConfig> configs = new ArrayList<>();
+        for (int dimension : dimensions) {
+            configs.add(new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, dimension));
+        }
+        return configs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public List<GameConfig> getConfigs() {
+        return List.of(configs);
+    }
+
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * Returns game index of the corpus.
+     *
+     * @pre index >= 0
+     *
+     * @post [generate = the same record for every call with the same index]
+     */
+    public GameRecord generate(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index)));
+        GameSession session = new GameSession(configs[random.nextInt(configs.length)]);
+        GameRecorder recorder = GameRecorder.attach(session.getBoard());
+        MoveBuffer moves = new MoveBuffer();
+        while (session.getMoveCount() < maxPlies && session.getLegalMoves(moves) > 0) {
+            session.play(moves.get(random.nextInt(moves.size())));
+        }
+        return recorder.toRecord(session.getWinner());
+    }
+
+    /**
+     * Appends games 0 .. games - 1 of the corpus to writer, in index order. Batches of games are made in parallel
+     * on pool and appended as each batch completes.
+     *
+     * @return the number of games appended
+     *
+     * @throws IOException if writing fails
+     *
+     * @pre writer != null AND games >= 0 AND pool != null
+     *
+     * @post writer.getGameCount() = #writer.getGameCount() + games
+     */
+    public long writeTo(GameArchiveWriter writer, long games, ForkJoinPool pool) throws IOException {
+        GameRecord[] batch = new GameRecord[BATCH_GAMES];
+        for (long first = 0; first < games; first += BATCH_GAMES) {
+            long batchStart = first;
+            int count = (int) Math.min(BATCH_GAMES, games - first);
+            pool.submit(() -> IntStream.range(0, count).parallel()
+                    .forEach(i -> batch[i] = generate(batchStart + i))).join();
+            for (int i = 0; i < count; i++) {
+                writer.append(batch[i]);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * The SplitMix64 finaliser: spreads nearby values such as consecutive indices over all 64 bits.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: CorpusGenerator file games [dimensions] [seed] [threads]");
+            return;
+        }
+        long games = Long.parseLong(args[1]);
+        int[] dimensions = args.length > 2 ?
+                Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray() :
+                new int[] {GameConfig.DEFAULT_DIMENSION};
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        CorpusGenerator generator = new CorpusGenerator(seed, dimensions);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try (GameArchiveWriter writer = GameArchiveWriter.open(Paths.get(args[0]))) {
+            generator.writeTo(writer, games, pool);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "generated %,d games on %d threads in %.2f s: %,.0f games/s%n", games,
+                threads, seconds, games / seconds);
+    }
+}
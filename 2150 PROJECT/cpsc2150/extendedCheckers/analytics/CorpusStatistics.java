@@ -0,0 +1,98 @@
+package cpsc2150.extendedCheckers.analytics;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CorpusStatistics holds the ReplayStatistics of a corpus, one per board size. Its size does not depend on how
+ * many games were counted, so partial results for any number of chunks can be kept and merged.
+ *
+ * @Corresponds The CorpusStatistics object (self) = getBoardSizes(), the totals of every board size with games
+ *
+ * @Invariant [no two entries of getBoardSizes() have the same dimension]
+ */
+public final class CorpusStatistics
+{
+    private final ReplayStatistics[] byDimension = new ReplayStatistics[GameConfig.MAX_DIMENSION + 1];
+
+    /**
+     * Returns the statistics of boards of dimension, creating empty ones if there are none yet.
+     *
+     * @pre GameConfig.MIN_DIMENSION <= dimension <= GameConfig.MAX_DIMENSION
+     */
+    ReplayStatistics forDimension(int dimension) {
+        if (byDimension[dimension] == null) {
+            byDimension[dimension] = new ReplayStatistics(dimension);
+        }
+        return byDimension[dimension];
+    }
+
+    /**
+     * Returns the statistics of boards of dimension, or null if no game of that size was counted.
+     */
+    public ReplayStatistics get(int dimension) {
+        return (dimension >= 0 && dimension < byDimension.length) ? byDimension[dimension] : null;
+    }
+
+    /**
+     * Returns the statistics of every board size with games, smallest board first.
+     */
+    public List<ReplayStatistics> getBoardSizes() {
+        List<ReplayStatistics> sizes = new ArrayList<>();
+        for (ReplayStatistics stats : byDimension) {
+            if (stats != null) {
+                sizes.add(stats);
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the number of games over every board size.
+     */
+    public long getGames() {
+        long games = 0;
+        for (ReplayStatistics stats : byDimension) {
+            if (stats != null) {
+                games += stats.getGames();
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Adds other's totals to these, board size by board size.
+     *
+     * @pre other != null
+     */
+    public void merge(CorpusStatistics other) {
+        for (ReplayStatistics stats : other.byDimension) {
+            if (stats != null) {
+                forDimension(stats.getDimension()).merge(stats);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CorpusStatistics &&
+                Arrays.equals(byDimension, ((CorpusStatistics) other).byDimension);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(byDimension);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (ReplayStatistics stats : getBoardSizes()) {
+            report.append(stats);
+        }
+        return report.toString();
+    }
+}
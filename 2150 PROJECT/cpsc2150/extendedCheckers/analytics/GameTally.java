@@ -0,0 +1,64 @@
+package cpsc2150.extendedCheckers.analytics;
+
+import cpsc2150.extendedCheckers.models.BoardObserver;
+import cpsc2150.extendedCheckers.models.GameConfig;
+
+/**
+ * GameTally is the observer of a board games are replayed on. It counts the steps of the game being replayed,
+ * adds every capture and crowning to the statistics of the board's size as it happens, and adds the game itself
+ * when gameOver is called.
+ *
+ * @Corresponds The GameTally object (self) = the game replayed on its board since the last gameOver
+ */
+final class GameTally implements BoardObserver
+{
+    private final ReplayStatistics stats;
+    private final GameConfig config;
+
+    private int steps = 0;
+    private int firstCrownStep = -1;
+
+    /**
+     * @pre aStats.getDimension() = aConfig.getDimension()
+     */
+    GameTally(ReplayStatistics aStats, GameConfig aConfig) {
+        stats = aStats;
+        config = aConfig;
+    }
+
+    @Override
+    public void pieceMoved(int from, int to, char piece) {
+        steps++;
+    }
+
+    @Override
+    public void pieceJumped(int from, int captured, int to, char piece, char capturedPiece) {
+        steps++;
+        stats.addCapture(captured);
+    }
+
+    @Override
+    public void pieceCrowned(int square, char king) {
+        stats.addCrown(steps);
+        if (firstCrownStep < 0) {
+            firstCrownStep = steps;
+        }
+    }
+
+    @Override
+    public void moveUndone() {
+        //replays only go forward
+    }
+
+    /**
+     * Adds the game replayed since the last call and starts counting the next one.
+     *
+     * @param winner the lowercase character of the winner, or CheckerBoard.EMPTY_POS for an unfinished game
+     */
+    void gameOver(char winner) {
+        int side = (winner == config.getPlayerOne()) ? 1 : (winner == config.getPlayerTwo()) ? 2 : 0;
+        stats.addGame(steps, side, firstCrownStep);
+        steps = 0;
+        firstCrownStep = -1;
+    }
+}
@@ -0,0 +1,181 @@
+package cpsc2150.extendedCheckers.analytics;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.records.GameArchive;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * ReplayPipeline replays every game of a GameArchive through movePiece, jumpPiece and crownPiece and adds up
+ * CorpusStatistics, on a ForkJoinPool of its own.
+ *
+ * The id range is split in halves until the pieces are at most getGrain() games long. Each piece is scanned
+ * straight from the mapped archive onto boards of its own, one per configuration, whose GameTally observers count
+ * into statistics of its own, and the statistics of the two halves are merged on the way back up. Workers share
+ * nothing but the read-only archive, so the work scales with the threads, and the memory in use is a few boards and
+ * statistics per thread whatever the size of the corpus.
+ *
+ * A pipeline runs any number of replays, one after another or at once; close it to stop its threads.
+ *
+ * Run with: java cpsc2150.extendedCheckers.analytics.ReplayPipeline archive [threads]
+ *
+ * @Invariant getThreadCount() >= 1 AND getGrain() >= 1
+ */
+public final class ReplayPipeline implements AutoCloseable
+{
+    /**
+     * The default number of games a worker replays without splitting further.
+     */
+    public static final int DEFAULT_GRAIN = 4096;
+
+    private final int threads;
+    private final int grain;
+    private final Function<GameConfig, ICheckerBoard> boardFactory;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a pipeline replaying on CheckerBoards on the given number of threads.
+     *
+     * @pre aThreads >= 1
+     *
+     * @post getThreadCount() = aThreads AND getGrain() = DEFAULT_GRAIN
+     */
+    public ReplayPipeline(int aThreads) {
+        this(aThreads, DEFAULT_GRAIN, CheckerBoard::new);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param aThreads the number of worker threads
+     * @param aGrain the number of games a worker replays without splitting further
+     * @param aBoardFactory creates a board in the starting position for a configuration; called by the workers
+     *                      for every piece of the archive they replay, so it must be thread-safe
+     *
+     * @pre aThreads >= 1 AND aGrain >= 1 AND aBoardFactory != null
+     *
+     * @post getThreadCount() = aThreads AND getGrain() = aGrain
+     */
+    public ReplayPipeline(int aThreads, int aGrain, Function<GameConfig, ICheckerBoard> aBoardFactory) {
+        threads = aThreads;
+        grain = aGrain;
+        boardFactory = aBoardFactory;
+        pool = new ForkJoinPool(aThreads);
+    }
+
+    public int getThreadCount() {
+        return threads;
+    }
+
+    public int getGrain() {
+        return grain;
+    }
+
+    /**
+     * Replays every game of archive.
+     *
+     * @see #replay(GameArchive, long, long)
+     */
+    public CorpusStatistics replay(GameArchive archive) {
+        return replay(archive, 0, archive.size());
+    }
+
+    /**
+     * Replays the games with ids from .. to - 1 on the pipeline's threads and adds up their statistics.
+     *
+     * @param archive the games
+     * @param from the first id to replay
+     * @param to one past the last id to replay
+     *
+     * @return the statistics of the games, the same whatever the thread count and grain
+     *
+     * @throws IndexOutOfBoundsException unless 0 <= from <= to <= archive.size()
+     *
+     * @pre archive != null
+     *
+     * @post replay.getGames() = to - from
+     */
+    public CorpusStatistics replay(GameArchive archive, long from, long to) {
+        if (from < 0 || from > to || to > archive.size()) {
+            throw new IndexOutOfBoundsException("Games " + from + " .. " + to + " of " + archive.size());
+        }
+        return pool.invoke(new ReplayTask(archive, from, to));
+    }
+
+    /**
+     * Replays the games with ids from .. to - 1 on the calling thread.
+     *
+     * @pre archive != null AND boardFactory != null AND 0 <= from <= to <= archive.size()
+     */
+    public static CorpusStatistics replaySequential(GameArchive archive, long from, long to,
+                                                    Function<GameConfig, ICheckerBoard> boardFactory) {
+        CorpusStatistics stats = new CorpusStatistics();
+        archive.scan(from, to, config -> {
+            ICheckerBoard board = boardFactory.apply(config);
+            board.setObserver(new GameTally(stats.forDimension(config.getDimension()), config));
+            return board;
+        }, (id, board, steps, winner) -> ((GameTally) board.getObserver()).gameOver(winner));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Replays one range of ids: on its own thread when it is at most grain games long, by forking its first half
+     * and replaying its second half itself otherwise.
+     */
+    private final class ReplayTask extends RecursiveTask<CorpusStatistics>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final GameArchive archive;
+        private final long from;
+        private final long to;
+
+        ReplayTask(GameArchive anArchive, long aFrom, long aTo) {
+            archive = anArchive;
+            from = aFrom;
+            to = aTo;
+        }
+
+        @Override
+        protected CorpusStatistics compute() {
+            if (to - from <= grain) {
+                return replaySequential(archive, from, to, boardFactory);
+            }
+            long middle = (from + to) >>> 1;
+            ReplayTask first = new ReplayTask(archive, from, middle);
+            first.fork();
+            CorpusStatistics stats = new ReplayTask(archive, middle, to).compute();
+            stats.merge(first.join());
+            return stats;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayPipeline archive [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameArchive archive = GameArchive.open(Paths.get(args[0]));
+        try (ReplayPipeline pipeline = new ReplayPipeline(threads)) {
+            long start = System.nanoTime();
+            CorpusStatistics stats = pipeline.replay(archive);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.print(stats);
+            System.out.printf(Locale.ROOT, "replayed %,d games on %d threads in %.2f s: %,.0f games/s%n",
+                    stats.getGames(), threads, seconds, stats.getGames() / seconds);
+        }
+    }
+}
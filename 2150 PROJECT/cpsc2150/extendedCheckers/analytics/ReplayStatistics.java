@@ -0,0 +1,242 @@
+package cpsc2150.extendedCheckers.analytics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * ReplayStatistics adds up what happened in the replayed games of one board size: who won, how long the games ran,
+ * when men were crowned and on which squares pieces were captured. Games are counted in steps, one per movePiece or
+ * jumpPiece, so a double jump is two steps.
+ *
+ * An object is filled by one thread at a time; statistics gathered on different threads are combined with merge,
+ * which is associative and commutative, so any split of a corpus adds up to the same totals.
+ *
+ * @Corresponds The ReplayStatistics object (self) = the totals over getGames() games on getDimension() boards
+ *
+ * @Invariant getPlayerOneWins() + getPlayerTwoWins() <= getGames() AND getCrownedGames() <= getGames() AND
+ *            getCaptures() = [the sum of getCaptureHeatmap()]
+ */
+public final class ReplayStatistics
+{
+    private final int dimension;
+
+    private long games;
+    private long playerOneWins;
+    private long playerTwoWins;
+    private long totalSteps;
+    private long longestGame;
+
+    private long crowns;
+    private long crownStepSum;
+    private long crownedGames;
+    private long firstCrownStepSum;
+
+    private long captures;
+    private final long[] captureHeatmap;
+
+    /**
+     * Creates empty statistics for boards of the given size.
+     *
+     * @post getDimension() = aDimension AND getGames() = 0
+     */
+    public ReplayStatistics(int aDimension) {
+        dimension = aDimension;
+        captureHeatmap = new long[aDimension * aDimension];
+    }
+
+    /**
+     * Counts one finished replay.
+     *
+     * @param steps the number of steps the game took
+     * @param winnerSide 1 if player one won, 2 if player two won, 0 if the game was unfinished
+     * @param firstCrownStep the number of steps played when the first man was crowned, or -1 if none was
+     *
+     * @pre steps >= 0 AND 0 <= winnerSide <= 2
+     */
+    public void addGame(int steps, int winnerSide, int firstCrownStep) {
+        games++;
+        if (winnerSide == 1) {
+            playerOneWins++;
+        } else if (winnerSide == 2) {
+            playerTwoWins++;
+        }
+        totalSteps += steps;
+        longestGame = Math.max(longestGame, steps);
+        if (firstCrownStep >= 0) {
+            crownedGames++;
+            firstCrownStepSum += firstCrownStep;
+        }
+    }
+
+    /**
+     * Counts a piece captured on square.
+     *
+     * @pre 0 <= square < getDimension() * getDimension()
+     */
+    public void addCapture(int square) {
+        captures++;
+        captureHeatmap[square]++;
+    }
+
+    /**
+     * Counts a man crowned after step steps of its game.
+     */
+    public void addCrown(int step) {
+        crowns++;
+        crownStepSum += step;
+    }
+
+    /**
+     * Adds other's totals to these.
+     *
+     * @pre other.getDimension() = getDimension()
+     *
+     * @post [every total of self = #self's total + other's total]
+     */
+    public void merge(ReplayStatistics other) {
+        games += other.games;
+        playerOneWins += other.playerOneWins;
+        playerTwoWins += other.playerTwoWins;
+        totalSteps += other.totalSteps;
+        longestGame = Math.max(longestGame, other.longestGame);
+        crowns += other.crowns;
+        crownStepSum += other.crownStepSum;
+        crownedGames += other.crownedGames;
+        firstCrownStepSum += other.firstCrownStepSum;
+        captures += other.captures;
+        for (int square = 0; square < captureHeatmap.length; square++) {
+            captureHeatmap[square] += other.captureHeatmap[square];
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getPlayerOneWins() {
+        return playerOneWins;
+    }
+
+    public long getPlayerTwoWins() {
+        return playerTwoWins;
+    }
+
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+
+    public long getLongestGame() {
+        return longestGame;
+    }
+
+    public long getCrowns() {
+        return crowns;
+    }
+
+    public long getCrownedGames() {
+        return crownedGames;
+    }
+
+    public long getCaptures() {
+        return captures;
+    }
+
+    /**
+     * Returns the number of pieces captured on each square, indexed by square.
+     */
+    public long[] getCaptureHeatmap() {
+        return captureHeatmap.clone();
+    }
+
+    /**
+     * Returns the share of games player one won, 0 if there are no games.
+     */
+    public double getPlayerOneWinRate() {
+        return ratio(playerOneWins, games);
+    }
+
+    /**
+     * Returns the share of games player two won, 0 if there are no games.
+     */
+    public double getPlayerTwoWinRate() {
+        return ratio(playerTwoWins, games);
+    }
+
+    /**
+     * Returns the mean number of steps per game.
+     */
+    public double getAverageSteps() {
+        return ratio(totalSteps, games);
+    }
+
+    /**
+     * Returns the mean number of steps played before a game's first crowning, over the games with one.
+     */
+    public double getAverageFirstCrownStep() {
+        return ratio(firstCrownStepSum, crownedGames);
+    }
+
+    /**
+     * Returns the mean number of steps played before a crowning, over all crownings.
+     */
+    public double getAverageCrownStep() {
+        return ratio(crownStepSum, crowns);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : (double) part / whole;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ReplayStatistics)) {
+            return false;
+        }
+        ReplayStatistics stats = (ReplayStatistics) other;
+        return dimension == stats.dimension && games == stats.games && playerOneWins == stats.playerOneWins &&
+                playerTwoWins == stats.playerTwoWins && totalSteps == stats.totalSteps &&
+                longestGame == stats.longestGame && crowns == stats.crowns && crownStepSum == stats.crownStepSum &&
+                crownedGames == stats.crownedGames && firstCrownStepSum == stats.firstCrownStepSum &&
+                captures == stats.captures && Arrays.equals(captureHeatmap, stats.captureHeatmap);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(games * 31 + totalSteps) * 31 + Arrays.hashCode(captureHeatmap);
+    }
+
+    /**
+     * Returns a report of the totals, with the capture heatmap drawn as a grid of each square's share of all
+     * captures in tenths of a percent.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%dx%d: %,d games, player one won %.1f%%, player two won %.1f%%, " +
+                        "%.1f%% unfinished%n", dimension, dimension, games, 100 * getPlayerOneWinRate(),
+                100 * getPlayerTwoWinRate(), 100 * ratio(games - playerOneWins - playerTwoWins, games)));
+        report.append(String.format(Locale.ROOT, "  %.1f steps per game (longest %,d), %.2f captures per game%n",
+                getAverageSteps(), longestGame, ratio(captures, games)));
+        report.append(String.format(Locale.ROOT, "  %.2f crowns per game, %.1f%% of games crowned a man, first " +
+                        "crown after %.1f steps, crowns on average after %.1f steps%n", ratio(crowns, games),
+                100 * ratio(crownedGames, games), getAverageFirstCrownStep(), getAverageCrownStep()));
+        report.append("  captures per square (per mille):\n");
+        for (int row = 0; row < dimension; row++) {
+            report.append("  ");
+            for (int col = 0; col < dimension; col++) {
+                if ((row + col) % 2 != 0) {
+                    report.append("    .");
+                } else {
+                    report.append(String.format(Locale.ROOT, "%5d",
+                            Math.round(1000 * ratio(captureHeatmap[row * dimension + col], captures))));
+                }
+            }
+            report.append('\n');
+        }
+        return report.toString();
+    }
+}
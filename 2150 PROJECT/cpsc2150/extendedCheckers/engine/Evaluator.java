@@ -0,0 +1,28 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+
+/**
+ * Evaluator scores a position for the search engine. SearchEngine only calls it at the leaves of its search, once
+ * there is no capture left to resolve, so an implementation can assume the position is quiet.
+ *
+ * Implementations are called millions of times per move and should read the board through the primitive
+ * whatsAtPos(int) API without creating objects.
+ */
+public interface Evaluator
+{
+    /**
+     * Returns the value of the position from the point of view of player.
+     *
+     * @param board the position to score
+     * @param player the lowercase character of the side the score is for
+     *
+     * @return a score in centi-men: positive when player is better, negative when the opponent is, and
+     *         |evaluate| < SearchEngine.WIN_SCORE - SearchEngine.MAX_PLY
+     *
+     * @pre player is the lowercase character of a player on the board
+     *
+     * @post board = #board
+     */
+    public int evaluate(ICheckerBoard board, char player);
+}
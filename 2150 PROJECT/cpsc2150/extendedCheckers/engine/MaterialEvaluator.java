@@ -0,0 +1,53 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+/**
+ * MaterialEvaluator is the default Evaluator: it counts material, with kings worth more than men, and gives men a
+ * small bonus for every row they have advanced towards being crowned.
+ *
+ * @Invariant MAN_VALUE > 0 AND KING_VALUE > MAN_VALUE AND ADVANCE_BONUS >= 0
+ */
+public class MaterialEvaluator implements Evaluator
+{
+    public static final int MAN_VALUE = 100;
+    public static final int KING_VALUE = 160;
+    public static final int ADVANCE_BONUS = 2;
+
+    /**
+     * Returns (player's material - opponent's material) plus the difference in how far each side's men have
+     * advanced.
+     *
+     * @pre player is the lowercase character of a player on the board
+     *
+     * @post evaluate = [material and advancement of player minus that of the opponent] AND board = #board
+     */
+    @Override
+    public int evaluate(ICheckerBoard board, char player) {
+        int dimension = board.getColNum();
+        int lastRow = board.getRowNum() - 1;
+        boolean playerMovesSouth = board.getViableDirections().get(player).contains(DirectionEnum.SE);
+        char king = Character.toUpperCase(player);
+        int score = 0;
+
+        // Pieces only ever stand on the white tiles, where (row + column) is even
+        for (int row = 0; row <= lastRow; row++) {
+            int southAdvance = row * ADVANCE_BONUS;
+            int northAdvance = (lastRow - row) * ADVANCE_BONUS;
+            for (int col = row % 2; col < dimension; col += 2) {
+                char piece = board.whatsAtPos(row * dimension + col);
+                if (piece == player) {
+                    score += MAN_VALUE + (playerMovesSouth ? southAdvance : northAdvance);
+                } else if (piece == king) {
+                    score += KING_VALUE;
+                } else if (Character.isUpperCase(piece)) {
+                    score -= KING_VALUE;
+                } else if (Character.isLowerCase(piece)) {
+                    score -= MAN_VALUE + (playerMovesSouth ? northAdvance : southAdvance);
+                }
+            }
+        }
+        return score;
+    }
+}
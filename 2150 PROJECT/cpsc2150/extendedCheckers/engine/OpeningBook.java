@@ -0,0 +1,240 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OpeningBook answers early positions from a book file written by OpeningBookBuilder, without searching. The file
+ * is mapped read-only, so opening it reads nothing up front, probes touch only the pages they land on, and every
+ * JVM that opens the same file shares one copy of it in the page cache.
+ *
+ * File layout (big-endian):
+ *      header   FILE_MAGIC, VERSION, max plies, min games, entry count (long), games built from (long)
+ *      entries  ENTRY_BYTES each, sorted by position key, and within a key by games played, most first:
+ *               position key (long), packed move (long), games, wins, draws, losses (ints)
+ * A position key is the board's position hash, which includes the side to move; wins, draws and losses are
+ * counted for the side that played the move. A position is found by binary search for its first entry.
+ *
+ * Reading is thread-safe.
+ *
+ * @Corresponds The OpeningBook object (self) = the size() entries of its file
+ *
+ * @Invariant [entries are sorted by key, then by games descending]
+ */
+public final class OpeningBook
+{
+    public static final int NOT_FOUND = -1;
+
+    static final int FILE_MAGIC = 0x434B424B;    // "CKBK"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int ENTRY_BYTES = 32;
+
+    static final int HEADER_MAX_PLIES = 8;
+    static final int HEADER_MIN_GAMES = 12;
+    static final int HEADER_ENTRIES = 16;
+    static final int HEADER_GAMES = 24;
+
+    static final int ENTRY_MOVE = 8;
+    static final int ENTRY_GAMES = 16;
+    static final int ENTRY_WINS = 20;
+    static final int ENTRY_DRAWS = 24;
+    static final int ENTRY_LOSSES = 28;
+
+    private final ByteBuffer entries;
+    private final int size;
+    private final int maxPlies;
+    private final int minGames;
+    private final long gamesBuiltFrom;
+
+    private OpeningBook(ByteBuffer anEntries, int aSize, int aMaxPlies, int aMinGames, long aGames) {
+        entries = anEntries;
+        size = aSize;
+        maxPlies = aMaxPlies;
+        minGames = aMinGames;
+        gamesBuiltFrom = aGames;
+    }
+
+    /**
+     * Maps the book at path.
+     *
+     * @throws IOException if the file cannot be read or is not a complete book
+     *
+     * @pre path != null
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException(path + " is not an opening book");
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            long count = map.getLong(HEADER_ENTRIES);
+            if (map.getInt(0) != FILE_MAGIC || map.getInt(4) != VERSION ||
+                    count != (fileSize - HEADER_BYTES) / ENTRY_BYTES || (fileSize - HEADER_BYTES) % ENTRY_BYTES != 0) {
+                throw new IOException(path + " is not an opening book of version " + VERSION);
+            }
+            ByteBuffer entries = map.position(HEADER_BYTES).slice();
+            return new OpeningBook(entries, (int) count, map.getInt(HEADER_MAX_PLIES), map.getInt(HEADER_MIN_GAMES),
+                    map.getLong(HEADER_GAMES));
+        }
+    }
+
+    /**
+     * Returns the number of entries, one per position and move.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of plies from the start of each game that went into the book.
+     */
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * Returns the number of games a move needed to be kept in the book.
+     */
+    public int getMinGames() {
+        return minGames;
+    }
+
+    /**
+     * Returns the number of games the book was built from.
+     */
+    public long getGamesBuiltFrom() {
+        return gamesBuiltFrom;
+    }
+
+    /**
+     * Returns the first entry of the position, its most played move.
+     *
+     * @param board the position, with its side to move
+     *
+     * @return the index of the entry, or NOT_FOUND if the position is not in the book
+     *
+     * @pre board != null
+     *
+     * @post [find .. find + getMoveCount(find) - 1 are the entries of the position] AND self = #self
+     */
+    public int find(ICheckerBoard board) {
+        return find(board.getPositionHash());
+    }
+
+    /**
+     * Returns the first entry with the given position key, or NOT_FOUND if there is none.
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (low < size && getKey(low) == key) ? low : NOT_FOUND;
+    }
+
+    /**
+     * Returns the number of moves the book has for the position whose first entry is index.
+     *
+     * @pre 0 <= index < size() AND [index is the first entry of its position]
+     */
+    public int getMoveCount(int index) {
+        long key = getKey(index);
+        int end = index + 1;
+        while (end < size && getKey(end) == key) {
+            end++;
+        }
+        return end - index;
+    }
+
+    /**
+     * Returns the most played book move for the position that is legal on board, so a hash collision can never
+     * make the book suggest an illegal move.
+     *
+     * @param board the position
+     * @param player the lowercase character of the side to move
+     *
+     * @return the packed move, or Move.NO_MOVE if the book has none for the position
+     *
+     * @pre board != null AND board.isSecondPlayerToMove() = (player == board.getConfig().getPlayerTwo())
+     */
+    public long bestMove(ICheckerBoard board, char player) {
+        int first = find(board);
+        if (first == NOT_FOUND) {
+            return Move.NO_MOVE;
+        }
+        MoveBuffer legal = new MoveBuffer();
+        MoveGenerator.generateMoves(board, player, legal);
+        int count = getMoveCount(first);
+        for (int index = first; index < first + count; index++) {
+            long move = getMove(index);
+            for (int i = 0; i < legal.size(); i++) {
+                if (legal.get(i) == move) {
+                    return move;
+                }
+            }
+        }
+        return Move.NO_MOVE;
+    }
+
+    public long getKey(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    public long getMove(int index) {
+        return entries.getLong(index * ENTRY_BYTES + ENTRY_MOVE);
+    }
+
+    public int getGames(int index) {
+        return entries.getInt(index * ENTRY_BYTES + ENTRY_GAMES);
+    }
+
+    /**
+     * Returns the number of games the side that played the entry's move went on to win.
+     */
+    public int getWins(int index) {
+        return entries.getInt(index * ENTRY_BYTES + ENTRY_WINS);
+    }
+
+    /**
+     * Returns the number of games after the entry's move that were drawn or left unfinished.
+     */
+    public int getDraws(int index) {
+        return entries.getInt(index * ENTRY_BYTES + ENTRY_DRAWS);
+    }
+
+    public int getLosses(int index) {
+        return entries.getInt(index * ENTRY_BYTES + ENTRY_LOSSES);
+    }
+
+    /**
+     * Returns a one-line description of the entry's move and results.
+     */
+    public String describe(int index, int dimension) {
+        int games = getGames(index);
+        return Move.toString(getMove(index), dimension) + " (" + games + " games, " +
+                Math.round(100.0 * getWins(index) / games) + "% won, " +
+                Math.round(100.0 * getLosses(index) / games) + "% lost)";
+    }
+
+    @Override
+    public String toString() {
+        return "OpeningBook[" + size + " entries, " + maxPlies + " plies of " + gamesBuiltFrom + " games]";
+    }
+}
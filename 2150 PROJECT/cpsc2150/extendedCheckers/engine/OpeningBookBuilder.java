@@ -0,0 +1,356 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.records.GameArchive;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.records.PdnCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OpeningBookBuilder walks the first plies of recorded games and counts, for every position reached and move
+ * played from it, how often the move was played and how the games went for the side that played it. write then
+ * stores the counts as a sorted OpeningBook file.
+ *
+ * Each game is replayed move by move through a GameSession: the record's next steps are matched against the legal
+ * moves of the position, so a multi-jump counts as one move. A game whose steps stop matching a legal move (a
+ * console game that skipped a forced capture, for example) is only counted up to that point.
+ *
+ * The counts live in an open-addressing table of parallel arrays that grows as needed, so adding games creates no
+ * objects per position. A builder is not thread-safe.
+ *
+ * Run with: java cpsc2150.extendedCheckers.engine.OpeningBookBuilder book maxPlies minGames games...
+ *
+ * games are GameArchive files (.cka) or PDN files (anything else).
+ *
+ * @Corresponds The OpeningBookBuilder object (self) = the counts over the first getMaxPlies() plies of the
+ *              getGameCount() games added
+ *
+ * @Invariant getMaxPlies() >= 1 AND getEntryCount() <= [the capacity of the table] * 3 / 4
+ */
+public final class OpeningBookBuilder
+{
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private final int maxPlies;
+    private final Map<GameConfig, GameSession> sessions = new HashMap<>();
+    private final MoveBuffer legal = new MoveBuffer();
+
+    //slot i holds the counts of move moves[i] from position keys[i]; games[i] = 0 marks an empty slot
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] moves = new long[INITIAL_CAPACITY];
+    private int[] games = new int[INITIAL_CAPACITY];
+    private int[] wins = new int[INITIAL_CAPACITY];
+    private int[] draws = new int[INITIAL_CAPACITY];
+    private int[] losses = new int[INITIAL_CAPACITY];
+    private int entryCount = 0;
+
+    private long gameCount = 0;
+
+    /**
+     * Creates an empty builder.
+     *
+     * @param aMaxPlies the number of plies from the start of each game to count
+     *
+     * @pre aMaxPlies >= 1
+     *
+     * @post getMaxPlies() = aMaxPlies AND getGameCount() = 0 AND getEntryCount() = 0
+     */
+    public OpeningBookBuilder(int aMaxPlies) {
+        maxPlies = aMaxPlies;
+    }
+
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Returns the number of distinct positions and moves counted so far.
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Counts the first getMaxPlies() moves of record.
+     *
+     * @return the number of moves counted, fewer than getMaxPlies() if the game was shorter or its steps stopped
+     *         matching a legal move
+     *
+     * @pre record != null
+     *
+     * @post getGameCount() = #getGameCount() + 1
+     */
+    public int add(GameRecord record) {
+        GameSession session = sessions.computeIfAbsent(record.getConfig(),
+                config -> new GameSession(new CheckerBoard(config)));
+        ICheckerBoard board = session.getBoard();
+        char winner = record.getWinner();
+
+        int step = 0;
+        int plies = 0;
+        while (plies < maxPlies && step < record.getStepCount()) {
+            long move = matchMove(session, record, step);
+            if (move == Move.NO_MOVE) {
+                break;
+            }
+            char player = session.getCurrentPlayer();
+            count(board.getPositionHash(), move, winner == player ? 1 :
+                    winner == CheckerBoard.EMPTY_POS ? 0 : -1);
+            session.play(move);
+            step += Move.getStepCount(move);
+            plies++;
+        }
+        // Back to the starting position for the next game of this configuration
+        while (session.getMoveCount() > 0) {
+            session.undo();
+        }
+        gameCount++;
+        return plies;
+    }
+
+    /**
+     * Returns the legal move of session whose steps are the record's steps from step on, or Move.NO_MOVE.
+     */
+    private long matchMove(GameSession session, GameRecord record, int step) {
+        int from = GameRecord.stepSquare(record.getStep(step));
+        session.getLegalMoves(legal);
+        for (int i = 0; i < legal.size(); i++) {
+            long move = legal.get(i);
+            int steps = Move.getStepCount(move);
+            if (Move.getFrom(move) != from || step + steps > record.getStepCount()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int j = 0; j < steps && matches; j++) {
+                matches = GameRecord.stepDirection(record.getStep(step + j)).ordinal() ==
+                        Move.getDirectionOrdinal(move, j);
+            }
+            if (matches) {
+                return move;
+            }
+        }
+        return Move.NO_MOVE;
+    }
+
+    /**
+     * Adds one game to the counts of move from the position key.
+     *
+     * @param result 1 if the side that played the move won, -1 if it lost, 0 otherwise
+     */
+    private void count(long key, long move, int result) {
+        int slot = slotOf(key, move);
+        if (games[slot] == 0) {
+            if ((entryCount + 1) * 4 > keys.length * 3) {
+                grow();
+                slot = slotOf(key, move);
+            }
+            keys[slot] = key;
+            moves[slot] = move;
+            entryCount++;
+        }
+        games[slot]++;
+        if (result > 0) {
+            wins[slot]++;
+        } else if (result < 0) {
+            losses[slot]++;
+        } else {
+            draws[slot]++;
+        }
+    }
+
+    /**
+     * Returns the slot holding key and move, or the empty slot where they belong.
+     */
+    private int slotOf(long key, long move) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key ^ move * GOLDEN_GAMMA) >>> 32) & mask;
+        while (games[slot] != 0 && (keys[slot] != key || moves[slot] != move)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldMoves = moves;
+        int[] oldGames = games;
+        int[] oldWins = wins;
+        int[] oldDraws = draws;
+        int[] oldLosses = losses;
+        int capacity = oldKeys.length * 2;
+        keys = new long[capacity];
+        moves = new long[capacity];
+        games = new int[capacity];
+        wins = new int[capacity];
+        draws = new int[capacity];
+        losses = new int[capacity];
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldGames[old] != 0) {
+                int slot = slotOf(oldKeys[old], oldMoves[old]);
+                keys[slot] = oldKeys[old];
+                moves[slot] = oldMoves[old];
+                games[slot] = oldGames[old];
+                wins[slot] = oldWins[old];
+                draws[slot] = oldDraws[old];
+                losses[slot] = oldLosses[old];
+            }
+        }
+    }
+
+    /**
+     * Writes the moves played in at least minGames games as a book file. The file is written next to path and
+     * then moved over it, so processes that have the old book open keep reading it and never see half a file.
+     *
+     * @param path the book file
+     * @param minGames the number of games a move needs to be kept
+     *
+     * @return the number of entries written
+     *
+     * @throws IOException if writing fails
+     *
+     * @pre path != null AND minGames >= 1
+     *
+     * @post [OpeningBook.open(path) reads the entries written] AND self = #self
+     */
+    public int write(Path path, int minGames) throws IOException {
+        int[] order = sortedEntries(minGames);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+            buffer.putInt(OpeningBook.FILE_MAGIC).putInt(OpeningBook.VERSION).putInt(maxPlies).putInt(minGames)
+                    .putLong(order.length).putLong(gameCount);
+            for (int slot : order) {
+                if (buffer.remaining() < OpeningBook.ENTRY_BYTES) {
+                    drain(channel, buffer);
+                }
+                buffer.putLong(keys[slot]).putLong(moves[slot]).putInt(games[slot]).putInt(wins[slot])
+                        .putInt(draws[slot]).putInt(losses[slot]);
+            }
+            drain(channel, buffer);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return order.length;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Returns the slots with at least minGames games in book order: by key, then by games descending, then by move.
+     */
+    private int[] sortedEntries(int minGames) {
+        int kept = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (games[slot] >= minGames) {
+                kept++;
+            }
+        }
+        int[] order = new int[kept];
+        int next = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (games[slot] >= minGames) {
+                order[next++] = slot;
+            }
+        }
+
+        // LSD radix sort on the keys, a byte at a time; flipping the sign bit makes byte order signed order
+        int[] sorted = new int[kept];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            int[] starts = new int[RADIX + 1];
+            for (int slot : order) {
+                starts[digit(keys[slot], shift) + 1]++;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                starts[d + 1] += starts[d];
+            }
+            for (int slot : order) {
+                sorted[starts[digit(keys[slot], shift)]++] = slot;
+            }
+            int[] swap = order;
+            order = sorted;
+            sorted = swap;
+        }
+
+        // A position has only a handful of moves, so each run of equal keys is insertion sorted
+        for (int start = 0; start < kept; ) {
+            int end = start + 1;
+            while (end < kept && keys[order[end]] == keys[order[start]]) {
+                end++;
+            }
+            for (int i = start + 1; i < end; i++) {
+                int slot = order[i];
+                int j = i - 1;
+                while (j >= start && before(slot, order[j])) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = slot;
+            }
+            start = end;
+        }
+        return order;
+    }
+
+    private static int digit(long key, int shift) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1));
+    }
+
+    private boolean before(int slot, int other) {
+        return games[slot] != games[other] ? games[slot] > games[other] : moves[slot] < moves[other];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: OpeningBookBuilder book maxPlies minGames games...");
+            return;
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]));
+        long start = System.nanoTime();
+        for (int i = 3; i < args.length; i++) {
+            Path input = Paths.get(args[i]);
+            if (args[i].endsWith(".cka")) {
+                GameArchive archive = GameArchive.open(input);
+                for (long id = 0; id < archive.size(); id++) {
+                    builder.add(archive.get(id));
+                }
+            } else {
+                for (GameRecord record : PdnCodec.parseAll(Files.readString(input))) {
+                    builder.add(record);
+                }
+            }
+        }
+        int written = builder.write(Paths.get(args[0]), Integer.parseInt(args[2]));
+        System.out.printf(Locale.ROOT, "%,d entries of %,d from %,d games in %.2f s%n", written,
+                builder.getEntryCount(), builder.getGameCount(), (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,166 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * ParallelSearchEngine runs the same iterative-deepening alpha-beta search as SearchEngine on several threads with
+ * "Lazy SMP": every thread searches the whole tree from the root, and the threads cooperate only through one shared
+ * TranspositionTable.
+ *
+ * The calling thread runs the search whose result is returned, exactly as SearchEngine.search would. The other
+ * getThreadCount() - 1 threads are helpers on a ForkJoinPool, each searching its own copy of the board with its
+ * own SearchEngine; every other helper starts one iteration deeper, so the helpers drift apart and ahead of the
+ * main search. Whatever a helper stores in the table, a cut-off, an exact score or a best move to search first,
+ * saves the main search that work when it gets there. The helpers are stopped as soon as the main search returns.
+ * Since every thread works on the whole tree, the speedup is not bounded by the number of root moves.
+ *
+ * The helpers only help through the table, so an engine made without one searches on the calling thread alone.
+ *
+ * The evaluator is shared by every worker and must be thread-safe. An engine runs one search at a time; close it
+ * to stop its threads.
+ *
+ * @Invariant getThreadCount() >= 1 AND [workers.length = getThreadCount()]
+ */
+public class ParallelSearchEngine implements AutoCloseable
+{
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final int threads;
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    private final SearchEngine[] workers;
+
+    /**
+     * Creates an engine searching on the given number of threads with a MaterialEvaluator and a shared table of
+     * SearchEngine.DEFAULT_TABLE_MEGABYTES.
+     *
+     * @pre aThreads >= 1
+     *
+     * @post getThreadCount() = aThreads
+     */
+    public ParallelSearchEngine(int aThreads) {
+        this(aThreads, new MaterialEvaluator());
+    }
+
+    /**
+     * Creates an engine searching on the given number of threads with a shared table of
+     * SearchEngine.DEFAULT_TABLE_MEGABYTES.
+     *
+     * @pre aThreads >= 1 AND anEvaluator != null
+     *
+     * @post getThreadCount() = aThreads AND getEvaluator() = anEvaluator
+     */
+    public ParallelSearchEngine(int aThreads, Evaluator anEvaluator) {
+        this(aThreads, anEvaluator, new TranspositionTable(SearchEngine.DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates an engine searching on the given number of threads.
+     *
+     * @param aThreads the number of worker threads
+     * @param anEvaluator the thread-safe evaluation shared by every worker
+     * @param aTable the table shared by every worker, or null to search without one
+     *
+     * @pre aThreads >= 1 AND anEvaluator != null
+     *
+     * @post getThreadCount() = aThreads AND getEvaluator() = anEvaluator AND getTranspositionTable() = aTable
+     */
+    public ParallelSearchEngine(int aThreads, Evaluator anEvaluator, TranspositionTable aTable) {
+        threads = aThreads;
+        evaluator = anEvaluator;
+        table = aTable;
+        //the calling thread runs the main search; the pool only runs the helpers
+        pool = new ForkJoinPool(Math.max(1, aThreads - 1));
+        workers = new SearchEngine[aThreads];
+        for (int i = 0; i < aThreads; i++) {
+            workers[i] = new SearchEngine(anEvaluator, aTable);
+        }
+    }
+
+    public int getThreadCount() {
+        return threads;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Searches for player's best move until the time budget runs out or SearchEngine.MAX_DEPTH is reached.
+     *
+     * @see #search(ICheckerBoard, char, char, long, int)
+     */
+    public SearchResult search(ICheckerBoard board, char player, char opponent, long budgetMillis) {
+        return search(board, player, opponent, budgetMillis, SearchEngine.MAX_DEPTH);
+    }
+
+    /**
+     * Searches for player's best move with iterative deepening on every worker thread. The budget, early exits
+     * and result are those of SearchEngine.search on the calling thread; the node count is the total over all
+     * workers.
+     *
+     * @param board the position to search; it is only read, the workers search on copies
+     * @param player the lowercase character of the side to move
+     * @param opponent the lowercase character of the other side
+     * @param budgetMillis the time the search may take
+     * @param maxDepth the deepest iteration to run
+     *
+     * @return the chosen move with its score, the depth reached, the nodes visited and the time taken
+     *
+     * @pre board.getRowNum() == board.getColNum() AND player != opponent AND budgetMillis > 0 AND
+     *      1 <= maxDepth <= SearchEngine.MAX_DEPTH AND [no other thread is modifying board]
+     *
+     * @post board = #board AND [search.getBestMove() is a legal move for player, or Move.NO_MOVE if there is none]
+     */
+    public SearchResult search(ICheckerBoard board, char player, char opponent, long budgetMillis, int maxDepth) {
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * NANOS_PER_MILLI;
+        if (table != null) {
+            table.newSearch();
+        }
+        int helpers = (table == null) ? 0 : threads - 1;
+        for (int w = 0; w <= helpers; w++) {
+            workers[w].begin(deadline);
+        }
+
+        List<ForkJoinTask<SearchResult>> running = new ArrayList<>(helpers);
+        for (int w = 1; w <= helpers; w++) {
+            SearchEngine helper = workers[w];
+            ICheckerBoard helperBoard = board.copy();
+            int skew = Math.min(w & 1, maxDepth - 1);
+            running.add(pool.submit(() -> helper.deepen(helperBoard, player, opponent, start, skew, maxDepth)));
+        }
+
+        SearchResult main = workers[0].deepen(board.copy(), player, opponent, start, 0, maxDepth);
+
+        long nodes = main.getNodes();
+        for (int w = 1; w <= helpers; w++) {
+            workers[w].abort();
+        }
+        for (ForkJoinTask<SearchResult> helper : running) {
+            nodes += helper.join().getNodes();
+        }
+        return new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(), nodes,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the worker threads once any running search has finished.
+     *
+     * @post [the engine's threads are shut down and search must not be called again]
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
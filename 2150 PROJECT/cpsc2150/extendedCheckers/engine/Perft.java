@@ -0,0 +1,205 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.CheckerBoardBit;
+import cpsc2150.extendedCheckers.models.CheckerBoardMem;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Perft counts the positions reachable in exactly N moves, which checks the move generator and the board's
+ * movePiece/jumpPiece/crownPiece rules against published counts and doubles as a benchmark of a board
+ * implementation: every node is one generateMoves plus one applyMove and undoMove.
+ *
+ * Run with: java cpsc2150.extendedCheckers.engine.Perft [depth] [dimension] [F|M|B] [divide] [parallel]
+ *
+ * The defaults are depth 7 on an 8x8 CheckerBoard (F); M and B select CheckerBoardMem and CheckerBoardBit.
+ * "divide" prints the count below each root move and "parallel" splits the root
+ * moves across threads. On 8x8 the total is compared with KNOWN_8X8 and the program exits with status 1 on a
+ * mismatch.
+ */
+public final class Perft
+{
+    //perft counts of the 8x8 starting position with player one to move, indexed by depth
+    public static final long[] KNOWN_8X8 = {1L, 7L, 49L, 302L, 1469L, 7361L, 36768L, 179740L, 845931L, 3963680L,
+            18391564L};
+
+    private static final int DEFAULT_DEPTH = 7;
+    private static final int DEFAULT_DIMENSION = 8;
+
+    private Perft() {
+    }
+
+    /**
+     * Returns the number of move sequences of exactly depth moves from the position, player moving first.
+     *
+     * @param board the position to count from; it is used as scratch and left unchanged
+     * @param player the lowercase character of the side to move
+     * @param opponent the lowercase character of the other side
+     * @param depth the number of moves in each sequence
+     *
+     * @return the number of leaf positions, counting a position once per sequence that reaches it
+     *
+     * @pre board.getRowNum() == board.getColNum() AND player != opponent AND depth >= 0
+     *
+     * @post board = #board
+     */
+    public static long perft(ICheckerBoard board, char player, char opponent, int depth) {
+        MoveBuffer[] buffers = new MoveBuffer[Math.max(depth, 1)];
+        for (int ply = 0; ply < buffers.length; ply++) {
+            buffers[ply] = new MoveBuffer();
+        }
+        return count(board, player, opponent, depth, buffers, 0);
+    }
+
+    /**
+     * Returns perft(board, player, opponent, depth), splitting the root moves across threads when parallel is set.
+     *
+     * @pre board.getRowNum() == board.getColNum() AND player != opponent AND depth >= 0
+     *
+     * @post board = #board
+     */
+    public static long perft(ICheckerBoard board, char player, char opponent, int depth, boolean parallel) {
+        if (!parallel || depth < 2) {
+            return perft(board, player, opponent, depth);
+        }
+        long total = 0;
+        for (long count : divide(board, player, opponent, depth, true).values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the perft count below each root move, in MoveGenerator order.
+     *
+     * @param board the position to count from; with parallel set each root move is counted on a copy
+     * @param player the lowercase character of the side to move
+     * @param opponent the lowercase character of the other side
+     * @param depth the number of moves in each sequence, including the root move
+     * @param parallel true to count the root moves on several threads
+     *
+     * @return a map from each packed root move to perft(depth - 1) of the position after it
+     *
+     * @pre board.getRowNum() == board.getColNum() AND player != opponent AND depth >= 1
+     *
+     * @post board = #board AND [the values of divide sum to perft(board, player, opponent, depth)]
+     */
+    public static Map<Long, Long> divide(ICheckerBoard board, char player, char opponent, int depth,
+                                         boolean parallel) {
+        MoveBuffer rootMoves = new MoveBuffer();
+        int moveCount = MoveGenerator.generateMoves(board, player, rootMoves);
+        long[] counts = new long[moveCount];
+
+        IntStream indices = IntStream.range(0, moveCount);
+        if (parallel) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            ICheckerBoard worker = parallel ? board.copy() : board;
+            worker.applyMove(rootMoves.get(i));
+            counts[i] = perft(worker, opponent, player, depth - 1);
+            worker.undoMove();
+        });
+
+        Map<Long, Long> divided = new LinkedHashMap<>();
+        for (int i = 0; i < moveCount; i++) {
+            divided.put(rootMoves.get(i), counts[i]);
+        }
+        return divided;
+    }
+
+    /**
+     * Counts the leaves below the position. At the last ply the moves are counted rather than played.
+     */
+    private static long count(ICheckerBoard board, char side, char other, int depth, MoveBuffer[] buffers, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveBuffer moves = buffers[ply];
+        int moveCount = MoveGenerator.generateMoves(board, side, moves);
+        if (depth == 1) {
+            return moveCount;
+        }
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            board.applyMove(moves.get(i));
+            nodes += count(board, other, side, depth - 1, buffers, ply + 1);
+            board.undoMove();
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        int depth = DEFAULT_DEPTH;
+        int dimension = DEFAULT_DIMENSION;
+        String type = "F";
+        boolean divide = false;
+        boolean parallel = false;
+        int position = 0;
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("divide")) {
+                divide = true;
+            } else if (arg.equalsIgnoreCase("parallel")) {
+                parallel = true;
+            } else if (position == 0) {
+                depth = Integer.parseInt(arg);
+                position++;
+            } else if (position == 1) {
+                dimension = Integer.parseInt(arg);
+                position++;
+            } else {
+                type = arg;
+            }
+        }
+
+        GameConfig config = new GameConfig('x', 'o', dimension);
+        ICheckerBoard board = makeBoard(type, config);
+        char playerOne = config.getPlayerOne();
+        char playerTwo = config.getPlayerTwo();
+        System.out.printf("perft %d on %dx%d %s%s%n", depth, dimension, dimension, board.getClass().getSimpleName(),
+                parallel ? " (parallel)" : "");
+
+        long start = System.nanoTime();
+        long nodes;
+        if (divide && depth >= 1) {
+            nodes = 0;
+            for (Map.Entry<Long, Long> entry : divide(board, playerOne, playerTwo, depth, parallel).entrySet()) {
+                System.out.printf("  %-24s %d%n", Move.toString(entry.getKey(), dimension), entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else {
+            nodes = perft(board, playerOne, playerTwo, depth, parallel);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("nodes %d in %.1f ms (%.0f nodes/s)%n", nodes, elapsed / 1e6,
+                nodes / Math.max(elapsed / 1e9, 1e-9));
+        if (dimension == DEFAULT_DIMENSION && depth < KNOWN_8X8.length) {
+            boolean matches = nodes == KNOWN_8X8[depth];
+            System.out.println(matches ? "OK: matches the known 8x8 count"
+                    : "MISMATCH: the known 8x8 count is " + KNOWN_8X8[depth]);
+            if (!matches) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static ICheckerBoard makeBoard(String type, GameConfig config) {
+        switch (type.toUpperCase()) {
+            case "M":
+                return new CheckerBoardMem(config);
+            case "B":
+                return new CheckerBoardBit(config);
+            default:
+                return new CheckerBoard(config);
+        }
+    }
+}
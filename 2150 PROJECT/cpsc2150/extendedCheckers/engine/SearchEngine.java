@@ -0,0 +1,347 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+
+/**
+ * SearchEngine picks a move for a computer player with a negamax alpha-beta search under iterative deepening: it
+ * searches one move deep, then two, and so on until the time budget runs out, and plays the best move of the
+ * deepest iteration that finished. The best move of each iteration is searched first in the next one, which is
+ * what makes the repeated shallow searches pay for themselves in cut-offs.
+ *
+ * The search plays moves on the caller's board with applyMove/undoMove and leaves it exactly as it found it.
+ * Move lists live in one MoveBuffer per ply that the engine keeps between searches, so after the first search a
+ * search creates no objects apart from its SearchResult. Leaves are only evaluated once no capture is pending:
+ * at depth 0 a side that must capture keeps searching its captures, so exchanges are never cut in half.
+ *
+ * With a TranspositionTable every searched position is remembered by the board's position hash, which covers the
+ * side to move since every turn played on a board hands it to the other side. A position met again at no greater depth is answered from the table, and
+ * otherwise the best move the table remembers for it is searched first. One table can be shared by several
+ * engines on different threads.
+ *
+ * An engine is not thread-safe; use one engine per thread.
+ *
+ * @Invariant MAX_DEPTH < MAX_PLY AND [every buffer in the per-ply pool is owned by this engine]
+ */
+public class SearchEngine
+{
+    public static final int WIN_SCORE = 1_000_000;
+    public static final int MAX_DEPTH = 64;
+    public static final int MAX_PLY = MAX_DEPTH + 64;
+    public static final int DEFAULT_TABLE_MEGABYTES = 32;
+
+    static final int INFINITY = WIN_SCORE + 1;
+    //the clock is read once every (TIME_CHECK_MASK + 1) nodes
+    private static final int TIME_CHECK_MASK = 1023;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final MoveBuffer[] plyMoves = new MoveBuffer[MAX_PLY + 1];
+
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    //set by another thread to stop the search at its next clock check
+    private volatile boolean aborted;
+
+    /**
+     * Creates an engine that scores positions with a MaterialEvaluator and has a table of
+     * DEFAULT_TABLE_MEGABYTES of its own.
+     *
+     * @post [the engine evaluates with a new MaterialEvaluator and uses a new TranspositionTable]
+     */
+    public SearchEngine() {
+        this(new MaterialEvaluator());
+    }
+
+    /**
+     * Creates an engine that scores positions with the given evaluator and has a table of
+     * DEFAULT_TABLE_MEGABYTES of its own.
+     *
+     * @param anEvaluator the evaluation used at the leaves of the search
+     *
+     * @pre anEvaluator != null
+     *
+     * @post getEvaluator() = anEvaluator AND [the engine uses a new TranspositionTable]
+     */
+    public SearchEngine(Evaluator anEvaluator) {
+        this(anEvaluator, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates an engine that scores positions with the given evaluator and remembers them in the given table.
+     *
+     * @param anEvaluator the evaluation used at the leaves of the search
+     * @param aTable the table to use, possibly shared with other engines, or null to search without one
+     *
+     * @pre anEvaluator != null
+     *
+     * @post getEvaluator() = anEvaluator AND getTranspositionTable() = aTable
+     */
+    public SearchEngine(Evaluator anEvaluator, TranspositionTable aTable) {
+        evaluator = anEvaluator;
+        table = aTable;
+        for (int ply = 0; ply < plyMoves.length; ply++) {
+            plyMoves[ply] = new MoveBuffer();
+        }
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Searches for player's best move until the time budget runs out or MAX_DEPTH is reached.
+     *
+     * @see #search(ICheckerBoard, char, char, long, int)
+     */
+    public SearchResult search(ICheckerBoard board, char player, char opponent, long budgetMillis) {
+        return search(board, player, opponent, budgetMillis, MAX_DEPTH);
+    }
+
+    /**
+     * Searches for player's best move with iterative deepening.
+     *
+     * The budget is a hard limit: an iteration that is still running when it expires is abandoned and the best
+     * move of the last completed iteration is returned. A new iteration is not started once half the budget has
+     * been used, since it would almost never finish. The search also stops early when there is only one legal
+     * move or a forced win or loss has been found.
+     *
+     * @param board the position to search; it is used as the search's scratch board
+     * @param player the lowercase character of the side to move
+     * @param opponent the lowercase character of the other side
+     * @param budgetMillis the time the search may take
+     * @param maxDepth the deepest iteration to run
+     *
+     * @return the chosen move with its score, the depth reached, the nodes visited and the time taken
+     *
+     * @pre board.getRowNum() == board.getColNum() AND player != opponent AND budgetMillis > 0 AND
+     *      1 <= maxDepth <= MAX_DEPTH AND
+     *      board.isSecondPlayerToMove() = (player == board.getConfig().getPlayerTwo())
+     *
+     * @post board = #board AND [search.getBestMove() is a legal move for player, or Move.NO_MOVE if there is none]
+     */
+    public SearchResult search(ICheckerBoard board, char player, char opponent, long budgetMillis, int maxDepth) {
+        long start = System.nanoTime();
+        begin(start + budgetMillis * NANOS_PER_MILLI);
+        if (table != null) {
+            table.newSearch();
+        }
+        return deepen(board, player, opponent, start, 0, maxDepth);
+    }
+
+    /**
+     * The iterative deepening loop of search, for a search begun with begin. Its first iteration searches
+     * 1 + skew moves deep; a skew of 1 keeps a helper thread one iteration ahead of the thread whose result is
+     * used, so their searches fill the shared table with different depths.
+     *
+     * @pre 0 <= skew < maxDepth AND [the preconditions of search]
+     *
+     * @post board = #board
+     */
+    SearchResult deepen(ICheckerBoard board, char player, char opponent, long start, int skew, int maxDepth) {
+        MoveBuffer rootMoves = plyMoves[0];
+        int moveCount = MoveGenerator.generateMoves(board, player, rootMoves);
+        if (moveCount == 0) {
+            return new SearchResult(Move.NO_MOVE, -WIN_SCORE, 0, 0, System.nanoTime() - start);
+        }
+
+        long bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int depthReached = 0;
+        for (int depth = 1 + skew; depth <= maxDepth; depth++) {
+            int alpha = -INFINITY;
+            int bestIndex = 0;
+            for (int i = 0; i < moveCount; i++) {
+                int score = searchRootMove(board, rootMoves.get(i), player, opponent, depth, alpha, INFINITY);
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    bestIndex = i;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+
+            // Search this iteration's best move first next time
+            rootMoves.swap(0, bestIndex);
+            bestMove = rootMoves.get(0);
+            bestScore = alpha;
+            depthReached = depth;
+
+            if (moveCount == 1 || isFinalIteration(alpha, start, System.nanoTime())) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, depthReached, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Resets the node count and the stop flag and sets the time at which searching stops.
+     *
+     * @post getNodes() = 0 AND isStopped() = false
+     */
+    void begin(long deadlineNanos) {
+        deadline = deadlineNanos;
+        nodes = 0;
+        stopped = false;
+        aborted = false;
+    }
+
+    /**
+     * Stops a search running on another thread, within TIME_CHECK_MASK + 1 nodes, as if its time had run out.
+     *
+     * @post [the running search returns soon with isStopped() = true]
+     */
+    void abort() {
+        aborted = true;
+    }
+
+    /**
+     * Returns the score for player of playing move and searching the reply depth - 1 more moves deep. A score at
+     * or below alpha is only an upper bound, one at or above beta only a lower bound. The result is meaningless
+     * once isStopped() is true.
+     *
+     * @pre move is legal for player on board AND depth >= 1 AND alpha < beta
+     *
+     * @post board = #board
+     */
+    int searchRootMove(ICheckerBoard board, long move, char player, char opponent, int depth, int alpha, int beta) {
+        board.applyMove(move);
+        int score = -negamax(board, opponent, player, depth - 1, 1, -beta, -alpha);
+        board.undoMove();
+        return score;
+    }
+
+    /**
+     * Returns true if iterative deepening should not start another iteration: the score is already a forced win
+     * or loss, or half the time budget is gone and the next iteration would almost never finish.
+     */
+    boolean isFinalIteration(int score, long start, long now) {
+        return Math.abs(score) >= WIN_SCORE - MAX_PLY || (now - start) * 2 > deadline - start;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the value of the position for side, searching depth more moves (plus any pending captures).
+     * Scores outside (alpha, beta) are only bounds. Returns 0 once the search has been stopped; callers discard it.
+     */
+    private int negamax(ICheckerBoard board, char side, char other, int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodes & TIME_CHECK_MASK) == 0 && (aborted || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        // Capture extensions below depth 0 are not worth a table entry
+        boolean useTable = table != null && depth > 0;
+        long key = 0;
+        int tableMove = TranspositionTable.NO_MOVE_INDEX;
+        if (useTable) {
+            key = board.getPositionHash();
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                if (TranspositionTable.getDepth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.getScore(entry), ply);
+                    int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                            (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                            (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                        return score;
+                    }
+                }
+                tableMove = TranspositionTable.getMoveIndex(entry);
+            }
+        }
+
+        MoveBuffer moves = plyMoves[ply];
+        int moveCount = MoveGenerator.generateMoves(board, side, moves);
+        if (moveCount == 0) {
+            // No piece left or every piece blocked: side has lost, the sooner the worse
+            return -WIN_SCORE + ply;
+        }
+        if (ply == MAX_PLY || (depth <= 0 && !Move.isCapture(moves.get(0)))) {
+            return evaluator.evaluate(board, side);
+        }
+
+        // Search the remembered best move first; swapping it with move 0 keeps every other index unchanged
+        if (tableMove < moveCount) {
+            moves.swap(0, tableMove);
+        } else {
+            tableMove = 0;
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestIndex = TranspositionTable.NO_MOVE_INDEX;
+        for (int i = 0; i < moveCount; i++) {
+            board.applyMove(moves.get(i));
+            int score = -negamax(board, other, side, depth - 1, ply + 1, -beta, -alpha);
+            board.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = (i == 0) ? tableMove : (i == tableMove) ? 0 : i;
+            }
+            if (score >= beta) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+
+        if (useTable) {
+            int bound = (bestScore >= beta) ? TranspositionTable.LOWER_BOUND
+                    : (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            table.store(key, depth, bound, toTable(bestScore, ply),
+                    bestIndex < TranspositionTable.NO_MOVE_INDEX ? bestIndex : TranspositionTable.NO_MOVE_INDEX);
+        }
+        return bestScore;
+    }
+
+    /**
+     * Converts a win or loss score from "plies from the root" to "plies from this position" for storing, so the
+     * entry stays correct when the position is reached at another ply.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -WIN_SCORE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -WIN_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
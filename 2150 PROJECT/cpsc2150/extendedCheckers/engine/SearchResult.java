@@ -0,0 +1,90 @@
+package cpsc2150.extendedCheckers.engine;
+
+import cpsc2150.extendedCheckers.models.Move;
+
+/**
+ * SearchResult is what SearchEngine reports after thinking about a move: the move it chose, the score it expects
+ * from it and the work done to find it.
+ *
+ * @Invariant depth >= 0 AND nodes >= 0 AND elapsedNanos >= 0 AND
+ *            [bestMove = Move.NO_MOVE iff the side to move had no legal move]
+ */
+public final class SearchResult
+{
+    private final long bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param aBestMove the packed move chosen, Move.NO_MOVE if there was none
+     * @param aScore the score of the move for the side that searched
+     * @param aDepth the deepest iteration that completed
+     * @param aNodes the number of positions visited, including those of an unfinished iteration
+     * @param anElapsedNanos the wall-clock time the search took
+     *
+     * @pre aDepth >= 0 AND aNodes >= 0 AND anElapsedNanos >= 0
+     *
+     * @post getBestMove() = aBestMove AND getScore() = aScore AND getDepth() = aDepth AND
+     *       getNodes() = aNodes AND getElapsedNanos() = anElapsedNanos
+     */
+    public SearchResult(long aBestMove, int aScore, int aDepth, long aNodes, long anElapsedNanos) {
+        bestMove = aBestMove;
+        score = aScore;
+        depth = aDepth;
+        nodes = aNodes;
+        elapsedNanos = anElapsedNanos;
+    }
+
+    public long getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the search speed in positions per second, 0 if no measurable time passed.
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (long) (nodes * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    /**
+     * Returns true if the score is a forced win or loss rather than an evaluation.
+     */
+    public boolean isDecisive() {
+        return Math.abs(score) >= SearchEngine.WIN_SCORE - SearchEngine.MAX_PLY;
+    }
+
+    /**
+     * Returns the best move in readable form (see Move.toString).
+     *
+     * @param dimension the number of columns of the board that was searched
+     */
+    public String describeMove(int dimension) {
+        return bestMove == Move.NO_MOVE ? "none" : Move.toString(bestMove, dimension);
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + ", score " + score + ", " + nodes + " nodes in " + (elapsedNanos / 1_000_000) +
+                " ms (" + getNodesPerSecond() + " nodes/s)";
+    }
+}
@@ -0,0 +1,251 @@
+package cpsc2150.extendedCheckers.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TranspositionTable remembers the result of searching a position so that the same position reached again, through
+ * a different move order or a different multi-jump ordering, is not searched twice. It has a fixed size chosen in
+ * megabytes and lives in a single long array, so it creates no objects while searching.
+ *
+ * The table is split into buckets of two entries:
+ *      slot 0  depth-preferred: only replaced by a deeper (or equally deep) search of any position, by any search
+ *              of the same position, or by anything once it is left over from an earlier search
+ *      slot 1  always-replace: takes every store that slot 0 refused, so recent positions are always kept
+ * Each entry is two longs: (key ^ data) and data. Many threads read and write the table without locks; a reader
+ * that sees the two words of different writes gets a check word that does not match its key and treats the entry
+ * as a miss, so a torn entry is never used.
+ *
+ * The data word is packed as:
+ *      bits  0 - 31  score
+ *      bits 32 - 39  depth searched
+ *      bits 40 - 41  bound: UPPER_BOUND, LOWER_BOUND or EXACT (never 0, so data is never 0 for a stored entry)
+ *      bits 42 - 49  index of the best move in MoveGenerator.generateMoves order, NO_MOVE_INDEX if none
+ *      bits 50 - 55  generation of the search that stored it
+ *
+ * @Invariant getBucketCount() is a power of two AND [each stored entry satisfies check ^ data = key]
+ */
+public final class TranspositionTable
+{
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+    public static final int NO_MOVE_INDEX = 0xFF;
+    public static final long MISS = 0L;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int LONGS_PER_BUCKET = LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+    private static final long BYTES_PER_MEGABYTE = 1L << 20;
+    private static final int FILL_SAMPLE_BUCKETS = 1000;
+
+    private static final int DEPTH_SHIFT      = 32;
+    private static final int BOUND_SHIFT      = 40;
+    private static final int MOVE_SHIFT       = 42;
+    private static final int GENERATION_SHIFT = 50;
+    private static final long SCORE_MASK      = 0xFFFFFFFFL;
+    private static final int DEPTH_MASK       = 0xFF;
+    private static final int BOUND_MASK       = 0x3;
+    private static final int MOVE_MASK        = 0xFF;
+    private static final int GENERATION_MASK  = 0x3F;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates an empty table using at most the given number of megabytes.
+     *
+     * @param megabytes the memory the table may use
+     *
+     * @pre megabytes >= 1
+     *
+     * @post getBucketCount() = [the largest power of two whose buckets fit in megabytes] AND getProbes() = 0
+     */
+    public TranspositionTable(int megabytes) {
+        long buckets = Long.highestOneBit(Math.max(1, megabytes * BYTES_PER_MEGABYTE / BYTES_PER_BUCKET));
+        // A Java array holds at most 2^31 - 1 longs
+        buckets = Math.min(buckets, 1L << 28);
+        table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Returns the number of two-entry buckets in the table.
+     */
+    public long getBucketCount() {
+        return bucketMask + 1;
+    }
+
+    /**
+     * Returns the memory the table occupies, in bytes.
+     */
+    public long getSizeBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * Marks the start of a new search so that entries left from earlier searches give way to new ones first.
+     *
+     * @post [entries stored before this call may be replaced by any store]
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the 64-bit hash of the position, including the side to move
+     *
+     * @return the packed data word of the entry for key, or MISS if the table holds none
+     *
+     * @post [probe is the data of a complete entry stored for key, or MISS] AND
+     *       getProbes() = #getProbes() + 1
+     */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketBase(key);
+        boolean occupied = false;
+        for (int slot = base; slot < base + LONGS_PER_BUCKET; slot += LONGS_PER_ENTRY) {
+            long check = table[slot];
+            long data = table[slot + 1];
+            if ((check ^ data) == key && data != MISS) {
+                hits.increment();
+                return data;
+            }
+            occupied |= data != MISS;
+        }
+        if (occupied) {
+            collisions.increment();
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of searching a position, following the bucket's replacement rules.
+     *
+     * @param key the 64-bit hash of the position, including the side to move
+     * @param depth the depth the position was searched to
+     * @param bound UPPER_BOUND, LOWER_BOUND or EXACT
+     * @param score the score found, adjusted by the caller so it does not depend on the position's ply
+     * @param moveIndex the index of the best move in MoveGenerator order, or NO_MOVE_INDEX
+     *
+     * @pre 0 <= depth <= 255 AND bound in {UPPER_BOUND, LOWER_BOUND, EXACT} AND
+     *      (0 <= moveIndex < NO_MOVE_INDEX OR moveIndex = NO_MOVE_INDEX)
+     *
+     * @post [probe(key) returns this entry unless another store has replaced it since]
+     */
+    public void store(long key, int depth, int bound, int score, int moveIndex) {
+        int currentGeneration = generation;
+        long data = (score & SCORE_MASK) | ((long) depth << DEPTH_SHIFT) | ((long) bound << BOUND_SHIFT) |
+                ((long) moveIndex << MOVE_SHIFT) | ((long) currentGeneration << GENERATION_SHIFT);
+
+        int preferred = bucketBase(key);
+        long oldData = table[preferred + 1];
+        boolean sameKey = (table[preferred] ^ oldData) == key;
+        if (oldData == MISS || sameKey || depth >= getDepth(oldData) || getGeneration(oldData) != currentGeneration) {
+            write(preferred, key, data);
+        } else {
+            write(preferred + LONGS_PER_ENTRY, key, data);
+        }
+    }
+
+    /**
+     * Empties the table and resets its counters.
+     *
+     * @post [every probe misses] AND getProbes() = 0 AND getHits() = 0 AND getCollisions() = 0
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+    }
+
+    public static int getScore(long data) {
+        return (int) data;
+    }
+
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    public static int getMoveIndex(long data) {
+        return (int) (data >>> MOVE_SHIFT) & MOVE_MASK;
+    }
+
+    static int getGeneration(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of probes that missed on a bucket holding other positions.
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Returns the fraction of probes that found their position, 0 before the first probe.
+     */
+    public double getHitRate() {
+        long total = getProbes();
+        return total == 0 ? 0.0 : (double) getHits() / total;
+    }
+
+    /**
+     * Returns the fraction of probes that missed on a bucket holding other positions, 0 before the first probe.
+     */
+    public double getCollisionRate() {
+        long total = getProbes();
+        return total == 0 ? 0.0 : (double) getCollisions() / total;
+    }
+
+    /**
+     * Returns the fraction of entries in use, estimated from the first FILL_SAMPLE_BUCKETS buckets (or all of them
+     * in a smaller table).
+     */
+    public double getFillRate() {
+        int sampled = (int) Math.min(FILL_SAMPLE_BUCKETS, getBucketCount()) * ENTRIES_PER_BUCKET;
+        int used = 0;
+        for (int entry = 0; entry < sampled; entry++) {
+            if (table[entry * LONGS_PER_ENTRY + 1] != MISS) {
+                used++;
+            }
+        }
+        return (double) used / sampled;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d MB, hit rate %.1f%%, collision rate %.1f%%, fill %.1f%%",
+                getSizeBytes() / BYTES_PER_MEGABYTE, 100 * getHitRate(), 100 * getCollisionRate(), 100 * getFillRate());
+    }
+
+    private int bucketBase(long key) {
+        return (int) (key & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    private void write(int slot, long key, long data) {
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+}
@@ -0,0 +1,174 @@
+package cpsc2150.extendedCheckers.events;
+
+/**
+ * BoardEvent is something that happened on a board, as published by a BoardEventPublisher. Squares are square
+ * indexes (row * dimension + column); getRow and getColumn turn them back into board coordinates.
+ *
+ * Events are immutable, so one event object is handed to every subscriber.
+ *
+ * @Corresponds The BoardEvent object (self) is one change to a board of getDimension() by getDimension() squares.
+ */
+public abstract class BoardEvent
+{
+    private final int dimension;
+
+    BoardEvent(int aDimension) {
+        dimension = aDimension;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the row of square on this event's board.
+     */
+    public int getRow(int square) {
+        return square / dimension;
+    }
+
+    /**
+     * Returns the column of square on this event's board.
+     */
+    public int getColumn(int square) {
+        return square % dimension;
+    }
+
+    String describe(int square) {
+        return getRow(square) + "," + getColumn(square);
+    }
+
+    /**
+     * A piece stepped from one square to an empty neighbour.
+     */
+    public static final class PieceMoved extends BoardEvent
+    {
+        private final int from;
+        private final int to;
+        private final char piece;
+
+        public PieceMoved(int aDimension, int aFrom, int aTo, char aPiece) {
+            super(aDimension);
+            from = aFrom;
+            to = aTo;
+            piece = aPiece;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public char getPiece() {
+            return piece;
+        }
+
+        @Override
+        public String toString() {
+            return piece + " moved " + describe(from) + " -> " + describe(to);
+        }
+    }
+
+    /**
+     * A piece jumped over an opponent, which was removed.
+     */
+    public static final class PieceJumped extends BoardEvent
+    {
+        private final int from;
+        private final int captured;
+        private final int to;
+        private final char piece;
+        private final char capturedPiece;
+
+        public PieceJumped(int aDimension, int aFrom, int aCaptured, int aTo, char aPiece, char aCapturedPiece) {
+            super(aDimension);
+            from = aFrom;
+            captured = aCaptured;
+            to = aTo;
+            piece = aPiece;
+            capturedPiece = aCapturedPiece;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getCaptured() {
+            return captured;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public char getPiece() {
+            return piece;
+        }
+
+        public char getCapturedPiece() {
+            return capturedPiece;
+        }
+
+        @Override
+        public String toString() {
+            return piece + " jumped " + describe(from) + " -> " + describe(to) + " capturing " + capturedPiece +
+                    " at " + describe(captured);
+        }
+    }
+
+    /**
+     * A man was crowned where it stands.
+     */
+    public static final class PieceCrowned extends BoardEvent
+    {
+        private final int square;
+        private final char king;
+
+        public PieceCrowned(int aDimension, int aSquare, char aKing) {
+            super(aDimension);
+            square = aSquare;
+            king = aKing;
+        }
+
+        public int getSquare() {
+            return square;
+        }
+
+        public char getKing() {
+            return king;
+        }
+
+        @Override
+        public String toString() {
+            return king + " crowned at " + describe(square);
+        }
+    }
+
+    /**
+     * A player won the game.
+     */
+    public static final class GameWon extends BoardEvent
+    {
+        private final char winner;
+
+        public GameWon(int aDimension, char aWinner) {
+            super(aDimension);
+            winner = aWinner;
+        }
+
+        /**
+         * Returns the lowercase character of the winning player.
+         */
+        public char getWinner() {
+            return winner;
+        }
+
+        @Override
+        public String toString() {
+            return winner + " won";
+        }
+    }
+}
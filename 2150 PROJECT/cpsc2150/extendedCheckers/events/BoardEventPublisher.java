@@ -0,0 +1,350 @@
+package cpsc2150.extendedCheckers.events;
+
+import cpsc2150.extendedCheckers.models.BoardObserver;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BoardEventPublisher turns the moves, jumps and crownings on one board into a Flow.Publisher of BoardEvents, so
+ * logging, analytics, persistence or rendering can follow a game without touching the code that plays it. A
+ * GameWon event follows the jump that takes the opponent's last man, and callers whose rules end games some other
+ * way can publish one with gameWon.
+ *
+ * The board's thread only appends each event to every subscriber's bounded buffer; subscribers are called on the
+ * executor, up to BATCH events per task and never more than they have requested, so a slow subscriber never slows
+ * the game down. When a buffer is full the subscription's OverflowPolicy decides what gives. With no subscribers a
+ * board change costs one volatile read and creates nothing.
+ *
+ * Undone moves are not published.
+ *
+ * @Corresponds The BoardEventPublisher object (self) is the stream of events on its board since it was created,
+ *              and the subscribers following it.
+ *
+ * @Invariant [each subscriber gets onSubscribe first, then onNext calls in the order the events happened, then at
+ *            most one of onComplete and onError, all from one thread at a time]
+ */
+public final class BoardEventPublisher implements BoardObserver, Flow.Publisher<BoardEvent>, AutoCloseable
+{
+    /**
+     * What to do with a new event when a subscriber's buffer is full.
+     */
+    public enum OverflowPolicy
+    {
+        /** Discard the oldest buffered event to make room. */
+        DROP_OLDEST,
+        /** Discard the new event. */
+        DROP_NEWEST,
+        /** End the subscription with onError. */
+        ERROR
+    }
+
+    public static final int BATCH = 32;
+
+    private static final EventSubscription[] NONE = new EventSubscription[0];
+
+    private final ICheckerBoard board;
+    private final int dimension;
+    private final Executor executor;
+    private final int bufferSize;
+    private final OverflowPolicy policy;
+
+    private volatile EventSubscription[] subscriptions = NONE;
+    private boolean closed;
+
+    /**
+     * Publishes board's events on the common pool, with Flow.defaultBufferSize() events buffered per subscriber
+     * and the oldest dropped on overflow.
+     *
+     * @pre board != null AND board.getObserver() = null
+     *
+     * @post board.getObserver() = self AND getSubscriberCount() = 0
+     */
+    public BoardEventPublisher(ICheckerBoard board) {
+        this(board, ForkJoinPool.commonPool(), Flow.defaultBufferSize(), OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Publishes board's events.
+     *
+     * @param aBoard the board to observe
+     * @param anExecutor runs subscriber callbacks
+     * @param aBufferSize the number of events buffered for each subscriber
+     * @param aPolicy what to do when a subscriber's buffer is full
+     *
+     * @throws IllegalArgumentException if aBufferSize is not positive
+     *
+     * @pre aBoard != null AND aBoard.getObserver() = null AND anExecutor != null AND aPolicy != null
+     *
+     * @post aBoard.getObserver() = self AND getSubscriberCount() = 0
+     */
+    public BoardEventPublisher(ICheckerBoard aBoard, Executor anExecutor, int aBufferSize, OverflowPolicy aPolicy) {
+        if (aBufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + aBufferSize);
+        }
+        board = aBoard;
+        dimension = aBoard.getRowNum();
+        executor = anExecutor;
+        bufferSize = aBufferSize;
+        policy = aPolicy;
+        board.setObserver(this);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BoardEvent> subscriber) {
+        Objects.requireNonNull(subscriber);
+        EventSubscription subscription = new EventSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            if (!closed) {
+                EventSubscription[] grown = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+                grown[grown.length - 1] = subscription;
+                subscriptions = grown;
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    /**
+     * Returns the number of subscribers that have not cancelled or been completed.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    @Override
+    public void pieceMoved(int from, int to, char piece) {
+        EventSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            publish(current, new BoardEvent.PieceMoved(dimension, from, to, piece));
+        }
+    }
+
+    @Override
+    public void pieceJumped(int from, int captured, int to, char piece, char capturedPiece) {
+        EventSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            publish(current, new BoardEvent.PieceJumped(dimension, from, captured, to, piece, capturedPiece));
+            char player = Character.toLowerCase(piece);
+            if (board.checkPlayerWin(player)) {
+                publish(current, new BoardEvent.GameWon(dimension, player));
+            }
+        }
+    }
+
+    @Override
+    public void pieceCrowned(int square, char king) {
+        EventSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            publish(current, new BoardEvent.PieceCrowned(dimension, square, king));
+        }
+    }
+
+    @Override
+    public void moveUndone() {
+    }
+
+    /**
+     * Publishes that winner won, for games that end by a rule the board cannot see, such as a side with no move.
+     *
+     * @pre [called on the thread that changes the board]
+     */
+    public void gameWon(char winner) {
+        EventSubscription[] current = subscriptions;
+        if (current.length > 0) {
+            publish(current, new BoardEvent.GameWon(dimension, Character.toLowerCase(winner)));
+        }
+    }
+
+    /**
+     * Stops observing the board and completes every subscription once its buffered events are delivered.
+     *
+     * @post getSubscriberCount() = 0 AND [the board no longer notifies self]
+     */
+    @Override
+    public void close() {
+        EventSubscription[] current;
+        synchronized (this) {
+            closed = true;
+            current = subscriptions;
+            subscriptions = NONE;
+        }
+        if (board.getObserver() == this) {
+            board.setObserver(null);
+        }
+        for (EventSubscription subscription : current) {
+            subscription.complete();
+        }
+    }
+
+    private static void publish(EventSubscription[] current, BoardEvent event) {
+        for (EventSubscription subscription : current) {
+            subscription.offer(event);
+        }
+    }
+
+    private synchronized void remove(EventSubscription subscription) {
+        EventSubscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                EventSubscription[] shrunk = new EventSubscription[current.length - 1];
+                System.arraycopy(current, 0, shrunk, 0, i);
+                System.arraycopy(current, i + 1, shrunk, i, shrunk.length - i);
+                subscriptions = shrunk;
+                return;
+            }
+        }
+    }
+
+    /**
+     * EventSubscription buffers events for one subscriber and delivers them as a task on the executor, one task
+     * at a time, like a GameActor's mailbox. The buffer, demand and end state are guarded by the subscription's
+     * monitor, which the board's thread only holds long enough to append one event.
+     */
+    private final class EventSubscription implements Flow.Subscription, Runnable
+    {
+        private final Flow.Subscriber<? super BoardEvent> subscriber;
+        private final ArrayDeque<BoardEvent> buffer = new ArrayDeque<>();
+        private final BoardEvent[] batch = new BoardEvent[BATCH];
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private long demand;
+        private boolean completing;
+        private volatile boolean done;
+        private Throwable error;
+
+        EventSubscription(Flow.Subscriber<? super BoardEvent> aSubscriber) {
+            subscriber = aSubscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested " + n + " events; requests must be positive");
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                buffer.clear();
+            }
+            remove(this);
+        }
+
+        void offer(BoardEvent event) {
+            synchronized (this) {
+                if (done || completing || error != null) {
+                    return;
+                }
+                if (buffer.size() == bufferSize) {
+                    switch (policy) {
+                        case DROP_NEWEST:
+                            return;
+                        case DROP_OLDEST:
+                            buffer.poll();
+                            break;
+                        default:
+                            error = new IllegalStateException("Subscriber fell " + bufferSize + " events behind");
+                            break;
+                    }
+                }
+                if (error == null) {
+                    buffer.add(event);
+                }
+                if (demand == 0 && error == null) {
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (deliverBatch()) {
+            }
+            scheduled.set(false);
+            if (hasWork()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Delivers up to BATCH events, or the final signal, outside the monitor. Returns true if there may be more.
+         */
+        private boolean deliverBatch() {
+            int count = 0;
+            Throwable failure = null;
+            boolean finish = false;
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                if (error != null) {
+                    failure = error;
+                } else {
+                    while (count < BATCH && demand > 0 && !buffer.isEmpty()) {
+                        batch[count++] = buffer.poll();
+                        demand--;
+                    }
+                    finish = count == 0 && completing && buffer.isEmpty();
+                }
+                if (failure != null || finish) {
+                    done = true;
+                    buffer.clear();
+                }
+            }
+            if (failure != null || finish) {
+                remove(this);
+                if (failure != null) {
+                    subscriber.onError(failure);
+                } else {
+                    subscriber.onComplete();
+                }
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                BoardEvent event = batch[i];
+                batch[i] = null;
+                // A subscriber may cancel from inside onNext
+                if (!done) {
+                    subscriber.onNext(event);
+                }
+            }
+            return count > 0;
+        }
+
+        private synchronized boolean hasWork() {
+            return !done && (error != null || (demand > 0 && !buffer.isEmpty()) || (completing && buffer.isEmpty()));
+        }
+    }
+}
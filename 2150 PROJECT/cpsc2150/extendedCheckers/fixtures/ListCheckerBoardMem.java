@@ -0,0 +1,267 @@
+package cpsc2150.extendedCheckers.fixtures;
+
+import cpsc2150.extendedCheckers.models.AbsCheckerBoard;
+import cpsc2150.extendedCheckers.models.BoardPosition;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import java.util.*;
+
+/**
+ * ListCheckerBoardMem is the original list-based version of CheckerBoardMem. It is not part of the game: it is a
+ * test fixture, kept as a second reference board for the tests and as the baseline for MemLookupBenchmark, so the
+ * cost of its linear List.contains/List.remove scans can be compared against the square-indexed CheckerBoardMem.
+ *
+ * This class stores the board positions using a Map, where each player's pieces are represented by a list
+ * of BoardPosition objects. The board itself is a grid of alternating black and white tiles, with pieces
+ * placed on the white tiles initially.
+ *
+ * @Corresponds The ListCheckerBoardMem object (self) manages the game state for both players,
+ *              tracking the positions of their pieces and the current piece counts.
+ *              It supports the movement and kinging of pieces as per the rules of checkers.
+ *
+ * @defines ROW_NUM: The number of rows in the board.
+ *          COL_NUM: The number of columns in the board.
+ *          EMPTY_POS: A constant representing an empty space (' ') on the board.
+ *          BLACK_TILE: A constant representing the black tiles ('*') on the board.
+ *
+ * @Invariant The board is represented by a Map where each player's pieces and their kings are tracked
+ *            in separate lists of BoardPosition objects. The pieceCount Map tracks the number of pieces
+ *            and kings for each player, while the viableDirections Map stores the valid movement directions
+ *            for each player and their kings. The board must always maintain valid positions for each piece
+ *            and ensure that players' pieces can move according to the rules.
+ */
+
+public class ListCheckerBoardMem extends AbsCheckerBoard {
+
+    private int ROW_NUM;
+    private int COL_NUM;
+
+
+    //Contains key, the value is a list of board position objects occupied by each key(player)
+    private Map<Character, List<BoardPosition>> board;
+    private HashMap<Character, Integer> pieceCount;
+    private HashMap<Character, ArrayList<DirectionEnum>> viableDirections;
+
+    public static final int NO_PIECES_LEFT = 0;
+    public static final char EMPTY_POS = ' ';
+    public static final char BLACK_TILE = '*';
+    public static final int ODD_TILE_CHECK_MODULO = 2;  // Modulo used to check black tiles
+    public static final int ROW_BOUNDARY = 0;          // Minimum row value
+    public static final int COL_BOUNDARY = 0;          // Minimum column value
+
+    /**
+     * Constructor for a board of the given size between the players currently set in CheckersFE. Kept for callers
+     * written before GameConfig existed; new code should pass its own GameConfig.
+     *
+     * @param aDimensions the size of the board (both width and height)
+     *
+     * @pre aDimensions >= 8 AND aDimensions <= 16 AND aDimensions % 2 == 0
+     *
+     * @post self = new ListCheckerBoardMem(CheckersFE.getGameConfig().withDimension(aDimensions))
+     */
+    public ListCheckerBoardMem(int aDimensions) {
+        this(CheckersFE.getGameConfig().withDimension(aDimensions));
+    }
+
+    /**
+     * Constructor for initializing the Memory-Efficient CheckerBoard for the given game.
+     *
+     * @param aConfig the players and size of the board
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig AND
+     *       [The board is initialized with alternating black (*) and white (' ') tiles] AND
+     *       [Player One's pieces are placed on rows 0 through (aConfig.getDimension() / 2 - 2)] AND
+     *       [Player Two's pieces are placed on rows (aConfig.getDimension() / 2 + 1) through (aConfig.getDimension() - 1)] AND
+     *       [Empty white tiles are set to EMPTY_POS (' ')] AND
+     *       [Black tiles are set to BLACK_TILE ('*')] AND
+     *       ROW_NUM = aConfig.getDimension() AND COL_NUM = aConfig.getDimension() AND
+     *       [Player One and Two piece counts are initialized to ((aConfig.getDimension() / 2 - 1) * (aConfig.getDimension() / 2)) each] AND
+     *       [Kings' piece counts are set to 0] AND
+     *       [Viable directions for regular pieces and kings are set]
+     */
+
+    public ListCheckerBoardMem(GameConfig aConfig) {
+        super(aConfig);
+        ROW_NUM = aConfig.getDimension();
+        COL_NUM = aConfig.getDimension();
+        board = new HashMap<>();
+        pieceCount = new HashMap<>();
+        viableDirections = new HashMap<>();
+
+        // Initialize empty lists for each player and their kings
+        board.put(aConfig.getPlayerOne(), new ArrayList<>());  // Player one's positions
+        board.put(aConfig.getPlayerTwo(), new ArrayList<>());  // Player two's positions
+        board.put(Character.toUpperCase(aConfig.getPlayerOne()), new ArrayList<>()); // Player one kings' positions
+        board.put(Character.toUpperCase(aConfig.getPlayerTwo()), new ArrayList<>()); // Player two kings' positions
+
+
+        // Simply initialize piece count for both players
+        pieceCount.put(aConfig.getPlayerOne(), NO_PIECES_LEFT);
+        pieceCount.put(aConfig.getPlayerTwo(), NO_PIECES_LEFT);
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerOne()), NO_PIECES_LEFT); // Player One Kings
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerTwo()), NO_PIECES_LEFT); // Player Two Kings
+
+        // Initialize directions for each player and their kings
+        ArrayList<DirectionEnum> playerOneDirections = new ArrayList<>();
+        playerOneDirections.add(DirectionEnum.SE);
+        playerOneDirections.add(DirectionEnum.SW);
+
+        ArrayList<DirectionEnum> playerTwoDirections = new ArrayList<>();
+        playerTwoDirections.add(DirectionEnum.NE);
+        playerTwoDirections.add(DirectionEnum.NW);
+
+        ArrayList<DirectionEnum> kingDirections = new ArrayList<>();
+        kingDirections.add(DirectionEnum.SE);
+        kingDirections.add(DirectionEnum.SW);
+        kingDirections.add(DirectionEnum.NE);
+        kingDirections.add(DirectionEnum.NW);
+
+        // Set initial directions
+        viableDirections.put(aConfig.getPlayerOne(), playerOneDirections);
+        viableDirections.put(aConfig.getPlayerTwo(), playerTwoDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerOne()), kingDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerTwo()), kingDirections);
+
+
+        // Initialize the board with empty spaces (' ') and place pieces for both players
+        for (int i = 0; i < ROW_NUM; i++) {
+            for (int j = 0; j < COL_NUM; j++) {
+                if ((i + j) % 2 == 0) {  // Only place on white tiles (' ')
+                    if (i < ROW_NUM / 2 - 1) {
+                        // Player One's pieces
+                        BoardPosition pos = new BoardPosition(i, j);
+                        this.board.get(aConfig.getPlayerOne()).add(pos);
+                        pieceCount.put(aConfig.getPlayerOne(), pieceCount.get(aConfig.getPlayerOne()) + 1);
+                    } else if (i >= ROW_NUM / 2 + 1) {
+                        // Player Two's pieces
+                        BoardPosition pos = new BoardPosition(i, j);
+                        this.board.get(aConfig.getPlayerTwo()).add(pos);
+                        pieceCount.put(aConfig.getPlayerTwo(), pieceCount.get(aConfig.getPlayerTwo()) + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy constructor used by copy().
+     *
+     * @param source the board to copy
+     *
+     * @pre source != null
+     *
+     * @post [self holds the same position, counts, side to move and hash as source, with an empty undo journal]
+     */
+    private ListCheckerBoardMem(ListCheckerBoardMem source) {
+        super(source.getConfig());
+        ROW_NUM = source.ROW_NUM;
+        COL_NUM = source.COL_NUM;
+        board = new HashMap<>();
+        for (Map.Entry<Character, List<BoardPosition>> entry : source.board.entrySet()) {
+            board.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        pieceCount = new HashMap<>(source.pieceCount);
+        viableDirections = source.viableDirections;
+        copyStateFrom(source);
+    }
+
+    @Override
+    public ICheckerBoard copy() {
+        return new ListCheckerBoardMem(this);
+    }
+
+    @Override
+    public HashMap<Character, ArrayList<DirectionEnum>> getViableDirections() {
+        return this.viableDirections;
+    }
+
+
+    @Override
+    public HashMap<Character, Integer> getPieceCounts() {
+        return this.pieceCount;
+    }
+
+    @Override
+    public void placePiece(BoardPosition pos, char player) {
+        char currentPiece = whatsAtPos(pos); // Get the current piece at the position
+        placeInLists(pos, player, currentPiece);
+        hashPlacement(getSquare(pos.getRow(), pos.getColumn()), currentPiece, whatsAtPos(pos));
+    }
+
+    private void placeInLists(BoardPosition pos, char player, char currentPiece) {
+        if (player == EMPTY_POS) {
+            // Remove a piece from the board
+            if (currentPiece != EMPTY_POS && currentPiece != BLACK_TILE) {
+                this.board.get(currentPiece).remove(pos);
+            }
+        } else {
+            // Place a new piece on the board
+            if (currentPiece != EMPTY_POS && currentPiece != BLACK_TILE) {
+                // Remove the existing piece from the position
+                this.board.get(currentPiece).remove(pos);
+            }
+            // Add the new piece
+            this.board.get(player).add(pos);
+            if (player == getConfig().getPlayerOne() && pos.getRow() == ROW_NUM - 1) {
+                // King Player One's piece
+                this.board.get(getConfig().getPlayerOne()).remove(pos);
+                this.board.get(Character.toUpperCase(getConfig().getPlayerOne())).add(pos);
+                getPieceCounts().put(getConfig().getPlayerOne(), getPieceCounts().get(getConfig().getPlayerOne()) - 1);
+                getPieceCounts().put(Character.toUpperCase(getConfig().getPlayerOne()), getPieceCounts().getOrDefault(Character.toUpperCase(getConfig().getPlayerOne()), 0) + 1);
+            } else if (player == getConfig().getPlayerTwo() && pos.getRow() == 0) {
+                // King Player Two's piece
+                this.board.get(getConfig().getPlayerTwo()).remove(pos);
+                this.board.get(Character.toUpperCase(getConfig().getPlayerTwo())).add(pos);
+                getPieceCounts().put(getConfig().getPlayerTwo(), getPieceCounts().get(getConfig().getPlayerTwo()) - 1);
+                getPieceCounts().put(Character.toUpperCase(getConfig().getPlayerTwo()), getPieceCounts().getOrDefault(Character.toUpperCase(getConfig().getPlayerTwo()), 0) + 1);
+            }
+        }
+    }
+
+    @Override
+    public char whatsAtPos(BoardPosition pos) {
+        if((pos.getRow() + pos.getColumn()) % ODD_TILE_CHECK_MODULO == 1 || pos.getRow() >= this.getRowNum() || pos.getRow() < ROW_BOUNDARY
+                || pos.getColumn() >= this.getColNum() || pos.getColumn() < COL_BOUNDARY)
+        {
+            return BLACK_TILE;
+        }
+        if(this.board.get(getConfig().getPlayerOne()).contains(pos))
+        {
+            return getConfig().getPlayerOne();
+        }
+        else if (this.board.get(getConfig().getPlayerTwo()).contains(pos))
+        {
+            return getConfig().getPlayerTwo();
+        }
+        else if(this.board.get(Character.toUpperCase(getConfig().getPlayerOne())).contains(pos))
+        {
+            return Character.toUpperCase(getConfig().getPlayerOne());
+        }
+        else if (this.board.get(Character.toUpperCase(getConfig().getPlayerTwo())).contains(pos))
+        {
+            return Character.toUpperCase(getConfig().getPlayerTwo());
+        }
+        else
+        {
+            return EMPTY_POS;
+        }
+    }
+
+
+    @Override
+    public int getRowNum()
+    {
+        return ROW_NUM;
+    }
+
+    @Override
+    public int getColNum()
+    {
+        return COL_NUM;
+    }
+}
@@ -22,6 +22,154 @@ public abstract class AbsCheckerBoard implements ICheckerBoard {
 
     private int dimensionCheck;
 
+    //the players and size this board was built for
+    private final GameConfig config;
+
+    //shared per-dimension lookup table, fetched once on first use
+    private NeighborTable neighborTable;
+
+    //moves applied with applyMove that undoMove can take back
+    private final UndoJournal undoJournal = new UndoJournal();
+
+    //incrementally maintained Zobrist hash, computed from scratch the first time it is asked for
+    private long positionHash;
+    private boolean hashReady;
+    private boolean secondPlayerToMove;
+    private boolean hashVerification;
+
+    //told about every move, jump, crowning and undo; null for boards nobody watches
+    private BoardObserver observer;
+
+
+    /**
+     * Stores the game this board belongs to. Every concrete board passes the GameConfig it was built from.
+     *
+     * @param aConfig the players and size of the board
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig
+     */
+    protected AbsCheckerBoard(GameConfig aConfig) {
+        config = aConfig;
+    }
+
+
+    @Override
+    public GameConfig getConfig() {
+        return config;
+    }
+
+
+    /**
+     * Returns the shared step and jump lookup table for this board's dimension, caching it on the board so
+     * repeated move checks do not go back to the shared cache.
+     *
+     * @return the NeighborTable for getRowNum()
+     *
+     * @pre getRowNum() == getColNum()
+     *
+     * @post getNeighborTable = NeighborTable.forDimension(getRowNum()) AND self = #self
+     */
+    @Override
+    public NeighborTable getNeighborTable() {
+        if (neighborTable == null) {
+            neighborTable = NeighborTable.forDimension(getRowNum());
+        }
+        return neighborTable;
+    }
+
+
+    @Override
+    public BoardObserver getObserver() {
+        return observer;
+    }
+
+
+    @Override
+    public void setObserver(BoardObserver anObserver) {
+        observer = anObserver;
+    }
+
+
+    @Override
+    public UndoJournal getUndoJournal() {
+        return undoJournal;
+    }
+
+
+    @Override
+    public long getPositionHash() {
+        if (!hashReady) {
+            positionHash = computePositionHash();
+            hashReady = true;
+        }
+        return positionHash;
+    }
+
+
+    @Override
+    public boolean isSecondPlayerToMove() {
+        return secondPlayerToMove;
+    }
+
+
+    @Override
+    public void switchSideToMove() {
+        secondPlayerToMove = !secondPlayerToMove;
+        positionHash ^= Zobrist.SIDE_TO_MOVE;
+    }
+
+
+    @Override
+    public boolean isHashVerificationEnabled() {
+        return hashVerification;
+    }
+
+
+    @Override
+    public void setHashVerification(boolean enabled) {
+        hashVerification = enabled;
+    }
+
+
+    /**
+     * Copies the side to move, the hash and the hash verification setting of source, for copy() implementations.
+     * The undo journal is not copied.
+     *
+     * @param source the board being copied
+     *
+     * @pre source has the same position as self
+     *
+     * @post isSecondPlayerToMove() = source.isSecondPlayerToMove() AND getPositionHash() = source.getPositionHash()
+     *       AND isHashVerificationEnabled() = source.isHashVerificationEnabled()
+     */
+    protected void copyStateFrom(AbsCheckerBoard source) {
+        positionHash = source.positionHash;
+        hashReady = source.hashReady;
+        secondPlayerToMove = source.secondPlayerToMove;
+        hashVerification = source.hashVerification;
+    }
+
+
+    /**
+     * Folds one placement into the incremental position hash. Every placePiece implementation calls this with the
+     * character that was on the square before and the character that is there afterwards.
+     *
+     * @param square the square index that changed
+     * @param before the character on the square before the placement
+     * @param after the character on the square after the placement
+     *
+     * @pre 0 <= square < getRowNum() * getColNum()
+     *
+     * @post getPositionHash() = #getPositionHash() XOR Zobrist.pieceKey(square, before) XOR Zobrist.pieceKey(square, after)
+     */
+    protected void hashPlacement(int square, char before, char after) {
+        if (hashReady) {
+            positionHash ^= Zobrist.pieceKey(square, before) ^ Zobrist.pieceKey(square, after);
+        }
+    }
+
 
     /**
      * Providing a string representation of current state of checkerboard.
@@ -41,44 +189,7 @@ public abstract class AbsCheckerBoard implements ICheckerBoard {
 
     @Override
     public String toString() {
-        StringBuilder boardString = new StringBuilder("|  |");
-
-        // Print column numbers with right alignment
-        for (int col = 0; col < getColNum(); col++) {
-            boardString.append(String.format("%2d", col)).append("|");
-        }
-        boardString.append("\n");
-
-        // Iterate over each row to print row data
-        for (int row = 0; row < getRowNum(); row++) {
-            // Row label with consistent spacing
-            boardString.append("|").append(String.format("%-2d", row));
-
-
-            // Iterate over each column in the current row
-            for (int col = 0; col < getColNum(); col++) {
-                BoardPosition pos = new BoardPosition(row, col);
-                char piece = whatsAtPos(pos);  // Get the piece at the position
-
-                // If there's no piece, display the background pattern: alternating black ('*') and white (' ')
-                if (piece == ' ') {
-                    // Alternating pattern for black and white tiles
-                    if ((row + col) % 2 == 0) {
-                        piece = ' ';  // White tile (empty space)
-                    } else {
-                        piece = '*';  // Black tile
-                    }
-                }
-
-                // Append the piece (or tile) with no spaces before it, just the frame
-                boardString.append("|").append(piece).append(" "); // Add piece
-            }
-
-            // End of the row
-            boardString.append("|\n");
-        }
-
-        return boardString.toString();
+        return BoardRenderer.forDimension(getRowNum()).render(this);
     }
 
 
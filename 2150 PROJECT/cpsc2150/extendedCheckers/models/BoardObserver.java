@@ -0,0 +1,47 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * BoardObserver hears about every piece an ICheckerBoard moves. The board calls it from movePiece, jumpPiece,
+ * crownPiece and undoMove, after the squares have changed, on whichever thread is changing the board. Moves made
+ * with applyMove arrive as the same calls, one per step, and a board that crowns a man as it lands reports the
+ * crowning right after the move. Plain placePiece calls are not reported: they are how boards are set up, not how
+ * games are played.
+ *
+ * A board has at most one observer (see ICheckerBoard.setObserver). Callbacks must not change the board.
+ */
+public interface BoardObserver
+{
+    /**
+     * A piece stepped from one square to an empty neighbour.
+     *
+     * @param from the square the piece left
+     * @param to the square it landed on
+     * @param piece the moving piece
+     */
+    public void pieceMoved(int from, int to, char piece);
+
+    /**
+     * A piece jumped over an opponent, which was removed.
+     *
+     * @param from the square the piece left
+     * @param captured the square of the piece it jumped
+     * @param to the square it landed on
+     * @param piece the moving piece
+     * @param capturedPiece the piece that was removed
+     */
+    public void pieceJumped(int from, int captured, int to, char piece, char capturedPiece);
+
+    /**
+     * A man was crowned where it stands.
+     *
+     * @param square the square of the new king
+     * @param king the king's character
+     */
+    public void pieceCrowned(int square, char king);
+
+    /**
+     * undoMove took back a move. Any number of squares may have changed, so observers that mirror the board
+     * should copy it again.
+     */
+    public void moveUndone();
+}
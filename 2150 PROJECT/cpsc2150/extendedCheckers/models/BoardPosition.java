@@ -81,6 +81,19 @@ public class BoardPosition
         return (this.row == other.row && (this.column == other.column));
     }
 
+    /**
+     * Returns a hash code consistent with equals, so BoardPosition can be used as a HashMap/HashSet key
+     * @return a hash combining row and column, an integer
+     *
+     * @pre none
+     *
+     * @post hashCode = 31 * row + column
+     */
+    @Override
+    public int hashCode() {
+        return 31 * row + column;
+    }
+
     /**
      * Returns a string representation of the BoardPosition
      * @return "row,column", a String
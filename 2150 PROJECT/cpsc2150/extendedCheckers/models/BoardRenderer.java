@@ -0,0 +1,273 @@
+package cpsc2150.extendedCheckers.models;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * BoardRenderer writes boards in the text form of AbsCheckerBoard.toString() straight to a StringBuilder, a
+ * Writer or any Appendable, or as ASCII to a ByteBuffer. The header line and every row with empty tiles are laid
+ * out once per dimension; rendering a board copies those lines and writes only the squares that hold a piece.
+ *
+ * Every line, the header included, is getLineLength() characters long and ends in '\n':
+ *      |  | 0| 1| 2|...|
+ *      |0 |x |* |x |...|
+ * A viewport renders a block of rows and columns in the same layout, and renderRows writes just the rows that
+ * changed, each of which is labelled with its row number.
+ *
+ * Renderers are shared and immutable; any number of threads may use one at once.
+ *
+ * @Corresponds The BoardRenderer object (self) is the layout of a board of getDimension() by getDimension().
+ *
+ * @Invariant render(board) = [board's AbsCheckerBoard.toString()]
+ */
+public final class BoardRenderer
+{
+    private static final AtomicReferenceArray<BoardRenderer> CACHE =
+            new AtomicReferenceArray<>(NeighborTable.MAX_DIMENSION + 1);
+
+    //each cell is "|p " and each line starts with a 3 character label, "|  " or "|r "
+    private static final int CELL = 3;
+    private static final int LABEL = 3;
+
+    private final int dimension;
+    private final char[] header;
+    private final char[][] rows;
+    private final byte[] headerBytes;
+    private final byte[][] rowBytes;
+
+    private BoardRenderer(int aDimension) {
+        dimension = aDimension;
+        StringBuilder line = new StringBuilder("|  |");
+        for (int col = 0; col < dimension; col++) {
+            line.append(String.format("%2d", col)).append("|");
+        }
+        header = line.append("\n").toString().toCharArray();
+        headerBytes = ascii(header);
+
+        rows = new char[dimension][];
+        rowBytes = new byte[dimension][];
+        for (int row = 0; row < dimension; row++) {
+            line.setLength(0);
+            line.append("|").append(String.format("%-2d", row));
+            for (int col = 0; col < dimension; col++) {
+                line.append("|").append((row + col) % 2 == 0 ? CheckerBoard.EMPTY_POS : CheckerBoardMem.BLACK_TILE)
+                        .append(" ");
+            }
+            rows[row] = line.append("|\n").toString().toCharArray();
+            rowBytes[row] = ascii(rows[row]);
+        }
+    }
+
+    /**
+     * Returns the shared renderer for boards of dimension by dimension.
+     *
+     * @pre aDimension > 0
+     *
+     * @post forDimension.getDimension() = aDimension
+     */
+    public static BoardRenderer forDimension(int aDimension) {
+        if (aDimension >= CACHE.length()) {
+            return new BoardRenderer(aDimension);
+        }
+        BoardRenderer renderer = CACHE.get(aDimension);
+        if (renderer == null) {
+            CACHE.compareAndSet(aDimension, null, new BoardRenderer(aDimension));
+            renderer = CACHE.get(aDimension);
+        }
+        return renderer;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the length of every line, header included, counting its '\n'.
+     */
+    public int getLineLength() {
+        return header.length;
+    }
+
+    /**
+     * Returns the length of a whole rendered board.
+     */
+    public int getLength() {
+        return header.length * (dimension + 1);
+    }
+
+    /**
+     * Returns board as text.
+     *
+     * @pre [board is getDimension() by getDimension()]
+     *
+     * @post render = [the header line followed by every row]
+     */
+    public String render(SquareReader board) {
+        StringBuilder out = new StringBuilder(getLength());
+        render(board, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends board as text to out.
+     *
+     * @pre [board is getDimension() by getDimension()] AND out != null
+     *
+     * @post out = #out + render(board)
+     */
+    public void render(SquareReader board, StringBuilder out) {
+        out.append(header);
+        for (int row = 0; row < dimension; row++) {
+            int start = out.length();
+            out.append(rows[row]);
+            for (int col = 0; col < dimension; col++) {
+                char piece = board.whatsAtPos(row * dimension + col);
+                if (piece != CheckerBoard.EMPTY_POS) {
+                    out.setCharAt(start + LABEL + col * CELL + 1, piece);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes board as text to out, a line at a time.
+     *
+     * @pre [board is getDimension() by getDimension()] AND out != null
+     *
+     * @post out = #out + render(board)
+     */
+    public void render(SquareReader board, Appendable out) throws IOException {
+        renderViewport(board, 0, dimension, 0, dimension, out);
+    }
+
+    /**
+     * Writes board as ASCII text to out.
+     *
+     * @return the number of bytes written, getLength()
+     *
+     * @pre [board is getDimension() by getDimension()] AND out.remaining() >= getLength()
+     *
+     * @post out = #out + [the ASCII bytes of render(board)]
+     */
+    public int render(SquareReader board, ByteBuffer out) {
+        out.put(headerBytes);
+        for (int row = 0; row < dimension; row++) {
+            int start = out.position();
+            out.put(rowBytes[row]);
+            for (int col = 0; col < dimension; col++) {
+                char piece = board.whatsAtPos(row * dimension + col);
+                if (piece != CheckerBoard.EMPTY_POS) {
+                    out.put(start + LABEL + col * CELL + 1, (byte) piece);
+                }
+            }
+        }
+        return getLength();
+    }
+
+    /**
+     * Writes the block of rows firstRow to endRow - 1 and columns firstCol to endCol - 1 of board: a header naming
+     * those columns, then those rows, each line laid out as in render.
+     *
+     * @pre [board is getDimension() by getDimension()] AND 0 <= firstRow <= endRow <= getDimension() AND
+     *      0 <= firstCol < endCol <= getDimension() AND out != null
+     *
+     * @post out = #out + [the header and rows of render(board), keeping only the cells of the block]
+     */
+    public void renderViewport(SquareReader board, int firstRow, int endRow, int firstCol, int endCol,
+                               Appendable out) throws IOException {
+        char[] line = new char[header.length];
+        CharBuffer view = CharBuffer.wrap(line);
+        write(out, line, view, headerLine(firstCol, endCol, line));
+        for (int row = firstRow; row < endRow; row++) {
+            write(out, line, view, rowLine(board, row, firstCol, endCol, line));
+        }
+    }
+
+    /**
+     * Writes the rows of board whose bit is set in rowMask, without a header.
+     *
+     * @param rowMask bit r set to render row r, as returned by changedRows
+     *
+     * @pre [board is getDimension() by getDimension()] AND getDimension() <= 32 AND out != null
+     *
+     * @post out = #out + [the lines of render(board) for every row in rowMask, in row order]
+     */
+    public void renderRows(SquareReader board, int rowMask, Appendable out) throws IOException {
+        char[] line = new char[header.length];
+        CharBuffer view = CharBuffer.wrap(line);
+        for (int row = 0; row < dimension; row++) {
+            if ((rowMask & (1 << row)) != 0) {
+                write(out, line, view, rowLine(board, row, 0, dimension, line));
+            }
+        }
+    }
+
+    /**
+     * Returns the rows that differ between two positions on boards of this dimension, as a mask with bit r set
+     * when row r differs.
+     *
+     * @pre getDimension() <= 32
+     *
+     * @post changedRows = [the mask of rows holding a square where before and after differ]
+     */
+    public int changedRows(SquareReader before, SquareReader after) {
+        int mask = 0;
+        for (int row = 0; row < dimension; row++) {
+            for (int square = row * dimension; square < (row + 1) * dimension; square++) {
+                if (before.whatsAtPos(square) != after.whatsAtPos(square)) {
+                    mask |= 1 << row;
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+
+    private int headerLine(int firstCol, int endCol, char[] line) {
+        int length = LABEL + 1;
+        System.arraycopy(header, 0, line, 0, length);
+        int cells = (endCol - firstCol) * CELL;
+        System.arraycopy(header, LABEL + 1 + firstCol * CELL, line, length, cells);
+        length += cells;
+        line[length++] = '\n';
+        return length;
+    }
+
+    private int rowLine(SquareReader board, int row, int firstCol, int endCol, char[] line) {
+        char[] template = rows[row];
+        System.arraycopy(template, 0, line, 0, LABEL);
+        int cells = (endCol - firstCol) * CELL;
+        System.arraycopy(template, LABEL + firstCol * CELL, line, LABEL, cells);
+        for (int col = firstCol; col < endCol; col++) {
+            char piece = board.whatsAtPos(row * dimension + col);
+            if (piece != CheckerBoard.EMPTY_POS) {
+                line[LABEL + (col - firstCol) * CELL + 1] = piece;
+            }
+        }
+        int length = LABEL + cells;
+        line[length++] = '|';
+        line[length++] = '\n';
+        return length;
+    }
+
+    private static void write(Appendable out, char[] line, CharBuffer view, int length) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(line, 0, length);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(line, 0, length);
+        } else {
+            out.append(view, 0, length);
+        }
+    }
+
+    private static byte[] ascii(char[] text) {
+        byte[] bytes = new byte[text.length];
+        for (int i = 0; i < text.length; i++) {
+            bytes[i] = (byte) text[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,120 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * BoardSnapshot is an immutable copy of a GameSession's position: every square, whose turn it is and how many
+ * moves have been played. A game publishes a new snapshot after each change, so any number of spectator threads
+ * can read a consistent position without locking the board or waiting for the player who is moving.
+ *
+ * Copying a board costs one char per square; the text form is only built the first time someone asks for it and
+ * is then shared by every reader of the snapshot.
+ *
+ * @Corresponds The BoardSnapshot object (self) is the position on a session's board after getMoveCount() moves,
+ *              with getPlayerToMove() to move.
+ *
+ * @Invariant [no method changes the snapshot] AND toString() = [the board's toString() when it was taken]
+ */
+public final class BoardSnapshot implements SquareReader
+{
+    private final GameConfig config;
+    private final int dimension;
+    private final char[] squares;
+    private final int moveCount;
+    private final char playerToMove;
+    private final long positionHash;
+
+    //built on first use; a race only renders the same String twice
+    private String rendered;
+
+    private BoardSnapshot(GameSession session) {
+        ICheckerBoard board = session.getBoard();
+        config = session.getConfig();
+        dimension = board.getColNum();
+        squares = new char[dimension * dimension];
+        for (int square = 0; square < squares.length; square++) {
+            squares[square] = board.whatsAtPos(square);
+        }
+        moveCount = session.getMoveCount();
+        playerToMove = session.getCurrentPlayer();
+        positionHash = board.getPositionHash();
+    }
+
+    /**
+     * Copies the current position of session.
+     *
+     * @pre session != null AND [no other thread is changing session]
+     *
+     * @post of = [session's position] AND session = #session
+     */
+    public static BoardSnapshot of(GameSession session) {
+        return new BoardSnapshot(session);
+    }
+
+    /**
+     * Returns previous if session is still in the position it shows, and a new snapshot of session otherwise.
+     * Commands that only read a game then publish nothing new.
+     *
+     * @pre session != null AND [no other thread is changing session]
+     *
+     * @post refresh = previous IF previous != null AND previous.getMoveCount() = session.getMoveCount() AND
+     *       previous.getPositionHash() = session.getBoard().getPositionHash() ELSE of(session)
+     */
+    public static BoardSnapshot refresh(BoardSnapshot previous, GameSession session) {
+        if (previous != null && previous.moveCount == session.getMoveCount() &&
+                previous.positionHash == session.getBoard().getPositionHash()) {
+            return previous;
+        }
+        return new BoardSnapshot(session);
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public char getPlayerToMove() {
+        return playerToMove;
+    }
+
+    public long getPositionHash() {
+        return positionHash;
+    }
+
+    /**
+     * Returns the character on square when the snapshot was taken.
+     *
+     * @pre 0 <= square < getDimension() * getDimension()
+     */
+    @Override
+    public char whatsAtPos(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Returns the character at row, col when the snapshot was taken.
+     *
+     * @pre 0 <= row < getDimension() AND 0 <= col < getDimension()
+     */
+    public char whatsAtPos(int row, int col) {
+        return squares[row * dimension + col];
+    }
+
+    /**
+     * Returns the board in the same text form as AbsCheckerBoard.toString().
+     */
+    @Override
+    public String toString() {
+        String text = rendered;
+        if (text == null) {
+            text = BoardRenderer.forDimension(dimension).render(this);
+            rendered = text;
+        }
+        return text;
+    }
+}
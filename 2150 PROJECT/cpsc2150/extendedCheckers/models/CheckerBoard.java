@@ -36,25 +36,41 @@ public class CheckerBoard extends AbsCheckerBoard
     public static final int NO_PIECES_LEFT = 0;
 
     /**
-     * Constructor for initializing the CheckerBoard with specified dimensions.
+     * Constructor for a board of the given size between the players currently set in CheckersFE. Kept for callers
+     * written before GameConfig existed; new code should pass its own GameConfig.
      *
      * @param aDimensions the size of the board (both width and height)
      *
      * @pre aDimensions >= 8 AND aDimensions <= 16 AND aDimensions % 2 == 0
      *
-     * @post [Board is initialized as an aDimensions x aDimensions grid] AND
+     * @post self = new CheckerBoard(CheckersFE.getGameConfig().withDimension(aDimensions))
+     */
+    public CheckerBoard(int aDimensions) {
+        this(CheckersFE.getGameConfig().withDimension(aDimensions));
+    }
+
+    /**
+     * Constructor for initializing the CheckerBoard for the given game.
+     *
+     * @param aConfig the players and size of the board
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig AND
+     *       [Board is initialized as an aConfig.getDimension() x aConfig.getDimension() grid] AND
      *       [Player pieces are placed on white tiles] AND
-     *       [Player One starts with ((aDimensions/2 - 1) * (aDimensions/2)) pieces] AND
-     *       [Player Two starts with ((aDimensions/2 - 1) * (aDimensions/2)) pieces] AND
-     *       ROW_NUM = aDimensions AND COL_NUM = aDimensions AND
+     *       [Player One starts with ((aConfig.getDimension()/2 - 1) * (aConfig.getDimension()/2)) pieces] AND
+     *       [Player Two starts with ((aConfig.getDimension()/2 - 1) * (aConfig.getDimension()/2)) pieces] AND
+     *       ROW_NUM = aConfig.getDimension() AND COL_NUM = aConfig.getDimension() AND
      *       [pieceCount is initialized with starting counts] AND
      *       [viableDirections is initialized with valid moves for each player type]
      */
 
-    public CheckerBoard(int aDimensions) {
+    public CheckerBoard(GameConfig aConfig) {
+        super(aConfig);
         // Initialize the board dimensions and constants
-        ROW_NUM = aDimensions;
-        COL_NUM = aDimensions;
+        ROW_NUM = aConfig.getDimension();
+        COL_NUM = aConfig.getDimension();
         board = new char[ROW_NUM][COL_NUM];
         pieceCount = new HashMap<>();
         viableDirections = new HashMap<>();
@@ -62,10 +78,10 @@ public class CheckerBoard extends AbsCheckerBoard
         int startingCount = (ROW_NUM / 2 - 1) * (COL_NUM / 2);
 
         // Initialize piece count for both players
-        pieceCount.put(CheckersFE.getPlayerOne(), startingCount);
-        pieceCount.put(CheckersFE.getPlayerTwo(), startingCount);
-        pieceCount.put(Character.toUpperCase(CheckersFE.getPlayerOne()), startingCount); // Player One Kings
-        pieceCount.put(Character.toUpperCase(CheckersFE.getPlayerTwo()), startingCount); // Player Two Kings
+        pieceCount.put(aConfig.getPlayerOne(), startingCount);
+        pieceCount.put(aConfig.getPlayerTwo(), startingCount);
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerOne()), startingCount); // Player One Kings
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerTwo()), startingCount); // Player Two Kings
 
         // Initialize directions for each player
         ArrayList<DirectionEnum> playerOneDirections = new ArrayList<>();
@@ -84,10 +100,10 @@ public class CheckerBoard extends AbsCheckerBoard
         kingDirections.add(DirectionEnum.NW);
 
         // Set initial viable directions for each player
-        viableDirections.put(CheckersFE.getPlayerOne(), playerOneDirections);
-        viableDirections.put(CheckersFE.getPlayerTwo(), playerTwoDirections);
-        viableDirections.put(Character.toUpperCase(CheckersFE.getPlayerOne()), kingDirections);
-        viableDirections.put(Character.toUpperCase(CheckersFE.getPlayerTwo()), kingDirections);
+        viableDirections.put(aConfig.getPlayerOne(), playerOneDirections);
+        viableDirections.put(aConfig.getPlayerTwo(), playerTwoDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerOne()), kingDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerTwo()), kingDirections);
 
 
 
@@ -107,15 +123,42 @@ public class CheckerBoard extends AbsCheckerBoard
             for (int j = 0; j < COL_NUM; j++) {
                 if ((i + j) % 2 == 0) {  // Only place on white tiles (' ')
                     if (i < ROW_NUM / 2 - 1) {
-                        board[i][j] = CheckersFE.getPlayerOne();  // Player One's pieces
+                        board[i][j] = aConfig.getPlayerOne();  // Player One's pieces
                     } else if (i >= ROW_NUM / 2 + 1) {
-                        board[i][j] = CheckersFE.getPlayerTwo();  // Player Two's pieces
+                        board[i][j] = aConfig.getPlayerTwo();  // Player Two's pieces
                     }
                 }
             }
         }
     }
 
+    /**
+     * Copy constructor used by copy().
+     *
+     * @param source the board to copy
+     *
+     * @pre source != null
+     *
+     * @post [self holds the same position, counts, side to move and hash as source, with an empty undo journal]
+     */
+    private CheckerBoard(CheckerBoard source) {
+        super(source.getConfig());
+        ROW_NUM = source.ROW_NUM;
+        COL_NUM = source.COL_NUM;
+        board = new char[ROW_NUM][];
+        for (int i = 0; i < ROW_NUM; i++) {
+            board[i] = source.board[i].clone();
+        }
+        pieceCount = new HashMap<>(source.pieceCount);
+        viableDirections = source.viableDirections;
+        copyStateFrom(source);
+    }
+
+    @Override
+    public ICheckerBoard copy() {
+        return new CheckerBoard(this);
+    }
+
     @Override
     public HashMap<Character, ArrayList<DirectionEnum>> getViableDirections() {
         return viableDirections;
@@ -131,6 +174,7 @@ public class CheckerBoard extends AbsCheckerBoard
     public void placePiece(BoardPosition pos, char player) {
         int row = pos.getRow();
         int col = pos.getColumn();
+        hashPlacement(row * COL_NUM + col, board[row][col], player);
         board[row][col] = player;  //place player piece
     }
 
@@ -141,6 +185,24 @@ public class CheckerBoard extends AbsCheckerBoard
         return board[row][col];
     }
 
+    @Override
+    public void placePiece(int square, char player) {
+        char[] row = board[square / COL_NUM];
+        int col = square % COL_NUM;
+        hashPlacement(square, row[col], player);
+        row[col] = player;
+    }
+
+    @Override
+    public char whatsAtPos(int row, int col) {
+        return board[row][col];
+    }
+
+    @Override
+    public char whatsAtPos(int square) {
+        return board[square / COL_NUM][square % COL_NUM];
+    }
+
     @Override
     public int getRowNum()
     {
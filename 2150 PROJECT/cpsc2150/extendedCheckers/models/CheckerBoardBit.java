@@ -0,0 +1,593 @@
+package cpsc2150.extendedCheckers.models;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * CheckerBoardBit is a bitboard implementation of the ICheckerBoard interface.
+ *
+ * Every square of the ROW_NUM x COL_NUM grid is given a bit index (row * COL_NUM + column). Player One's men,
+ * Player One's kings, Player Two's men and Player Two's kings are each stored as a packed bitmask over those
+ * indices: a single long on an 8x8 board and up to four longs on a 16x16 board. Looking up, placing and counting
+ * pieces is therefore a handful of bitwise operations instead of an array access or a list scan.
+ *
+ * Moving works on the masks too. A step or jump in one direction moves a bit by a fixed distance, so movePiece and
+ * jumpPiece clear and set bits in the mover's own mask, and moveSources finds every square that can step or jump in
+ * each direction with a few shifts and ANDs over whole masks, which MoveGenerator uses instead of testing the board
+ * one square at a time.
+ *
+ * Characters that are not one of the four piece types (for example a '*' placed on a white tile or an arbitrary
+ * letter) are kept in a small overflow array that is only allocated the first time such a character is placed.
+ *
+ * @Corresponds The CheckerBoardBit object (self) is responsible for maintaining the state of the board.
+ *              The four piece masks together with the overflow array hold the positions and pieces for each player.
+ *
+ * @defines pieceCount: A HashMap mapping each player's character to the number of pieces they have.
+ *          viableDirections: A HashMap mapping each player (or piece type) to their possible movement directions.
+ *
+ * @Invariant No bit index is set in more than one of the piece masks (or the overflow mask) at the same time, and
+ *            no bit index greater than or equal to ROW_NUM * COL_NUM is ever set.
+ */
+public class CheckerBoardBit extends AbsCheckerBoard
+{
+    public static final char EMPTY_POS = ' ';
+    public static final char BLACK_TILE = '*';
+    public static final int NO_PIECES_LEFT = 0;
+
+    private static final int WORD_SHIFT = 6;           // 64 bits per long
+    private static final int WORD_MASK  = 63;
+
+    private static final int PLAYER_ONE_MEN   = 0;
+    private static final int PLAYER_ONE_KINGS = 1;
+    private static final int PLAYER_TWO_MEN   = 2;
+    private static final int PLAYER_TWO_KINGS = 3;
+    private static final int OTHER_PIECES     = 4;
+    private static final int MASK_COUNT       = 5;
+    private static final int NO_MASK          = -1;
+
+    private final int ROW_NUM;
+    private final int COL_NUM;
+
+    //masks[type][word] holds one bit per square for each piece type
+    private final long[][] masks;
+    //only allocated once a character outside the four piece types is placed
+    private char[] otherPieces;
+
+    private final char[] pieceChars;
+
+    private final Geometry geometry;
+    //scratch for moveSources, so generating moves allocates nothing; copies get their own
+    private final long[][] sources;
+    private final long[] empty;
+    private final long[] opponents;
+    private final long[] shifted;
+
+    private HashMap<Character, Integer> pieceCount;
+    private HashMap<Character, ArrayList<DirectionEnum>> viableDirections;
+
+    /**
+     * Constructor for a board of the given size between the players currently set in CheckersFE. Kept for callers
+     * written before GameConfig existed; new code should pass its own GameConfig.
+     *
+     * @param aDimensions the size of the board (both width and height)
+     *
+     * @pre aDimensions >= 8 AND aDimensions <= 16 AND aDimensions % 2 == 0
+     *
+     * @post self = new CheckerBoardBit(CheckersFE.getGameConfig().withDimension(aDimensions))
+     */
+    public CheckerBoardBit(int aDimensions) {
+        this(CheckersFE.getGameConfig().withDimension(aDimensions));
+    }
+
+    /**
+     * Constructor for initializing the CheckerBoardBit for the given game.
+     *
+     * @param aConfig the players and size of the board
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig AND
+     *       [Board is initialized as an aConfig.getDimension() x aConfig.getDimension() grid] AND
+     *       [Player pieces are placed on white tiles] AND
+     *       [Player One starts with ((aConfig.getDimension()/2 - 1) * (aConfig.getDimension()/2)) pieces] AND
+     *       [Player Two starts with ((aConfig.getDimension()/2 - 1) * (aConfig.getDimension()/2)) pieces] AND
+     *       ROW_NUM = aConfig.getDimension() AND COL_NUM = aConfig.getDimension() AND
+     *       [pieceCount is initialized with starting counts] AND
+     *       [viableDirections is initialized with valid moves for each player type]
+     */
+    public CheckerBoardBit(GameConfig aConfig) {
+        super(aConfig);
+        ROW_NUM = aConfig.getDimension();
+        COL_NUM = aConfig.getDimension();
+        masks = new long[MASK_COUNT][(ROW_NUM * COL_NUM + WORD_MASK) >>> WORD_SHIFT];
+        geometry = Geometry.forDimension(ROW_NUM);
+        sources = new long[DirectionEnum.COUNT][masks[0].length];
+        empty = new long[masks[0].length];
+        opponents = new long[masks[0].length];
+        shifted = new long[masks[0].length];
+        pieceCount = new HashMap<>();
+        viableDirections = new HashMap<>();
+
+        pieceChars = new char[OTHER_PIECES];
+        pieceChars[PLAYER_ONE_MEN] = aConfig.getPlayerOne();
+        pieceChars[PLAYER_ONE_KINGS] = Character.toUpperCase(aConfig.getPlayerOne());
+        pieceChars[PLAYER_TWO_MEN] = aConfig.getPlayerTwo();
+        pieceChars[PLAYER_TWO_KINGS] = Character.toUpperCase(aConfig.getPlayerTwo());
+
+        int startingCount = (ROW_NUM / 2 - 1) * (COL_NUM / 2);
+
+        // Initialize piece count for both players
+        pieceCount.put(aConfig.getPlayerOne(), startingCount);
+        pieceCount.put(aConfig.getPlayerTwo(), startingCount);
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerOne()), startingCount); // Player One Kings
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerTwo()), startingCount); // Player Two Kings
+
+        // Initialize directions for each player
+        ArrayList<DirectionEnum> playerOneDirections = new ArrayList<>();
+        playerOneDirections.add(DirectionEnum.SE);
+        playerOneDirections.add(DirectionEnum.SW);
+
+        ArrayList<DirectionEnum> playerTwoDirections = new ArrayList<>();
+        playerTwoDirections.add(DirectionEnum.NE);
+        playerTwoDirections.add(DirectionEnum.NW);
+
+        ArrayList<DirectionEnum> kingDirections = new ArrayList<>();
+        kingDirections.add(DirectionEnum.SE);
+        kingDirections.add(DirectionEnum.SW);
+        kingDirections.add(DirectionEnum.NE);
+        kingDirections.add(DirectionEnum.NW);
+
+        // Set initial viable directions for each player
+        viableDirections.put(aConfig.getPlayerOne(), playerOneDirections);
+        viableDirections.put(aConfig.getPlayerTwo(), playerTwoDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerOne()), kingDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerTwo()), kingDirections);
+
+        // Place initial pieces for both players, but only on white tiles (' ')
+        for (int i = 0; i < ROW_NUM; i++) {
+            for (int j = 0; j < COL_NUM; j++) {
+                if ((i + j) % 2 == 0) {
+                    if (i < ROW_NUM / 2 - 1) {
+                        setBit(PLAYER_ONE_MEN, i * COL_NUM + j);  // Player One's pieces
+                    } else if (i >= ROW_NUM / 2 + 1) {
+                        setBit(PLAYER_TWO_MEN, i * COL_NUM + j);  // Player Two's pieces
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy constructor used by copy().
+     *
+     * @param source the board to copy
+     *
+     * @pre source != null
+     *
+     * @post [self holds the same position, counts, side to move and hash as source, with an empty undo journal]
+     */
+    private CheckerBoardBit(CheckerBoardBit source) {
+        super(source.getConfig());
+        ROW_NUM = source.ROW_NUM;
+        COL_NUM = source.COL_NUM;
+        masks = new long[MASK_COUNT][];
+        for (int type = 0; type < MASK_COUNT; type++) {
+            masks[type] = source.masks[type].clone();
+        }
+        otherPieces = (source.otherPieces == null) ? null : source.otherPieces.clone();
+        pieceChars = source.pieceChars;
+        geometry = source.geometry;
+        sources = new long[DirectionEnum.COUNT][masks[0].length];
+        empty = new long[masks[0].length];
+        opponents = new long[masks[0].length];
+        shifted = new long[masks[0].length];
+        pieceCount = new HashMap<>(source.pieceCount);
+        viableDirections = source.viableDirections;
+        copyStateFrom(source);
+    }
+
+    @Override
+    public ICheckerBoard copy() {
+        return new CheckerBoardBit(this);
+    }
+
+    @Override
+    public HashMap<Character, ArrayList<DirectionEnum>> getViableDirections() {
+        return viableDirections;
+    }
+
+    @Override
+    public HashMap<Character, Integer> getPieceCounts() {
+        return pieceCount;
+    }
+
+    @Override
+    public void placePiece(BoardPosition pos, char player) {
+        placePiece(pos.getRow() * COL_NUM + pos.getColumn(), player);
+    }
+
+    @Override
+    public void placePiece(int square, char player) {
+        char before = whatsAtPos(square);
+
+        // Clear whatever currently occupies the square
+        int word = square >>> WORD_SHIFT;
+        long keep = ~(1L << (square & WORD_MASK));
+        for (int type = 0; type < MASK_COUNT; type++) {
+            masks[type][word] &= keep;
+        }
+
+        int type = typeOf(player);
+        if (type != NO_MASK) {
+            setBit(type, square);
+        } else if (player != EMPTY_POS) {
+            // Anything else is remembered in the overflow array
+            if (otherPieces == null) {
+                otherPieces = new char[ROW_NUM * COL_NUM];
+            }
+            otherPieces[square] = player;
+            setBit(OTHER_PIECES, square);
+        }
+        hashPlacement(square, before, player);
+    }
+
+    @Override
+    public char whatsAtPos(BoardPosition pos) {
+        return whatsAtPos(pos.getRow() * COL_NUM + pos.getColumn());
+    }
+
+    @Override
+    public char whatsAtPos(int row, int col) {
+        return whatsAtPos(row * COL_NUM + col);
+    }
+
+    @Override
+    public char whatsAtPos(int square) {
+        int word = square >>> WORD_SHIFT;
+        long bit = 1L << (square & WORD_MASK);
+
+        for (int type = 0; type < OTHER_PIECES; type++) {
+            if ((masks[type][word] & bit) != 0) {
+                return pieceChars[type];
+            }
+        }
+        if ((masks[OTHER_PIECES][word] & bit) != 0) {
+            return otherPieces[square];
+        }
+        // Nothing stored: show the tile itself (COL_NUM is even, so square parity alternates by row)
+        return ((square / COL_NUM) + square) % 2 == 0 ? EMPTY_POS : BLACK_TILE;
+    }
+
+    /**
+     * Moves a piece of one of the four piece types by clearing its bit on square and setting the bit one step
+     * away in its own mask. Anything else, including a step off the board or onto an occupied square, is moved the
+     * way every other board moves it.
+     */
+    @Override
+    public int movePiece(int square, DirectionEnum dir) {
+        int d = dir.ordinal();
+        int type = typeAt(square);
+        int destination = square + geometry.offsets[d];
+        char player;
+        if (type != NO_MASK && type != OTHER_PIECES && isSet(geometry.stepFrom[d], square) && !isOccupied(destination)) {
+            player = pieceChars[type];
+            clearBit(type, square);
+            setBit(type, destination);
+            hashPlacement(square, player, EMPTY_POS);
+            hashPlacement(destination, EMPTY_POS, player);
+        } else {
+            destination = getNeighborTable().getStep(square, dir);
+            player = whatsAtPos(square);
+            placePiece(square, EMPTY_POS);
+            placePiece(destination, player);
+        }
+
+        BoardObserver observer = getObserver();
+        if (observer != null) {
+            observer.pieceMoved(square, destination, player);
+        }
+        return destination;
+    }
+
+    /**
+     * Jumps a piece of one of the four piece types over another by clearing the jumper's bit on square and the
+     * jumped piece's bit in the middle, and setting the jumper's bit on the landing square. Anything else is jumped
+     * the way every other board jumps it.
+     */
+    @Override
+    public int jumpPiece(int square, DirectionEnum dir) {
+        int d = dir.ordinal();
+        int type = typeAt(square);
+        int middle = square + geometry.offsets[d];
+        int landing = middle + geometry.offsets[d];
+        int jumpedType = isSet(geometry.jumpFrom[d], square) ? typeAt(middle) : NO_MASK;
+        char player;
+        char jumpedPiece;
+        if (type != NO_MASK && type != OTHER_PIECES && jumpedType != NO_MASK && jumpedType != OTHER_PIECES
+                && !isOccupied(landing)) {
+            player = pieceChars[type];
+            jumpedPiece = pieceChars[jumpedType];
+            clearBit(type, square);
+            clearBit(jumpedType, middle);
+            setBit(type, landing);
+            hashPlacement(square, player, EMPTY_POS);
+            hashPlacement(middle, jumpedPiece, EMPTY_POS);
+            hashPlacement(landing, EMPTY_POS, player);
+        } else {
+            NeighborTable neighbors = getNeighborTable();
+            landing = neighbors.getJump(square, dir);
+            middle = neighbors.getStep(square, dir);
+            player = whatsAtPos(square);
+            jumpedPiece = whatsAtPos(middle);
+            placePiece(square, EMPTY_POS);
+            placePiece(middle, EMPTY_POS);
+            placePiece(landing, player);
+        }
+        pieceCount.put(jumpedPiece, pieceCount.get(jumpedPiece) - 1);
+
+        BoardObserver observer = getObserver();
+        if (observer != null) {
+            observer.pieceJumped(square, middle, landing, player, jumpedPiece);
+        }
+        return landing;
+    }
+
+    @Override
+    public void scanSurroundingPositions(int square, char[] out) {
+        for (int d = 0; d < DirectionEnum.COUNT; d++) {
+            out[d] = isSet(geometry.stepFrom[d], square) ? whatsAtPos(square + geometry.offsets[d]) : OFF_BOARD;
+        }
+    }
+
+    /**
+     * Finds, for every direction at once, the squares from which player can step or jump that way, with shifts and
+     * ANDs over the piece masks. A piece can step in a direction when the square one step away is an empty white
+     * tile, and jump when that square holds an opponent's piece and the one beyond it is an empty white tile. Men
+     * only move in manDirections, kings in all four.
+     *
+     * @param player the lowercase character of the side to move
+     * @param manDirections the directions player's men move in, as a bitmask of DirectionEnum ordinals
+     * @param captures true for the squares that can jump, false for the squares that can step
+     *
+     * @return the squares, indexed [direction ordinal][word] with the bit of square s at
+     *         [s / Long.SIZE] and (1L << (s % Long.SIZE)); the arrays belong to this board and are overwritten by
+     *         the next call
+     *
+     * @pre player is the lowercase character of a player on the board
+     *
+     * @post self = #self
+     */
+    long[][] moveSources(char player, int manDirections, boolean captures) {
+        int men = typeOf(player);
+        int kings = typeOf(Character.toUpperCase(player));
+        int words = empty.length;
+
+        // Empty white tiles, and the opponent's pieces, including letters kept in the overflow array
+        for (int word = 0; word < words; word++) {
+            long occupied = 0;
+            long enemy = 0;
+            for (int type = 0; type < OTHER_PIECES; type++) {
+                occupied |= masks[type][word];
+                if (type != men && type != kings) {
+                    enemy |= masks[type][word];
+                }
+            }
+            long other = masks[OTHER_PIECES][word];
+            for (long bits = other; bits != 0; bits &= bits - 1) {
+                char piece = otherPieces[(word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits)];
+                if (MoveGenerator.isOpponent(piece, player)) {
+                    enemy |= Long.lowestOneBit(bits);
+                }
+            }
+            empty[word] = geometry.whiteTiles[word] & ~(occupied | other);
+            opponents[word] = enemy;
+        }
+
+        for (int d = 0; d < DirectionEnum.COUNT; d++) {
+            long[] from = sources[d];
+            boolean menMove = men != NO_MASK && (manDirections & (1 << d)) != 0;
+            for (int word = 0; word < words; word++) {
+                long movers = (kings == NO_MASK) ? 0 : masks[kings][word];
+                if (menMove) {
+                    movers |= masks[men][word];
+                }
+                from[word] = movers & geometry.whiteTiles[word];
+            }
+            int offset = geometry.offsets[d];
+            if (captures) {
+                // Bit s of shifted is set when square s + offset is empty, then when square s + 2 * offset is
+                shiftTowardLower(empty, 2 * offset, shifted);
+                and(from, geometry.jumpFrom[d], shifted);
+                shiftTowardLower(opponents, offset, shifted);
+                and(from, shifted, null);
+            } else {
+                shiftTowardLower(empty, offset, shifted);
+                and(from, geometry.stepFrom[d], shifted);
+            }
+        }
+        return sources;
+    }
+
+    @Override
+    public int getRowNum()
+    {
+        return ROW_NUM;
+    }
+
+    @Override
+    public int getColNum()
+    {
+        return COL_NUM;
+    }
+
+    /**
+     * Counts how many squares currently hold the given piece character using a population count over its bitmask.
+     *
+     * @param piece the piece character to count (a player's man or king)
+     *
+     * @return the number of squares holding piece, or 0 if piece is not one of the four piece types
+     *
+     * @pre none
+     *
+     * @post countPieces = [number of squares where whatsAtPos = piece] AND self = #self
+     */
+    public int countPieces(char piece) {
+        int type = typeOf(piece);
+        if (type == NO_MASK) {
+            return NO_PIECES_LEFT;
+        }
+        int count = 0;
+        for (long word : masks[type]) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns a copy of the bitmask for the given piece character, one bit per square indexed by
+     * row * getColNum() + column.
+     *
+     * @param piece the piece character whose mask should be returned
+     *
+     * @return the bitmask words for piece, all zero if piece is not one of the four piece types
+     *
+     * @pre none
+     *
+     * @post getPieceMask = [copy of the mask for piece] AND self = #self
+     */
+    public long[] getPieceMask(char piece) {
+        int type = typeOf(piece);
+        if (type == NO_MASK) {
+            return new long[masks[OTHER_PIECES].length];
+        }
+        return masks[type].clone();
+    }
+
+    /**
+     * Returns the mask index used to store piece, or NO_MASK if piece is not one of the four piece types.
+     */
+    private int typeOf(char piece) {
+        for (int type = 0; type < OTHER_PIECES; type++) {
+            if (pieceChars[type] == piece) {
+                return type;
+            }
+        }
+        return NO_MASK;
+    }
+
+    /**
+     * Returns the mask index holding whatever is on square, or NO_MASK if the square is empty.
+     */
+    private int typeAt(int square) {
+        for (int type = 0; type < MASK_COUNT; type++) {
+            if (isSet(masks[type], square)) {
+                return type;
+            }
+        }
+        return NO_MASK;
+    }
+
+    private boolean isOccupied(int square) {
+        return typeAt(square) != NO_MASK;
+    }
+
+    private void setBit(int type, int square) {
+        masks[type][square >>> WORD_SHIFT] |= 1L << (square & WORD_MASK);
+    }
+
+    private void clearBit(int type, int square) {
+        masks[type][square >>> WORD_SHIFT] &= ~(1L << (square & WORD_MASK));
+    }
+
+    private static boolean isSet(long[] mask, int square) {
+        return (mask[square >>> WORD_SHIFT] & (1L << (square & WORD_MASK))) != 0;
+    }
+
+    /**
+     * Sets bit s of out to bit s + distance of mask, for -64 < distance < 64; bits shifted in from past either end
+     * are zero.
+     */
+    private static void shiftTowardLower(long[] mask, int distance, long[] out) {
+        int words = mask.length;
+        if (distance > 0) {
+            for (int word = 0; word < words; word++) {
+                long high = (word + 1 < words) ? mask[word + 1] << (Long.SIZE - distance) : 0;
+                out[word] = (mask[word] >>> distance) | high;
+            }
+        } else {
+            distance = -distance;
+            for (int word = words - 1; word >= 0; word--) {
+                long low = (word > 0) ? mask[word - 1] >>> (Long.SIZE - distance) : 0;
+                out[word] = (mask[word] << distance) | low;
+            }
+        }
+    }
+
+    /**
+     * ANDs into into with mask and, unless it is null, also.
+     */
+    private static void and(long[] into, long[] mask, long[] also) {
+        for (int word = 0; word < into.length; word++) {
+            into[word] &= mask[word];
+            if (also != null) {
+                into[word] &= also[word];
+            }
+        }
+    }
+
+    /**
+     * The masks that depend only on the board size: the white tiles, the squares from which a step or a jump in
+     * each direction stays on the board, and how far a step in each direction moves a square's bit. Shared by every
+     * board of one size, like NeighborTable.
+     */
+    private static final class Geometry
+    {
+        private static final AtomicReferenceArray<Geometry> CACHE =
+                new AtomicReferenceArray<>(NeighborTable.MAX_DIMENSION + 1);
+
+        final long[] whiteTiles;
+        final long[][] stepFrom;
+        final long[][] jumpFrom;
+        final int[] offsets;
+
+        private Geometry(int dimension) {
+            int words = (dimension * dimension + WORD_MASK) >>> WORD_SHIFT;
+            NeighborTable neighbors = NeighborTable.forDimension(dimension);
+            whiteTiles = new long[words];
+            stepFrom = new long[DirectionEnum.COUNT][words];
+            jumpFrom = new long[DirectionEnum.COUNT][words];
+            offsets = new int[DirectionEnum.COUNT];
+            for (DirectionEnum dir : DirectionEnum.values()) {
+                offsets[dir.ordinal()] = ICheckerBoard.getRowOffset(dir) * dimension + ICheckerBoard.getColumnOffset(dir);
+            }
+            for (int square = 0; square < dimension * dimension; square++) {
+                int word = square >>> WORD_SHIFT;
+                long bit = 1L << (square & WORD_MASK);
+                if (((square / dimension) + square) % 2 == 0) {
+                    whiteTiles[word] |= bit;
+                }
+                for (int d = 0; d < DirectionEnum.COUNT; d++) {
+                    if (neighbors.getStep(square, d) != NeighborTable.OFF_BOARD) {
+                        stepFrom[d][word] |= bit;
+                    }
+                    if (neighbors.getJump(square, d) != NeighborTable.OFF_BOARD) {
+                        jumpFrom[d][word] |= bit;
+                    }
+                }
+            }
+        }
+
+        static Geometry forDimension(int dimension) {
+            Geometry geometry = CACHE.get(dimension);
+            if (geometry == null) {
+                CACHE.compareAndSet(dimension, null, new Geometry(dimension));
+                geometry = CACHE.get(dimension);
+            }
+            return geometry;
+        }
+    }
+}
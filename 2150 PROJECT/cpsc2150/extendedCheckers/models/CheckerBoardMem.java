@@ -3,13 +3,15 @@ package cpsc2150.extendedCheckers.models;
 import cpsc2150.extendedCheckers.util.DirectionEnum;
 import cpsc2150.extendedCheckers.views.CheckersFE;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * CheckerBoardMem is a memory-efficient implementation of the ICheckerBoard interface.
- * This class stores the board positions using a Map, where each player’s pieces are represented by a list
- * of BoardPosition objects. The board itself is a grid of alternating black and white tiles, with pieces
- * placed on the white tiles initially.
+ * This class only stores the squares that actually hold something. Each occupied square is kept in a small
+ * open-addressing hash table keyed by its square index (row * COL_NUM + column), so a board with few pieces left
+ * uses little memory while whatsAtPos and placePiece stay constant time no matter how many pieces are on the board.
+ * The board itself is a grid of alternating black and white tiles, with pieces placed on the white tiles initially.
  *
  * @Corresponds The CheckerBoardMem object (self) manages the game state for both players,
  *              tracking the positions of their pieces and the current piece counts.
@@ -20,11 +22,10 @@ import java.util.*;
  *          EMPTY_POS: A constant representing an empty space (' ') on the board.
  *          BLACK_TILE: A constant representing the black tiles ('*') on the board.
  *
- * @Invariant The board is represented by a Map where each player's pieces and their kings are tracked
- *            in separate lists of BoardPosition objects. The pieceCount Map tracks the number of pieces
- *            and kings for each player, while the viableDirections Map stores the valid movement directions
- *            for each player and their kings. The board must always maintain valid positions for each piece
- *            and ensure that players' pieces can move according to the rules.
+ * @Invariant The board is represented by the occupied-square table, which holds at most one entry per square and
+ *            never holds an entry whose piece equals the plain tile at that square. The pieceCount Map tracks the
+ *            number of pieces and kings for each player, while the viableDirections Map stores the valid movement
+ *            directions for each player and their kings. The table is never more than half full.
  */
 
 public class CheckerBoardMem extends AbsCheckerBoard {
@@ -33,8 +34,10 @@ public class CheckerBoardMem extends AbsCheckerBoard {
     private int COL_NUM;
 
 
-    //Contains key, the value is a list of board position objects occupied by each key(player)
-    private Map<Character, List<BoardPosition>> board;
+    //Occupied-square table: squares[slot] holds (square index + 1), or FREE_SLOT, and pieces[slot] the piece on it
+    private int[] squares;
+    private char[] pieces;
+    private int occupied;
     private HashMap<Character, Integer> pieceCount;
     private HashMap<Character, ArrayList<DirectionEnum>> viableDirections;
 
@@ -45,43 +48,66 @@ public class CheckerBoardMem extends AbsCheckerBoard {
     public static final int ROW_BOUNDARY = 0;          // Minimum row value
     public static final int COL_BOUNDARY = 0;          // Minimum column value
 
+    private static final int FREE_SLOT = 0;
+    private static final int MIN_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9; // Fibonacci hashing spreads neighbouring squares apart
+
     /**
-     * Constructor for initializing the Memory-Efficient CheckerBoard with given dimensions.
+     * Constructor for a board of the given size between the players currently set in CheckersFE. Kept for callers
+     * written before GameConfig existed; new code should pass its own GameConfig.
      *
      * @param aDimensions the size of the board (both width and height)
      *
      * @pre aDimensions >= 8 AND aDimensions <= 16 AND aDimensions % 2 == 0
      *
-     * @post [The board is initialized with alternating black (*) and white (' ') tiles] AND
-     *       [Player One's pieces are placed on rows 0 through (aDimensions / 2 - 2)] AND
-     *       [Player Two's pieces are placed on rows (aDimensions / 2 + 1) through (aDimensions - 1)] AND
+     * @post self = new CheckerBoardMem(CheckersFE.getGameConfig().withDimension(aDimensions))
+     */
+    public CheckerBoardMem(int aDimensions) {
+        this(CheckersFE.getGameConfig().withDimension(aDimensions));
+    }
+
+    /**
+     * Constructor for initializing the Memory-Efficient CheckerBoard for the given game.
+     *
+     * @param aConfig the players and size of the board
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig AND
+     *       [The board is initialized with alternating black (*) and white (' ') tiles] AND
+     *       [Player One's pieces are placed on rows 0 through (aConfig.getDimension() / 2 - 2)] AND
+     *       [Player Two's pieces are placed on rows (aConfig.getDimension() / 2 + 1) through (aConfig.getDimension() - 1)] AND
      *       [Empty white tiles are set to EMPTY_POS (' ')] AND
      *       [Black tiles are set to BLACK_TILE ('*')] AND
-     *       ROW_NUM = aDimensions AND COL_NUM = aDimensions AND
-     *       [Player One and Two piece counts are initialized to ((aDimensions / 2 - 1) * (aDimensions / 2)) each] AND
+     *       ROW_NUM = aConfig.getDimension() AND COL_NUM = aConfig.getDimension() AND
+     *       [Player One and Two piece counts are initialized to ((aConfig.getDimension() / 2 - 1) * (aConfig.getDimension() / 2)) each] AND
      *       [Kings' piece counts are set to 0] AND
      *       [Viable directions for regular pieces and kings are set]
      */
 
-    public CheckerBoardMem(int aDimensions) {
-        ROW_NUM = aDimensions;
-        COL_NUM = aDimensions;
-        board = new HashMap<>();
+    public CheckerBoardMem(GameConfig aConfig) {
+        super(aConfig);
+        ROW_NUM = aConfig.getDimension();
+        COL_NUM = aConfig.getDimension();
         pieceCount = new HashMap<>();
         viableDirections = new HashMap<>();
 
-        // Initialize empty lists for each player and their kings
-        board.put(CheckersFE.getPlayerOne(), new ArrayList<>());  // Player one's positions
-        board.put(CheckersFE.getPlayerTwo(), new ArrayList<>());  // Player two's positions
-        board.put(Character.toUpperCase(CheckersFE.getPlayerOne()), new ArrayList<>()); // Player one kings' positions
-        board.put(Character.toUpperCase(CheckersFE.getPlayerTwo()), new ArrayList<>()); // Player two kings' positions
+        // Size the table for every starting piece while keeping it at most half full
+        int startingPieces = 2 * (ROW_NUM / 2 - 1) * (COL_NUM / 2);
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * startingPieces) {
+            capacity <<= 1;
+        }
+        squares = new int[capacity];
+        pieces = new char[capacity];
+        occupied = 0;
 
 
         // Simply initialize piece count for both players
-        pieceCount.put(CheckersFE.getPlayerOne(), NO_PIECES_LEFT);
-        pieceCount.put(CheckersFE.getPlayerTwo(), NO_PIECES_LEFT);
-        pieceCount.put(Character.toUpperCase(CheckersFE.getPlayerOne()), NO_PIECES_LEFT); // Player One Kings
-        pieceCount.put(Character.toUpperCase(CheckersFE.getPlayerTwo()), NO_PIECES_LEFT); // Player Two Kings
+        pieceCount.put(aConfig.getPlayerOne(), NO_PIECES_LEFT);
+        pieceCount.put(aConfig.getPlayerTwo(), NO_PIECES_LEFT);
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerOne()), NO_PIECES_LEFT); // Player One Kings
+        pieceCount.put(Character.toUpperCase(aConfig.getPlayerTwo()), NO_PIECES_LEFT); // Player Two Kings
 
         // Initialize directions for each player and their kings
         ArrayList<DirectionEnum> playerOneDirections = new ArrayList<>();
@@ -99,32 +125,56 @@ public class CheckerBoardMem extends AbsCheckerBoard {
         kingDirections.add(DirectionEnum.NW);
 
         // Set initial directions
-        viableDirections.put(CheckersFE.getPlayerOne(), playerOneDirections);
-        viableDirections.put(CheckersFE.getPlayerTwo(), playerTwoDirections);
-        viableDirections.put(Character.toUpperCase(CheckersFE.getPlayerOne()), kingDirections);
-        viableDirections.put(Character.toUpperCase(CheckersFE.getPlayerTwo()), kingDirections);
+        viableDirections.put(aConfig.getPlayerOne(), playerOneDirections);
+        viableDirections.put(aConfig.getPlayerTwo(), playerTwoDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerOne()), kingDirections);
+        viableDirections.put(Character.toUpperCase(aConfig.getPlayerTwo()), kingDirections);
 
 
-        // Initialize the board with empty spaces (' ') and place pieces for both players
+        // Place pieces for both players on the white tiles
         for (int i = 0; i < ROW_NUM; i++) {
             for (int j = 0; j < COL_NUM; j++) {
                 if ((i + j) % 2 == 0) {  // Only place on white tiles (' ')
                     if (i < ROW_NUM / 2 - 1) {
                         // Player One's pieces
-                        BoardPosition pos = new BoardPosition(i, j);
-                        this.board.get(CheckersFE.getPlayerOne()).add(pos);
-                        pieceCount.put(CheckersFE.getPlayerOne(), pieceCount.get(CheckersFE.getPlayerOne()) + 1);
+                        store(i * COL_NUM + j, aConfig.getPlayerOne());
+                        pieceCount.put(aConfig.getPlayerOne(), pieceCount.get(aConfig.getPlayerOne()) + 1);
                     } else if (i >= ROW_NUM / 2 + 1) {
                         // Player Two's pieces
-                        BoardPosition pos = new BoardPosition(i, j);
-                        this.board.get(CheckersFE.getPlayerTwo()).add(pos);
-                        pieceCount.put(CheckersFE.getPlayerTwo(), pieceCount.get(CheckersFE.getPlayerTwo()) + 1);
+                        store(i * COL_NUM + j, aConfig.getPlayerTwo());
+                        pieceCount.put(aConfig.getPlayerTwo(), pieceCount.get(aConfig.getPlayerTwo()) + 1);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Copy constructor used by copy().
+     *
+     * @param source the board to copy
+     *
+     * @pre source != null
+     *
+     * @post [self holds the same position, counts, side to move and hash as source, with an empty undo journal]
+     */
+    private CheckerBoardMem(CheckerBoardMem source) {
+        super(source.getConfig());
+        ROW_NUM = source.ROW_NUM;
+        COL_NUM = source.COL_NUM;
+        squares = source.squares.clone();
+        pieces = source.pieces.clone();
+        occupied = source.occupied;
+        pieceCount = new HashMap<>(source.pieceCount);
+        viableDirections = source.viableDirections;
+        copyStateFrom(source);
+    }
+
+    @Override
+    public ICheckerBoard copy() {
+        return new CheckerBoardMem(this);
+    }
+
     @Override
     public HashMap<Character, ArrayList<DirectionEnum>> getViableDirections() {
         return this.viableDirections;
@@ -138,66 +188,68 @@ public class CheckerBoardMem extends AbsCheckerBoard {
 
     @Override
     public void placePiece(BoardPosition pos, char player) {
-        char currentPiece = whatsAtPos(pos); // Get the current piece at the position
-        if (player == EMPTY_POS) {
-            // Remove a piece from the board
-            if (currentPiece != EMPTY_POS && currentPiece != BLACK_TILE) {
-                this.board.get(currentPiece).remove(pos);
-            }
+        placePiece(pos.getRow() * COL_NUM + pos.getColumn(), player);
+    }
+
+    @Override
+    public void placePiece(int square, char player) {
+        int row = square / COL_NUM;
+        char tile = (row + square) % ODD_TILE_CHECK_MODULO == 1 ? BLACK_TILE : EMPTY_POS;
+
+        char before = whatsAtPos(square);
+
+        // Whatever was on the square is replaced
+        remove(square);
+        if (player == EMPTY_POS || player == tile) {
+            hashPlacement(square, before, tile);
+            return;
+        }
+
+        if (player == getConfig().getPlayerOne() && row == ROW_NUM - 1) {
+            // King Player One's piece
+            store(square, Character.toUpperCase(getConfig().getPlayerOne()));
+            getPieceCounts().put(getConfig().getPlayerOne(), getPieceCounts().get(getConfig().getPlayerOne()) - 1);
+            getPieceCounts().put(Character.toUpperCase(getConfig().getPlayerOne()), getPieceCounts().getOrDefault(Character.toUpperCase(getConfig().getPlayerOne()), 0) + 1);
+        } else if (player == getConfig().getPlayerTwo() && row == 0) {
+            // King Player Two's piece
+            store(square, Character.toUpperCase(getConfig().getPlayerTwo()));
+            getPieceCounts().put(getConfig().getPlayerTwo(), getPieceCounts().get(getConfig().getPlayerTwo()) - 1);
+            getPieceCounts().put(Character.toUpperCase(getConfig().getPlayerTwo()), getPieceCounts().getOrDefault(Character.toUpperCase(getConfig().getPlayerTwo()), 0) + 1);
         } else {
-            // Place a new piece on the board
-            if (currentPiece != EMPTY_POS && currentPiece != BLACK_TILE) {
-                // Remove the existing piece from the position
-                this.board.get(currentPiece).remove(pos);
-            }
-            // Add the new piece
-            this.board.get(player).add(pos);
-            if (player == CheckersFE.getPlayerOne() && pos.getRow() == ROW_NUM - 1) {
-                // King Player One's piece
-                this.board.get(CheckersFE.getPlayerOne()).remove(pos);
-                this.board.get(Character.toUpperCase(CheckersFE.getPlayerOne())).add(pos);
-                getPieceCounts().put(CheckersFE.getPlayerOne(), getPieceCounts().get(CheckersFE.getPlayerOne()) - 1);
-                getPieceCounts().put(Character.toUpperCase(CheckersFE.getPlayerOne()), getPieceCounts().getOrDefault(Character.toUpperCase(CheckersFE.getPlayerOne()), 0) + 1);
-            } else if (player == CheckersFE.getPlayerTwo() && pos.getRow() == 0) {
-                // King Player Two's piece
-                this.board.get(CheckersFE.getPlayerTwo()).remove(pos);
-                this.board.get(Character.toUpperCase(CheckersFE.getPlayerTwo())).add(pos);
-                getPieceCounts().put(CheckersFE.getPlayerTwo(), getPieceCounts().get(CheckersFE.getPlayerTwo()) - 1);
-                getPieceCounts().put(Character.toUpperCase(CheckersFE.getPlayerTwo()), getPieceCounts().getOrDefault(Character.toUpperCase(CheckersFE.getPlayerTwo()), 0) + 1);
-            }
+            store(square, player);
         }
+        hashPlacement(square, before, whatsAtPos(square));
     }
 
     @Override
     public char whatsAtPos(BoardPosition pos) {
-        if((pos.getRow() + pos.getColumn()) % ODD_TILE_CHECK_MODULO == 1 || pos.getRow() >= this.getRowNum() || pos.getRow() < ROW_BOUNDARY
-                || pos.getColumn() >= this.getColNum() || pos.getColumn() < COL_BOUNDARY)
+        return whatsAtPos(pos.getRow(), pos.getColumn());
+    }
+
+    @Override
+    public char whatsAtPos(int row, int col) {
+        if(row >= this.getRowNum() || row < ROW_BOUNDARY || col >= this.getColNum() || col < COL_BOUNDARY)
         {
             return BLACK_TILE;
         }
-        if(this.board.get(CheckersFE.getPlayerOne()).contains(pos))
-        {
-            return CheckersFE.getPlayerOne();
-        }
-        else if (this.board.get(CheckersFE.getPlayerTwo()).contains(pos))
+        int slot = find(row * COL_NUM + col);
+        if (slot >= 0)
         {
-            return CheckersFE.getPlayerTwo();
+            return pieces[slot];
         }
-        else if(this.board.get(Character.toUpperCase(CheckersFE.getPlayerOne())).contains(pos))
-        {
-            return Character.toUpperCase(CheckersFE.getPlayerOne());
-        }
-        else if (this.board.get(Character.toUpperCase(CheckersFE.getPlayerTwo())).contains(pos))
-        {
-            return Character.toUpperCase(CheckersFE.getPlayerTwo());
-        }
-        else
+        return (row + col) % ODD_TILE_CHECK_MODULO == 1 ? BLACK_TILE : EMPTY_POS;
+    }
+
+    @Override
+    public char whatsAtPos(int square) {
+        int slot = find(square);
+        if (slot >= 0)
         {
-            return EMPTY_POS;
+            return pieces[slot];
         }
+        return (square / COL_NUM + square) % ODD_TILE_CHECK_MODULO == 1 ? BLACK_TILE : EMPTY_POS;
     }
 
-
     @Override
     public int getRowNum()
     {
@@ -209,4 +261,83 @@ public class CheckerBoardMem extends AbsCheckerBoard {
     {
         return COL_NUM;
     }
+
+    /**
+     * Returns the first table slot probed for square.
+     */
+    private int home(int square) {
+        return (square * HASH_MULTIPLIER) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(squares.length));
+    }
+
+    /**
+     * Returns the table slot holding square, or -1 if the square is not occupied.
+     */
+    private int find(int square) {
+        int mask = squares.length - 1;
+        int key = square + 1;
+        for (int slot = home(square); squares[slot] != FREE_SLOT; slot = (slot + 1) & mask) {
+            if (squares[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores piece on square, which must not already be in the table.
+     */
+    private void store(int square, char piece) {
+        if (2 * (occupied + 1) > squares.length) {
+            grow();
+        }
+        int mask = squares.length - 1;
+        int slot = home(square);
+        while (squares[slot] != FREE_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        squares[slot] = square + 1;
+        pieces[slot] = piece;
+        occupied++;
+    }
+
+    /**
+     * Removes square from the table if present, shifting later entries of the probe run back so that
+     * lookups never need tombstones.
+     */
+    private void remove(int square) {
+        int slot = find(square);
+        if (slot < 0) {
+            return;
+        }
+        int mask = squares.length - 1;
+        int next = (slot + 1) & mask;
+        while (squares[next] != FREE_SLOT) {
+            int wanted = home(squares[next] - 1);
+            // Move the entry back if its home slot does not lie cyclically in (slot, next]
+            if (((next - wanted) & mask) >= ((next - slot) & mask)) {
+                squares[slot] = squares[next];
+                pieces[slot] = pieces[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        squares[slot] = FREE_SLOT;
+        occupied--;
+    }
+
+    /**
+     * Doubles the table capacity, only needed when more squares are filled than the starting pieces.
+     */
+    private void grow() {
+        int[] oldSquares = squares;
+        char[] oldPieces = pieces;
+        squares = new int[oldSquares.length * 2];
+        pieces = new char[oldSquares.length * 2];
+        occupied = 0;
+        for (int slot = 0; slot < oldSquares.length; slot++) {
+            if (oldSquares[slot] != FREE_SLOT) {
+                store(oldSquares[slot] - 1, oldPieces[slot]);
+            }
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * GameConfig holds the settings of one game: the characters of the two players and the size of the board. Every
+ * board is built from a GameConfig and keeps it, so games with different piece letters and sizes can exist side
+ * by side in one process.
+ *
+ * Player one's men start on the top rows and move south (SE/SW); player two's start on the bottom rows and move
+ * north (NE/NW). A man is crowned on the far row and shown as the upper-case form of its player's character. The
+ * move rules themselves (mandatory captures, multi-jumps) are those of MoveGenerator.
+ *
+ * A GameConfig is immutable and can be shared freely between threads.
+ *
+ * @Invariant playerOne and playerTwo are distinct lowercase letters AND
+ *            MIN_DIMENSION <= dimension <= MAX_DIMENSION AND dimension % 2 == 0
+ */
+public final class GameConfig
+{
+    public static final char DEFAULT_PLAYER_ONE = 'x';
+    public static final char DEFAULT_PLAYER_TWO = 'o';
+    public static final int DEFAULT_DIMENSION = 8;
+    public static final int MIN_DIMENSION = NeighborTable.MIN_DIMENSION;
+    public static final int MAX_DIMENSION = NeighborTable.MAX_DIMENSION;
+
+    private final char playerOne;
+    private final char playerTwo;
+    private final int dimension;
+
+    /**
+     * Creates a configuration for an 8x8 game between 'x' and 'o'.
+     *
+     * @post getPlayerOne() = DEFAULT_PLAYER_ONE AND getPlayerTwo() = DEFAULT_PLAYER_TWO AND
+     *       getDimension() = DEFAULT_DIMENSION
+     */
+    public GameConfig() {
+        this(DEFAULT_PLAYER_ONE, DEFAULT_PLAYER_TWO, DEFAULT_DIMENSION);
+    }
+
+    /**
+     * Creates a configuration.
+     *
+     * @param aPlayerOne the character of player one, in either case
+     * @param aPlayerTwo the character of player two, in either case
+     * @param aDimension the number of rows and columns of the board
+     *
+     * @throws IllegalArgumentException if a player character is not a letter, both players have the same letter,
+     *         or the dimension is odd or outside MIN_DIMENSION..MAX_DIMENSION
+     *
+     * @post getPlayerOne() = [aPlayerOne in lowercase] AND getPlayerTwo() = [aPlayerTwo in lowercase] AND
+     *       getDimension() = aDimension
+     */
+    public GameConfig(char aPlayerOne, char aPlayerTwo, int aDimension) {
+        if (!Character.isLetter(aPlayerOne) || !Character.isLetter(aPlayerTwo)) {
+            throw new IllegalArgumentException("Player characters must be letters: '" + aPlayerOne + "', '" +
+                    aPlayerTwo + "'");
+        }
+        if (Character.toLowerCase(aPlayerOne) == Character.toLowerCase(aPlayerTwo)) {
+            throw new IllegalArgumentException("Both players cannot use '" + aPlayerOne + "'");
+        }
+        if (aDimension < MIN_DIMENSION || aDimension > MAX_DIMENSION || aDimension % 2 != 0) {
+            throw new IllegalArgumentException("Unsupported board size " + aDimension);
+        }
+        playerOne = Character.toLowerCase(aPlayerOne);
+        playerTwo = Character.toLowerCase(aPlayerTwo);
+        dimension = aDimension;
+    }
+
+    public char getPlayerOne() {
+        return playerOne;
+    }
+
+    public char getPlayerTwo() {
+        return playerTwo;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the lowercase character of the player facing the owner of piece.
+     *
+     * @param piece a man or king of either player
+     *
+     * @return getPlayerTwo() for player one's pieces, getPlayerOne() otherwise
+     */
+    public char getOpponent(char piece) {
+        return (Character.toLowerCase(piece) == playerOne) ? playerTwo : playerOne;
+    }
+
+    /**
+     * Returns true if piece is a man or king of either player.
+     */
+    public boolean isPiece(char piece) {
+        char player = Character.toLowerCase(piece);
+        return player == playerOne || player == playerTwo;
+    }
+
+    /**
+     * Returns the number of men each player starts with.
+     *
+     * @post getStartingPieceCount = (getDimension() / 2 - 1) * (getDimension() / 2)
+     */
+    public int getStartingPieceCount() {
+        return (dimension / 2 - 1) * (dimension / 2);
+    }
+
+    /**
+     * Returns a configuration with the same players on a board of another size.
+     *
+     * @throws IllegalArgumentException if aDimension is not a supported board size
+     *
+     * @post withDimension.getPlayerOne() = getPlayerOne() AND withDimension.getPlayerTwo() = getPlayerTwo() AND
+     *       withDimension.getDimension() = aDimension
+     */
+    public GameConfig withDimension(int aDimension) {
+        return aDimension == dimension ? this : new GameConfig(playerOne, playerTwo, aDimension);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameConfig)) {
+            return false;
+        }
+        GameConfig config = (GameConfig) other;
+        return playerOne == config.playerOne && playerTwo == config.playerTwo && dimension == config.dimension;
+    }
+
+    @Override
+    public int hashCode() {
+        return (playerOne * 31 + playerTwo) * 31 + dimension;
+    }
+
+    @Override
+    public String toString() {
+        return playerOne + " vs " + playerTwo + " on " + dimension + "x" + dimension;
+    }
+}
@@ -0,0 +1,180 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * GameSession is one game in progress: a board, the GameConfig it was built for, and whose turn it is. Moves go
+ * through play, which only accepts moves MoveGenerator lists for the side to move, and can be taken back with undo.
+ *
+ * All of a session's state lives in the session and its board, so any number of sessions with different players
+ * and board sizes can run at once. A single session is not thread-safe; give each thread its own sessions or
+ * guard a shared one externally.
+ *
+ * A side with no legal move (no pieces left, or every piece blocked) has lost.
+ *
+ * @Corresponds The GameSession object (self) is the game on getBoard() with getCurrentPlayer() to move after
+ *              getMoveCount() moves.
+ *
+ * @Invariant getCurrentPlayer() = getConfig().getPlayerOne() IF getMoveCount() is even, getConfig().getPlayerTwo()
+ *            otherwise AND getMoveCount() = getBoard().getUndoJournal().size()
+ */
+public final class GameSession
+{
+    private final ICheckerBoard board;
+    private final GameConfig config;
+
+    //legal moves for currentPlayer, regenerated after every play and undo
+    private final MoveBuffer legalMoves = new MoveBuffer();
+    private boolean legalMovesReady;
+    private char currentPlayer;
+
+    /**
+     * Starts a game on a new CheckerBoard for config.
+     *
+     * @param aConfig the players and size of the board
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig AND [getBoard() is in the starting position] AND
+     *       getCurrentPlayer() = aConfig.getPlayerOne() AND getMoveCount() = 0
+     */
+    public GameSession(GameConfig aConfig) {
+        this(new CheckerBoard(aConfig));
+    }
+
+    /**
+     * Starts a game on an existing board, with player one to move. The board's undo journal is cleared so that
+     * undo cannot reach moves made before the session began.
+     *
+     * @param aBoard the board to play on
+     *
+     * @pre aBoard != null
+     *
+     * @post getBoard() = aBoard AND getConfig() = aBoard.getConfig() AND
+     *       getCurrentPlayer() = aBoard.getConfig().getPlayerOne() AND getMoveCount() = 0
+     */
+    public GameSession(ICheckerBoard aBoard) {
+        board = aBoard;
+        config = aBoard.getConfig();
+        currentPlayer = config.getPlayerOne();
+        board.getUndoJournal().clear();
+    }
+
+    public ICheckerBoard getBoard() {
+        return board;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public char getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getMoveCount() {
+        return board.getUndoJournal().size();
+    }
+
+    /**
+     * Fills out with every legal move for the side to move.
+     *
+     * @param out the buffer to fill; it is cleared first
+     *
+     * @return the number of legal moves
+     *
+     * @pre out != null
+     *
+     * @post out = [MoveGenerator.generateMoves(getBoard(), getCurrentPlayer())] AND self = #self
+     */
+    public int getLegalMoves(MoveBuffer out) {
+        MoveBuffer moves = legalMoves();
+        out.clear();
+        for (int i = 0; i < moves.size(); i++) {
+            out.add(moves.get(i));
+        }
+        return out.size();
+    }
+
+    /**
+     * Returns true if the side to move may play move.
+     */
+    public boolean isLegal(long move) {
+        MoveBuffer moves = legalMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays move for the side to move and passes the turn.
+     *
+     * @param move a packed move (see Move)
+     *
+     * @throws IllegalArgumentException if move is not a legal move for getCurrentPlayer()
+     *
+     * @post [move is applied to getBoard()] AND getMoveCount() = #getMoveCount() + 1 AND
+     *       getCurrentPlayer() = getConfig().getOpponent(#getCurrentPlayer())
+     */
+    public void play(long move) {
+        if (!isLegal(move)) {
+            throw new IllegalArgumentException("Illegal move for '" + currentPlayer + "': " +
+                    Move.toString(move, board.getColNum()));
+        }
+        board.applyMove(move);
+        passTurn();
+    }
+
+    /**
+     * Takes back the last move played.
+     *
+     * @throws IllegalStateException if no move has been played
+     *
+     * @post [getBoard() is as it was before the last play] AND getMoveCount() = #getMoveCount() - 1 AND
+     *       getCurrentPlayer() = getConfig().getOpponent(#getCurrentPlayer())
+     */
+    public void undo() {
+        if (board.getUndoJournal().isEmpty()) {
+            throw new IllegalStateException("No move to undo");
+        }
+        board.undoMove();
+        passTurn();
+    }
+
+    /**
+     * Returns true if the side to move has no legal move, which ends the game.
+     */
+    public boolean isOver() {
+        return legalMoves().isEmpty();
+    }
+
+    /**
+     * Returns the winner of a finished game.
+     *
+     * @return the lowercase character of the winner, or CheckerBoard.EMPTY_POS while the game is still going
+     *
+     * @post getWinner = getConfig().getOpponent(getCurrentPlayer()) IF isOver() ELSE CheckerBoard.EMPTY_POS
+     */
+    public char getWinner() {
+        return isOver() ? config.getOpponent(currentPlayer) : CheckerBoard.EMPTY_POS;
+    }
+
+    @Override
+    public String toString() {
+        return config + ", move " + getMoveCount() + ", '" + currentPlayer + "' to move\n" + board;
+    }
+
+    private MoveBuffer legalMoves() {
+        if (!legalMovesReady) {
+            MoveGenerator.generateMoves(board, currentPlayer, legalMoves);
+            legalMovesReady = true;
+        }
+        return legalMoves;
+    }
+
+    private void passTurn() {
+        currentPlayer = config.getOpponent(currentPlayer);
+        legalMovesReady = false;
+    }
+}
@@ -1,7 +1,6 @@
 package cpsc2150.extendedCheckers.models;
 
 import cpsc2150.extendedCheckers.util.DirectionEnum;
-import cpsc2150.extendedCheckers.views.CheckersFE;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,6 +24,8 @@ import java.util.HashMap;
  *          board: representation of the checkerboard layout
  *          pieceCount: tracks the number of pieces for each player
  *          viableDirections: valid movement directions for each player
+ *          square: the dense index row * getColNum() + column of a board position, used by the
+ *                  primitive (allocation-free) overloads of whatsAtPos, placePiece, movePiece, jumpPiece and crownPiece
  *
  * @constraints:
  *          board must always be  getRowNum x getColNum
@@ -33,7 +34,7 @@ import java.util.HashMap;
  *          Kings must be able to move in all directions
  */
 
-public interface ICheckerBoard {
+public interface ICheckerBoard extends SquareReader {
     public static final int FIRST_ROW       = 0;
     public static final int FIRST_COLUMN    = 0;
     public static final int JUMP_DISTANCE   = 2;
@@ -45,6 +46,8 @@ public interface ICheckerBoard {
 
     public static final int NO_PIECES_LEFT  = 0;
 
+    public static final char OFF_BOARD      = '\0';
+
 
 
     /**
@@ -136,6 +139,115 @@ public interface ICheckerBoard {
 
 
 
+    /**
+     * Returns the square index of a row and column. Squares are numbered densely in row-major order, so
+     * a board has getRowNum() * getColNum() squares numbered 0 through getRowNum() * getColNum() - 1.
+     *
+     * @param row the row of the square
+     * @param col the column of the square
+     *
+     * @return row * getColNum() + col
+     *
+     * @pre 0 <= row < getRowNum() AND 0 <= col < getColNum()
+     *
+     * @post getSquare = row * getColNum() + col AND self = #self
+     */
+    default public int getSquare(int row, int col) {
+        return row * getColNum() + col;
+    }
+
+    /**
+     * Returns the row of a square index.
+     *
+     * @param square the square index
+     *
+     * @return the row the square lies on
+     *
+     * @pre 0 <= square < getRowNum() * getColNum()
+     *
+     * @post getSquareRow = square / getColNum() AND self = #self
+     */
+    default public int getSquareRow(int square) {
+        return square / getColNum();
+    }
+
+    /**
+     * Returns the column of a square index.
+     *
+     * @param square the square index
+     *
+     * @return the column the square lies on
+     *
+     * @pre 0 <= square < getRowNum() * getColNum()
+     *
+     * @post getSquareColumn = square % getColNum() AND self = #self
+     */
+    default public int getSquareColumn(int square) {
+        return square % getColNum();
+    }
+
+    /**
+     * Returns the character at the given row and column without creating a BoardPosition.
+     * Implementations should override this; the default bridges to whatsAtPos(BoardPosition).
+     *
+     * @param row the row to check
+     * @param col the column to check
+     *
+     * @return The character of the piece at the specified row and column
+     *
+     * @pre 0 <= row < getRowNum() AND 0 <= col < getColNum()
+     *
+     * @post whatsAtPos = [the character at (row, col)] AND self = #self
+     */
+    default public char whatsAtPos(int row, int col) {
+        return whatsAtPos(new BoardPosition(row, col));
+    }
+
+    /**
+     * Returns the character on the given square index without creating a BoardPosition.
+     *
+     * @param square the square index to check
+     *
+     * @return The character of the piece on the square
+     *
+     * @pre 0 <= square < getRowNum() * getColNum()
+     *
+     * @post whatsAtPos = [the character on square] AND self = #self
+     */
+    default public char whatsAtPos(int square) {
+        return whatsAtPos(getSquareRow(square), getSquareColumn(square));
+    }
+
+    /**
+     * Places a piece on the given square index without creating a BoardPosition.
+     * Implementations should override this; the default bridges to placePiece(BoardPosition, char).
+     *
+     * @param square the square index where the piece will be placed
+     * @param player the character to place on the square
+     *
+     * @pre 0 <= square < getRowNum() * getColNum() AND player is a valid character
+     *
+     * @post [the character on] square = player AND [all other board positions remain unchanged]
+     */
+    default public void placePiece(int square, char player) {
+        placePiece(new BoardPosition(getSquareRow(square), getSquareColumn(square)), player);
+    }
+
+    /**
+     * Returns the shared step and jump lookup table for this board's dimension.
+     *
+     * @return the NeighborTable for getRowNum()
+     *
+     * @pre getRowNum() == getColNum()
+     *
+     * @post getNeighborTable = NeighborTable.forDimension(getRowNum()) AND self = #self
+     */
+    default public NeighborTable getNeighborTable() {
+        return NeighborTable.forDimension(getRowNum());
+    }
+
+
+
     /**
      * Promotes a piece to a king if it reaches the opposite end of the board.
      *
@@ -151,8 +263,26 @@ public interface ICheckerBoard {
      */
 
     default public void crownPiece(BoardPosition posOfPlayer) {
-        char player = whatsAtPos(posOfPlayer); //gets curr position of player
-        placePiece(posOfPlayer, Character.toUpperCase(player)); //simply places the player and crowns
+        crownPiece(getSquare(posOfPlayer.getRow(), posOfPlayer.getColumn()));
+    }
+
+    /**
+     * Promotes the piece on the given square index to a king, without creating a BoardPosition.
+     *
+     * @param square the square index of the piece to crown
+     *
+     * @pre 0 <= square < getRowNum() * getColNum() AND whatsAtPos(square) is a valid player character
+     *
+     * @post [the piece on square is promoted to a king]
+     */
+    default public void crownPiece(int square) {
+        char player = whatsAtPos(square); //gets curr position of player
+        placePiece(square, Character.toUpperCase(player)); //simply places the player and crowns
+
+        BoardObserver observer = getObserver();
+        if (observer != null) {
+            observer.pieceCrowned(square, Character.toUpperCase(player));
+        }
     }
 
     /**
@@ -170,18 +300,42 @@ public interface ICheckerBoard {
      */
     default public BoardPosition movePiece(BoardPosition startingPos, DirectionEnum dir)
     {
-        // Get the direction to move
-        BoardPosition newPos = getDirection(dir); //gets direction "logic" ~offset
+        int destination = movePiece(getSquare(startingPos.getRow(), startingPos.getColumn()), dir);
+
+        // Returns the destination ~values
+        return new BoardPosition(getSquareRow(destination), getSquareColumn(destination));
+    }
 
-        // Calculate the destination position for a regular move (one step in the specified direction)
-        BoardPosition destination = new BoardPosition(startingPos.getRow() + newPos.getRow(),
-                                                      startingPos.getColumn() + newPos.getColumn());
+    /**
+     * Moves the piece on the given square index one step in the given direction, without creating
+     * any BoardPosition objects.
+     *
+     * @param square the square index of the piece to move
+     * @param dir the direction in which the game piece should be moved
+     *
+     * @return The square index of the piece after the move
+     *
+     * @pre 0 <= square < getRowNum() * getColNum() AND the destination is within the bounds of the board
+     *
+     * @post [The piece is moved from square to the destination square] AND [square is empty]
+     */
+    default public int movePiece(int square, DirectionEnum dir)
+    {
+        // Look up the destination square for a regular move (one step in the specified direction)
+        int destination = getNeighborTable().getStep(square, dir);
         //Actually move the piece
-        char player = whatsAtPos(startingPos);
-        placePiece(startingPos, ' ');
+        char player = whatsAtPos(square);
+        placePiece(square, ' ');
         placePiece(destination, player);
 
-        // Returns the destination ~values
+        BoardObserver observer = getObserver();
+        if (observer != null) {
+            observer.pieceMoved(square, destination, player);
+            // Boards that crown in placePiece have already crowned a man landing on its far row
+            if (whatsAtPos(destination) != player) {
+                observer.pieceCrowned(destination, whatsAtPos(destination));
+            }
+        }
         return destination;
     }
 
@@ -204,28 +358,335 @@ public interface ICheckerBoard {
      */
     default public BoardPosition jumpPiece(BoardPosition startingPos, DirectionEnum dir)
     {
-        BoardPosition newPos = getDirection(dir);         // Get direction values to jump
+        int landing = jumpPiece(getSquare(startingPos.getRow(), startingPos.getColumn()), dir);
 
-        // Calculate the landing position (double the direction from the starting position)
-        BoardPosition landingPos = new BoardPosition(startingPos.getRow() + JUMP_DISTANCE  * newPos.getRow(),
-                                                startingPos.getColumn() + JUMP_DISTANCE * newPos.getColumn());
-        //Calculate middle position (piece being jumped over)
-        BoardPosition middlePos = new BoardPosition((startingPos.getRow()) + newPos.getRow(),
-                                                startingPos.getColumn() + newPos.getColumn());
+        //Return landing position ~values
+        return new BoardPosition(getSquareRow(landing), getSquareColumn(landing));
+    }
+
+    /**
+     * Jumps the piece on the given square index over the neighbouring piece in the given direction,
+     * without creating any BoardPosition objects.
+     *
+     * @param square the square index of the piece to jump from
+     * @param dir the direction to jump in
+     *
+     * @return the square index where the piece landed after the jump
+     *
+     * @pre square is occupied AND there is an opponent's piece one step in dir AND
+     *      the landing square two steps in dir is empty and within the bounds of the board
+     *
+     * @post square = ' ' AND [middle square] = ' ' AND [landing square] = [the jumping piece]
+     *       AND pieceCount of the jumped piece -= 1
+     */
+    default public int jumpPiece(int square, DirectionEnum dir)
+    {
+        // Look up the landing square (double the direction from the starting square) and the jumped square
+        NeighborTable neighbors = getNeighborTable();
+        int landing = neighbors.getJump(square, dir);
+        int middle = neighbors.getStep(square, dir);
 
         //Actually jump the piece
-        char player = whatsAtPos(startingPos);
-        char jumpedPiece = whatsAtPos(middlePos);
+        char player = whatsAtPos(square);
+        char jumpedPiece = whatsAtPos(middle);
 
-        placePiece(startingPos, ' ');
-        placePiece(middlePos, ' ');
+        placePiece(square, ' ');
+        placePiece(middle, ' ');
         getPieceCounts().put(jumpedPiece, getPieceCounts().get(jumpedPiece) - 1);
-        placePiece(landingPos, player);
+        placePiece(landing, player);
 
-        //Return landing position ~values
-        return landingPos;
+        BoardObserver observer = getObserver();
+        if (observer != null) {
+            observer.pieceJumped(square, middle, landing, player, jumpedPiece);
+            if (whatsAtPos(landing) != player) {
+                observer.pieceCrowned(landing, whatsAtPos(landing));
+            }
+        }
+        return landing;
+    }
+
+
+
+
+    /**
+     * Returns an independent board of the same class holding the same position, for work that needs a board of
+     * its own, such as one search thread per copy. Changes to either board never show up on the other.
+     *
+     * @return a new board with the same squares, piece counts, side to move and position hash
+     *
+     * @pre none
+     *
+     * @post copy != self AND copy.toString() = toString() AND copy.getPieceCounts() = getPieceCounts() AND
+     *       copy.isSecondPlayerToMove() = isSecondPlayerToMove() AND copy.getPositionHash() = getPositionHash() AND
+     *       copy.getUndoJournal().isEmpty() AND self = #self
+     */
+    public ICheckerBoard copy();
+
+    /**
+     * Returns the game this board was built for: the characters of both players and the board size. Rules that
+     * depend on who is who read it from here, so boards of different games never share any state.
+     *
+     * @return the GameConfig passed when the board was created
+     *
+     * @pre none
+     *
+     * @post getConfig = [the GameConfig self was constructed with] AND self = #self
+     */
+    public GameConfig getConfig();
+
+    /**
+     * Returns the observer told about every movePiece, jumpPiece, crownPiece and undoMove on this board.
+     *
+     * @return the observer, or null if there is none
+     *
+     * @pre none
+     *
+     * @post getObserver = [the observer last passed to setObserver, null if none] AND self = #self
+     */
+    public BoardObserver getObserver();
+
+    /**
+     * Replaces the board's observer. Copies made with copy() start with no observer.
+     *
+     * @param observer the observer to notify, or null to stop notifying
+     *
+     * @pre none
+     *
+     * @post getObserver() = observer
+     */
+    public void setObserver(BoardObserver observer);
+
+    /**
+     * Returns the journal of moves applied through applyMove that can still be undone.
+     *
+     * @return this board's UndoJournal
+     *
+     * @pre none
+     *
+     * @post getUndoJournal = [the journal owned by self] AND self = #self
+     */
+    public UndoJournal getUndoJournal();
+
+    /**
+     * Returns the 64-bit Zobrist hash of the position: the XOR of Zobrist.pieceKey over every square, plus
+     * Zobrist.SIDE_TO_MOVE when the second player is to move. It is kept up to date incrementally by placePiece
+     * (and so by movePiece, jumpPiece and crownPiece) and by switchSideToMove.
+     *
+     * @return the position hash
+     *
+     * @pre none
+     *
+     * @post getPositionHash = computePositionHash() AND self = #self
+     */
+    public long getPositionHash();
+
+    /**
+     * Recomputes the position hash from scratch by visiting every square. This costs getRowNum() * getColNum()
+     * lookups and is meant for verification; use getPositionHash for everything else.
+     *
+     * @return the position hash computed from the current board
+     *
+     * @pre none
+     *
+     * @post computePositionHash = [XOR of Zobrist.pieceKey(square, whatsAtPos(square)) over every square,
+     *       XOR Zobrist.SIDE_TO_MOVE if isSecondPlayerToMove()] AND self = #self
+     */
+    default public long computePositionHash()
+    {
+        long hash = isSecondPlayerToMove() ? Zobrist.SIDE_TO_MOVE : 0L;
+        int squares = getRowNum() * getColNum();
+        for (int square = 0; square < squares; square++) {
+            hash ^= Zobrist.pieceKey(square, whatsAtPos(square));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns true if the second player is to move in the hashed position. applyMove and undoMove switch sides;
+     * callers that play a turn with movePiece/jumpPiece directly switch with switchSideToMove once it is over.
+     *
+     * @return true if the second player is to move
+     *
+     * @pre none
+     *
+     * @post self = #self
+     */
+    public boolean isSecondPlayerToMove();
+
+    /**
+     * Hands the move to the other player, updating the position hash.
+     *
+     * @pre none
+     *
+     * @post isSecondPlayerToMove() = NOT #isSecondPlayerToMove() AND
+     *       getPositionHash() = #getPositionHash() XOR Zobrist.SIDE_TO_MOVE
+     */
+    public void switchSideToMove();
+
+    /**
+     * Returns true if applyMove and undoMove check the incremental hash against computePositionHash after every move.
+     */
+    public boolean isHashVerificationEnabled();
+
+    /**
+     * Turns checking of the incremental hash after every applyMove and undoMove on or off. Meant for tests: each
+     * check costs a full recompute.
+     *
+     * @param enabled true to verify after every move
+     *
+     * @post isHashVerificationEnabled() = enabled
+     */
+    public void setHashVerification(boolean enabled);
+
+    /**
+     * Checks the incremental position hash against a full recompute.
+     *
+     * @throws IllegalStateException if getPositionHash() != computePositionHash()
+     *
+     * @pre none
+     *
+     * @post self = #self
+     */
+    default public void verifyPositionHash()
+    {
+        long incremental = getPositionHash();
+        long recomputed = computePositionHash();
+        if (incremental != recomputed) {
+            throw new IllegalStateException("Incremental position hash " + Long.toHexString(incremental)
+                    + " does not match recomputed hash " + Long.toHexString(recomputed));
+        }
+    }
+
+
+
+    /**
+     * Plays a complete packed move (see Move and MoveGenerator) through movePiece or jumpPiece, crowns the piece if
+     * it is a man that ends on its far row, and records everything needed to take the move back in the
+     * UndoJournal: the captured pieces, whether the piece was crowned, and every change applyMove made to the
+     * pieceCount entries.
+     *
+     * @param move the packed move to play
+     *
+     * @pre move is a legal move for the piece on Move.getFrom(move), as generated by MoveGenerator for this board
+     *
+     * @post [the piece has moved along every step of move, jumped pieces are removed] AND
+     *       [the piece is crowned if it is a man that ended on its far row] AND
+     *       getUndoJournal().size() = #getUndoJournal().size() + 1 AND
+     *       isSecondPlayerToMove() = NOT #isSecondPlayerToMove()
+     */
+    default public void applyMove(long move)
+    {
+        UndoJournal journal = getUndoJournal();
+        NeighborTable neighbors = getNeighborTable();
+        HashMap<Character, Integer> counts = getPieceCounts();
+        int from = Move.getFrom(move);
+        char piece = whatsAtPos(from);
+        boolean capture = Move.isCapture(move);
+        int steps = Move.getStepCount(move);
+
+        // Remember the counts of every piece type the move can change before touching the board
+        int keys = 0;
+        keys = addCountKey(journal, counts, keys, Character.toLowerCase(piece));
+        keys = addCountKey(journal, counts, keys, Character.toUpperCase(piece));
+        int square = from;
+        if (capture) {
+            for (int step = 0; step < steps; step++) {
+                int dir = Move.getDirectionOrdinal(move, step);
+                int middle = neighbors.getStep(square, dir);
+                char jumped = whatsAtPos(middle);
+                journal.pushCapture(middle, jumped);
+                keys = addCountKey(journal, counts, keys, jumped);
+                square = neighbors.getJump(square, dir);
+            }
+        }
+
+        // Play the move through the board's own rules
+        square = from;
+        for (int step = 0; step < steps; step++) {
+            DirectionEnum dir = Move.getDirection(move, step);
+            square = capture ? jumpPiece(square, dir) : movePiece(square, dir);
+        }
+        int promotionRow = MoveGenerator.promotionRow(this, MoveGenerator.manDirections(this, Character.toLowerCase(piece)));
+        if (Character.isLowerCase(whatsAtPos(square)) && getSquareRow(square) == promotionRow) {
+            crownPiece(square);
+        }
+
+        int deltas = 0;
+        for (int i = 0; i < keys; i++) {
+            int delta = counts.getOrDefault(journal.countKeys[i], NO_PIECES_LEFT) - journal.countsBefore[i];
+            if (delta != 0) {
+                journal.pushCountDelta(journal.countKeys[i], delta);
+                deltas++;
+            }
+        }
+        journal.pushHeader(move, piece, whatsAtPos(square) != piece, capture ? steps : 0, deltas);
+
+        switchSideToMove();
+        if (isHashVerificationEnabled()) {
+            verifyPositionHash();
+        }
     }
 
+    /**
+     * Takes back the most recent move played with applyMove, restoring the moved piece, every captured piece, the
+     * crowning and the pieceCount entries exactly as they were.
+     *
+     * @pre getUndoJournal().size() > 0
+     *
+     * @post [self is as it was before the matching applyMove] AND
+     *       getUndoJournal().size() = #getUndoJournal().size() - 1 AND
+     *       isSecondPlayerToMove() = NOT #isSecondPlayerToMove()
+     */
+    default public void undoMove()
+    {
+        UndoJournal journal = getUndoJournal();
+        HashMap<Character, Integer> counts = getPieceCounts();
+        long move = journal.popMove();
+        int header = journal.popInt();
+
+        for (int i = UndoJournal.headerDeltas(header); i > 0; i--) {
+            int entry = journal.popInt();
+            char key = UndoJournal.deltaPiece(entry);
+            counts.put(key, counts.get(key) - UndoJournal.deltaValue(entry));
+        }
+
+        // Lift the piece off its landing square (crowned or not) and put it back where it started
+        placePiece(Move.getDestination(move, getNeighborTable()), ' ');
+        placePiece(Move.getFrom(move), UndoJournal.headerPiece(header));
+
+        for (int i = UndoJournal.headerCaptures(header); i > 0; i--) {
+            int entry = journal.popInt();
+            placePiece(UndoJournal.entrySquare(entry), UndoJournal.entryPiece(entry));
+        }
+
+        BoardObserver observer = getObserver();
+        if (observer != null) {
+            observer.moveUndone();
+        }
+        switchSideToMove();
+        if (isHashVerificationEnabled()) {
+            verifyPositionHash();
+        }
+    }
+
+    /**
+     * Adds piece to the journal's list of pieceCount keys for the move being applied, unless it is already there
+     * or is not a piece, and returns the new number of keys.
+     */
+    private static int addCountKey(UndoJournal journal, HashMap<Character, Integer> counts, int keys, char piece)
+    {
+        if (!Character.isLetter(piece)) {
+            return keys;
+        }
+        for (int i = 0; i < keys; i++) {
+            if (journal.countKeys[i] == piece) {
+                return keys;
+            }
+        }
+        journal.countKeys[keys] = piece;
+        journal.countsBefore[keys] = counts.getOrDefault(piece, NO_PIECES_LEFT);
+        return keys + 1;
+    }
 
 
 
@@ -245,7 +706,8 @@ public interface ICheckerBoard {
     default public boolean checkPlayerWin(Character player)
     {
         // Check if the opponent has no pieces left
-        char opponent = (player == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
+        GameConfig config = getConfig();
+        char opponent = (player == config.getPlayerOne()) ? config.getPlayerTwo() : config.getPlayerOne();
         return getPieceCounts().get(opponent) == NO_PIECES_LEFT;
     }
 
@@ -270,22 +732,40 @@ public interface ICheckerBoard {
     default public HashMap<DirectionEnum, Character> scanSurroundingPositions(BoardPosition startingPos)
     {
         HashMap<DirectionEnum, Character> surroundingPositions = new HashMap<>();
-        DirectionEnum[] directions = DirectionEnum.values();
-
-        for (DirectionEnum dir : directions) { //iterate through each value dir in directions^^
-            BoardPosition offset = getDirection(dir); //gets direction "logic" ~offset
-            BoardPosition newPos = new BoardPosition(startingPos.getRow() + offset.getRow(),
-                                                startingPos.getColumn() + offset.getColumn());
-            //Check if newPos is within bounds: crash prevention
-            if(newPos.getRow() >= FIRST_ROW && newPos.getRow() < getRowNum() &&
-            newPos.getColumn() >= FIRST_COLUMN && newPos.getColumn() < getColNum())
-            {
-                surroundingPositions.put(dir, whatsAtPos(newPos));
+        char[] pieces = new char[DirectionEnum.COUNT];
+        scanSurroundingPositions(getSquare(startingPos.getRow(), startingPos.getColumn()), pieces);
+
+        for (int i = 0; i < DirectionEnum.COUNT; i++) {
+            //Only positions within bounds are reported: crash prevention
+            if (pieces[i] != OFF_BOARD) {
+                surroundingPositions.put(DirectionEnum.fromOrdinal(i), pieces[i]);
             }
         }
         return surroundingPositions;
     }
 
+    /**
+     * Fills a caller-supplied array with the pieces immediately surrounding a square, without allocating.
+     *
+     * @param square the square index to scan around
+     * @param out the array to fill, indexed by DirectionEnum ordinal
+     *
+     * @pre 0 <= square < getRowNum() * getColNum() AND out.length >= DirectionEnum.COUNT
+     *
+     * @post self = #self AND out[dir.ordinal()] = [the piece one step from square in dir] OR OFF_BOARD
+     *       if that step leaves the board, for every direction dir
+     */
+    default public void scanSurroundingPositions(int square, char[] out)
+    {
+        NeighborTable neighbors = getNeighborTable();
+
+        for (int i = 0; i < DirectionEnum.COUNT; i++) {
+            int neighbor = neighbors.getStep(square, i);
+            //Neighbours off the board are already marked in the table: crash prevention
+            out[i] = (neighbor == NeighborTable.OFF_BOARD) ? OFF_BOARD : whatsAtPos(neighbor);
+        }
+    }
+
 
 
     /**
@@ -311,4 +791,28 @@ public interface ICheckerBoard {
         };
     }
 
+    /**
+     * Returns how many rows one step in the given direction moves, without allocating.
+     *
+     * @param dir the direction to step in
+     *
+     * @return ONE_ROW_UP for NE and NW, ONE_ROW_DOWN for SE and SW
+     */
+    public static int getRowOffset(DirectionEnum dir)
+    {
+        return (dir == DirectionEnum.NE || dir == DirectionEnum.NW) ? ONE_ROW_UP : ONE_ROW_DOWN;
+    }
+
+    /**
+     * Returns how many columns one step in the given direction moves, without allocating.
+     *
+     * @param dir the direction to step in
+     *
+     * @return ONE_COLUMN_RIGHT for NE and SE, ONE_COLUMN_LEFT for NW and SW
+     */
+    public static int getColumnOffset(DirectionEnum dir)
+    {
+        return (dir == DirectionEnum.NE || dir == DirectionEnum.SE) ? ONE_COLUMN_RIGHT : ONE_COLUMN_LEFT;
+    }
+
 }
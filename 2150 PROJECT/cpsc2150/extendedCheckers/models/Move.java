@@ -0,0 +1,166 @@
+package cpsc2150.extendedCheckers.models;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+/**
+ * Move packs a complete checkers move into a single long so that move lists can be generated, stored and replayed
+ * without creating an object per move. A move is either one simple step or a chain of one or more jumps made by
+ * the same piece.
+ *
+ * Layout of the packed long:
+ *      bits  0 - 7   the square index the piece starts on
+ *      bits  8 - 13  the number of steps (1 for a simple move, the number of jumps for a capture)
+ *      bit   14      set if the move is a capture chain
+ *      bits 16 - 63  the DirectionEnum ordinal of each step, two bits per step, first step in the lowest bits
+ *
+ * @Invariant 1 <= getStepCount(move) <= MAX_STEPS for every move built by this class, and a move that is not a
+ *            capture always has exactly one step.
+ */
+public final class Move
+{
+    public static final long NO_MOVE = 0L;
+    public static final int MAX_STEPS = 24;
+
+    private static final int FROM_MASK       = 0xFF;
+    private static final int COUNT_SHIFT     = 8;
+    private static final int COUNT_MASK      = 0x3F;
+    private static final long CAPTURE_FLAG   = 1L << 14;
+    private static final int DIR_SHIFT       = 16;
+    private static final int DIR_BITS        = 2;
+    private static final int DIR_MASK        = 0x3;
+
+    private Move() {
+    }
+
+    /**
+     * Builds a simple (non-capturing) one-step move.
+     *
+     * @param from the square index the piece starts on
+     * @param dir the direction of the step
+     *
+     * @return the packed move
+     *
+     * @pre 0 <= from <= 255
+     *
+     * @post getFrom(simple) = from AND getStepCount(simple) = 1 AND isCapture(simple) = false
+     */
+    public static long simple(int from, DirectionEnum dir) {
+        return from | (1L << COUNT_SHIFT) | ((long) dir.ordinal() << DIR_SHIFT);
+    }
+
+    /**
+     * Builds a capture that starts with a single jump; further jumps are added with addJump.
+     *
+     * @param from the square index the piece starts on
+     * @param dirOrdinal the DirectionEnum ordinal of the first jump
+     *
+     * @return the packed one-jump capture
+     *
+     * @pre 0 <= from <= 255 AND 0 <= dirOrdinal < DirectionEnum.COUNT
+     *
+     * @post getFrom(capture) = from AND getStepCount(capture) = 1 AND isCapture(capture) = true
+     */
+    public static long capture(int from, int dirOrdinal) {
+        return from | (1L << COUNT_SHIFT) | CAPTURE_FLAG | ((long) dirOrdinal << DIR_SHIFT);
+    }
+
+    /**
+     * Returns the capture chain extended by one more jump.
+     *
+     * @param move the capture chain so far
+     * @param dirOrdinal the DirectionEnum ordinal of the next jump
+     *
+     * @return the packed capture with one more step
+     *
+     * @pre isCapture(move) AND getStepCount(move) < MAX_STEPS
+     *
+     * @post getStepCount(addJump) = getStepCount(move) + 1 AND
+     *       getDirectionOrdinal(addJump, getStepCount(move)) = dirOrdinal
+     */
+    public static long addJump(long move, int dirOrdinal) {
+        int count = getStepCount(move);
+        long withoutCount = move & ~((long) COUNT_MASK << COUNT_SHIFT);
+        return withoutCount | ((long) (count + 1) << COUNT_SHIFT)
+                | ((long) dirOrdinal << (DIR_SHIFT + DIR_BITS * count));
+    }
+
+    /**
+     * Returns the square index the moving piece starts on.
+     */
+    public static int getFrom(long move) {
+        return (int) (move & FROM_MASK);
+    }
+
+    /**
+     * Returns the number of steps in the move: 1 for a simple move, the number of jumps for a capture.
+     */
+    public static int getStepCount(long move) {
+        return (int) ((move >>> COUNT_SHIFT) & COUNT_MASK);
+    }
+
+    /**
+     * Returns true if the move is a chain of jumps.
+     */
+    public static boolean isCapture(long move) {
+        return (move & CAPTURE_FLAG) != 0;
+    }
+
+    /**
+     * Returns the DirectionEnum ordinal of the given step.
+     *
+     * @pre 0 <= step < getStepCount(move)
+     */
+    public static int getDirectionOrdinal(long move, int step) {
+        return (int) ((move >>> (DIR_SHIFT + DIR_BITS * step)) & DIR_MASK);
+    }
+
+    /**
+     * Returns the direction of the given step.
+     *
+     * @pre 0 <= step < getStepCount(move)
+     */
+    public static DirectionEnum getDirection(long move, int step) {
+        return DirectionEnum.fromOrdinal(getDirectionOrdinal(move, step));
+    }
+
+    /**
+     * Returns the square index the moving piece ends on.
+     *
+     * @param move the packed move
+     * @param neighbors the lookup table for the board the move belongs to
+     *
+     * @return the final square of the move
+     *
+     * @pre move was generated for a board of neighbors.getDimension()
+     */
+    public static int getDestination(long move, NeighborTable neighbors) {
+        int square = getFrom(move);
+        boolean capture = isCapture(move);
+        for (int step = 0; step < getStepCount(move); step++) {
+            int dir = getDirectionOrdinal(move, step);
+            square = capture ? neighbors.getJump(square, dir) : neighbors.getStep(square, dir);
+        }
+        return square;
+    }
+
+    /**
+     * Returns a readable form of the move, e.g. "2,2 SE" or "5,1 x NE NW" for a double jump.
+     *
+     * @param move the packed move
+     * @param dimension the number of columns of the board the move belongs to
+     *
+     * @return the starting row and column followed by each step's direction
+     */
+    public static String toString(long move, int dimension) {
+        StringBuilder text = new StringBuilder();
+        int from = getFrom(move);
+        text.append(from / dimension).append(',').append(from % dimension);
+        if (isCapture(move)) {
+            text.append(" x");
+        }
+        for (int step = 0; step < getStepCount(move); step++) {
+            text.append(' ').append(getDirection(move, step));
+        }
+        return text.toString();
+    }
+}
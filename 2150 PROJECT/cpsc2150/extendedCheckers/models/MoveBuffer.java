@@ -0,0 +1,107 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * MoveBuffer is a reusable list of packed moves (see Move). A caller keeps one buffer per search depth or per
+ * thread and passes it to MoveGenerator.generateMoves over and over; the backing array only grows when a
+ * position has more moves than any position seen before, so steady-state move generation creates no objects.
+ *
+ * @Corresponds The MoveBuffer object (self) holds size() packed moves in insertion order.
+ *
+ * @Invariant 0 <= size() <= [capacity of the backing array]
+ */
+public final class MoveBuffer
+{
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private long[] moves;
+    private int size;
+
+    //squares captured so far along the capture chain MoveGenerator is currently exploring
+    final int[] chainCaptures = new int[Move.MAX_STEPS];
+
+    /**
+     * Creates an empty buffer with room for DEFAULT_CAPACITY moves.
+     *
+     * @post size() = 0
+     */
+    public MoveBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty buffer with room for the given number of moves.
+     *
+     * @param aCapacity the initial capacity
+     *
+     * @pre aCapacity > 0
+     *
+     * @post size() = 0
+     */
+    public MoveBuffer(int aCapacity) {
+        moves = new long[aCapacity];
+        size = 0;
+    }
+
+    /**
+     * Removes every move from the buffer, keeping the backing array.
+     *
+     * @post size() = 0
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a packed move.
+     *
+     * @param move the packed move to add
+     *
+     * @post size() = #size() + 1 AND get(#size()) = move
+     */
+    public void add(long move) {
+        if (size == moves.length) {
+            long[] grown = new long[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Returns the packed move at the given index.
+     *
+     * @param index the index of the move
+     *
+     * @return the packed move
+     *
+     * @pre 0 <= index < size()
+     */
+    public long get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Swaps two moves, used by callers that order moves in place.
+     *
+     * @pre 0 <= first < size() AND 0 <= second < size()
+     */
+    public void swap(int first, int second) {
+        long move = moves[first];
+        moves[first] = moves[second];
+        moves[second] = move;
+    }
+
+    /**
+     * Returns the number of moves in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the buffer holds no moves.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
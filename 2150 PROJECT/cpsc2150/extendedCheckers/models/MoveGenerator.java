@@ -0,0 +1,256 @@
+package cpsc2150.extendedCheckers.models;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.ArrayList;
+
+/**
+ * MoveGenerator lists every legal move for one side of an ICheckerBoard as packed longs (see Move).
+ *
+ * The rules are those of standard checkers on top of the board's own movement rules:
+ *      - men move and capture only in the directions getViableDirections() gives their player, kings in all four
+ *      - a capture is a chain of jumps over opponent pieces; every complete chain is listed separately and the
+ *        chain only ends when the piece cannot jump again (or MAX_STEPS jumps have been made)
+ *      - a man that reaches its far row during a chain is crowned and its move ends there
+ *      - captures are mandatory: if any capture exists only captures are generated
+ *
+ * Generation only reads the board through the primitive whatsAtPos(int) and the shared NeighborTable, and writes
+ * into a caller-owned MoveBuffer, so it creates no objects. On a CheckerBoardBit the squares that can step or jump
+ * come from the board's masks instead (see CheckerBoardBit.moveSources), so only those squares are visited; the
+ * moves and their order are the same.
+ */
+public final class MoveGenerator
+{
+    private static final int ALL_DIRECTIONS = (1 << DirectionEnum.COUNT) - 1;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Fills out with every legal move for player.
+     *
+     * @param board the board to generate moves on
+     * @param player the lowercase character of the side to move
+     * @param out the buffer to fill; it is cleared first
+     *
+     * @return the number of moves generated, 0 if player cannot move
+     *
+     * @pre board.getRowNum() == board.getColNum() AND player is the lowercase character of a player on the board
+     *
+     * @post out = [every legal move for player, captures only if any capture exists] AND
+     *       generateMoves = out.size() AND board = #board
+     */
+    public static int generateMoves(ICheckerBoard board, char player, MoveBuffer out) {
+        if (board instanceof CheckerBoardBit) {
+            return generateMoves((CheckerBoardBit) board, player, out);
+        }
+        out.clear();
+        NeighborTable neighbors = board.getNeighborTable();
+        int dimension = board.getColNum();
+        char king = Character.toUpperCase(player);
+        int manDirections = manDirections(board, player);
+        int promotionRow = promotionRow(board, manDirections);
+        boolean capturing = false;
+
+        // Pieces only ever stand on the white tiles, where (row + column) is even
+        for (int row = 0; row < board.getRowNum(); row++) {
+            for (int col = row % 2; col < dimension; col += 2) {
+                int square = row * dimension + col;
+                char piece = board.whatsAtPos(square);
+                int directions;
+                if (piece == player) {
+                    directions = manDirections;
+                } else if (piece == king) {
+                    directions = ALL_DIRECTIONS;
+                } else {
+                    continue;
+                }
+
+                // Captures are mandatory: the first one found throws away the simple moves collected so far
+                int before = out.size();
+                addCaptures(board, neighbors, player, square, square, directions,
+                        piece == king ? -1 : promotionRow, 0, 0L, out);
+                if (out.size() > before && !capturing) {
+                    capturing = true;
+                    shiftDown(out, before);
+                }
+                if (capturing) {
+                    continue;
+                }
+
+                for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+                    if ((directions & (1 << dir)) == 0) {
+                        continue;
+                    }
+                    int step = neighbors.getStep(square, dir);
+                    if (step != NeighborTable.OFF_BOARD && board.whatsAtPos(step) == CheckerBoard.EMPTY_POS) {
+                        out.add(Move.simple(square, DirectionEnum.fromOrdinal(dir)));
+                    }
+                }
+            }
+        }
+        return out.size();
+    }
+
+    /**
+     * generateMoves for a CheckerBoardBit. Squares are visited in ascending order, as the loop over the white tiles
+     * does, and each direction in ordinal order, so the moves come out in the same order.
+     */
+    private static int generateMoves(CheckerBoardBit board, char player, MoveBuffer out) {
+        out.clear();
+        NeighborTable neighbors = board.getNeighborTable();
+        char king = Character.toUpperCase(player);
+        int manDirections = manDirections(board, player);
+        int promotionRow = promotionRow(board, manDirections);
+
+        long[][] jumps = board.moveSources(player, manDirections, true);
+        for (int word = 0; word < jumps[0].length; word++) {
+            for (long from = anyDirection(jumps, word); from != 0; from &= from - 1) {
+                int square = word * Long.SIZE + Long.numberOfTrailingZeros(from);
+                boolean isKing = board.whatsAtPos(square) == king;
+                addCaptures(board, neighbors, player, square, square, isKing ? ALL_DIRECTIONS : manDirections,
+                        isKing ? -1 : promotionRow, 0, 0L, out);
+            }
+        }
+        if (out.size() > 0) {
+            return out.size();
+        }
+
+        long[][] steps = board.moveSources(player, manDirections, false);
+        for (int word = 0; word < steps[0].length; word++) {
+            for (long from = anyDirection(steps, word); from != 0; from &= from - 1) {
+                long bit = Long.lowestOneBit(from);
+                int square = word * Long.SIZE + Long.numberOfTrailingZeros(from);
+                for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+                    if ((steps[dir][word] & bit) != 0) {
+                        out.add(Move.simple(square, DirectionEnum.fromOrdinal(dir)));
+                    }
+                }
+            }
+        }
+        return out.size();
+    }
+
+    private static long anyDirection(long[][] sources, int word) {
+        long any = 0;
+        for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+            any |= sources[dir][word];
+        }
+        return any;
+    }
+
+    /**
+     * Drops the first count moves of the buffer, keeping the rest in order.
+     */
+    private static void shiftDown(MoveBuffer out, int count) {
+        int size = out.size();
+        out.clear();
+        for (int i = count; i < size; i++) {
+            out.add(out.get(i));
+        }
+    }
+
+    /**
+     * Returns true if player has at least one capture available, without listing the moves.
+     *
+     * @param board the board to check
+     * @param player the lowercase character of the side to move
+     * @param scratch a buffer whose contents may be overwritten
+     *
+     * @return true if generateMoves would return captures for player
+     *
+     * @pre board.getRowNum() == board.getColNum()
+     *
+     * @post board = #board
+     */
+    public static boolean hasCapture(ICheckerBoard board, char player, MoveBuffer scratch) {
+        if (board instanceof CheckerBoardBit) {
+            long[][] jumps = ((CheckerBoardBit) board).moveSources(player, manDirections(board, player), true);
+            for (int word = 0; word < jumps[0].length; word++) {
+                if (anyDirection(jumps, word) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return generateMoves(board, player, scratch) > 0 && Move.isCapture(scratch.get(0));
+    }
+
+    /**
+     * Returns true if the character is a piece belonging to the side opposing player.
+     */
+    public static boolean isOpponent(char piece, char player) {
+        return Character.isLetter(piece) && Character.toLowerCase(piece) != player;
+    }
+
+    /**
+     * Returns the row on which a man moving in the given directions is crowned.
+     */
+    static int promotionRow(ICheckerBoard board, int manDirections) {
+        boolean movesSouth = (manDirections & ((1 << DirectionEnum.SE.ordinal()) | (1 << DirectionEnum.SW.ordinal()))) != 0;
+        return movesSouth ? board.getRowNum() - 1 : ICheckerBoard.FIRST_ROW;
+    }
+
+    /**
+     * Returns the directions player's men may move in, as a bitmask of DirectionEnum ordinals.
+     */
+    static int manDirections(ICheckerBoard board, char player) {
+        ArrayList<DirectionEnum> directions = board.getViableDirections().get(player);
+        int mask = 0;
+        if (directions != null) {
+            for (int i = 0; i < directions.size(); i++) {
+                mask |= 1 << directions.get(i).ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Depth-first search over the jump chains from square. The moving piece is treated as having left from, and
+     * pieces already jumped in this chain (kept in out.chainCaptures) cannot be jumped again.
+     */
+    private static void addCaptures(ICheckerBoard board, NeighborTable neighbors, char player, int from, int square,
+                                    int directions, int promotionRow, int depth, long chain, MoveBuffer out) {
+        boolean extended = false;
+        if (depth < Move.MAX_STEPS) {
+            for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+                if ((directions & (1 << dir)) == 0) {
+                    continue;
+                }
+                int landing = neighbors.getJump(square, dir);
+                if (landing == NeighborTable.OFF_BOARD) {
+                    continue;
+                }
+                int middle = neighbors.getStep(square, dir);
+                if (!isOpponent(board.whatsAtPos(middle), player) || alreadyCaptured(out, depth, middle)) {
+                    continue;
+                }
+                if (landing != from && board.whatsAtPos(landing) != CheckerBoard.EMPTY_POS) {
+                    continue;
+                }
+
+                long next = (depth == 0) ? Move.capture(from, dir) : Move.addJump(chain, dir);
+                extended = true;
+                if (board.getSquareRow(landing) == promotionRow) {
+                    // A man that is crowned mid-chain stops there
+                    out.add(next);
+                } else {
+                    out.chainCaptures[depth] = middle;
+                    addCaptures(board, neighbors, player, from, landing, directions, promotionRow, depth + 1, next, out);
+                }
+            }
+        }
+        if (!extended && depth > 0) {
+            out.add(chain);
+        }
+    }
+
+    private static boolean alreadyCaptured(MoveBuffer out, int depth, int square) {
+        for (int i = 0; i < depth; i++) {
+            if (out.chainCaptures[i] == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
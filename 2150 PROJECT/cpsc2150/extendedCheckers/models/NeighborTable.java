@@ -0,0 +1,158 @@
+package cpsc2150.extendedCheckers.models;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * NeighborTable holds, for every square of a board of one dimension and every DirectionEnum, the square one step
+ * away and the square a jump lands on, or OFF_BOARD when that step or jump would leave the board. Squares use the
+ * dense index of ICheckerBoard (row * dimension + column).
+ *
+ * Tables are built lazily the first time a dimension is asked for and are then shared by every board of that
+ * size, so checking whether a move stays on the board is a single array read instead of offset and bounds
+ * arithmetic.
+ *
+ * @Corresponds The NeighborTable object (self) is an immutable lookup table for one board dimension.
+ *
+ * @defines dimension: the number of rows (and columns) of the boards this table describes.
+ *
+ * @Invariant getStep(square, dir) and getJump(square, dir) are either OFF_BOARD or a square index within
+ *            0 <= index < dimension * dimension, and never change after construction.
+ */
+public final class NeighborTable
+{
+    public static final int OFF_BOARD = -1;
+    public static final int MIN_DIMENSION = 8;
+    public static final int MAX_DIMENSION = 16;
+
+    private static final AtomicReferenceArray<NeighborTable> CACHE = new AtomicReferenceArray<>(MAX_DIMENSION + 1);
+
+    private final int dimension;
+    //steps[square * DirectionEnum.COUNT + dir.ordinal()] is the neighbouring square, jumps[...] the jump landing
+    private final int[] steps;
+    private final int[] jumps;
+
+    private NeighborTable(int aDimension) {
+        dimension = aDimension;
+        int squares = dimension * dimension;
+        steps = new int[squares * DirectionEnum.COUNT];
+        jumps = new int[squares * DirectionEnum.COUNT];
+
+        for (int square = 0; square < squares; square++) {
+            int row = square / dimension;
+            int col = square % dimension;
+            for (int d = 0; d < DirectionEnum.COUNT; d++) {
+                DirectionEnum dir = DirectionEnum.fromOrdinal(d);
+                int rowOffset = ICheckerBoard.getRowOffset(dir);
+                int colOffset = ICheckerBoard.getColumnOffset(dir);
+                steps[square * DirectionEnum.COUNT + d] = toSquare(row + rowOffset, col + colOffset);
+                jumps[square * DirectionEnum.COUNT + d] = toSquare(row + ICheckerBoard.JUMP_DISTANCE * rowOffset,
+                                                                   col + ICheckerBoard.JUMP_DISTANCE * colOffset);
+            }
+        }
+    }
+
+    /**
+     * Returns the shared table for boards of the given dimension, building it on first use.
+     *
+     * @param aDimension the number of rows (and columns) of the board
+     *
+     * @return the NeighborTable for aDimension; every call with the same dimension returns the same instance
+     *
+     * @pre MIN_DIMENSION <= aDimension <= MAX_DIMENSION
+     *
+     * @post forDimension = [the shared table for aDimension]
+     */
+    public static NeighborTable forDimension(int aDimension) {
+        NeighborTable table = CACHE.get(aDimension);
+        if (table == null) {
+            // Two threads may race to build the same table; only the first one to publish is kept
+            CACHE.compareAndSet(aDimension, null, new NeighborTable(aDimension));
+            table = CACHE.get(aDimension);
+        }
+        return table;
+    }
+
+    /**
+     * Returns the square one step from square in direction dir.
+     *
+     * @param square the starting square index
+     * @param dir the direction to step in
+     *
+     * @return the neighbouring square index, or OFF_BOARD if the step leaves the board
+     *
+     * @pre 0 <= square < getDimension() * getDimension()
+     *
+     * @post self = #self
+     */
+    public int getStep(int square, DirectionEnum dir) {
+        return steps[square * DirectionEnum.COUNT + dir.ordinal()];
+    }
+
+    /**
+     * Returns the square one step from square in the direction with the given ordinal.
+     *
+     * @param square the starting square index
+     * @param dirOrdinal the ordinal of the direction to step in
+     *
+     * @return the neighbouring square index, or OFF_BOARD if the step leaves the board
+     *
+     * @pre 0 <= square < getDimension() * getDimension() AND 0 <= dirOrdinal < DirectionEnum.COUNT
+     *
+     * @post self = #self
+     */
+    public int getStep(int square, int dirOrdinal) {
+        return steps[square * DirectionEnum.COUNT + dirOrdinal];
+    }
+
+    /**
+     * Returns the square a jump from square in direction dir lands on.
+     *
+     * @param square the starting square index
+     * @param dir the direction to jump in
+     *
+     * @return the landing square index, or OFF_BOARD if the landing square is off the board
+     *
+     * @pre 0 <= square < getDimension() * getDimension()
+     *
+     * @post self = #self
+     */
+    public int getJump(int square, DirectionEnum dir) {
+        return jumps[square * DirectionEnum.COUNT + dir.ordinal()];
+    }
+
+    /**
+     * Returns the square a jump from square in the direction with the given ordinal lands on.
+     *
+     * @param square the starting square index
+     * @param dirOrdinal the ordinal of the direction to jump in
+     *
+     * @return the landing square index, or OFF_BOARD if the landing square is off the board
+     *
+     * @pre 0 <= square < getDimension() * getDimension() AND 0 <= dirOrdinal < DirectionEnum.COUNT
+     *
+     * @post self = #self
+     */
+    public int getJump(int square, int dirOrdinal) {
+        return jumps[square * DirectionEnum.COUNT + dirOrdinal];
+    }
+
+    /**
+     * Standard getter for the dimension
+     *
+     * @return the number of rows (and columns) this table describes
+     *
+     * @post getDimension = dimension
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    private int toSquare(int row, int col) {
+        if (row < ICheckerBoard.FIRST_ROW || row >= dimension || col < ICheckerBoard.FIRST_COLUMN || col >= dimension) {
+            return OFF_BOARD;
+        }
+        return row * dimension + col;
+    }
+}
@@ -0,0 +1,17 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * SquareReader is read access to the squares of a board by square index (row * dimension + column). Boards and
+ * BoardSnapshots both provide it, so code such as BoardRenderer works on either.
+ */
+public interface SquareReader
+{
+    /**
+     * Returns the character on square.
+     *
+     * @pre 0 <= square < [the number of squares on the board]
+     *
+     * @post self = #self
+     */
+    public char whatsAtPos(int square);
+}
@@ -0,0 +1,138 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * UndoJournal is the stack of moves applied through ICheckerBoard.applyMove, holding just enough to take each one
+ * back with undoMove. Everything is kept in primitive arrays that only grow when a line deeper than any line
+ * before it is played, so a search can apply and undo moves on one board with no copies and no garbage.
+ *
+ * Each applied move pushes one packed long onto the move stack and one frame onto the int stack:
+ *      captured pieces   one int per jumped piece: (square << 16) | piece
+ *      count deltas      one int per pieceCount entry that changed: (piece << 16) | (delta & 0xFFFF)
+ *      header            (capturedCount) | (deltaCount << 8) | (crowned << 15) | (movedPiece << 16)
+ * The header is pushed last so that undo reads it first.
+ *
+ * @Corresponds The UndoJournal object (self) holds size() frames, the most recently applied move on top.
+ *
+ * @Invariant 0 <= size() AND every frame was pushed by push* calls ending in pushHeader
+ */
+public final class UndoJournal
+{
+    private static final int INITIAL_MOVES = 64;
+    private static final int INITIAL_INTS = 256;
+
+    private static final int SQUARE_SHIFT  = 16;
+    private static final int LOW_MASK      = 0xFFFF;
+    private static final int COUNT_MASK    = 0xFF;
+    private static final int DELTA_SHIFT   = 8;
+    private static final int CROWNED_FLAG  = 1 << 15;
+
+    private long[] moves = new long[INITIAL_MOVES];
+    private int moveTop = 0;
+
+    private int[] data = new int[INITIAL_INTS];
+    private int dataTop = 0;
+
+    //pieceCount keys touched by the move being applied, and their counts before it
+    final char[] countKeys = new char[Move.MAX_STEPS + 2];
+    final int[] countsBefore = new int[Move.MAX_STEPS + 2];
+
+    /**
+     * Returns the number of moves that can currently be undone.
+     */
+    public int size() {
+        return moveTop;
+    }
+
+    /**
+     * Returns true if there is no move to undo.
+     */
+    public boolean isEmpty() {
+        return moveTop == 0;
+    }
+
+    /**
+     * Returns the most recently applied move without removing it.
+     *
+     * @pre size() > 0
+     */
+    public long peekMove() {
+        return moves[moveTop - 1];
+    }
+
+    /**
+     * Removes every frame.
+     *
+     * @post size() = 0
+     */
+    public void clear() {
+        moveTop = 0;
+        dataTop = 0;
+    }
+
+    void pushCapture(int square, char piece) {
+        pushInt((square << SQUARE_SHIFT) | piece);
+    }
+
+    void pushCountDelta(char piece, int delta) {
+        pushInt((piece << SQUARE_SHIFT) | (delta & LOW_MASK));
+    }
+
+    void pushHeader(long move, char movedPiece, boolean crowned, int capturedCount, int deltaCount) {
+        pushInt(capturedCount | (deltaCount << DELTA_SHIFT) | (crowned ? CROWNED_FLAG : 0) | (movedPiece << SQUARE_SHIFT));
+        if (moveTop == moves.length) {
+            long[] grown = new long[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, moveTop);
+            moves = grown;
+        }
+        moves[moveTop++] = move;
+    }
+
+    long popMove() {
+        return moves[--moveTop];
+    }
+
+    int popInt() {
+        return data[--dataTop];
+    }
+
+    static char headerPiece(int header) {
+        return (char) (header >>> SQUARE_SHIFT);
+    }
+
+    static boolean headerCrowned(int header) {
+        return (header & CROWNED_FLAG) != 0;
+    }
+
+    static int headerCaptures(int header) {
+        return header & COUNT_MASK;
+    }
+
+    static int headerDeltas(int header) {
+        return (header >>> DELTA_SHIFT) & (COUNT_MASK >>> 1);
+    }
+
+    static int entrySquare(int entry) {
+        return entry >>> SQUARE_SHIFT;
+    }
+
+    static char entryPiece(int entry) {
+        return (char) (entry & LOW_MASK);
+    }
+
+    static char deltaPiece(int entry) {
+        return (char) (entry >>> SQUARE_SHIFT);
+    }
+
+    static int deltaValue(int entry) {
+        return (short) (entry & LOW_MASK);
+    }
+
+    private void pushInt(int value) {
+        if (dataTop == data.length) {
+            int[] grown = new int[data.length * 2];
+            System.arraycopy(data, 0, grown, 0, dataTop);
+            data = grown;
+        }
+        data[dataTop++] = value;
+    }
+}
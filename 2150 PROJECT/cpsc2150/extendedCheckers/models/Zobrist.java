@@ -0,0 +1,52 @@
+package cpsc2150.extendedCheckers.models;
+
+/**
+ * Zobrist supplies the 64-bit keys that make up an ICheckerBoard position hash. The hash of a position is the XOR
+ * of pieceKey(square, piece) over every square plus SIDE_TO_MOVE when the second player is to move, so a board can
+ * keep it up to date with two XORs per placePiece.
+ *
+ * Keys are derived from the square and the piece character with a fixed mixing function rather than drawn from a
+ * random table. That keeps them identical across runs and processes (hashes can be stored in files and shared) and
+ * lets any character be hashed without a lookup table per character.
+ *
+ * @Invariant pieceKey(square, ' ') = pieceKey(square, '*') = 0 for every square, so empty squares and black tiles
+ *            never contribute to a hash.
+ */
+public final class Zobrist
+{
+    public static final long SIDE_TO_MOVE = mix(0x5DEECE66DL);
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key for piece standing on square.
+     *
+     * @param square the square index of the piece
+     * @param piece the character on the square
+     *
+     * @return the key to XOR into the position hash, 0 for an empty square or a black tile
+     *
+     * @pre square >= 0
+     *
+     * @post pieceKey = [the same value for the same square and piece in every run]
+     */
+    public static long pieceKey(int square, char piece) {
+        if (piece == CheckerBoard.EMPTY_POS || piece == CheckerBoardMem.BLACK_TILE) {
+            return 0L;
+        }
+        return mix(((long) square << Character.SIZE) | piece);
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads every input bit over the whole 64-bit result.
+     */
+    private static long mix(long value) {
+        long z = value * GOLDEN_GAMMA + GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
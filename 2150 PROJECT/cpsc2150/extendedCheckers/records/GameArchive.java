@@ -0,0 +1,468 @@
+package cpsc2150.extendedCheckers.records;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * GameArchive reads a single-file, append-only archive of GameRecords written by GameArchiveWriter. The file is
+ * memory-mapped, so fetching a game by id reads it in place with no copy and no system call, and a sequential scan
+ * replays every game straight from the mapped bytes into one reused board.
+ *
+ * The file is a header followed by batches of games, each batch followed by the index block of its games:
+ *      header          FILE_MAGIC, VERSION                                             8 bytes
+ *      games           records in GameRecordCodec's binary form, back to back
+ *      index block     BLOCK_MAGIC, count, first game id, offset of the previous block (NO_BLOCK for the first),
+ *                      count + 1 offsets (every game's start, then the end of the last game), and a 16-byte trailer
+ *                      holding the block's own offset and TRAILER_MAGIC
+ *      games, index block, ...
+ * A reader finds the last block from the trailer at the end of the file and follows the chain of previous-block
+ * offsets back, keeping only one small descriptor per block; the offsets themselves are read from the mapping.
+ *
+ * A MappedByteBuffer cannot reach past 2 GB, so the file is mapped in chunks of chunkBytes (1 GB by default). Each
+ * chunk's mapping runs MAX_RECORD_BYTES past its end, so any record or index entry that starts in a chunk can be
+ * read from that chunk alone and files of any size are served without copying.
+ *
+ * A GameArchive is immutable and safe to share between threads; it sees the games committed before it was opened.
+ * Mappings are released by the garbage collector once the archive is no longer reachable.
+ *
+ * @Invariant size() = [the number of games committed to the file when it was opened] AND
+ *            [game ids are 0 .. size() - 1, in the order the games were appended]
+ */
+public final class GameArchive
+{
+    /**
+     * The largest record an archive can hold.
+     */
+    public static final int MAX_RECORD_BYTES = 1 << 20;
+
+    /**
+     * The default number of bytes mapped per chunk, besides the MAX_RECORD_BYTES overlap.
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+
+    static final int FILE_MAGIC = 0x434B4741;           //"CKGA"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int BLOCK_MAGIC = 0x434B4958;          //"CKIX"
+    static final long TRAILER_MAGIC = 0x434B475452414C52L; //"CKGTRALR"
+    static final long NO_BLOCK = -1;
+
+    //index block layout
+    static final int BLOCK_COUNT = 4;
+    static final int BLOCK_FIRST_ID = 8;
+    static final int BLOCK_PREVIOUS = 16;
+    static final int BLOCK_HEADER_BYTES = 24;
+    static final int TRAILER_BYTES = 16;
+
+    /**
+     * Visitor receives the games of a scan, one at a time, after each has been replayed.
+     */
+    public interface Visitor
+    {
+        /**
+         * Called once per game, with board holding the game's final position. The board is reset and reused for
+         * the next game as soon as this returns.
+         *
+         * @param id the game's id
+         * @param board the final position
+         * @param steps the number of steps the game took
+         * @param winner the lowercase character of the winner, or CheckerBoard.EMPTY_POS for an unfinished game
+         */
+        public void visit(long id, ICheckerBoard board, int steps, char winner);
+    }
+
+    private final MappedByteBuffer[] chunks;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final long size;
+
+    //one entry per index block, in id order: the first id and the file offset of the block's offsets
+    private final long[] blockFirstIds;
+    private final long[] blockOffsets;
+
+    private GameArchive(MappedByteBuffer[] someChunks, int aChunkShift, long[] someFirstIds, long[] someOffsets,
+                        long aSize) {
+        chunks = someChunks;
+        chunkShift = aChunkShift;
+        chunkMask = (1L << aChunkShift) - 1;
+        blockFirstIds = someFirstIds;
+        blockOffsets = someOffsets;
+        size = aSize;
+    }
+
+    /**
+     * Opens the archive at path for reading, mapped in chunks of DEFAULT_CHUNK_BYTES.
+     *
+     * @throws IOException if the file cannot be read or is not a cleanly committed archive
+     *
+     * @pre path != null
+     */
+    public static GameArchive open(Path path) throws IOException {
+        return open(path, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Opens the archive at path for reading, mapped in chunks of chunkBytes. Smaller chunks keep less of the file
+     * in one mapping; the result is the same.
+     *
+     * @param path the archive file
+     * @param chunkBytes the bytes per mapped chunk
+     *
+     * @throws IOException if the file cannot be read or is not a cleanly committed archive
+     * @throws IllegalArgumentException if chunkBytes is not a power of two between 4 KB and DEFAULT_CHUNK_BYTES
+     *
+     * @pre path != null
+     */
+    public static GameArchive open(Path path, int chunkBytes) throws IOException {
+        if (Integer.bitCount(chunkBytes) != 1 || chunkBytes < 4096 || chunkBytes > DEFAULT_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Chunk size " + chunkBytes + " is not a power of two in 4 KB .. 1 GB");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            checkHeader(channel, path);
+
+            int chunkCount = (int) ((fileSize + chunkBytes - 1) / chunkBytes);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long start = (long) i * chunkBytes;
+                long length = Math.min((long) chunkBytes + MAX_RECORD_BYTES, fileSize - start);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+
+            //walk the block chain back from the trailer, then put the blocks in id order
+            List<long[]> blocks = new ArrayList<>();
+            long games = 0;
+            if (fileSize > HEADER_BYTES) {
+                long block = readTrailer(channel, fileSize, path);
+                while (block != NO_BLOCK) {
+                    ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+                    channel.read(header, block);
+                    if (header.getInt(0) != BLOCK_MAGIC) {
+                        throw new IOException(path + ": no index block at offset " + block);
+                    }
+                    if (blocks.isEmpty()) {
+                        games = header.getLong(BLOCK_FIRST_ID) + header.getInt(BLOCK_COUNT);
+                    }
+                    blocks.add(new long[] {header.getLong(BLOCK_FIRST_ID), block + BLOCK_HEADER_BYTES});
+                    block = header.getLong(BLOCK_PREVIOUS);
+                }
+            }
+            Collections.reverse(blocks);
+            long[] firstIds = new long[blocks.size()];
+            long[] offsets = new long[blocks.size()];
+            for (int i = 0; i < blocks.size(); i++) {
+                firstIds[i] = blocks.get(i)[0];
+                offsets[i] = blocks.get(i)[1];
+            }
+            return new GameArchive(chunks, Integer.numberOfTrailingZeros(chunkBytes), firstIds, offsets, games);
+        }
+    }
+
+    /**
+     * Returns the number of games in the archive.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the encoded bytes of one game as a read-only view of the mapping; nothing is copied.
+     *
+     * @param id the game's id
+     *
+     * @return a buffer positioned at the record's first byte and limited at its last
+     *
+     * @throws IndexOutOfBoundsException if id is not a game of the archive
+     *
+     * @post GameRecordCodec.decode(getBytes(id)) = get(id)
+     */
+    public ByteBuffer getBytes(long id) {
+        long entry = indexEntry(id);
+        long offset = readLong(entry);
+        //every block also stores where its last game ends, so a game's end is always the next entry
+        int length = (int) (readLong(entry + Long.BYTES) - offset);
+        return chunks[(int) (offset >>> chunkShift)].slice((int) (offset & chunkMask), length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns where one game's record starts in the file.
+     *
+     * @param id the game's id
+     *
+     * @throws IndexOutOfBoundsException if id is not a game of the archive
+     *
+     * @post getOffset = [the file offset of the first byte of game id's record]
+     */
+    public long getOffset(long id) {
+        return readLong(indexEntry(id));
+    }
+
+    /**
+     * Returns one game.
+     *
+     * @param id the game's id
+     *
+     * @throws IndexOutOfBoundsException if id is not a game of the archive
+     *
+     * @post get = [the id-th game appended to the archive]
+     */
+    public GameRecord get(long id) {
+        return GameRecordCodec.decode(getBytes(id));
+    }
+
+    /**
+     * Replays every game recorded with board's configuration, in id order, on board, which must be in the
+     * starting position, and hands each final position to visitor. Games recorded with other players or sizes
+     * are skipped.
+     *
+     * @return the number of games visited
+     *
+     * @see #scan(long, long, ICheckerBoard, Visitor)
+     */
+    public long scan(ICheckerBoard board, Visitor visitor) {
+        return scan(0, size, board, visitor);
+    }
+
+    /**
+     * Replays the games with ids from .. to - 1 that were recorded with board's configuration, in id order, and
+     * hands each final position to visitor.
+     *
+     * @param from the first id to replay
+     * @param to one past the last id to replay
+     * @param board the board to replay on, in the starting position
+     * @param visitor told about every replayed game
+     *
+     * @return the number of games visited
+     *
+     * @throws IndexOutOfBoundsException unless 0 <= from <= to <= size()
+     *
+     * @pre board != null AND visitor != null AND [board is in the starting position of a game]
+     *
+     * @post [visitor.visit was called for every game in from .. to - 1 recorded with board.getConfig()] AND
+     *       [board is back in the starting position]
+     *
+     * @see #scan(long, long, Function, Visitor)
+     */
+    public long scan(long from, long to, ICheckerBoard board, Visitor visitor) {
+        GameConfig config = board.getConfig();
+        return scan(from, to, game -> config.equals(game) ? board : null, visitor);
+    }
+
+    /**
+     * Replays the games with ids from .. to - 1, in id order, and hands each final position to visitor. Each game
+     * is replayed straight from the mapped bytes onto the board boards gives for its configuration, which is set
+     * back to its starting position before every game, so a scan creates no objects per game. Scans on different
+     * boards may run on different threads at once.
+     *
+     * @param from the first id to replay
+     * @param to one past the last id to replay
+     * @param boards called once per scan for each configuration met, returning a board for it in the starting
+     *               position, or null to skip that configuration's games. Each board is set back to its starting
+     *               position before every game, its undo journal is cleared, and its observer hears every step
+     * @param visitor told about every replayed game
+     *
+     * @return the number of games visited
+     *
+     * @throws IndexOutOfBoundsException unless 0 <= from <= to <= size()
+     *
+     * @pre boards != null AND visitor != null
+     *
+     * @post [visitor.visit was called for every game in from .. to - 1 that boards gave a board for] AND
+     *       [every board boards gave is back in its starting position]
+     */
+    public long scan(long from, long to, Function<GameConfig, ICheckerBoard> boards, Visitor visitor) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Games " + from + " .. " + to + " of " + size);
+        }
+        //archives hold few configurations, so a short list searched in order beats a map with boxed keys
+        List<ScanTarget> targets = new ArrayList<>();
+        ScanTarget target = null;
+
+        //views of our own, so that concurrent scans do not share buffer positions
+        ByteBuffer[] views = new ByteBuffer[chunks.length];
+        long visited = 0;
+        int block = blockOf(from);
+        for (long id = from; id < to; id++) {
+            if (block + 1 < blockFirstIds.length && id == blockFirstIds[block + 1]) {
+                block++;
+            }
+            long offset = readLong(blockOffsets[block] + (id - blockFirstIds[block]) * Long.BYTES);
+            int chunk = (int) (offset >>> chunkShift);
+            ByteBuffer in = views[chunk];
+            if (in == null) {
+                in = views[chunk] = chunks[chunk].duplicate();
+            }
+            in.position((int) (offset & chunkMask));
+
+            long key = GameRecordCodec.readConfigKey(in);
+            if (target == null || target.key != key) {
+                target = find(targets, key, boards);
+            }
+            if (target.board == null) {
+                continue;
+            }
+            char winner = GameRecordCodec.readWinner(in, target.config);
+            int steps = GameRecordCodec.readStepCount(in);
+
+            ICheckerBoard board = target.board;
+            target.start.reset(board);
+            for (int i = 0; i < steps; i++) {
+                GameRecord.playStep(board, GameRecordCodec.readStep(in, target.config.getDimension()));
+            }
+            visitor.visit(id, board, steps, winner);
+            visited++;
+        }
+        //leave the boards as they came, ready for the next scan
+        for (ScanTarget used : targets) {
+            if (used.board != null) {
+                used.start.reset(used.board);
+            }
+        }
+        return visited;
+    }
+
+    private static ScanTarget find(List<ScanTarget> targets, long key, Function<GameConfig, ICheckerBoard> boards) {
+        for (ScanTarget target : targets) {
+            if (target.key == key) {
+                return target;
+            }
+        }
+        ScanTarget target = new ScanTarget(key, boards);
+        targets.add(target);
+        return target;
+    }
+
+    /**
+     * Returns the file offset of id's entry in its index block.
+     */
+    private long indexEntry(long id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Game " + id + " of " + size);
+        }
+        int block = blockOf(id);
+        return blockOffsets[block] + (id - blockFirstIds[block]) * Long.BYTES;
+    }
+
+    /**
+     * Returns the index of the block holding id: the last block whose first id is at most id.
+     */
+    private int blockOf(long id) {
+        int low = 0;
+        int high = blockFirstIds.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blockFirstIds[middle] <= id) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private long readLong(long position) {
+        return chunks[(int) (position >>> chunkShift)].getLong((int) (position & chunkMask));
+    }
+
+    static void checkHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        if (header.position() < HEADER_BYTES || header.getInt(0) != FILE_MAGIC) {
+            throw new IOException(path + " is not a game archive");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException(path + " has unsupported archive version " + header.getInt(4));
+        }
+    }
+
+    /**
+     * Returns the offset of the last index block, read from the trailer that ends every committed archive.
+     */
+    static long readTrailer(FileChannel channel, long fileSize, Path path) throws IOException {
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES);
+        if (fileSize < HEADER_BYTES + TRAILER_BYTES) {
+            throw new IOException(path + " was not committed cleanly");
+        }
+        channel.read(trailer, fileSize - TRAILER_BYTES);
+        if (trailer.getLong(Long.BYTES) != TRAILER_MAGIC) {
+            throw new IOException(path + " was not committed cleanly");
+        }
+        return trailer.getLong(0);
+    }
+
+    /**
+     * Returns the length of an index block for count games.
+     */
+    static int blockLength(int count) {
+        return BLOCK_HEADER_BYTES + (count + 1) * Long.BYTES + TRAILER_BYTES;
+    }
+
+    /**
+     * ScanTarget is the board a scan replays one configuration's games on.
+     */
+    private static final class ScanTarget
+    {
+        final long key;
+        final GameConfig config;
+        final ICheckerBoard board;
+        final StartPosition start;
+
+        ScanTarget(long aKey, Function<GameConfig, ICheckerBoard> boards) {
+            key = aKey;
+            config = GameRecordCodec.configOf(aKey);
+            board = boards.apply(config);
+            start = (board == null) ? null : new StartPosition(board);
+        }
+    }
+
+    /**
+     * StartPosition sets a board back to the position it held when the StartPosition was made, touching only the
+     * squares that differ.
+     */
+    private static final class StartPosition
+    {
+        private final char[] squares;
+        private final Map<Character, Integer> counts;
+        private final boolean secondPlayerToMove;
+        private final int dimension;
+
+        StartPosition(ICheckerBoard board) {
+            dimension = board.getConfig().getDimension();
+            squares = new char[dimension * dimension];
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = board.whatsAtPos(square);
+            }
+            counts = new HashMap<>(board.getPieceCounts());
+            secondPlayerToMove = board.isSecondPlayerToMove();
+        }
+
+        void reset(ICheckerBoard board) {
+            // Pieces only ever stand on the white tiles, where (row + column) is even
+            for (int row = 0; row < dimension; row++) {
+                for (int square = row * dimension + row % 2; square < (row + 1) * dimension; square += 2) {
+                    if (board.whatsAtPos(square) != squares[square]) {
+                        board.placePiece(square, squares[square]);
+                    }
+                }
+            }
+            board.getPieceCounts().putAll(counts);
+            if (board.isSecondPlayerToMove() != secondPlayerToMove) {
+                board.switchSideToMove();
+            }
+            board.getUndoJournal().clear();
+        }
+    }
+}
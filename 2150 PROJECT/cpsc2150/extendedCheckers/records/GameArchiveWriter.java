@@ -0,0 +1,231 @@
+package cpsc2150.extendedCheckers.records;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * GameArchiveWriter appends GameRecords to a game archive file (see GameArchive for the layout). Records are
+ * encoded with GameRecordCodec into a write buffer and reach the file in large sequential writes; their offsets
+ * are kept until commit() writes them out as one index block. Nothing already in the file is ever rewritten, so a
+ * crash can only lose the games appended since the last commit.
+ *
+ * A writer is not thread-safe, and only one writer should have a file open at a time. Readers opened with
+ * GameArchive.open see the games committed before they were opened.
+ *
+ * @Corresponds The GameArchiveWriter object (self) = the archive at its path, getGameCount() games long, of which
+ *              the first getCommittedCount() are on disk with their index
+ */
+public final class GameArchiveWriter implements AutoCloseable
+{
+    /**
+     * The number of games after which append commits on its own, which bounds the offsets kept in memory.
+     */
+    public static final int AUTO_COMMIT_GAMES = 1 << 20;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int INITIAL_PENDING = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+
+    //file offset of the next byte written, counting what is still in buffer
+    private long position;
+    private long previousBlock;
+    private long committed;
+
+    //offsets of the games appended since the last commit
+    private long[] pending = new long[INITIAL_PENDING];
+    private int pendingCount = 0;
+
+    private GameArchiveWriter(FileChannel aChannel, long aPosition, long aPreviousBlock, long aCommitted) {
+        channel = aChannel;
+        position = aPosition;
+        previousBlock = aPreviousBlock;
+        committed = aCommitted;
+    }
+
+    /**
+     * Opens the archive at path for appending, creating it if it does not exist.
+     *
+     * @param path the archive file
+     *
+     * @return a writer positioned after the last committed game
+     *
+     * @throws IOException if the file cannot be opened, or exists but is not a cleanly committed archive
+     *
+     * @pre path != null
+     *
+     * @post open.getGameCount() = open.getCommittedCount() = [the games already in the archive]
+     */
+    public static GameArchiveWriter open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_BYTES);
+                header.putInt(GameArchive.FILE_MAGIC).putInt(GameArchive.VERSION).flip();
+                writeFully(channel, header, 0);
+                return new GameArchiveWriter(channel, GameArchive.HEADER_BYTES, GameArchive.NO_BLOCK, 0);
+            }
+
+            GameArchive.checkHeader(channel, path);
+            if (size == GameArchive.HEADER_BYTES) {
+                return new GameArchiveWriter(channel, size, GameArchive.NO_BLOCK, 0);
+            }
+            long lastBlock = GameArchive.readTrailer(channel, size, path);
+            ByteBuffer block = ByteBuffer.allocate(GameArchive.BLOCK_HEADER_BYTES);
+            readFully(channel, block, lastBlock);
+            long games = block.getLong(GameArchive.BLOCK_FIRST_ID) + block.getInt(GameArchive.BLOCK_COUNT);
+            return new GameArchiveWriter(channel, size, lastBlock, games);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of games in the archive, committed or not.
+     */
+    public long getGameCount() {
+        return committed + pendingCount;
+    }
+
+    /**
+     * Returns the number of games whose index is on disk.
+     */
+    public long getCommittedCount() {
+        return committed;
+    }
+
+    /**
+     * Appends one game.
+     *
+     * @param record the game to append
+     *
+     * @return the id of the game, which GameArchive.get takes
+     *
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the record is longer than GameArchive.MAX_RECORD_BYTES
+     *
+     * @pre record != null
+     *
+     * @post append = #getGameCount() AND getGameCount() = #getGameCount() + 1
+     */
+    public long append(GameRecord record) throws IOException {
+        int length = GameRecordCodec.encodedLength(record);
+        if (length > GameArchive.MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("A record of " + length + " bytes is longer than " +
+                    GameArchive.MAX_RECORD_BYTES);
+        }
+        if (buffer.remaining() < length) {
+            flushBuffer();
+        }
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        }
+        long id = getGameCount();
+        pending[pendingCount++] = position;
+        GameRecordCodec.encode(record, buffer);
+        position += length;
+
+        if (pendingCount == AUTO_COMMIT_GAMES) {
+            commit();
+        }
+        return id;
+    }
+
+    /**
+     * Writes the games appended since the last commit and their index block, so readers opened from now on
+     * see them.
+     *
+     * @throws IOException if writing fails
+     *
+     * @post getCommittedCount() = getGameCount()
+     */
+    public void commit() throws IOException {
+        if (pendingCount == 0) {
+            flushBuffer();
+            return;
+        }
+        long blockStart = position;
+        int blockBytes = GameArchive.blockLength(pendingCount);
+        if (buffer.remaining() < blockBytes) {
+            flushBuffer();
+        }
+        //large blocks go through a buffer of their own
+        ByteBuffer out = (buffer.remaining() >= blockBytes) ? buffer : ByteBuffer.allocate(blockBytes);
+        out.putInt(GameArchive.BLOCK_MAGIC);
+        out.putInt(pendingCount);
+        out.putLong(committed);
+        out.putLong(previousBlock);
+        for (int i = 0; i < pendingCount; i++) {
+            out.putLong(pending[i]);
+        }
+        out.putLong(blockStart);
+        //trailer: lets readers find this block from the end of the file
+        out.putLong(blockStart);
+        out.putLong(GameArchive.TRAILER_MAGIC);
+        if (out != buffer) {
+            out.flip();
+            writeFully(channel, out, blockStart);
+        }
+        position += blockBytes;
+        flushBuffer();
+
+        previousBlock = blockStart;
+        committed += pendingCount;
+        pendingCount = 0;
+    }
+
+    /**
+     * Commits and forces everything written to the storage device.
+     *
+     * @throws IOException if writing fails
+     *
+     * @post getCommittedCount() = getGameCount()
+     */
+    public void sync() throws IOException {
+        commit();
+        channel.force(false);
+    }
+
+    /**
+     * Commits and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer, position - buffer.remaining());
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source, long at) throws IOException {
+        while (source.hasRemaining()) {
+            at += channel.write(source, at);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long at) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, at);
+            if (read < 0) {
+                throw new IOException("Archive ends early");
+            }
+            at += read;
+        }
+        target.flip();
+    }
+}
@@ -0,0 +1,232 @@
+package cpsc2150.extendedCheckers.records;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.Arrays;
+
+/**
+ * GameRecord is the complete, immutable record of one game: its GameConfig, every step played from the starting
+ * position, and the winner if the game was finished.
+ *
+ * A step is the square a piece left and the direction it went, packed into one int as (square << 2) | direction
+ * ordinal. Nothing else needs keeping, because the board decides the rest when the game is replayed: a step onto
+ * an empty square is a move, a step onto a piece is a jump over it, and a man that ends a step on its far row is
+ * crowned (player one's far row is the last row, player two's is row 0, as in CheckersFE). A multi-jump is simply
+ * several jumps in a row by the same piece.
+ *
+ * @Corresponds The GameRecord object (self) = the game between getConfig()'s players whose steps, in order, are
+ *              getStep(0) .. getStep(getStepCount() - 1)
+ *
+ * @Invariant every step starts on a square holding a piece when the steps before it have been replayed, and
+ *            getWinner() is one of the players or CheckerBoard.EMPTY_POS
+ */
+public final class GameRecord
+{
+    static final int DIRECTION_BITS = 2;
+    static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+
+    private final GameConfig config;
+    private final int[] steps;
+    private final char winner;
+
+    /**
+     * Creates a record.
+     *
+     * @param aConfig the players and board size of the game
+     * @param someSteps the packed steps, see step(); the array is copied
+     * @param aWinner the lowercase character of the winner, or CheckerBoard.EMPTY_POS if there is none yet
+     *
+     * @throws IllegalArgumentException if aWinner is neither a player nor CheckerBoard.EMPTY_POS
+     *
+     * @pre aConfig != null AND someSteps != null
+     *
+     * @post getConfig() = aConfig AND getStepCount() = someSteps.length AND getWinner() = aWinner
+     */
+    public GameRecord(GameConfig aConfig, int[] someSteps, char aWinner) {
+        this(aConfig, someSteps.clone(), someSteps.length, aWinner);
+    }
+
+    /**
+     * Creates a record that takes over the first count entries of steps without copying them.
+     */
+    GameRecord(GameConfig aConfig, int[] someSteps, int count, char aWinner) {
+        if (aWinner != CheckerBoard.EMPTY_POS && aWinner != aConfig.getPlayerOne() && aWinner != aConfig.getPlayerTwo()) {
+            throw new IllegalArgumentException("'" + aWinner + "' is not a player of " + aConfig);
+        }
+        config = aConfig;
+        steps = (count == someSteps.length) ? someSteps : Arrays.copyOf(someSteps, count);
+        winner = aWinner;
+    }
+
+    /**
+     * Packs one step.
+     *
+     * @param square the square index the piece left
+     * @param dir the direction it went
+     *
+     * @return (square << 2) | dir.ordinal()
+     *
+     * @pre square >= 0
+     */
+    public static int step(int square, DirectionEnum dir) {
+        return (square << DIRECTION_BITS) | dir.ordinal();
+    }
+
+    /**
+     * Returns the square a packed step starts from.
+     */
+    public static int stepSquare(int step) {
+        return step >>> DIRECTION_BITS;
+    }
+
+    /**
+     * Returns the direction of a packed step.
+     */
+    public static DirectionEnum stepDirection(int step) {
+        return DirectionEnum.fromOrdinal(step & DIRECTION_MASK);
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public int getStepCount() {
+        return steps.length;
+    }
+
+    /**
+     * Returns the packed step at index.
+     *
+     * @pre 0 <= index < getStepCount()
+     */
+    public int getStep(int index) {
+        return steps[index];
+    }
+
+    /**
+     * Returns a copy of every packed step, in order.
+     */
+    public int[] getSteps() {
+        return steps.clone();
+    }
+
+    /**
+     * Returns the lowercase character of the winner, or CheckerBoard.EMPTY_POS for an unfinished game.
+     */
+    public char getWinner() {
+        return winner;
+    }
+
+    /**
+     * Plays the whole game on board.
+     *
+     * @param board the board to play on
+     *
+     * @return board
+     *
+     * @pre board is in the starting position of a game with getConfig()'s dimension
+     *
+     * @post board = [the final position of the game]
+     */
+    public ICheckerBoard replay(ICheckerBoard board) {
+        for (int step : steps) {
+            playStep(board, step);
+        }
+        return board;
+    }
+
+    /**
+     * Returns a new CheckerBoard holding the final position of the game.
+     *
+     * @post replay = [a board for getConfig() after every step of the game]
+     */
+    public ICheckerBoard replay() {
+        return replay(new CheckerBoard(config));
+    }
+
+    /**
+     * Plays one packed step on board: a move if the neighbouring square is empty, a jump otherwise, followed by
+     * crowning if a man ends the step on its far row.
+     *
+     * @param board the board to play on
+     * @param step the packed step
+     *
+     * @return the square the piece landed on
+     *
+     * @pre the step's square holds a piece that can step or jump in the step's direction
+     *
+     * @post [the piece has moved or jumped, and been crowned if it reached its far row]
+     */
+    public static int playStep(ICheckerBoard board, int step) {
+        int square = stepSquare(step);
+        DirectionEnum dir = stepDirection(step);
+        int neighbor = board.getNeighborTable().getStep(square, dir);
+        if (neighbor == NeighborTable.OFF_BOARD) {
+            throw new IllegalArgumentException("Step " + dir + " from square " + square + " leaves the board");
+        }
+        int landing = (board.whatsAtPos(neighbor) == CheckerBoard.EMPTY_POS)
+                ? board.movePiece(square, dir)
+                : board.jumpPiece(square, dir);
+
+        char piece = board.whatsAtPos(landing);
+        if (Character.isLowerCase(piece) && board.getSquareRow(landing) == promotionRow(board.getConfig(), piece)) {
+            board.crownPiece(landing);
+        }
+        return landing;
+    }
+
+    /**
+     * Returns true if playing step on board would be a jump rather than a move.
+     *
+     * @pre the step's square holds a piece that can step or jump in the step's direction
+     */
+    public static boolean isJump(ICheckerBoard board, int step) {
+        int neighbor = board.getNeighborTable().getStep(stepSquare(step), stepDirection(step));
+        return board.whatsAtPos(neighbor) != CheckerBoard.EMPTY_POS;
+    }
+
+    /**
+     * Returns the direction that takes a piece from one square to the other in a single step or jump.
+     *
+     * @return the direction, or null if to is neither a step nor a jump away from from
+     */
+    static DirectionEnum directionBetween(NeighborTable neighbors, int from, int to) {
+        for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+            if (neighbors.getStep(from, dir) == to || neighbors.getJump(from, dir) == to) {
+                return DirectionEnum.fromOrdinal(dir);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the row on which the men of piece's player are crowned.
+     */
+    static int promotionRow(GameConfig config, char piece) {
+        return (Character.toLowerCase(piece) == config.getPlayerOne()) ? config.getDimension() - 1 : 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord record = (GameRecord) other;
+        return winner == record.winner && config.equals(record.config) && Arrays.equals(steps, record.steps);
+    }
+
+    @Override
+    public int hashCode() {
+        return (config.hashCode() * 31 + Arrays.hashCode(steps)) * 31 + winner;
+    }
+
+    @Override
+    public String toString() {
+        return config + ", " + steps.length + " steps, " +
+                (winner == CheckerBoard.EMPTY_POS ? "unfinished" : "'" + winner + "' won");
+    }
+}
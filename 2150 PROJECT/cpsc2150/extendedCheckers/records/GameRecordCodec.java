@@ -0,0 +1,241 @@
+package cpsc2150.extendedCheckers.records;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+
+import java.nio.ByteBuffer;
+
+/**
+ * GameRecordCodec writes GameRecords in a compact binary form and reads them back.
+ *
+ * Pieces only ever stand on the white tiles, where (row + column) is even, so on an even-sized board the white
+ * tiles are numbered 0 .. dimension * dimension / 2 - 1 by square >> 1 with no gaps. A step is written as that
+ * number and the direction, ((square >> 1) << 2) | direction, in an unsigned LEB128 varint: one byte per step on
+ * boards up to 8x8, two bytes on the larger ones. A record is:
+ *      dimension       1 byte
+ *      player one      varint of the character
+ *      player two      varint of the character
+ *      winner          1 byte: 0 for none, 1 for player one, 2 for player two
+ *      step count      varint
+ *      steps           one varint each
+ * so a 50-step game on an 8x8 board with ASCII players takes 55 bytes.
+ *
+ * Encoding and decoding touch each byte once and allocate nothing but the decoded record, so both run at memory
+ * speed (see RecordCodecBenchmark).
+ */
+public final class GameRecordCodec
+{
+    private static final int VARINT_PAYLOAD = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_SHIFT = 7;
+    private static final int MAX_VARINT_BYTES = 5;
+
+    private static final int NO_WINNER = 0;
+    private static final int PLAYER_ONE_WON = 1;
+    private static final int PLAYER_TWO_WON = 2;
+
+    private GameRecordCodec() {
+    }
+
+    /**
+     * Returns the number of bytes encode writes for record.
+     *
+     * @pre record != null
+     *
+     * @post encodedLength = [the length of record's binary form]
+     */
+    public static int encodedLength(GameRecord record) {
+        GameConfig config = record.getConfig();
+        int length = 2 + varintLength(config.getPlayerOne()) + varintLength(config.getPlayerTwo()) +
+                varintLength(record.getStepCount());
+        for (int i = 0; i < record.getStepCount(); i++) {
+            length += varintLength(packStep(record.getStep(i)));
+        }
+        return length;
+    }
+
+    /**
+     * Writes record at out's position.
+     *
+     * @param record the record to write
+     * @param out the buffer to write into
+     *
+     * @throws java.nio.BufferOverflowException if out has fewer than encodedLength(record) bytes remaining
+     *
+     * @pre record != null AND out != null
+     *
+     * @post [record's binary form is written at #out.position()] AND
+     *       out.position() = #out.position() + encodedLength(record)
+     */
+    public static void encode(GameRecord record, ByteBuffer out) {
+        GameConfig config = record.getConfig();
+        out.put((byte) config.getDimension());
+        putVarint(out, config.getPlayerOne());
+        putVarint(out, config.getPlayerTwo());
+        char winner = record.getWinner();
+        out.put((byte) (winner == CheckerBoard.EMPTY_POS ? NO_WINNER
+                : winner == config.getPlayerOne() ? PLAYER_ONE_WON : PLAYER_TWO_WON));
+
+        int count = record.getStepCount();
+        putVarint(out, count);
+        for (int i = 0; i < count; i++) {
+            putVarint(out, packStep(record.getStep(i)));
+        }
+    }
+
+    /**
+     * Returns record's binary form.
+     *
+     * @post encode.length = encodedLength(record) AND decode(encode) = record
+     */
+    public static byte[] encode(GameRecord record) {
+        byte[] bytes = new byte[encodedLength(record)];
+        encode(record, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Reads one record at in's position.
+     *
+     * @param in the buffer to read from
+     *
+     * @return the record
+     *
+     * @throws IllegalArgumentException if the bytes are not a record: an unsupported dimension or players, an
+     *         unknown winner, or a step off the board
+     * @throws java.nio.BufferUnderflowException if the record is cut short
+     *
+     * @pre in != null
+     *
+     * @post [the record written at #in.position() is returned] AND in.position() = [the byte after it]
+     */
+    public static GameRecord decode(ByteBuffer in) {
+        int dimension = in.get() & 0xFF;
+        GameConfig config = new GameConfig((char) getVarint(in), (char) getVarint(in), dimension);
+        char winner = readWinner(in, config);
+        int count = readStepCount(in);
+
+        int[] steps = new int[count];
+        for (int i = 0; i < count; i++) {
+            steps[i] = readStep(in, dimension);
+        }
+        return new GameRecord(config, steps, count, winner);
+    }
+
+    /**
+     * Reads the winner byte of a record whose players are config's.
+     */
+    static char readWinner(ByteBuffer in, GameConfig config) {
+        int winnerCode = in.get();
+        if (winnerCode == NO_WINNER) {
+            return CheckerBoard.EMPTY_POS;
+        } else if (winnerCode == PLAYER_ONE_WON) {
+            return config.getPlayerOne();
+        } else if (winnerCode == PLAYER_TWO_WON) {
+            return config.getPlayerTwo();
+        }
+        throw new IllegalArgumentException("Unknown winner code " + winnerCode);
+    }
+
+    /**
+     * Reads the step count of a record, checking it against the bytes left.
+     */
+    static int readStepCount(ByteBuffer in) {
+        int count = getVarint(in);
+        //every step takes at least one byte, so a count larger than that is corrupt, not a reason to allocate
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Record claims " + count + " steps but only " + in.remaining() +
+                    " bytes remain");
+        }
+        return count;
+    }
+
+    /**
+     * Reads one step and returns it packed on its square index, see GameRecord.step.
+     */
+    static int readStep(ByteBuffer in, int dimension) {
+        int packed = getVarint(in);
+        int white = packed >>> GameRecord.DIRECTION_BITS;
+        if (white >= dimension * dimension / 2) {
+            throw new IllegalArgumentException("Step starts off the " + dimension + "x" + dimension + " board");
+        }
+        return (whiteToSquare(white, dimension) << GameRecord.DIRECTION_BITS) | (packed & GameRecord.DIRECTION_MASK);
+    }
+
+    /**
+     * Reads the dimension and players at the start of a record as one key, without creating a GameConfig, and
+     * leaves in at the winner byte, ready for readWinner.
+     *
+     * @return (dimension << 32) | (player one << 16) | player two
+     */
+    static long readConfigKey(ByteBuffer in) {
+        long dimension = in.get() & 0xFF;
+        long playerOne = getVarint(in) & 0xFFFF;
+        return (dimension << 32) | (playerOne << Character.SIZE) | (getVarint(in) & 0xFFFF);
+    }
+
+    /**
+     * Returns the GameConfig of a key made by readConfigKey.
+     *
+     * @throws IllegalArgumentException if the key does not describe a valid GameConfig
+     */
+    static GameConfig configOf(long key) {
+        return new GameConfig((char) (key >>> Character.SIZE), (char) key, (int) (key >>> 32));
+    }
+
+    /**
+     * Reads one record from the start of bytes.
+     *
+     * @throws IllegalArgumentException if the bytes are not a record
+     * @throws java.nio.BufferUnderflowException if the record is cut short
+     */
+    public static GameRecord decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Turns a packed step on a square into a packed step on a white tile number.
+     */
+    private static int packStep(int step) {
+        return ((GameRecord.stepSquare(step) >>> 1) << GameRecord.DIRECTION_BITS) | (step & GameRecord.DIRECTION_MASK);
+    }
+
+    /**
+     * Returns the square index of white tile number white. Row r holds dimension / 2 white tiles, starting in
+     * column 0 on even rows and column 1 on odd ones.
+     */
+    static int whiteToSquare(int white, int dimension) {
+        int perRow = dimension / 2;
+        int row = white / perRow;
+        return row * dimension + 2 * (white % perRow) + (row & 1);
+    }
+
+    static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~VARINT_PAYLOAD) != 0) {
+            value >>>= VARINT_SHIFT;
+            length++;
+        }
+        return length;
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~VARINT_PAYLOAD) != 0) {
+            out.put((byte) ((value & VARINT_PAYLOAD) | VARINT_MORE));
+            value >>>= VARINT_SHIFT;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0, i = 0; i < MAX_VARINT_BYTES; i++, shift += VARINT_SHIFT) {
+            int b = in.get();
+            value |= (b & VARINT_PAYLOAD) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than " + MAX_VARINT_BYTES + " bytes");
+    }
+}
@@ -0,0 +1,155 @@
+package cpsc2150.extendedCheckers.records;
+
+import cpsc2150.extendedCheckers.models.BoardObserver;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.Arrays;
+
+/**
+ * GameRecorder writes down a game as it is played, by listening to the board as its BoardObserver. Every
+ * movePiece and jumpPiece becomes one packed step (see GameRecord); crowning is not kept because replaying the
+ * steps crowns the same men again.
+ *
+ * Steps are grouped into turns so that undoMove can be followed: a jump that starts where the previous jump of the
+ * same piece landed continues that turn, anything else starts a new one, and moveUndone drops the last turn.
+ *
+ * A board has only one observer, so attaching a recorder replaces any other observer of the board. The recorder is
+ * not thread-safe; it runs on whichever thread plays on the board.
+ *
+ * @Corresponds The GameRecorder object (self) = the steps played on the board since the recorder was attached or
+ *              last cleared, getStepCount() of them in getTurnCount() turns
+ */
+public final class GameRecorder implements BoardObserver
+{
+    private static final int INITIAL_STEPS = 128;
+
+    private final GameConfig config;
+    private final NeighborTable neighbors;
+
+    private int[] steps = new int[INITIAL_STEPS];
+    private int stepCount = 0;
+
+    //index of the first step of every turn
+    private int[] turnStarts = new int[INITIAL_STEPS];
+    private int turnCount = 0;
+
+    //where the last jump landed and with which piece, or -1 if the last step cannot be continued
+    private int chainSquare = -1;
+    private char chainPiece;
+
+    /**
+     * Creates a recorder for games of config. It records nothing until it is made the observer of a board.
+     *
+     * @pre aConfig != null
+     *
+     * @post getConfig() = aConfig AND getStepCount() = 0
+     */
+    public GameRecorder(GameConfig aConfig) {
+        config = aConfig;
+        neighbors = NeighborTable.forDimension(aConfig.getDimension());
+    }
+
+    /**
+     * Creates a recorder and makes it board's observer.
+     *
+     * @param board the board to record, which should be in its starting position
+     *
+     * @return the new recorder
+     *
+     * @post board.getObserver() = attach AND attach.getConfig() = board.getConfig() AND attach.getStepCount() = 0
+     */
+    public static GameRecorder attach(ICheckerBoard board) {
+        GameRecorder recorder = new GameRecorder(board.getConfig());
+        board.setObserver(recorder);
+        return recorder;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Returns the record of everything played so far.
+     *
+     * @param winner the lowercase character of the winner, or CheckerBoard.EMPTY_POS for an unfinished game
+     *
+     * @return a record that later steps do not change
+     *
+     * @post toRecord.getConfig() = getConfig() AND toRecord.getStepCount() = getStepCount() AND
+     *       toRecord.getWinner() = winner
+     */
+    public GameRecord toRecord(char winner) {
+        return new GameRecord(config, Arrays.copyOf(steps, stepCount), stepCount, winner);
+    }
+
+    /**
+     * Forgets every step, ready for the next game on a board set back to its starting position.
+     *
+     * @post getStepCount() = 0 AND getTurnCount() = 0
+     */
+    public void clear() {
+        stepCount = 0;
+        turnCount = 0;
+        chainSquare = -1;
+    }
+
+    @Override
+    public void pieceMoved(int from, int to, char piece) {
+        startTurn();
+        addStep(from, to);
+        chainSquare = -1;
+    }
+
+    @Override
+    public void pieceJumped(int from, int captured, int to, char piece, char capturedPiece) {
+        if (from != chainSquare || piece != chainPiece) {
+            startTurn();
+        }
+        addStep(from, to);
+        chainSquare = to;
+        chainPiece = piece;
+    }
+
+    @Override
+    public void pieceCrowned(int square, char king) {
+        //a man crowned during a jump chain ends its turn there
+        chainSquare = -1;
+    }
+
+    @Override
+    public void moveUndone() {
+        if (turnCount > 0) {
+            stepCount = turnStarts[--turnCount];
+        }
+        chainSquare = -1;
+    }
+
+    private void startTurn() {
+        if (turnCount == turnStarts.length) {
+            turnStarts = Arrays.copyOf(turnStarts, turnCount * 2);
+        }
+        turnStarts[turnCount++] = stepCount;
+    }
+
+    private void addStep(int from, int to) {
+        if (stepCount == steps.length) {
+            steps = Arrays.copyOf(steps, stepCount * 2);
+        }
+        DirectionEnum dir = GameRecord.directionBetween(neighbors, from, to);
+        if (dir == null) {
+            throw new IllegalStateException("Square " + to + " is not a step or a jump away from square " + from);
+        }
+        steps[stepCount++] = GameRecord.step(from, dir);
+    }
+}
@@ -0,0 +1,419 @@
+package cpsc2150.extendedCheckers.records;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PdnCodec writes GameRecords as Portable Draughts Notation (PDN) text and reads them back, so games can be moved
+ * to and from other draughts programs.
+ *
+ * Squares use the usual PDN numbering: the white tiles are numbered 1, 2, 3, ... row by row from the top left, so
+ * square index s is number (s >> 1) + 1. A move is written "from-to" and a capture "fromxtoxto..." with one number
+ * per landing square. The board size and the player characters go in the tags BoardSize, PlayerOne and PlayerTwo,
+ * and the result counts player one first: "1-0" when player one won, "0-1" when player two won, "*" otherwise.
+ * For example
+ *      [PlayerOne "x"]
+ *      [PlayerTwo "o"]
+ *      [BoardSize "8"]
+ *      [Result "1-0"]
+ *
+ *      1. 9-13 22-18 2. 13x22 25x18 ... 1-0
+ *
+ * Reading is lenient the way PDN readers usually are: unknown tags, comments in braces, variations in parentheses,
+ * ";" line comments, NAGs such as $1 and move marks such as ! and ? are skipped, missing tags fall back to the
+ * GameConfig defaults, and a file may hold any number of games, each ending with its result. Writing a record and
+ * reading it back always gives an equal record, and reading text this class wrote and writing it again gives the
+ * same text.
+ */
+public final class PdnCodec
+{
+    public static final String PLAYER_ONE_TAG = "PlayerOne";
+    public static final String PLAYER_TWO_TAG = "PlayerTwo";
+    public static final String BOARD_SIZE_TAG = "BoardSize";
+    public static final String RESULT_TAG = "Result";
+
+    private static final String PLAYER_ONE_WINS = "1-0";
+    private static final String PLAYER_TWO_WINS = "0-1";
+    private static final String UNFINISHED = "*";
+    private static final List<String> OTHER_RESULTS = Arrays.asList("2-0", "0-2", "1-1", "0-0", "1/2-1/2");
+
+    private static final int LINE_WIDTH = 79;
+
+    private PdnCodec() {
+    }
+
+    /**
+     * Returns record as PDN text.
+     *
+     * @pre record != null
+     *
+     * @post parse(toPdn) = record
+     */
+    public static String toPdn(GameRecord record) {
+        StringBuilder text = new StringBuilder();
+        try {
+            write(record, text);
+        } catch (IOException e) {
+            //a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes record as PDN text, tags first and the moves after a blank line, ending with a blank line so that
+     * games written one after another stay apart.
+     *
+     * @param record the game to write
+     * @param out where to write it
+     *
+     * @throws IOException if out fails
+     *
+     * @pre record != null AND out != null
+     *
+     * @post [out has received toPdn(record)]
+     */
+    public static void write(GameRecord record, Appendable out) throws IOException {
+        GameConfig config = record.getConfig();
+        String result = resultOf(record);
+        writeTag(out, PLAYER_ONE_TAG, String.valueOf(config.getPlayerOne()));
+        writeTag(out, PLAYER_TWO_TAG, String.valueOf(config.getPlayerTwo()));
+        writeTag(out, BOARD_SIZE_TAG, String.valueOf(config.getDimension()));
+        writeTag(out, RESULT_TAG, result);
+        out.append('\n');
+
+        //the moves are written while the game is replayed, which tells moves from captures and shows chains
+        ICheckerBoard board = new CheckerBoard(config);
+        StringBuilder line = new StringBuilder();
+        StringBuilder token = new StringBuilder();
+        int moveNumber = 0;
+        boolean playerOneMoved = false;
+        int count = record.getStepCount();
+
+        for (int i = 0; i < count; i++) {
+            int step = record.getStep(i);
+            int from = GameRecord.stepSquare(step);
+            char piece = board.whatsAtPos(from);
+            boolean jump = GameRecord.isJump(board, step);
+            int landing = GameRecord.playStep(board, step);
+
+            token.setLength(0);
+            token.append(squareNumber(from)).append(jump ? 'x' : '-').append(squareNumber(landing));
+            //further jumps by the same, uncrowned, piece belong to the same turn
+            while (jump && i + 1 < count && GameRecord.stepSquare(record.getStep(i + 1)) == landing &&
+                    board.whatsAtPos(landing) == piece && GameRecord.isJump(board, record.getStep(i + 1))) {
+                landing = GameRecord.playStep(board, record.getStep(++i));
+                token.append('x').append(squareNumber(landing));
+            }
+
+            if (Character.toLowerCase(piece) == config.getPlayerOne()) {
+                appendWord(out, line, ++moveNumber + ".");
+                playerOneMoved = true;
+            } else {
+                if (!playerOneMoved) {
+                    appendWord(out, line, ++moveNumber + "...");
+                }
+                playerOneMoved = false;
+            }
+            appendWord(out, line, token);
+        }
+        appendWord(out, line, result);
+        out.append(line).append("\n\n");
+    }
+
+    /**
+     * Reads the one game in text.
+     *
+     * @param text PDN text holding exactly one game
+     *
+     * @return the game
+     *
+     * @throws IllegalArgumentException if text does not hold exactly one game, or the game is not valid PDN for
+     *         this board
+     *
+     * @pre text != null
+     */
+    public static GameRecord parse(CharSequence text) {
+        List<GameRecord> games = parseAll(text);
+        if (games.size() != 1) {
+            throw new IllegalArgumentException("Expected one game but found " + games.size());
+        }
+        return games.get(0);
+    }
+
+    /**
+     * Reads every game in text, in order. A game ends at its result; text after the last result that holds tags
+     * or moves is read as one more, unfinished, game.
+     *
+     * @param text PDN text
+     *
+     * @return the games
+     *
+     * @throws IllegalArgumentException if a game is not valid PDN for this board
+     *
+     * @pre text != null
+     */
+    public static List<GameRecord> parseAll(CharSequence text) {
+        List<GameRecord> games = new ArrayList<>();
+        Map<String, String> tags = new HashMap<>();
+        //square numbers of every turn, each turn ending with -1
+        List<Integer> numbers = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '[') {
+                i = readTag(text, i, tags);
+            } else if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else if (c == '(') {
+                i = skipVariation(text, i);
+            } else {
+                int end = i;
+                while (end < length && !isDelimiter(text.charAt(end))) {
+                    end++;
+                }
+                String word = text.subSequence(i, end).toString();
+                i = end;
+
+                if (isResult(word)) {
+                    games.add(buildRecord(tags, numbers, word));
+                    tags.clear();
+                    numbers.clear();
+                } else {
+                    readWord(word, numbers);
+                }
+            }
+        }
+        if (!tags.isEmpty() || !numbers.isEmpty()) {
+            games.add(buildRecord(tags, numbers, tags.getOrDefault(RESULT_TAG, UNFINISHED)));
+        }
+        return games;
+    }
+
+    /**
+     * Returns the PDN number of a square index.
+     */
+    public static int squareNumber(int square) {
+        return (square >> 1) + 1;
+    }
+
+    /**
+     * Returns the square index of a PDN square number on a board of the given dimension.
+     *
+     * @pre 1 <= number <= dimension * dimension / 2
+     */
+    public static int squareOf(int number, int dimension) {
+        return GameRecordCodec.whiteToSquare(number - 1, dimension);
+    }
+
+    private static String resultOf(GameRecord record) {
+        char winner = record.getWinner();
+        if (winner == CheckerBoard.EMPTY_POS) {
+            return UNFINISHED;
+        }
+        return winner == record.getConfig().getPlayerOne() ? PLAYER_ONE_WINS : PLAYER_TWO_WINS;
+    }
+
+    private static void writeTag(Appendable out, String name, String value) throws IOException {
+        out.append('[').append(name).append(" \"").append(value).append("\"]\n");
+    }
+
+    /**
+     * Adds word to the line being built, first writing the line out if word would make it too long.
+     */
+    private static void appendWord(Appendable out, StringBuilder line, CharSequence word) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + word.length() > LINE_WIDTH) {
+            out.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '[' || c == '{' || c == '(' || c == ';';
+    }
+
+    private static boolean isResult(String word) {
+        return word.equals(PLAYER_ONE_WINS) || word.equals(PLAYER_TWO_WINS) || word.equals(UNFINISHED) ||
+                OTHER_RESULTS.contains(word);
+    }
+
+    /**
+     * Reads one move word, which may carry a move number in front ("12." or "12...") and marks such as "!?"
+     * behind, and adds its square numbers to numbers. Words that are only a move number or a NAG are skipped.
+     */
+    private static void readWord(String word, List<Integer> numbers) {
+        if (word.startsWith("$")) {
+            return;
+        }
+        int start = 0;
+        while (start < word.length() && Character.isDigit(word.charAt(start))) {
+            start++;
+        }
+        if (start < word.length() && word.charAt(start) == '.') {
+            while (start < word.length() && word.charAt(start) == '.') {
+                start++;
+            }
+        } else {
+            start = 0;
+        }
+        int end = word.length();
+        while (end > start && (word.charAt(end - 1) == '!' || word.charAt(end - 1) == '?')) {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+
+        String move = word.substring(start, end);
+        char separator = move.indexOf('x') >= 0 ? 'x' : '-';
+        String[] squares = move.split(separator == 'x' ? "x" : "-", -1);
+        if (squares.length < 2) {
+            throw new IllegalArgumentException("Not a move: \"" + word + "\"");
+        }
+        for (String square : squares) {
+            try {
+                numbers.add(Integer.parseInt(square));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a move: \"" + word + "\"");
+            }
+        }
+        numbers.add(-1);
+    }
+
+    private static GameRecord buildRecord(Map<String, String> tags, List<Integer> numbers, String result) {
+        GameConfig defaults = new GameConfig();
+        GameConfig config;
+        try {
+            config = new GameConfig(
+                    playerTag(tags, PLAYER_ONE_TAG, defaults.getPlayerOne()),
+                    playerTag(tags, PLAYER_TWO_TAG, defaults.getPlayerTwo()),
+                    Integer.parseInt(tags.getOrDefault(BOARD_SIZE_TAG, String.valueOf(defaults.getDimension()))));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad " + BOARD_SIZE_TAG + " tag \"" + tags.get(BOARD_SIZE_TAG) + "\"");
+        }
+
+        int dimension = config.getDimension();
+        int whiteSquares = dimension * dimension / 2;
+        NeighborTable neighbors = NeighborTable.forDimension(dimension);
+        int[] steps = new int[numbers.size()];
+        int count = 0;
+        int from = -1;
+        for (int number : numbers) {
+            if (number < 0) {
+                from = -1;
+                continue;
+            }
+            if (number < 1 || number > whiteSquares) {
+                throw new IllegalArgumentException("Square " + number + " is not on a " + dimension + "x" +
+                        dimension + " board");
+            }
+            int square = squareOf(number, dimension);
+            if (from >= 0) {
+                DirectionEnum dir = GameRecord.directionBetween(neighbors, from, square);
+                if (dir == null) {
+                    throw new IllegalArgumentException("Square " + number + " cannot be reached from square " +
+                            squareNumber(from) + " in one step or jump");
+                }
+                steps[count++] = GameRecord.step(from, dir);
+            }
+            from = square;
+        }
+
+        char winner;
+        if (result.equals(PLAYER_ONE_WINS) || result.equals("2-0")) {
+            winner = config.getPlayerOne();
+        } else if (result.equals(PLAYER_TWO_WINS) || result.equals("0-2")) {
+            winner = config.getPlayerTwo();
+        } else {
+            winner = CheckerBoard.EMPTY_POS;
+        }
+        return new GameRecord(config, steps, count, winner);
+    }
+
+    private static char playerTag(Map<String, String> tags, String name, char fallback) {
+        String value = tags.get(name);
+        if (value == null) {
+            return fallback;
+        }
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Bad " + name + " tag \"" + value + "\"");
+        }
+        return value.charAt(0);
+    }
+
+    /**
+     * Reads a tag pair such as [Result "1-0"] starting at the '[' and returns the index after the ']'.
+     */
+    private static int readTag(CharSequence text, int start, Map<String, String> tags) {
+        int open = indexOf(text, '"', start);
+        if (open < 0) {
+            throw new IllegalArgumentException("Unterminated tag at offset " + start);
+        }
+        int close = open;
+        StringBuilder value = new StringBuilder();
+        while (++close < text.length() && text.charAt(close) != '"') {
+            char c = text.charAt(close);
+            if (c == '\\' && close + 1 < text.length()) {
+                c = text.charAt(++close);
+            }
+            value.append(c);
+        }
+        int end = indexOf(text, ']', close);
+        if (close >= text.length() || end < 0) {
+            throw new IllegalArgumentException("Unterminated tag at offset " + start);
+        }
+        String name = text.subSequence(start + 1, open).toString().trim();
+        tags.put(name, value.toString());
+        return end + 1;
+    }
+
+    private static int skipVariation(CharSequence text, int start) {
+        int depth = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            } else if (c == '{') {
+                i = skipPast(text, i, '}') - 1;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated variation at offset " + start);
+    }
+
+    private static int skipPast(CharSequence text, int start, char end) {
+        int found = indexOf(text, end, start);
+        return found < 0 ? text.length() : found + 1;
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,145 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * BoardFrame is one encoded update of a broadcast game: either a delta with the squares one move changed, or a
+ * keyframe with every square. Frames are immutable and encoded once, so one frame object is handed to every
+ * subscriber of the game.
+ *
+ * Every frame starts with a kind byte and the low 4 bytes of the frame's sequence number, big-endian. A delta
+ * follows with operations of two or three bytes, squares being board square indexes (0 to 255):
+ *      VACATE  square          the moving piece left square
+ *      FILL    square piece    piece landed on square
+ *      CAPTURE square          the piece on square was jumped and removed
+ *      CROWN   square          the man on square became a king
+ * A keyframe follows with the board dimension and then the character of every square in square index order.
+ *
+ * @Corresponds The BoardFrame object (self) is the change from the position after frame getSequence() - 1 to the
+ *              position after frame getSequence(), or for a keyframe, the whole position after getSequence().
+ *
+ * @Invariant [the encoded bytes never change]
+ */
+public final class BoardFrame
+{
+    public static final byte DELTA = 0;
+    public static final byte KEYFRAME = 1;
+
+    public static final byte VACATE = 1;
+    public static final byte FILL = 2;
+    public static final byte CAPTURE = 3;
+    public static final byte CROWN = 4;
+
+    static final int HEADER_BYTES = 5;
+
+    private final byte[] bytes;
+    private final long sequence;
+
+    BoardFrame(byte[] encoded, long aSequence) {
+        bytes = encoded;
+        sequence = aSequence;
+    }
+
+    /**
+     * Returns the sequence number of the last move this frame brings a subscriber up to.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isKeyframe() {
+        return bytes[0] == KEYFRAME;
+    }
+
+    /**
+     * Returns the number of encoded bytes.
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Returns a copy of the encoded frame.
+     */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    /**
+     * Writes the encoded frame to out.
+     *
+     * @pre out != null
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    /**
+     * Copies the encoded frame into out.
+     *
+     * @pre out.remaining() >= length()
+     *
+     * @post out.position() = #out.position() + length()
+     */
+    public void writeTo(ByteBuffer out) {
+        out.put(bytes);
+    }
+
+    /**
+     * Applies the frame to a copy of the board, one char per square in square index order. A keyframe
+     * overwrites every square; a delta changes only the squares it names.
+     *
+     * @param squares the copy to bring up to date
+     *
+     * @pre squares.length = [the number of squares on the broadcast board] AND
+     *      [squares holds the position after frame getSequence() - 1, unless isKeyframe()]
+     *
+     * @post squares = [the position after frame getSequence()]
+     */
+    public void applyTo(char[] squares) {
+        if (isKeyframe()) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = (char) (bytes[HEADER_BYTES + 1 + square] & 0xFF);
+            }
+            return;
+        }
+        int at = HEADER_BYTES;
+        while (at < bytes.length) {
+            byte op = bytes[at++];
+            int square = bytes[at++] & 0xFF;
+            switch (op) {
+                case FILL:
+                    squares[square] = (char) (bytes[at++] & 0xFF);
+                    break;
+                case CROWN:
+                    squares[square] = Character.toUpperCase(squares[square]);
+                    break;
+                default:
+                    squares[square] = CheckerBoard.EMPTY_POS;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the position in a keyframe, one char per square.
+     *
+     * @pre isKeyframe()
+     */
+    public char[] keyframeSquares() {
+        int dimension = bytes[HEADER_BYTES];
+        char[] squares = new char[dimension * dimension];
+        applyTo(squares);
+        return squares;
+    }
+
+    @Override
+    public String toString() {
+        return (isKeyframe() ? "keyframe " : "delta ") + sequence + " " + Arrays.toString(bytes);
+    }
+}
@@ -0,0 +1,68 @@
+package cpsc2150.extendedCheckers.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * BufferPool hands out direct ByteBuffers of one size and takes them back for reuse, so writing replies does not
+ * allocate once the pool holds as many buffers as are ever in use at once. It starts with a fixed number of
+ * buffers and allocates another only when all of them are out.
+ *
+ * A BufferPool belongs to one thread.
+ *
+ * @Corresponds The BufferPool object (self) is the set of idle buffers ready to be acquired.
+ */
+final class BufferPool
+{
+    private final int bufferSize;
+    private final ArrayDeque<ByteBuffer> idle;
+    private long allocated;
+
+    /**
+     * @param aBufferSize the capacity in bytes of every buffer
+     * @param initialBuffers the number of buffers to allocate up front
+     *
+     * @pre aBufferSize > 0 AND initialBuffers >= 0
+     */
+    BufferPool(int aBufferSize, int initialBuffers) {
+        bufferSize = aBufferSize;
+        idle = new ArrayDeque<>(Math.max(16, initialBuffers * 2));
+        for (int i = 0; i < initialBuffers; i++) {
+            idle.push(ByteBuffer.allocateDirect(bufferSize));
+        }
+        allocated = initialBuffers;
+    }
+
+    /**
+     * Returns a cleared buffer, allocating a new one only if none is idle.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            allocated++;
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer;
+    }
+
+    /**
+     * Takes a buffer back for reuse.
+     *
+     * @pre buffer came from acquire() AND buffer is no longer used by the caller
+     */
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        idle.push(buffer);
+    }
+
+    /**
+     * Returns the number of buffers this pool has ever allocated.
+     */
+    long getAllocated() {
+        return allocated;
+    }
+
+    int getIdle() {
+        return idle.size();
+    }
+}
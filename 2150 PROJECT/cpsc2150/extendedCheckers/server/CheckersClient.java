@@ -0,0 +1,125 @@
+package cpsc2150.extendedCheckers.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CheckersClient is a blocking client for the CheckersServer protocol, for tests and load generators. command
+ * sends one line and returns the matching reply; EVENT lines that arrive first are kept until drainEvents.
+ *
+ * A CheckersClient is meant for one thread at a time.
+ *
+ * @Corresponds The CheckersClient object (self) is one connection to a server.
+ */
+public final class CheckersClient implements AutoCloseable
+{
+    private final Socket socket;
+    private final BufferedReader in;
+    private final BufferedWriter out;
+    private final List<String> events = new ArrayList<>();
+
+    /**
+     * Connects to a server on this machine.
+     *
+     * @param port the port the server listens on
+     *
+     * @throws IOException if the connection cannot be made
+     */
+    public CheckersClient(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server's address
+     * @param port the port the server listens on
+     *
+     * @throws IOException if the connection cannot be made
+     */
+    public CheckersClient(InetAddress address, int port) throws IOException {
+        socket = new Socket(address, port);
+        socket.setTcpNoDelay(true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends one command and waits for its reply.
+     *
+     * @param line the command, without a line terminator
+     *
+     * @return the reply line; for "OK BOARD n" the n board lines follow it, separated by '\n'
+     *
+     * @throws IOException if the connection fails or the server closes it before replying
+     */
+    public String command(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        return readReply();
+    }
+
+    /**
+     * Waits for the next EVENT line, returning at once if one has already been read.
+     *
+     * @throws IOException if the connection fails or closes first
+     */
+    public String awaitEvent() throws IOException {
+        if (!events.isEmpty()) {
+            return events.remove(0);
+        }
+        String line = readLine();
+        while (!line.startsWith("EVENT")) {
+            line = readLine();
+        }
+        return line;
+    }
+
+    /**
+     * Returns and forgets the EVENT lines read so far.
+     */
+    public List<String> drainEvents() {
+        List<String> drained = new ArrayList<>(events);
+        events.clear();
+        return drained;
+    }
+
+    private String readReply() throws IOException {
+        String line = readLine();
+        while (line.startsWith("EVENT")) {
+            events.add(line);
+            line = readLine();
+        }
+        if (line.startsWith("OK BOARD ")) {
+            int rows = Integer.parseInt(line.substring("OK BOARD ".length()));
+            StringBuilder reply = new StringBuilder(line);
+            for (int i = 0; i < rows; i++) {
+                reply.append('\n').append(readLine());
+            }
+            return reply.toString();
+        }
+        return line;
+    }
+
+    private String readLine() throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new IOException("Server closed the connection");
+        }
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,261 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CheckersServer hosts any number of checkers games in one JVM for clients speaking a line-based text protocol
+ * over TCP. Every connection is served by two threads of its own, one reading commands and one writing replies
+ * and events: virtual threads when the running Java has them (21 and later), otherwise platform threads with a
+ * small stack, so ten thousand idle clients cost little either way.
+ *
+ * Protocol: the client sends one command per line and gets exactly one reply line starting "OK" or "ERR".
+ *      join <game> [size]       join the named game, creating it (size 8 unless given) if it does not exist
+ *                               reply: OK JOIN <game> <piece> <1|2>
+ *      move <row> <col> <dir>   move your piece at row, col one step or one jump towards NE, NW, SE or SW
+ *                               reply: OK MOVE <row> <col> <dir> <new row> <new col>
+ *      board                    reply: OK BOARD <n> followed by the n lines of the board as CheckersFE prints it
+ *      resign                   give up the current game; reply: OK RESIGN
+ *      quit                     reply: OK BYE, then the server closes the connection
+ * Players of a game are also sent, between replies:
+ *      EVENT START <game> <piece one> <piece two> <size>   when the second player joins
+ *      EVENT MOVE <piece> <row> <col> <dir> <new row> <new col>   when the opponent moves
+ *      EVENT WIN <piece> [resign]                         when the game ends
+ * Player one ('x') moves first. Turns follow the console rules (see ServerGame).
+ *
+ * @Corresponds The CheckersServer object (self) is the listening socket, its open connections and its games,
+ *              keyed by name.
+ */
+public final class CheckersServer implements AutoCloseable
+{
+    public static final int DEFAULT_PORT = 2150;
+    public static final int DEFAULT_DIMENSION = GameConfig.DEFAULT_DIMENSION;
+
+    //platform threads only need room for the blocking reads and the shallow game logic
+    private static final long PLATFORM_STACK_BYTES = 256 * 1024;
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionThreads;
+    private final boolean virtualThreads;
+    private final Thread acceptThread;
+
+    private final ConcurrentHashMap<String, ServerGame> games = new ConcurrentHashMap<>();
+    private final Set<ClientConnection> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder movesPlayed = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Starts a server listening on the loopback interface.
+     *
+     * @param port the port to listen on, 0 for any free port
+     *
+     * @throws IOException if the port cannot be bound
+     *
+     * @pre 0 <= port <= 65535
+     *
+     * @post [clients on this machine can connect to getPort()] AND getGameCount() = 0
+     */
+    public CheckersServer(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Starts a server listening on the given address.
+     *
+     * @param address the local address to listen on
+     * @param port the port to listen on, 0 for any free port
+     *
+     * @throws IOException if the address cannot be bound
+     *
+     * @pre address != null AND 0 <= port <= 65535
+     *
+     * @post [clients can connect to address:getPort()] AND getGameCount() = 0
+     */
+    public CheckersServer(InetAddress address, int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(address, port), BACKLOG);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        connectionThreads = virtualThreads ? virtual : newPlatformThreadExecutor();
+
+        acceptThread = new Thread(this::acceptLoop, "checkers-accept-" + getPort());
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns true if connections run on virtual threads rather than platform threads.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Returns the number of moves played in every game since the server started.
+     */
+    public long getMovesPlayed() {
+        return movesPlayed.sum();
+    }
+
+    /**
+     * Seats client in the named game, creating the game if no unfinished game has that name.
+     *
+     * @return the game client joined, or null if it already has two players
+     *
+     * @throws IllegalArgumentException if a new game would have an unsupported size
+     */
+    ServerGame join(String name, int size, ClientConnection client) {
+        GameConfig config = new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, size);
+        while (true) {
+            ServerGame game = games.computeIfAbsent(name, key -> new ServerGame(key, config));
+            if (game.join(client) != CheckerBoard.EMPTY_POS) {
+                return game;
+            }
+            if (!game.isFinished()) {
+                return null;
+            }
+            // The name belongs to a finished game: retire it and start a fresh one
+            games.remove(name, game);
+        }
+    }
+
+    void left(ServerGame game) {
+        if (game.isFinished()) {
+            games.remove(game.getName(), game);
+        }
+    }
+
+    void movePlayed() {
+        movesPlayed.increment();
+    }
+
+    void closed(ClientConnection client) {
+        connections.remove(client);
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                socket.setTcpNoDelay(true);
+                ClientConnection client = new ClientConnection(this, socket);
+                connections.add(client);
+                connectionThreads.execute(client);
+                connectionThreads.execute(client::drain);
+            } catch (IOException | RejectedExecutionException e) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // nothing more to do for this client
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients and closes every open connection.
+     *
+     * @post [the port is released and every connection is closed]
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (ClientConnection client : connections) {
+            client.closeQuietly();
+        }
+        connectionThreads.shutdown();
+        try {
+            connectionThreads.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CheckersServer on port " + getPort() + ": " + getConnectionCount() + " connections, " +
+                getGameCount() + " games, " + getMovesPlayed() + " moves, " +
+                (virtualThreads ? "virtual" : "platform") + " threads";
+    }
+
+    /**
+     * Returns Executors.newVirtualThreadPerTaskExecutor() on a Java with virtual threads, otherwise null. The
+     * call goes through reflection so the server still compiles and runs on Java 17.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(null, task, "checkers-client-" + count.incrementAndGet(), PLATFORM_STACK_BYTES);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args [port], DEFAULT_PORT if absent
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        CheckersServer server = new CheckersServer(port);
+        System.out.println("Serving checkers on " + server.serverSocket.getLocalSocketAddress() + " with " +
+                (server.isVirtualThreads() ? "virtual" : "platform") + " threads");
+        while (true) {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                break;
+            }
+            System.out.println(server);
+        }
+        server.close();
+    }
+}
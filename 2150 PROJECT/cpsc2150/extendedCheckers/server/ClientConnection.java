@@ -0,0 +1,234 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardPosition;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * ClientConnection serves one TCP client of CheckersServer on its own thread, reading one command per line and
+ * answering each with one line starting "OK" or "ERR". Lines starting "EVENT" can arrive at any time; they come
+ * from the opponent's moves. See CheckersServer for the protocol.
+ *
+ * A connection sits in at most one game at a time. Leaving, or disconnecting, during a game resigns it.
+ *
+ * Lines to the client are not written by the thread that sends them: send only queues them, and a second thread,
+ * running drain, writes them to the socket in the order they were queued. Games send to both players while
+ * holding their lock, so a client that reads slowly, or not at all, never stalls its opponent or its game.
+ *
+ * @Corresponds The ClientConnection object (self) is the client at the other end of its socket.
+ */
+final class ClientConnection implements Runnable
+{
+    //a client this many lines behind is not reading and is disconnected
+    private static final int OUTBOX_LINES = 1024;
+
+    //queued after the last line; compared by identity, so no line sent can be mistaken for it
+    private static final String END_OF_OUTPUT = new String();
+
+    private final CheckersServer server;
+    private final Socket socket;
+    private final Writer out;
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>(OUTBOX_LINES);
+    private ServerGame game;
+
+    ClientConnection(CheckersServer aServer, Socket aSocket) throws IOException {
+        server = aServer;
+        socket = aSocket;
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void run() {
+        // Not closed here: closing the reader would close the socket before drain has written the last replies
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!handle(line.trim())) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; treat it like quit
+        } finally {
+            leaveGame();
+            server.closed(this);
+            // drain closes the socket once everything queued before this, such as OK BYE, has been written
+            if (!outbox.offer(END_OF_OUTPUT)) {
+                closeQuietly();
+            }
+        }
+    }
+
+    /**
+     * Writes the queued lines to the client until the connection ends, flushing whenever the queue runs empty, then
+     * closes the socket. CheckersServer runs this on a thread of its own beside run.
+     *
+     * @post [every line queued before the connection ended has been written, unless the client could not be
+     *       written to] AND [the socket is closed]
+     */
+    void drain() {
+        try {
+            String lines;
+            while ((lines = outbox.take()) != END_OF_OUTPUT) {
+                out.write(lines);
+                out.write('\n');
+                if (outbox.isEmpty()) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // The client cannot be written to; closing the socket also ends run
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Carries out one command line.
+     *
+     * @return false once the client has asked to quit
+     */
+    private boolean handle(String line) {
+        String[] words = line.split("\\s+");
+        switch (words[0].toLowerCase()) {
+            case "join":
+                join(words);
+                return true;
+            case "move":
+                move(words);
+                return true;
+            case "board":
+                board();
+                return true;
+            case "resign":
+                if (game == null) {
+                    send("ERR not in a game");
+                } else {
+                    send("OK RESIGN");
+                    leaveGame();
+                }
+                return true;
+            case "quit":
+                send("OK BYE");
+                return false;
+            case "":
+                return true;
+            default:
+                send("ERR unknown command " + words[0]);
+                return true;
+        }
+    }
+
+    private void join(String[] words) {
+        if (game != null && !game.isFinished()) {
+            send("ERR already in game " + game.getName());
+            return;
+        }
+        leaveGame();
+        if (words.length < 2 || words.length > 3) {
+            send("ERR usage: join <game> [size]");
+            return;
+        }
+        int size = CheckersServer.DEFAULT_DIMENSION;
+        if (words.length == 3) {
+            try {
+                size = Integer.parseInt(words[2]);
+            } catch (NumberFormatException e) {
+                send("ERR bad size " + words[2]);
+                return;
+            }
+        }
+
+        try {
+            ServerGame joined = server.join(words[1], size, this);
+            if (joined == null) {
+                send("ERR game " + words[1] + " is full");
+            } else {
+                game = joined;
+            }
+        } catch (IllegalArgumentException e) {
+            send("ERR " + e.getMessage());
+        }
+    }
+
+    private void move(String[] words) {
+        if (game == null) {
+            send("ERR not in a game");
+            return;
+        }
+        if (words.length != 4) {
+            send("ERR usage: move <row> <col> <dir>");
+            return;
+        }
+        BoardPosition pos;
+        DirectionEnum direction;
+        try {
+            pos = new BoardPosition(Integer.parseInt(words[1]), Integer.parseInt(words[2]));
+            direction = DirectionEnum.valueOf(words[3].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            send("ERR usage: move <row> <col> <NE|NW|SE|SW>");
+            return;
+        }
+        String refusal = game.move(this, pos, direction);
+        if (refusal != null) {
+            send("ERR " + refusal);
+        } else {
+            server.movePlayed();
+        }
+    }
+
+    private void board() {
+        if (game == null) {
+            send("ERR not in a game");
+            return;
+        }
+        String[] rows = game.render().split("\n");
+        StringBuilder reply = new StringBuilder("OK BOARD ").append(rows.length);
+        for (String row : rows) {
+            reply.append('\n').append(row);
+        }
+        send(reply.toString());
+    }
+
+    private void leaveGame() {
+        if (game != null) {
+            game.resign(this);
+            server.left(game);
+            game = null;
+        }
+    }
+
+    /**
+     * Queues one or more lines for the client without blocking, so games can call it while holding their lock.
+     * Both this connection's thread and the opponent's call it; drain writes the lines in the order they were
+     * queued. A client too far behind to take more is disconnected.
+     */
+    void send(String lines) {
+        if (!outbox.offer(lines)) {
+            closeQuietly();
+        }
+    }
+
+    void closeQuietly() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+}
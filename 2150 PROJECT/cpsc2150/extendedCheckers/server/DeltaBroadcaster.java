@@ -0,0 +1,262 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardObserver;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * DeltaBroadcaster fans one game out to any number of local subscribers. It observes the game's board, turns the
+ * pieces moved, jumped and crowned since the last flush into one BoardFrame delta, and keeps the latest frames in
+ * a fixed ring that every subscriber reads from, so each move is encoded once however many subscribers there are.
+ *
+ * Every keyframeInterval frames, and after every undo, a keyframe with the whole board is built. New subscribers
+ * start from the latest keyframe, and a subscriber that falls so far behind that the ring has overwritten frames
+ * it has not read is moved forward to the latest keyframe instead of holding frames for it. The player is never
+ * slowed down by subscribers and memory stays at one ring however slow they are.
+ *
+ * The board's owner calls flush() after each move, on the thread that changes the board. Subscriptions can be
+ * polled from any thread, each by one thread at a time.
+ *
+ * @Corresponds The DeltaBroadcaster object (self) is the stream of frames published for its board, of which the
+ *              last capacity are still readable.
+ *
+ * @Invariant 0 < keyframeInterval < capacity AND getKeyframe().getSequence() <= getSequence()
+ */
+public final class DeltaBroadcaster implements BoardObserver
+{
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    private final ICheckerBoard board;
+    private final AtomicReferenceArray<BoardFrame> ring;
+    private final int mask;
+    private final int keyframeInterval;
+
+    private volatile long sequence;
+    private volatile BoardFrame keyframe;
+
+    //the delta being collected, touched only by the board's thread
+    private byte[] pending = new byte[64];
+    private int pendingLength = BoardFrame.HEADER_BYTES;
+    private boolean resync;
+
+    /**
+     * Starts broadcasting board with the default ring size and keyframe interval.
+     *
+     * @pre board != null AND board.getObserver() = null
+     *
+     * @post board.getObserver() = self AND getSequence() = 0
+     */
+    public DeltaBroadcaster(ICheckerBoard board) {
+        this(board, DEFAULT_CAPACITY, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Starts broadcasting board.
+     *
+     * @param aBoard the board to observe
+     * @param capacity the number of frames kept for subscribers, a power of two
+     * @param aKeyframeInterval the number of frames between keyframes
+     *
+     * @throws IllegalArgumentException if capacity is not a power of two or the interval is not below it
+     *
+     * @pre aBoard != null AND aBoard.getObserver() = null AND aBoard.getRowNum() <= 16
+     *
+     * @post aBoard.getObserver() = self AND getSequence() = 0 AND getKeyframe().getSequence() = 0
+     */
+    public DeltaBroadcaster(ICheckerBoard aBoard, int capacity, int aKeyframeInterval) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1 || aKeyframeInterval <= 0 ||
+                aKeyframeInterval >= capacity) {
+            throw new IllegalArgumentException("Capacity " + capacity + " must be a power of two above the " +
+                    "keyframe interval " + aKeyframeInterval);
+        }
+        board = aBoard;
+        ring = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        keyframeInterval = aKeyframeInterval;
+        keyframe = encodeKeyframe(0);
+        board.setObserver(this);
+    }
+
+    @Override
+    public void pieceMoved(int from, int to, char piece) {
+        op(BoardFrame.VACATE, from);
+        op(BoardFrame.FILL, to);
+        append((byte) piece);
+    }
+
+    @Override
+    public void pieceJumped(int from, int captured, int to, char piece, char capturedPiece) {
+        op(BoardFrame.VACATE, from);
+        op(BoardFrame.CAPTURE, captured);
+        op(BoardFrame.FILL, to);
+        append((byte) piece);
+    }
+
+    @Override
+    public void pieceCrowned(int square, char king) {
+        op(BoardFrame.CROWN, square);
+    }
+
+    @Override
+    public void moveUndone() {
+        resync = true;
+    }
+
+    /**
+     * Publishes everything that changed since the last flush as one frame: a keyframe if a move was undone, a
+     * delta otherwise. Does nothing if nothing changed.
+     *
+     * @pre [called on the thread that changes the board]
+     *
+     * @post getSequence() = #getSequence() + 1 IF [the board changed since the last flush] ELSE #getSequence()
+     */
+    public void flush() {
+        if (!resync && pendingLength == BoardFrame.HEADER_BYTES) {
+            return;
+        }
+        long next = sequence + 1;
+        BoardFrame frame;
+        if (resync) {
+            frame = encodeKeyframe(next);
+        } else {
+            writeHeader(pending, BoardFrame.DELTA, next);
+            frame = new BoardFrame(Arrays.copyOf(pending, pendingLength), next);
+        }
+        resync = false;
+        pendingLength = BoardFrame.HEADER_BYTES;
+
+        ring.set((int) next & mask, frame);
+        if (frame.isKeyframe()) {
+            keyframe = frame;
+        } else if (next % keyframeInterval == 0) {
+            keyframe = encodeKeyframe(next);
+        }
+        sequence = next;
+    }
+
+    /**
+     * Stops observing the board. Subscribers can still read the frames already published.
+     *
+     * @post [the board no longer notifies self]
+     */
+    public void close() {
+        if (board.getObserver() == this) {
+            board.setObserver(null);
+        }
+    }
+
+    /**
+     * Returns the sequence number of the last frame published.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the most recent keyframe.
+     */
+    public BoardFrame getKeyframe() {
+        return keyframe;
+    }
+
+    /**
+     * Returns a new subscription whose first frame is the latest keyframe.
+     */
+    public Subscription subscribe() {
+        return new Subscription();
+    }
+
+    /**
+     * Subscription is one subscriber's place in the stream. It holds nothing but its position, so a broadcaster
+     * can have any number of them.
+     *
+     * @Corresponds The Subscription object (self) has read every frame up to getPosition().
+     */
+    public final class Subscription
+    {
+        private long position = -1;
+        private long skipped;
+
+        private Subscription() {
+        }
+
+        /**
+         * Returns the next frame for this subscriber, or null if it is up to date. A subscriber that has fallen
+         * more than the ring's capacity behind gets the latest keyframe and skips the frames before it.
+         *
+         * @post [applying every frame poll has returned, in order, to an empty board gives the position after
+         *       frame getPosition()]
+         */
+        public BoardFrame poll() {
+            if (position < 0) {
+                return jumpTo(keyframe);
+            }
+            long wanted = position + 1;
+            if (wanted > sequence) {
+                return null;
+            }
+            BoardFrame frame = ring.get((int) wanted & mask);
+            if (frame == null || frame.getSequence() != wanted) {
+                // The ring has moved past this subscriber; a keyframe later than wanted is always published by now
+                BoardFrame latest = keyframe;
+                skipped += latest.getSequence() - position;
+                return jumpTo(latest);
+            }
+            position = wanted;
+            return frame;
+        }
+
+        /**
+         * Returns the sequence number of the last frame this subscriber has read, -1 before the first poll.
+         */
+        public long getPosition() {
+            return position;
+        }
+
+        /**
+         * Returns how many frames this subscriber missed by falling behind.
+         */
+        public long getSkippedFrames() {
+            return skipped;
+        }
+
+        private BoardFrame jumpTo(BoardFrame key) {
+            position = key.getSequence();
+            return key;
+        }
+    }
+
+    private BoardFrame encodeKeyframe(long frameSequence) {
+        int dimension = board.getRowNum();
+        byte[] bytes = new byte[BoardFrame.HEADER_BYTES + 1 + dimension * dimension];
+        writeHeader(bytes, BoardFrame.KEYFRAME, frameSequence);
+        bytes[BoardFrame.HEADER_BYTES] = (byte) dimension;
+        for (int square = 0; square < dimension * dimension; square++) {
+            bytes[BoardFrame.HEADER_BYTES + 1 + square] = (byte) board.whatsAtPos(square);
+        }
+        return new BoardFrame(bytes, frameSequence);
+    }
+
+    private static void writeHeader(byte[] bytes, byte kind, long frameSequence) {
+        bytes[0] = kind;
+        bytes[1] = (byte) (frameSequence >>> 24);
+        bytes[2] = (byte) (frameSequence >>> 16);
+        bytes[3] = (byte) (frameSequence >>> 8);
+        bytes[4] = (byte) frameSequence;
+    }
+
+    private void op(byte code, int square) {
+        append(code);
+        append((byte) square);
+    }
+
+    private void append(byte value) {
+        if (pendingLength == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[pendingLength++] = value;
+    }
+}
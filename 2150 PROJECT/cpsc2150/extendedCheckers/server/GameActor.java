@@ -0,0 +1,122 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardSnapshot;
+import cpsc2150.extendedCheckers.models.GameSession;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * GameActor hosts a game as an actor: commands are queued in the game's mailbox and run one at a time, in the
+ * order they arrived, by whichever thread of a shared executor picks the mailbox up. The board is only ever
+ * touched by the command currently running, so it needs no lock, and different games run on different threads
+ * at once.
+ *
+ * A drain runs at most BATCH commands before handing the thread back, so one busy game cannot starve the others
+ * on the same executor. After each command that changes the position the actor publishes a new BoardSnapshot,
+ * which spectators read through getSnapshot() without going through the mailbox at all.
+ *
+ * @Corresponds The GameActor object (self) is its GameSession together with the commands waiting in its mailbox.
+ *
+ * @Invariant [at most one drain of the mailbox is scheduled or running at any time]
+ */
+public final class GameActor implements HostedGame
+{
+    private static final int BATCH = 64;
+
+    private final String id;
+    private final GameSession session;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable drain = this::drain;
+    private volatile BoardSnapshot snapshot;
+
+    /**
+     * Hosts session as an actor.
+     *
+     * @param anId the id the game is registered under
+     * @param aSession the game; no other code may use it afterwards
+     * @param anExecutor the threads that run commands
+     *
+     * @pre anId != null AND aSession != null AND anExecutor != null
+     *
+     * @post getId() = anId
+     */
+    public GameActor(String anId, GameSession aSession, Executor anExecutor) {
+        id = anId;
+        session = aSession;
+        executor = anExecutor;
+        snapshot = BoardSnapshot.of(aSession);
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> ask(Function<? super GameSession, ? extends T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.add(() -> {
+            T value;
+            try {
+                value = command.apply(session);
+            } catch (Throwable t) {
+                snapshot = BoardSnapshot.refresh(snapshot, session);
+                result.completeExceptionally(t);
+                return;
+            }
+            // Publish before answering, so whoever sent the command sees its effect in getSnapshot()
+            snapshot = BoardSnapshot.refresh(snapshot, session);
+            result.complete(value);
+        });
+        schedule();
+        return result;
+    }
+
+    /**
+     * Returns the number of commands waiting in the mailbox.
+     */
+    public int getQueuedCommands() {
+        return mailbox.size();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(drain);
+        }
+    }
+
+    /**
+     * Runs up to BATCH commands. Clearing scheduled publishes the session to the next drain, whichever thread
+     * runs it.
+     */
+    private void drain() {
+        for (int i = 0; i < BATCH; i++) {
+            Runnable command = mailbox.poll();
+            if (command == null) {
+                break;
+            }
+            command.run();
+        }
+        scheduled.set(false);
+        // A command that arrived after the last poll found scheduled still set, so this drain must reschedule it
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GameActor " + id + " (" + mailbox.size() + " queued)";
+    }
+}
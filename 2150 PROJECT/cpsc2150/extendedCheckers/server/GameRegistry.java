@@ -0,0 +1,104 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.GameSession;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * GameRegistry maps game ids to hosted games. Lookups never lock and creation locks only the id's bin of the
+ * underlying ConcurrentHashMap, so threads working on different games do not contend here.
+ *
+ * How new games are hosted is up to the Factory: actors() puts each on a shared executor as a GameActor,
+ * synchronizedGames() wraps each in a SynchronizedGame.
+ *
+ * @Corresponds The GameRegistry object (self) is the set of games registered and not yet removed, keyed by id.
+ */
+public final class GameRegistry
+{
+    /**
+     * Creates the hosted game for a new id.
+     */
+    public interface Factory
+    {
+        /**
+         * @param id the id of the new game
+         * @param session the new game's session, in its starting position
+         *
+         * @return the game to register under id
+         */
+        public HostedGame host(String id, GameSession session);
+    }
+
+    private final ConcurrentHashMap<String, HostedGame> games = new ConcurrentHashMap<>();
+    private final Factory factory;
+
+    /**
+     * @param aFactory hosts each new game
+     *
+     * @pre aFactory != null
+     *
+     * @post size() = 0
+     */
+    public GameRegistry(Factory aFactory) {
+        factory = aFactory;
+    }
+
+    /**
+     * Returns a registry hosting every game as a GameActor on executor.
+     */
+    public static GameRegistry actors(Executor executor) {
+        return new GameRegistry((id, session) -> new GameActor(id, session, executor));
+    }
+
+    /**
+     * Returns a registry hosting every game as a SynchronizedGame.
+     */
+    public static GameRegistry synchronizedGames() {
+        return new GameRegistry(SynchronizedGame::new);
+    }
+
+    /**
+     * Returns the game registered under id, creating it for config if there is none. Concurrent calls for one id
+     * all get the same game.
+     *
+     * @pre id != null AND config != null
+     *
+     * @post getOrCreate = get(id) AND get(id) != null
+     */
+    public HostedGame getOrCreate(String id, GameConfig config) {
+        return games.computeIfAbsent(id, key -> factory.host(key, new GameSession(config)));
+    }
+
+    /**
+     * Returns the game registered under id, or null.
+     */
+    public HostedGame get(String id) {
+        return games.get(id);
+    }
+
+    /**
+     * Unregisters the game under id.
+     *
+     * @return the game that was removed, or null
+     *
+     * @post get(id) = null
+     */
+    public HostedGame remove(String id) {
+        return games.remove(id);
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    /**
+     * Returns a live, unmodifiable view of the registered games.
+     */
+    public Collection<HostedGame> games() {
+        return Collections.unmodifiableCollection(games.values());
+    }
+}
@@ -0,0 +1,263 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardRenderer;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+
+import java.util.HashMap;
+
+/**
+ * GameWorker is one of NioGateway's game threads. Each game belongs to exactly one worker, chosen by the hash of
+ * its name, and only that worker ever touches the game's board, so boards need no locks.
+ *
+ * The gateway's selector thread hands a GatewayConnection with a filled-in request to the worker through its
+ * inbox; the worker carries it out, fills in the reply fields of the same connection and hands it back through
+ * its outbox. A connection has at most one request in flight, so the two threads never use its request and
+ * reply fields at the same time. Moves go through ServerGame.playTurn's square-index form and create no objects.
+ *
+ * @Corresponds The GameWorker object (self) owns the games in its table and the thread that plays them.
+ */
+final class GameWorker implements Runnable
+{
+    //requests
+    static final int JOIN = 1;
+    static final int MOVE = 2;
+    static final int BOARD = 3;
+    static final int RESIGN = 4;
+    static final int LEAVE = 5;
+
+    //replies
+    static final int OK_JOIN = 1;
+    static final int OK_MOVE = 2;
+    static final int OK_BOARD = 3;
+    static final int OK_RESIGN = 4;
+    static final int ERR = 5;
+    static final int ERR_FULL = 6;
+
+    static final String WAITING = "waiting for an opponent";
+    static final String NOT_YOUR_TURN = "not your turn";
+    static final String OFF_THE_BOARD = "off the board";
+    static final String ILLEGAL_MOVE = "illegal move";
+    static final String GAME_OVER = "game over";
+
+    private static final int PLAYER_ONE = 0;
+    private static final int PLAYER_TWO = 1;
+
+    /**
+     * A game hosted by a worker. Everything but finished is only read and written on the worker's thread.
+     */
+    static final class Game
+    {
+        final String name;
+        final GameConfig config;
+        final ICheckerBoard board;
+        final GameWorker worker;
+        final GatewayConnection[] seats = new GatewayConnection[2];
+        char currentPlayer;
+        int moves;
+
+        //also read by the selector thread to tell whether a connection is still playing
+        volatile boolean finished;
+
+        Game(String aName, GameConfig aConfig, GameWorker aWorker) {
+            name = aName;
+            config = aConfig;
+            board = new CheckerBoard(aConfig);
+            worker = aWorker;
+            currentPlayer = aConfig.getPlayerOne();
+        }
+    }
+
+    private final NioGateway gateway;
+    private final HandoffQueue<GatewayConnection> inbox;
+    private final HandoffQueue<GatewayConnection> outbox;
+    private final HashMap<String, Game> games = new HashMap<>();
+    private final Thread thread;
+
+    GameWorker(NioGateway aGateway, int index, int queueCapacity) {
+        gateway = aGateway;
+        inbox = new HandoffQueue<>(queueCapacity);
+        outbox = new HandoffQueue<>(queueCapacity);
+        thread = new Thread(this, "checkers-game-worker-" + index);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        thread.interrupt();
+    }
+
+    Thread getThread() {
+        return thread;
+    }
+
+    /**
+     * Hands a request to the worker. Called only by the selector thread.
+     *
+     * @return false if the worker's inbox is full
+     */
+    boolean submit(GatewayConnection connection) {
+        return inbox.offer(connection);
+    }
+
+    /**
+     * Returns the next finished request, or null. Called only by the selector thread.
+     */
+    GatewayConnection pollDone() {
+        return outbox.poll();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                GatewayConnection connection = inbox.take();
+                process(connection);
+                // The outbox is as large as the inbox and each connection has one request in flight, so it has room
+                outbox.offer(connection);
+                gateway.wakeup();
+            }
+        } catch (InterruptedException e) {
+            // the gateway is closing
+        }
+    }
+
+    private void process(GatewayConnection connection) {
+        connection.clearReply();
+        switch (connection.op) {
+            case JOIN:
+                join(connection);
+                break;
+            case MOVE:
+                move(connection);
+                break;
+            case BOARD:
+                board(connection);
+                break;
+            default:
+                resign(connection);
+                break;
+        }
+    }
+
+    /**
+     * Renders the board into the connection's reusable text buffer, so board replies create no Strings.
+     */
+    private void board(GatewayConnection connection) {
+        ICheckerBoard board = connection.game.board;
+        BoardRenderer renderer = BoardRenderer.forDimension(board.getRowNum());
+        if (connection.boardText == null) {
+            connection.boardText = new StringBuilder(renderer.getLength());
+        }
+        renderer.render(board, connection.boardText);
+        connection.status = OK_BOARD;
+        connection.boardRows = board.getRowNum() + 1;
+    }
+
+    private void join(GatewayConnection connection) {
+        GameConfig config;
+        try {
+            config = new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, connection.size);
+        } catch (IllegalArgumentException e) {
+            connection.status = ERR;
+            connection.error = e.getMessage();
+            return;
+        }
+        Game game = games.get(connection.gameName);
+        if (game == null) {
+            game = new Game(connection.gameName, config, this);
+            games.put(game.name, game);
+        }
+        for (int seat = PLAYER_ONE; seat <= PLAYER_TWO; seat++) {
+            if (game.seats[seat] == null) {
+                game.seats[seat] = connection;
+                connection.status = OK_JOIN;
+                connection.joined = game;
+                connection.replyPlayer = seat == PLAYER_ONE ? game.config.getPlayerOne() : game.config.getPlayerTwo();
+                connection.seat = seat + 1;
+                if (seat == PLAYER_TWO && game.seats[PLAYER_ONE] != null) {
+                    connection.started = true;
+                    connection.opponent = game.seats[PLAYER_ONE];
+                }
+                return;
+            }
+        }
+        connection.status = ERR_FULL;
+    }
+
+    private void move(GatewayConnection connection) {
+        Game game = connection.game;
+        connection.status = ERR;
+        if (game.finished) {
+            connection.error = GAME_OVER;
+            return;
+        }
+        if (game.seats[PLAYER_ONE] == null || game.seats[PLAYER_TWO] == null) {
+            connection.error = WAITING;
+            return;
+        }
+        int seat = game.seats[PLAYER_ONE] == connection ? PLAYER_ONE : PLAYER_TWO;
+        char player = seat == PLAYER_ONE ? game.config.getPlayerOne() : game.config.getPlayerTwo();
+        if (player != game.currentPlayer) {
+            connection.error = NOT_YOUR_TURN;
+            return;
+        }
+        ICheckerBoard board = game.board;
+        if (connection.row < 0 || connection.row >= board.getRowNum() || connection.col < 0 ||
+                connection.col >= board.getColNum()) {
+            connection.error = OFF_THE_BOARD;
+            return;
+        }
+        int landing = ServerGame.playTurn(board, player, board.getSquare(connection.row, connection.col),
+                connection.direction);
+        if (landing == NeighborTable.OFF_BOARD) {
+            connection.error = ILLEGAL_MOVE;
+            return;
+        }
+        game.moves++;
+
+        connection.status = OK_MOVE;
+        connection.replyPlayer = player;
+        connection.landingRow = board.getSquareRow(landing);
+        connection.landingCol = board.getSquareColumn(landing);
+        connection.opponent = game.seats[1 - seat];
+        if (board.checkPlayerWin(player)) {
+            connection.winner = player;
+            finish(game);
+        } else {
+            game.currentPlayer = game.config.getOpponent(player);
+        }
+    }
+
+    /**
+     * Handles both resign and leave: the connection gives up its seat, and an unfinished game is won by the
+     * other side.
+     */
+    private void resign(GatewayConnection connection) {
+        connection.status = OK_RESIGN;
+        Game game = connection.game;
+        int seat = game.seats[PLAYER_ONE] == connection ? PLAYER_ONE
+                : game.seats[PLAYER_TWO] == connection ? PLAYER_TWO : -1;
+        if (seat < 0) {
+            return;
+        }
+        game.seats[seat] = null;
+        if (!game.finished) {
+            connection.opponent = game.seats[1 - seat];
+            connection.winner = game.config.getOpponent(seat == PLAYER_ONE ? game.config.getPlayerOne()
+                    : game.config.getPlayerTwo());
+            finish(game);
+        }
+    }
+
+    private void finish(Game game) {
+        game.finished = true;
+        // The name is free for a new game as soon as this one ends
+        games.remove(game.name, game);
+    }
+}
@@ -0,0 +1,181 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * GatewayConnection is NioGateway's state for one client: the channel, a direct input buffer, the queue of pooled
+ * output buffers waiting to be written, and the fields of the one request that may be in flight to a GameWorker.
+ *
+ * The selector thread owns everything here except the reply fields, which the GameWorker fills in between taking
+ * the request from its inbox and putting it in its outbox; the queues order those writes before the selector
+ * thread reads them.
+ *
+ * @Corresponds The GatewayConnection object (self) is the client at the other end of channel.
+ */
+final class GatewayConnection
+{
+    static final int INPUT_BYTES = 1024;
+
+    final SocketChannel channel;
+    final ByteBuffer in = ByteBuffer.allocateDirect(INPUT_BYTES);
+    SelectionKey key;
+    boolean open = true;
+    boolean closeWhenFlushed;
+
+    //the game this client sits in, or null; set from join replies and cleared by resign
+    GameWorker.Game game;
+
+    //true while a request is with a GameWorker
+    boolean busy;
+
+    //request, written by the selector thread
+    int op;
+    int row;
+    int col;
+    DirectionEnum direction;
+    String gameName;
+    int size;
+    long startNanos;
+
+    //reply, written by the GameWorker
+    int status;
+    String error;
+    GameWorker.Game joined;
+    char replyPlayer;
+    int seat;
+    boolean started;
+    int landingRow;
+    int landingCol;
+    GatewayConnection opponent;
+    char winner;
+    //reused for every board reply; created by the first one
+    StringBuilder boardText;
+    int boardRows;
+
+    private final BufferPool pool;
+    private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+    private final byte[] digits = new byte[11];
+
+    GatewayConnection(SocketChannel aChannel, BufferPool aPool) {
+        channel = aChannel;
+        pool = aPool;
+    }
+
+    void clearReply() {
+        status = 0;
+        error = null;
+        joined = null;
+        seat = 0;
+        started = false;
+        opponent = null;
+        winner = CheckerBoard.EMPTY_POS;
+        if (boardText != null) {
+            boardText.setLength(0);
+        }
+    }
+
+    /**
+     * Appends the characters of text, which must be ASCII, to the output.
+     */
+    GatewayConnection put(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            put((byte) text.charAt(i));
+        }
+        return this;
+    }
+
+    GatewayConnection put(char c) {
+        return put((byte) c);
+    }
+
+    /**
+     * Appends bytes [start, end) of source, read with absolute gets so source's position is unchanged.
+     */
+    GatewayConnection put(ByteBuffer source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            put(source.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Appends value in decimal.
+     */
+    GatewayConnection put(int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            put('-');
+            remaining = -remaining;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        while (count > 0) {
+            put(digits[--count]);
+        }
+        return this;
+    }
+
+    GatewayConnection endLine() {
+        return put((byte) '\n');
+    }
+
+    private GatewayConnection put(byte b) {
+        ByteBuffer last = out.peekLast();
+        if (last == null || !last.hasRemaining()) {
+            last = pool.acquire();
+            out.addLast(last);
+        }
+        last.put(b);
+        return this;
+    }
+
+    boolean hasPendingOutput() {
+        return !out.isEmpty();
+    }
+
+    int getPendingBuffers() {
+        return out.size();
+    }
+
+    /**
+     * Writes as much pending output as the socket takes without blocking, returning emptied buffers to the pool.
+     *
+     * @return true if everything was written
+     *
+     * @throws IOException if the socket fails
+     */
+    boolean flush() throws IOException {
+        ByteBuffer first;
+        while ((first = out.peekFirst()) != null) {
+            first.flip();
+            channel.write(first);
+            if (first.hasRemaining()) {
+                first.compact();
+                return false;
+            }
+            out.pollFirst();
+            pool.release(first);
+        }
+        return true;
+    }
+
+    /**
+     * Returns every output buffer to the pool, dropping unsent output.
+     */
+    void releaseOutput() {
+        ByteBuffer buffer;
+        while ((buffer = out.pollFirst()) != null) {
+            pool.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cpsc2150.extendedCheckers.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HandoffQueue is a bounded single-producer, single-consumer ring that passes objects from one thread to another
+ * without locks and without creating objects: offer and poll are an array slot and an ordered counter write each.
+ * The consumer can block in take, parking until the producer's next offer unparks it.
+ *
+ * Exactly one thread may call offer and exactly one (other) thread may call poll and take.
+ *
+ * @param <E> the type handed over
+ *
+ * @Corresponds The HandoffQueue object (self) is the sequence of elements offered and not yet taken, oldest first.
+ *
+ * @Invariant 0 <= [number of elements] <= capacity
+ */
+final class HandoffQueue<E>
+{
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+
+    //next slot to write, advanced only by the producer; next slot to read, advanced only by the consumer
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    //the consumer thread while it is parked in take, null otherwise
+    private volatile Thread waiter;
+
+    /**
+     * @param capacity the most elements the queue holds, rounded up to a power of two
+     *
+     * @pre capacity > 0
+     */
+    HandoffQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Adds element at the tail, waking the consumer if it is parked.
+     *
+     * @return false (and the queue unchanged) if the queue is full
+     *
+     * @pre element != null
+     */
+    boolean offer(E element) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        slots.lazySet((int) t & mask, element);
+        // A full volatile write, so the read of waiter below cannot move ahead of it (see take)
+        tail.set(t + 1);
+
+        Thread parked = waiter;
+        if (parked != null) {
+            LockSupport.unpark(parked);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest element, or null if there is none.
+     */
+    E poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        int slot = (int) h & mask;
+        E element = slots.get(slot);
+        slots.lazySet(slot, null);
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * Removes and returns the oldest element, waiting for one if the queue is empty.
+     *
+     * @throws InterruptedException if the consumer is interrupted while waiting
+     */
+    E take() throws InterruptedException {
+        E element = poll();
+        while (element == null) {
+            waiter = Thread.currentThread();
+            // Check again after publishing waiter, so an offer racing with this park cannot be missed
+            element = poll();
+            if (element == null) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    waiter = null;
+                    throw new InterruptedException();
+                }
+                element = poll();
+            }
+            waiter = null;
+        }
+        return element;
+    }
+}
@@ -0,0 +1,51 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardSnapshot;
+import cpsc2150.extendedCheckers.models.GameSession;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * HostedGame is a GameSession that many threads (players and spectators) can use at once. Every command is a
+ * function run against the session with no other command running on it at the same time, so each command sees
+ * and leaves a consistent game, and the commands on one game take effect in a single total order.
+ *
+ * Commands must only touch the session they are given, and must not keep it or anything taken from its board
+ * after they return.
+ *
+ * Spectators that only need the position should read getSnapshot() instead of asking: it never waits for a
+ * command and never holds up the player who is moving.
+ *
+ * @Corresponds The HostedGame object (self) is the GameSession it hosts.
+ */
+public interface HostedGame
+{
+    /**
+     * Runs command against the game.
+     *
+     * @param command the work to do on the session
+     * @param <T> the type of the command's result
+     *
+     * @return a future completed with command's result, or exceptionally with whatever command threw
+     *
+     * @pre command != null
+     *
+     * @post [command runs once, alone on the session, after every command this thread submitted earlier]
+     */
+    public <T> CompletableFuture<T> ask(Function<? super GameSession, ? extends T> command);
+
+    /**
+     * Returns the position left by the last command that finished, without waiting for the one that is running.
+     *
+     * @return the latest published snapshot of the game
+     *
+     * @post getSnapshot = [BoardSnapshot.of(session) as it was when the last completed command returned]
+     */
+    public BoardSnapshot getSnapshot();
+
+    /**
+     * Returns the id the game is registered under.
+     */
+    public String getId();
+}
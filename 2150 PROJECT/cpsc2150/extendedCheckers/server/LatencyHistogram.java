@@ -0,0 +1,106 @@
+package cpsc2150.extendedCheckers.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in log-linear buckets so percentiles can be read at any time without keeping
+ * the samples. Each power of two is split into SUB_BUCKETS equal buckets, so a reported percentile is at most
+ * 1 / SUB_BUCKETS (about 6%) above the true value, from 1 ns up to Long.MAX_VALUE.
+ *
+ * Recording is one array increment, creates no objects, and may be done from any number of threads at once.
+ *
+ * @Corresponds The LatencyHistogram object (self) is the multiset of durations recorded since it was created or
+ *              last reset.
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+
+    /**
+     * Adds one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values count as 0
+     *
+     * @post getCount() = #getCount() + 1
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the duration below which the given fraction of the recorded durations fall.
+     *
+     * @param fraction the percentile as a fraction, 0.5 for the median and 0.99 for p99
+     *
+     * @return the upper bound in nanoseconds of the bucket holding that percentile, 0 if nothing was recorded
+     *
+     * @pre 0 <= fraction <= 1
+     */
+    public long getPercentile(double fraction) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    /**
+     * Forgets every recorded duration.
+     *
+     * @post getCount() = 0
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Values below SUB_BUCKETS get a bucket each; above that, the bucket is the power of two followed by the next
+     * SUB_BUCKET_BITS bits of the value.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long low = ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS)) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d p50=%.1fus p99=%.1fus p99.9=%.1fus", getCount(), getPercentile(0.5) / 1e3,
+                getPercentile(0.99) / 1e3, getPercentile(0.999) / 1e3);
+    }
+}
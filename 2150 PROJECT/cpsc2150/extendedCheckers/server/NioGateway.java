@@ -0,0 +1,660 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+/**
+ * NioGateway serves the CheckersServer protocol from one selector thread instead of one thread per connection.
+ * The selector thread reads into direct buffers, parses commands in place, and writes replies from pooled direct
+ * buffers; the games themselves are played on a small fixed pool of GameWorker threads, each owning the boards of
+ * the games hashed to it.
+ *
+ * Once the pools are warm the move path creates no objects on any gateway thread: "move" lines are parsed
+ * straight out of the input buffer, requests travel between threads through lock-free HandoffQueues, selected
+ * keys are handled with Selector.select(Consumer) (no selected-key set), and replies are formatted byte by byte.
+ * Joining a game (which makes the game and its name) and the board command still allocate.
+ *
+ * Every reply is timed from the moment its command line has been read to the moment the reply has been formatted
+ * into the client's output buffers, which includes the round trip through a GameWorker; getLatency() gives the
+ * percentiles.
+ *
+ * @Corresponds The NioGateway object (self) is the listening channel, its connections and the games on its
+ *              workers.
+ */
+public final class NioGateway implements AutoCloseable
+{
+    public static final int DEFAULT_PORT = 2151;
+
+    private static final int OUTPUT_BUFFER_BYTES = 4096;
+    private static final int INITIAL_OUTPUT_BUFFERS = 256;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    //a client that lets this much output pile up without reading it is disconnected
+    private static final int MAX_PENDING_BUFFERS = 16;
+
+    private static final String USAGE_JOIN = "usage: join <game> [size]";
+    private static final String USAGE_MOVE = "usage: move <row> <col> <dir>";
+    private static final String USAGE_MOVE_DIRECTION = "usage: move <row> <col> <NE|NW|SE|SW>";
+    private static final String NOT_IN_A_GAME = "not in a game";
+    private static final String BUSY = "server busy";
+    private static final String LINE_TOO_LONG = "line too long";
+    private static final int MAX_TOKENS = 4;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final GameWorker[] workers;
+    private final BufferPool pool = new BufferPool(OUTPUT_BUFFER_BYTES, INITIAL_OUTPUT_BUFFERS);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Thread selectorThread;
+    private final Consumer<SelectionKey> keyHandler = this::handleKey;
+
+    //token boundaries of the line being parsed: [tokenStart[i], tokenEnd[i])
+    private final int[] tokenStart = new int[MAX_TOKENS + 1];
+    private final int[] tokenEnd = new int[MAX_TOKENS + 1];
+
+    private volatile boolean closed;
+    private volatile int connections;
+    private volatile long requests;
+
+    /**
+     * Starts a gateway listening on the loopback interface.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @param workerCount the number of game threads
+     *
+     * @throws IOException if the port cannot be bound
+     *
+     * @pre 0 <= port <= 65535 AND workerCount > 0
+     *
+     * @post [clients on this machine can connect to getPort()]
+     */
+    public NioGateway(int port, int workerCount) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, workerCount);
+    }
+
+    /**
+     * Starts a gateway listening on the given address.
+     *
+     * @param address the local address to listen on
+     * @param port the port to listen on, 0 for any free port
+     * @param workerCount the number of game threads
+     *
+     * @throws IOException if the address cannot be bound
+     *
+     * @pre address != null AND 0 <= port <= 65535 AND workerCount > 0
+     *
+     * @post [clients can connect to address:getPort()]
+     */
+    public NioGateway(InetAddress address, int port, int workerCount) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(address, port), QUEUE_CAPACITY);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        workers = new GameWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new GameWorker(this, i, QUEUE_CAPACITY);
+            workers[i].start();
+        }
+        selectorThread = new Thread(this::selectLoop, "checkers-gateway-" + getPort());
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    public int getConnectionCount() {
+        return connections;
+    }
+
+    /**
+     * Returns the number of command lines answered.
+     */
+    public long getRequestCount() {
+        return requests;
+    }
+
+    /**
+     * Returns the request latency histogram. It can be read or reset from any thread.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the selector thread and every worker thread, or -1 if the JVM cannot
+     * measure it.
+     */
+    public long getAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = threads.getThreadAllocatedBytes(selectorThread.getId());
+        for (GameWorker worker : workers) {
+            total += threads.getThreadAllocatedBytes(worker.getThread().getId());
+        }
+        return total;
+    }
+
+    /**
+     * Called by workers after putting a finished request in their outbox.
+     */
+    void wakeup() {
+        selector.wakeup();
+    }
+
+    private void selectLoop() {
+        while (!closed) {
+            try {
+                selector.select(keyHandler);
+            } catch (IOException e) {
+                continue;
+            } catch (RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                throw e;
+            }
+            for (GameWorker worker : workers) {
+                GatewayConnection connection;
+                while ((connection = worker.pollDone()) != null) {
+                    complete(connection);
+                }
+            }
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        GatewayConnection connection = (GatewayConnection) key.attachment();
+        try {
+            if (key.isWritable() && connection.flush()) {
+                if (connection.closeWhenFlushed) {
+                    close(connection);
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+                processInput(connection);
+            }
+            if (key.isValid() && key.isReadable()) {
+                if (connection.channel.read(connection.in) < 0) {
+                    close(connection);
+                    return;
+                }
+                processInput(connection);
+            }
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                GatewayConnection connection = new GatewayConnection(channel, pool);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connections++;
+            }
+        } catch (IOException e) {
+            // a client that failed while connecting is simply dropped
+        }
+    }
+
+    /**
+     * Handles every complete line in the input buffer, stopping early while a request is with a worker.
+     */
+    private void processInput(GatewayConnection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        while (connection.open && !connection.busy && !connection.closeWhenFlushed) {
+            int filled = in.position();
+            int newline = -1;
+            for (int i = 0; i < filled; i++) {
+                if (in.get(i) == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            if (newline < 0) {
+                if (filled == in.capacity()) {
+                    in.clear();
+                    connection.startNanos = System.nanoTime();
+                    error(connection, LINE_TOO_LONG);
+                }
+                break;
+            }
+            connection.startNanos = System.nanoTime();
+            handleLine(connection, newline);
+
+            // Drop the line, keeping whatever followed it
+            in.position(newline + 1);
+            in.limit(filled);
+            in.compact();
+        }
+        send(connection);
+    }
+
+    /**
+     * Parses and carries out the command in bytes [0, end) of the connection's input buffer.
+     */
+    private void handleLine(GatewayConnection connection, int end) {
+        ByteBuffer in = connection.in;
+        int tokens = tokenize(in, end);
+        if (tokens == 0) {
+            return;
+        }
+        if (matches(in, 0, "move")) {
+            move(connection, tokens);
+        } else if (matches(in, 0, "join")) {
+            join(connection, tokens);
+        } else if (matches(in, 0, "board")) {
+            if (connection.game == null) {
+                error(connection, NOT_IN_A_GAME);
+            } else {
+                dispatch(connection, GameWorker.BOARD, connection.game.worker);
+            }
+        } else if (matches(in, 0, "resign")) {
+            if (connection.game == null) {
+                error(connection, NOT_IN_A_GAME);
+            } else {
+                dispatch(connection, GameWorker.RESIGN, connection.game.worker);
+            }
+        } else if (matches(in, 0, "quit")) {
+            connection.put("OK BYE").endLine();
+            connection.closeWhenFlushed = true;
+            answered(connection);
+        } else {
+            connection.put("ERR unknown command ").put(in, tokenStart[0], tokenEnd[0]).endLine();
+            answered(connection);
+        }
+    }
+
+    private void move(GatewayConnection connection, int tokens) {
+        if (connection.game == null) {
+            error(connection, NOT_IN_A_GAME);
+            return;
+        }
+        if (tokens != 4) {
+            error(connection, USAGE_MOVE);
+            return;
+        }
+        ByteBuffer in = connection.in;
+        long row = parseInt(in, tokenStart[1], tokenEnd[1]);
+        long col = parseInt(in, tokenStart[2], tokenEnd[2]);
+        DirectionEnum direction = parseDirection(in, tokenStart[3], tokenEnd[3]);
+        if (row == Long.MIN_VALUE || col == Long.MIN_VALUE || direction == null) {
+            error(connection, USAGE_MOVE_DIRECTION);
+            return;
+        }
+        connection.row = (int) row;
+        connection.col = (int) col;
+        connection.direction = direction;
+        dispatch(connection, GameWorker.MOVE, connection.game.worker);
+    }
+
+    private void join(GatewayConnection connection, int tokens) {
+        if (connection.game != null && !connection.game.finished) {
+            connection.put("ERR already in game ").put(connection.game.name).endLine();
+            answered(connection);
+            return;
+        }
+        connection.game = null;
+        if (tokens < 2 || tokens > 3) {
+            error(connection, USAGE_JOIN);
+            return;
+        }
+        ByteBuffer in = connection.in;
+        int size = CheckersServer.DEFAULT_DIMENSION;
+        if (tokens == 3) {
+            long parsed = parseInt(in, tokenStart[2], tokenEnd[2]);
+            if (parsed == Long.MIN_VALUE) {
+                connection.put("ERR bad size ").put(in, tokenStart[2], tokenEnd[2]).endLine();
+                answered(connection);
+                return;
+            }
+            size = (int) parsed;
+        }
+        StringBuilder name = new StringBuilder(tokenEnd[1] - tokenStart[1]);
+        for (int i = tokenStart[1]; i < tokenEnd[1]; i++) {
+            name.append((char) (in.get(i) & 0xFF));
+        }
+        connection.gameName = name.toString();
+        connection.size = size;
+        dispatch(connection, GameWorker.JOIN, workers[(connection.gameName.hashCode() & Integer.MAX_VALUE) % workers.length]);
+    }
+
+    private void dispatch(GatewayConnection connection, int op, GameWorker worker) {
+        connection.op = op;
+        connection.busy = true;
+        if (!worker.submit(connection)) {
+            connection.busy = false;
+            error(connection, BUSY);
+        }
+    }
+
+    /**
+     * Writes the reply to a request a worker has finished, plus any events it causes for the opponent, then goes
+     * on with the client's next buffered command.
+     */
+    private void complete(GatewayConnection connection) {
+        connection.busy = false;
+        if (!connection.open) {
+            // The client left while its request was with the worker: give up its seat now
+            GameWorker.Game game = connection.status == GameWorker.OK_JOIN ? connection.joined : connection.game;
+            notifyOpponent(connection);
+            if (connection.op != GameWorker.LEAVE && game != null && !game.finished) {
+                connection.game = game;
+                dispatch(connection, GameWorker.LEAVE, game.worker);
+            } else {
+                connection.game = null;
+            }
+            return;
+        }
+
+        switch (connection.status) {
+            case GameWorker.OK_JOIN:
+                connection.game = connection.joined;
+                connection.put("OK JOIN ").put(connection.joined.name).put(' ').put(connection.replyPlayer).put(' ')
+                        .put(connection.seat).endLine();
+                if (connection.started) {
+                    startEvent(connection, connection.joined);
+                    startEvent(connection.opponent, connection.joined);
+                }
+                break;
+            case GameWorker.OK_MOVE:
+                connection.put("OK MOVE ");
+                putMove(connection).endLine();
+                break;
+            case GameWorker.OK_BOARD:
+                connection.put("OK BOARD ").put(connection.boardRows).endLine().put(connection.boardText);
+                break;
+            case GameWorker.OK_RESIGN:
+                connection.put("OK RESIGN").endLine();
+                connection.game = null;
+                break;
+            case GameWorker.ERR_FULL:
+                connection.put("ERR game ").put(connection.gameName).put(" is full").endLine();
+                break;
+            default:
+                connection.put("ERR ").put(connection.error).endLine();
+                break;
+        }
+        answered(connection);
+        notifyOpponent(connection);
+        if (connection.status == GameWorker.OK_MOVE && connection.winner != CheckerBoard.EMPTY_POS) {
+            connection.put("EVENT WIN ").put(connection.winner).endLine();
+        }
+        try {
+            processInput(connection);
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    /**
+     * Sends the opponent the events of the request just completed: the move played and, if the game ended, the
+     * winner.
+     */
+    private void notifyOpponent(GatewayConnection connection) {
+        GatewayConnection opponent = connection.opponent;
+        connection.opponent = null;
+        if (opponent == null || !opponent.open) {
+            return;
+        }
+        if (connection.status == GameWorker.OK_MOVE) {
+            opponent.put("EVENT MOVE ").put(connection.replyPlayer).put(' ');
+            putMove(connection, opponent).endLine();
+        }
+        if (connection.winner != CheckerBoard.EMPTY_POS) {
+            opponent.put("EVENT WIN ").put(connection.winner);
+            if (connection.status == GameWorker.OK_RESIGN) {
+                opponent.put(" resign");
+            }
+            opponent.endLine();
+        }
+        send(opponent);
+    }
+
+    private void startEvent(GatewayConnection target, GameWorker.Game game) {
+        if (target == null || !target.open) {
+            return;
+        }
+        target.put("EVENT START ").put(game.name).put(' ').put(game.config.getPlayerOne()).put(' ')
+                .put(game.config.getPlayerTwo()).put(' ').put(game.config.getDimension()).endLine();
+        send(target);
+    }
+
+    private GatewayConnection putMove(GatewayConnection connection) {
+        return putMove(connection, connection);
+    }
+
+    /**
+     * Writes "row col DIR newRow newCol" for connection's last move to target.
+     */
+    private GatewayConnection putMove(GatewayConnection connection, GatewayConnection target) {
+        return target.put(connection.row).put(' ').put(connection.col).put(' ').put(connection.direction.name())
+                .put(' ').put(connection.landingRow).put(' ').put(connection.landingCol);
+    }
+
+    private void error(GatewayConnection connection, String message) {
+        connection.put("ERR ").put(message).endLine();
+        answered(connection);
+    }
+
+    private void answered(GatewayConnection connection) {
+        latency.record(System.nanoTime() - connection.startNanos);
+        requests++;
+    }
+
+    /**
+     * Writes what the socket takes now and waits for OP_WRITE for the rest.
+     */
+    private void send(GatewayConnection connection) {
+        if (!connection.open || !connection.hasPendingOutput()) {
+            return;
+        }
+        try {
+            if (connection.flush()) {
+                if (connection.closeWhenFlushed) {
+                    close(connection);
+                }
+            } else if (connection.getPendingBuffers() > MAX_PENDING_BUFFERS) {
+                close(connection);
+            } else {
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    private void close(GatewayConnection connection) {
+        if (!connection.open) {
+            return;
+        }
+        connection.open = false;
+        connections--;
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        connection.releaseOutput();
+        if (!connection.busy && connection.game != null && !connection.game.finished) {
+            dispatch(connection, GameWorker.LEAVE, connection.game.worker);
+        }
+    }
+
+    /**
+     * Splits bytes [0, end) of in at spaces and tabs, ignoring a trailing carriage return.
+     *
+     * @return the number of tokens, at most MAX_TOKENS + 1 (more than MAX_TOKENS means "too many")
+     */
+    private int tokenize(ByteBuffer in, int end) {
+        int tokens = 0;
+        int i = 0;
+        while (i < end && tokens <= MAX_TOKENS) {
+            while (i < end && isSpace(in.get(i))) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            tokenStart[tokens] = i;
+            while (i < end && !isSpace(in.get(i))) {
+                i++;
+            }
+            tokenEnd[tokens++] = i;
+        }
+        return tokens;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Returns true if token index of the current line is word, ignoring case.
+     */
+    private boolean matches(ByteBuffer in, int index, String word) {
+        int start = tokenStart[index];
+        if (tokenEnd[index] - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase((char) (in.get(start + i) & 0xFF)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses an optionally signed decimal int from bytes [start, end).
+     *
+     * @return the value, or Long.MIN_VALUE if the bytes are not an int
+     */
+    private static long parseInt(ByteBuffer in, int start, int end) {
+        boolean negative = false;
+        if (start < end && (in.get(start) == '-' || in.get(start) == '+')) {
+            negative = in.get(start) == '-';
+            start++;
+        }
+        if (start == end || end - start > 9) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = in.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses NE, NW, SE or SW in either case from bytes [start, end).
+     *
+     * @return the direction, or null if the bytes are not one
+     */
+    private static DirectionEnum parseDirection(ByteBuffer in, int start, int end) {
+        if (end - start != 2) {
+            return null;
+        }
+        char vertical = Character.toUpperCase((char) (in.get(start) & 0xFF));
+        char horizontal = Character.toUpperCase((char) (in.get(start + 1) & 0xFF));
+        if ((vertical != 'N' && vertical != 'S') || (horizontal != 'E' && horizontal != 'W')) {
+            return null;
+        }
+        if (vertical == 'N') {
+            return horizontal == 'E' ? DirectionEnum.NE : DirectionEnum.NW;
+        }
+        return horizontal == 'E' ? DirectionEnum.SE : DirectionEnum.SW;
+    }
+
+    /**
+     * Stops accepting clients, closes every connection and stops the workers.
+     *
+     * @post [the port is released and every gateway thread has stopped]
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+        selector.close();
+        serverChannel.close();
+        for (GameWorker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NioGateway on port " + getPort() + ": " + connections + " connections, " + requests + " requests, " +
+                workers.length + " workers, latency " + latency;
+    }
+
+    /**
+     * Runs a gateway until the process is stopped.
+     *
+     * @param args [port] [workers], DEFAULT_PORT and the number of processors if absent
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        NioGateway gateway = new NioGateway(port, workerCount);
+        System.out.println("Serving checkers on port " + gateway.getPort() + " with " + workerCount + " game workers");
+        while (true) {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                break;
+            }
+            System.out.println(gateway);
+        }
+        gateway.close();
+    }
+}
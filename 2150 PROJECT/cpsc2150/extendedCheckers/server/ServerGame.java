@@ -0,0 +1,300 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardPosition;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.ArrayList;
+
+/**
+ * ServerGame is one game hosted by CheckersServer: a board, the two seats, and whose turn it is. Turns follow the
+ * console rules of CheckersFE: one step or one jump per turn, in the directions CheckersFE.filterValidDirections
+ * allows, played with movePiece, jumpPiece and crownPiece.
+ *
+ * Both players' connections call into the same ServerGame, so every method that reads or changes the game is
+ * synchronized on it. Replies and events are queued for each seat while the lock is held, so both players see them
+ * in game order, but ClientConnection.send only queues them: the socket writes happen on each connection's own
+ * writer thread after the lock is released, and a stalled client cannot hold up the game.
+ *
+ * @Corresponds The ServerGame object (self) is the game getName(), between the connections seated in it.
+ *
+ * @Invariant 0 <= [number of seated players] <= 2 AND [moves are only accepted while isStarted() AND !isFinished()]
+ */
+public final class ServerGame
+{
+    private static final int PLAYER_ONE = 0;
+    private static final int PLAYER_TWO = 1;
+
+    private final String name;
+    private final GameConfig config;
+    private final ICheckerBoard board;
+    private final ClientConnection[] seats = new ClientConnection[2];
+    private char currentPlayer;
+    private boolean finished;
+    private int moves;
+
+    /**
+     * Creates an empty game waiting for its first player.
+     *
+     * @param aName the name players join the game by
+     * @param aConfig the players and size of the board
+     *
+     * @pre aName has no whitespace AND aConfig != null
+     *
+     * @post getName() = aName AND [no one is seated] AND [the board is in its starting position]
+     */
+    public ServerGame(String aName, GameConfig aConfig) {
+        name = aName;
+        config = aConfig;
+        board = new CheckerBoard(aConfig);
+        currentPlayer = aConfig.getPlayerOne();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public synchronized boolean isStarted() {
+        return seats[PLAYER_ONE] != null && seats[PLAYER_TWO] != null;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    public synchronized int getMoveCount() {
+        return moves;
+    }
+
+    /**
+     * Seats client in the first free seat. When the second player sits down both players are told the game has
+     * started.
+     *
+     * @param client the connection joining
+     *
+     * @return the character client plays, or CheckerBoard.EMPTY_POS if the game is full or over
+     *
+     * @pre client != null
+     *
+     * @post [client holds the first free seat, if there was one]
+     */
+    synchronized char join(ClientConnection client) {
+        if (finished) {
+            return CheckerBoard.EMPTY_POS;
+        }
+        for (int seat = PLAYER_ONE; seat <= PLAYER_TWO; seat++) {
+            if (seats[seat] == null) {
+                seats[seat] = client;
+                char player = playerOf(seat);
+                client.send("OK JOIN " + name + " " + player + " " + (seat + 1));
+                if (isStarted()) {
+                    broadcast("EVENT START " + name + " " + config.getPlayerOne() + " " + config.getPlayerTwo() +
+                            " " + config.getDimension());
+                }
+                return player;
+            }
+        }
+        return CheckerBoard.EMPTY_POS;
+    }
+
+    /**
+     * Plays one turn for client.
+     *
+     * @param client the connection making the move
+     * @param pos the piece to move
+     * @param direction the direction to move it in
+     *
+     * @return null if the move was played, otherwise the reason it was refused
+     *
+     * @pre client is seated in self
+     *
+     * @post [if the move is legal for client's side it is played, both players are sent the move, and the game
+     *       ends if client has won]
+     */
+    synchronized String move(ClientConnection client, BoardPosition pos, DirectionEnum direction) {
+        if (finished) {
+            return "game over";
+        }
+        if (!isStarted()) {
+            return "waiting for an opponent";
+        }
+        char player = playerOf(seatOf(client));
+        if (player != currentPlayer) {
+            return "not your turn";
+        }
+        if (pos.getRow() < 0 || pos.getRow() >= board.getRowNum() || pos.getColumn() < 0 ||
+                pos.getColumn() >= board.getColNum()) {
+            return "off the board";
+        }
+        BoardPosition landing = playTurn(board, player, pos, direction);
+        if (landing == null) {
+            return "illegal move";
+        }
+        moves++;
+
+        String move = pos.getRow() + " " + pos.getColumn() + " " + direction + " " + landing.getRow() + " " +
+                landing.getColumn();
+        client.send("OK MOVE " + move);
+        opponentOf(client).send("EVENT MOVE " + player + " " + move);
+        if (board.checkPlayerWin(player)) {
+            finish("EVENT WIN " + player);
+        } else {
+            currentPlayer = config.getOpponent(player);
+        }
+        return null;
+    }
+
+    /**
+     * Ends the game in the opponent's favour because client resigned or left.
+     *
+     * @param client the connection giving up
+     *
+     * @pre client is seated in self
+     *
+     * @post isFinished() AND [the opponent, if any, is told it won]
+     */
+    synchronized void resign(ClientConnection client) {
+        int seat = seatOf(client);
+        if (seat < 0) {
+            return;
+        }
+        if (finished) {
+            seats[seat] = null;
+            return;
+        }
+        char winner = config.getOpponent(playerOf(seat));
+        seats[seat] = null;
+        finish("EVENT WIN " + winner + " resign");
+    }
+
+    /**
+     * Returns the board as text, exactly as the console game prints it.
+     */
+    synchronized String render() {
+        return board.toString();
+    }
+
+    /**
+     * Plays one console-rules turn on board: a step or a single jump by player's piece on pos, crowning it if it
+     * reaches the far row. Clients that keep their own copy of a game use this to follow it exactly.
+     *
+     * @param board the board to play on
+     * @param player the lowercase character of the side moving
+     * @param pos the piece to move
+     * @param direction the direction to move it in
+     *
+     * @return where the piece landed, or null (with board unchanged) if player cannot move that piece that way
+     *
+     * @pre pos is on the board
+     *
+     * @post playTurn = [landing square] AND [board has the turn applied] OR playTurn = null AND board = #board
+     */
+    public static BoardPosition playTurn(ICheckerBoard board, char player, BoardPosition pos, DirectionEnum direction) {
+        int landing = playTurn(board, player, board.getSquare(pos.getRow(), pos.getColumn()), direction);
+        if (landing == NeighborTable.OFF_BOARD) {
+            return null;
+        }
+        return new BoardPosition(board.getSquareRow(landing), board.getSquareColumn(landing));
+    }
+
+    /**
+     * Square-index form of playTurn, which creates no objects. It accepts exactly the moves
+     * CheckersFE.filterValidDirections lists and plays them the way the console game does: a jump when the
+     * neighbouring square holds an opponent, otherwise a step. A played turn hands the move to the other side.
+     *
+     * @param board the board to play on
+     * @param player the lowercase character of the side moving
+     * @param square the square index of the piece to move
+     * @param direction the direction to move it in
+     *
+     * @return the square index the piece landed on, or NeighborTable.OFF_BOARD (with board unchanged) if player
+     *         cannot move that piece that way
+     *
+     * @pre 0 <= square < board.getRowNum() * board.getColNum()
+     *
+     * @post playTurn = [landing square] AND [board has the turn applied] AND
+     *       isSecondPlayerToMove() = NOT #isSecondPlayerToMove() OR
+     *       playTurn = NeighborTable.OFF_BOARD AND board = #board
+     */
+    public static int playTurn(ICheckerBoard board, char player, int square, DirectionEnum direction) {
+        char piece = board.whatsAtPos(square);
+        if (piece == CheckerBoard.EMPTY_POS || Character.toLowerCase(piece) != player) {
+            return NeighborTable.OFF_BOARD;
+        }
+        if (!Character.isUpperCase(piece)) {
+            ArrayList<DirectionEnum> allowed = board.getViableDirections().get(player);
+            if (allowed == null || !allowed.contains(direction)) {
+                return NeighborTable.OFF_BOARD;
+            }
+        }
+
+        NeighborTable neighbors = board.getNeighborTable();
+        int step = neighbors.getStep(square, direction);
+        if (step == NeighborTable.OFF_BOARD) {
+            return NeighborTable.OFF_BOARD;
+        }
+        GameConfig config = board.getConfig();
+        int landing;
+        if (board.whatsAtPos(step) == CheckerBoard.EMPTY_POS) {
+            landing = board.movePiece(square, direction);
+        } else {
+            int jump = neighbors.getJump(square, direction);
+            if (jump == NeighborTable.OFF_BOARD || board.whatsAtPos(jump) != CheckerBoard.EMPTY_POS ||
+                    Character.toLowerCase(board.whatsAtPos(step)) != config.getOpponent(player)) {
+                return NeighborTable.OFF_BOARD;
+            }
+            landing = board.jumpPiece(square, direction);
+        }
+
+        int row = board.getSquareRow(landing);
+        if (player == config.getPlayerOne() && row == board.getRowNum() - 1) {
+            board.crownPiece(landing);
+        } else if (player == config.getPlayerTwo() && row == 0) {
+            board.crownPiece(landing);
+        }
+        board.switchSideToMove();
+        return landing;
+    }
+
+    private void finish(String event) {
+        finished = true;
+        broadcast(event);
+    }
+
+    private void broadcast(String line) {
+        for (ClientConnection seat : seats) {
+            if (seat != null) {
+                seat.send(line);
+            }
+        }
+    }
+
+    private int seatOf(ClientConnection client) {
+        for (int seat = PLAYER_ONE; seat <= PLAYER_TWO; seat++) {
+            if (seats[seat] == client) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    private ClientConnection opponentOf(ClientConnection client) {
+        return seats[seatOf(client) == PLAYER_ONE ? PLAYER_TWO : PLAYER_ONE];
+    }
+
+    private char playerOf(int seat) {
+        return seat == PLAYER_ONE ? config.getPlayerOne() : config.getPlayerTwo();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + " (" + config + ", " + moves + " moves" + (finished ? ", finished)" : ")");
+    }
+}
@@ -0,0 +1,69 @@
+package cpsc2150.extendedCheckers.server;
+
+import cpsc2150.extendedCheckers.models.BoardSnapshot;
+import cpsc2150.extendedCheckers.models.GameSession;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * SynchronizedGame hosts a game behind one monitor: each command runs on the calling thread while holding the
+ * game's lock. It is the simple baseline GameActor is measured against; both give every command the game to
+ * itself.
+ *
+ * @Corresponds The SynchronizedGame object (self) is its GameSession.
+ */
+public final class SynchronizedGame implements HostedGame
+{
+    private final String id;
+    private final GameSession session;
+    private volatile BoardSnapshot snapshot;
+
+    /**
+     * Hosts session behind a lock.
+     *
+     * @param anId the id the game is registered under
+     * @param aSession the game; no other code may use it afterwards
+     *
+     * @pre anId != null AND aSession != null
+     *
+     * @post getId() = anId
+     */
+    public SynchronizedGame(String anId, GameSession aSession) {
+        id = anId;
+        session = aSession;
+        snapshot = BoardSnapshot.of(aSession);
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> ask(Function<? super GameSession, ? extends T> command) {
+        try {
+            T result;
+            synchronized (this) {
+                try {
+                    result = command.apply(session);
+                } finally {
+                    snapshot = BoardSnapshot.refresh(snapshot, session);
+                }
+            }
+            return CompletableFuture.completedFuture(result);
+        } catch (Throwable t) {
+            return CompletableFuture.failedFuture(t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SynchronizedGame " + id;
+    }
+}
@@ -0,0 +1,241 @@
+package cpsc2150.extendedCheckers.tablebase;
+
+/**
+ * EndgameIndex numbers every placement of a fixed set of pieces on an 8x8 board: its material. It is a perfect
+ * index: the placements map one to one onto 0 .. size() - 1, with no gaps, so a table needs exactly one entry per
+ * position.
+ *
+ * Positions are given as four 32-bit masks over the dark squares, which are numbered 0 .. 31 by square >> 1, four to
+ * a row: player one's men, player two's men, player one's kings and player two's kings. Player one's men never stand
+ * on row 7 and player two's men never on row 0, where they would have been crowned.
+ *
+ * The index is built from combinadic ranks (the rank of a sorted k-subset {c_0 < ... < c_k-1} is the sum of
+ * C(c_i, i + 1)), one per group of pieces, each taken over the squares still free for that group:
+ *      - player one's men over rows 0 .. 6, split by how many of them stand on row 0, since only those leave a
+ *        square free for player two's men
+ *      - player two's men over rows 1 .. 7 less the squares of player one's men
+ *      - player one's kings over the squares no man stands on, then player two's kings over those still free
+ *
+ * @Invariant size() = [the number of legal placements of the material] AND
+ *            [rank and unrank are inverse bijections between placements and 0 .. size() - 1]
+ */
+public final class EndgameIndex
+{
+    public static final int DIMENSION = 8;
+    public static final int SQUARES = 32;
+
+    private static final int ROW_SQUARES = 4;
+    private static final int ROW_ZERO_MASK = 0xF;
+    private static final int MEN_SQUARES = SQUARES - ROW_SQUARES;
+    private static final int MIDDLE_SQUARES = SQUARES - 2 * ROW_SQUARES;
+
+    private static final long[][] BINOMIAL = new long[SQUARES + 1][SQUARES + 1];
+
+    static {
+        for (int n = 0; n <= SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final int firstMen;
+    private final int firstKings;
+    private final int secondMen;
+    private final int secondKings;
+
+    //menOffsets[j] = the first men index with j of player one's men on row 0
+    private final long[] menOffsets;
+    private final long kingPlacements;
+    private final long size;
+
+    /**
+     * Creates the index of a material.
+     *
+     * @pre every count >= 0 AND firstMen, secondMen <= 28 AND [the pieces fit on the 32 dark squares]
+     *
+     * @post [the getters return the counts]
+     */
+    public EndgameIndex(int aFirstMen, int aFirstKings, int aSecondMen, int aSecondKings) {
+        firstMen = aFirstMen;
+        firstKings = aFirstKings;
+        secondMen = aSecondMen;
+        secondKings = aSecondKings;
+
+        int rowZeroMax = Math.min(ROW_SQUARES, firstMen);
+        menOffsets = new long[rowZeroMax + 2];
+        for (int j = 0; j <= rowZeroMax; j++) {
+            menOffsets[j + 1] = menOffsets[j] + choose(ROW_SQUARES, j) * choose(MIDDLE_SQUARES, firstMen - j) *
+                    choose(MEN_SQUARES - (firstMen - j), secondMen);
+        }
+        int men = firstMen + secondMen;
+        kingPlacements = choose(SQUARES - men, firstKings) * choose(SQUARES - men - firstKings, secondKings);
+        size = menOffsets[rowZeroMax + 1] * kingPlacements;
+    }
+
+    public int getFirstMen() {
+        return firstMen;
+    }
+
+    public int getFirstKings() {
+        return firstKings;
+    }
+
+    public int getSecondMen() {
+        return secondMen;
+    }
+
+    public int getSecondKings() {
+        return secondKings;
+    }
+
+    public int getPieceCount() {
+        return firstMen + firstKings + secondMen + secondKings;
+    }
+
+    /**
+     * Returns the number of positions of the material.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of a placement.
+     *
+     * @param firstMenMask player one's men
+     * @param secondMenMask player two's men
+     * @param firstKingMask player one's kings
+     * @param secondKingMask player two's kings
+     *
+     * @pre [the masks are disjoint, hold the material's counts, and no man stands on its crowning row]
+     *
+     * @post 0 <= rank < size()
+     */
+    public long rank(int firstMenMask, int secondMenMask, int firstKingMask, int secondKingMask) {
+        // Player one's men: the ones on row 0, then the rest over the 24 middle squares
+        int rowZero = firstMenMask & ROW_ZERO_MASK;
+        int onRowZero = Integer.bitCount(rowZero);
+        long firstRank = rankSubset(rowZero, -1) * choose(MIDDLE_SQUARES, firstMen - onRowZero) +
+                rankSubset(firstMenMask >>> ROW_SQUARES, -1);
+
+        // Player two's men over rows 1 .. 7 less player one's men there
+        int free = ~(firstMenMask | ROW_ZERO_MASK);
+        long secondRank = rankSubset(secondMenMask, free);
+        long menIndex = menOffsets[onRowZero] +
+                firstRank * choose(MEN_SQUARES - (firstMen - onRowZero), secondMen) + secondRank;
+
+        // Kings over the squares left free by the men, then by player one's kings
+        int noMen = ~(firstMenMask | secondMenMask);
+        long kingRank = rankSubset(firstKingMask, noMen) *
+                choose(SQUARES - firstMen - secondMen - firstKings, secondKings) +
+                rankSubset(secondKingMask, noMen & ~firstKingMask);
+        return menIndex * kingPlacements + kingRank;
+    }
+
+    /**
+     * Returns the placement with the given index as the masks player one's men, player two's men, player one's
+     * kings and player two's kings, in that order.
+     *
+     * @pre 0 <= index < size() AND masks.length >= 4
+     *
+     * @post rank(masks[0], masks[1], masks[2], masks[3]) = index
+     */
+    public void unrank(long index, int[] masks) {
+        long menIndex = index / kingPlacements;
+        long kingRank = index % kingPlacements;
+
+        int onRowZero = 0;
+        while (menOffsets[onRowZero + 1] <= menIndex) {
+            onRowZero++;
+        }
+        long secondPlacements = choose(MEN_SQUARES - (firstMen - onRowZero), secondMen);
+        long firstRank = (menIndex - menOffsets[onRowZero]) / secondPlacements;
+        long secondRank = (menIndex - menOffsets[onRowZero]) % secondPlacements;
+        long middlePlacements = choose(MIDDLE_SQUARES, firstMen - onRowZero);
+        int firstMenMask = unrankSubset(firstRank / middlePlacements, onRowZero, -1) |
+                (unrankSubset(firstRank % middlePlacements, firstMen - onRowZero, -1) << ROW_SQUARES);
+        int secondMenMask = unrankSubset(secondRank, secondMen, ~(firstMenMask | ROW_ZERO_MASK));
+
+        int noMen = ~(firstMenMask | secondMenMask);
+        long secondKingPlacements = choose(SQUARES - firstMen - secondMen - firstKings, secondKings);
+        int firstKingMask = unrankSubset(kingRank / secondKingPlacements, firstKings, noMen);
+        int secondKingMask = unrankSubset(kingRank % secondKingPlacements, secondKings, noMen & ~firstKingMask);
+
+        masks[0] = firstMenMask;
+        masks[1] = secondMenMask;
+        masks[2] = firstKingMask;
+        masks[3] = secondKingMask;
+    }
+
+    /**
+     * Returns the combinadic rank of the squares of subset among the squares of free, numbering the free squares
+     * 0, 1, ... upwards. A free mask of -1 numbers all squares as they are.
+     */
+    private static long rankSubset(int subset, int free) {
+        long rank = 0;
+        int i = 0;
+        for (int rest = subset; rest != 0; rest &= rest - 1) {
+            int square = Integer.numberOfTrailingZeros(rest);
+            int position = Integer.bitCount(free & ((1 << square) - 1));
+            rank += choose(position, ++i);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the k squares of free whose combinadic rank among the free squares is rank. A free mask of -1
+     * numbers all squares as they are.
+     */
+    private static int unrankSubset(long rank, int k, int free) {
+        int subset = 0;
+        int position = Integer.bitCount(free);
+        for (int i = k; i >= 1; i--) {
+            // The largest position whose C(position, i) still fits in what is left of the rank
+            position--;
+            while (choose(position, i) > rank) {
+                position--;
+            }
+            rank -= choose(position, i);
+            subset |= 1 << nthSquare(free, position);
+        }
+        return subset;
+    }
+
+    /**
+     * Returns the dark square of the n-th (from 0) set bit of free.
+     */
+    private static int nthSquare(int free, int n) {
+        for (int i = 0; i < n; i++) {
+            free &= free - 1;
+        }
+        return Integer.numberOfTrailingZeros(free);
+    }
+
+    static long choose(int n, int k) {
+        return (k < 0 || n < 0 || k > n) ? 0 : BINOMIAL[n][k];
+    }
+
+    /**
+     * Returns the board square of a dark square.
+     */
+    public static int boardSquare(int dark) {
+        int row = dark / ROW_SQUARES;
+        return row * DIMENSION + 2 * (dark % ROW_SQUARES) + (row & 1);
+    }
+
+    /**
+     * Returns the dark square of a board square.
+     *
+     * @pre [square is a dark square of an 8x8 board]
+     */
+    public static int darkSquare(int square) {
+        return square >> 1;
+    }
+
+    @Override
+    public String toString() {
+        return firstMen + "m" + firstKings + "k v " + secondMen + "m" + secondKings + "k";
+    }
+}
@@ -0,0 +1,367 @@
+package cpsc2150.extendedCheckers.tablebase;
+
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tablebase answers 8x8 endgames of up to getMaxPieces() pieces perfectly, from a file written by
+ * TablebaseGenerator. Each material (the number of men and kings of each player) and side to move has a table
+ * with one value per position, in EndgameIndex order, packed into as few bits as its largest value needs.
+ *
+ * A value is DRAW (0), loss(d) or win(d) for the side to move, where d is the number of plies until the loser has
+ * no legal move left with best play: the winner wins as fast as it can and the loser holds out as long as it can.
+ *
+ * File layout (big-endian):
+ *      header     FILE_MAGIC, VERSION, max pieces, table count
+ *      directory  DIRECTORY_ENTRY_BYTES per table, by slot: file offset (long), words (int), bits per value (int);
+ *                 an offset of 0 for slots with no table
+ *      tables     the packed values of each table as longs, value i in bits i * bits .. i * bits + bits - 1
+ * Each table is mapped read-only on its own, so opening reads only the directory, probes touch only the pages
+ * they land on, and any number of processes share the tables through the page cache.
+ *
+ * Reading is thread-safe.
+ *
+ * @Invariant getMaxPieces() >= 2 AND [every table holds the values of every position of its material and side]
+ */
+public final class Tablebase
+{
+    public static final int NOT_IN_TABLE = -1;
+    public static final int DRAW = 0;
+
+    static final int FILE_MAGIC = 0x434B5442;    // "CKTB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int DIRECTORY_ENTRY_BYTES = 16;
+
+    private static final int SIDES = 2;
+    private static final int FIRST_ROW_MASK = 0xF;
+    private static final int LAST_ROW_MASK = 0xF << (EndgameIndex.SQUARES - 4);
+
+    private final int maxPieces;
+    private final EndgameIndex[] indices;
+    private final LongBuffer[] tables;
+    private final int[] bits;
+
+    /**
+     * Creates a tablebase with no tables yet, for TablebaseGenerator to fill in as it solves.
+     */
+    Tablebase(int aMaxPieces) {
+        maxPieces = aMaxPieces;
+        int slots = slotCount(aMaxPieces);
+        indices = new EndgameIndex[slots / SIDES];
+        tables = new LongBuffer[slots];
+        bits = new int[slots];
+    }
+
+    /**
+     * Maps the tablebase at path.
+     *
+     * @throws IOException if the file cannot be read or is not a tablebase
+     *
+     * @pre path != null
+     */
+    public static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            int pieces = header.getInt(8);
+            if (header.getInt(0) != FILE_MAGIC || header.getInt(4) != VERSION || pieces < 2 ||
+                    pieces > EndgameIndex.SQUARES || header.getInt(12) != slotCount(pieces)) {
+                throw new IOException(path + " is not a tablebase of version " + VERSION);
+            }
+            Tablebase tablebase = new Tablebase(pieces);
+            int slots = slotCount(pieces);
+            ByteBuffer directory = ByteBuffer.allocate(slots * DIRECTORY_ENTRY_BYTES);
+            readFully(channel, directory, HEADER_BYTES);
+            for (int slot = 0; slot < slots; slot++) {
+                long offset = directory.getLong(slot * DIRECTORY_ENTRY_BYTES);
+                if (offset == 0) {
+                    continue;
+                }
+                long words = directory.getInt(slot * DIRECTORY_ENTRY_BYTES + 8) & 0xFFFFFFFFL;
+                if (offset + words * Long.BYTES > channel.size()) {
+                    throw new IOException(path + " ends before table " + slot);
+                }
+                LongBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, offset, words * Long.BYTES)
+                        .asLongBuffer();
+                tablebase.setTable(slot, table, directory.getInt(slot * DIRECTORY_ENTRY_BYTES + 12));
+            }
+            return tablebase;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long at) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, at);
+            if (read < 0) {
+                throw new IOException("Tablebase ends early");
+            }
+            at += read;
+        }
+        target.flip();
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Returns the value of winning in distance plies.
+     */
+    public static int win(int distance) {
+        return 2 * distance + 2;
+    }
+
+    /**
+     * Returns the value of losing in distance plies.
+     */
+    public static int loss(int distance) {
+        return 2 * distance + 1;
+    }
+
+    public static boolean isWin(int value) {
+        return value > 0 && (value & 1) == 0;
+    }
+
+    public static boolean isLoss(int value) {
+        return value > 0 && (value & 1) == 1;
+    }
+
+    /**
+     * Returns the number of plies until a won or lost game ends.
+     *
+     * @pre isWin(value) OR isLoss(value)
+     */
+    public static int getDistance(int value) {
+        return (value - 1) >> 1;
+    }
+
+    /**
+     * Returns "win in d", "loss in d", "draw" or "not in table".
+     */
+    public static String describe(int value) {
+        if (value == NOT_IN_TABLE) {
+            return "not in table";
+        }
+        if (value == DRAW) {
+            return "draw";
+        }
+        return (isWin(value) ? "win in " : "loss in ") + getDistance(value);
+    }
+
+    /**
+     * Returns the value of the position for player.
+     *
+     * @param board the position
+     * @param player the lowercase character of the side to move
+     *
+     * @return DRAW, a win or loss value, or NOT_IN_TABLE if the board is not 8x8, has more than getMaxPieces()
+     *         pieces, or either side has none
+     *
+     * @pre board != null AND player is one of board's players
+     *
+     * @post self = #self AND board = #board
+     */
+    public int probe(ICheckerBoard board, char player) {
+        int[] masks = new int[4];
+        if (!readMasks(board, masks)) {
+            return NOT_IN_TABLE;
+        }
+        if (Integer.bitCount(masks[0] | masks[1] | masks[2] | masks[3]) > maxPieces ||
+                (masks[0] | masks[2]) == 0 || (masks[1] | masks[3]) == 0) {
+            return NOT_IN_TABLE;
+        }
+        return value(masks, player == board.getConfig().getPlayerOne() ? 0 : 1);
+    }
+
+    /**
+     * Returns the best move for player: the fastest win, else a draw, else the longest loss.
+     *
+     * @param board the position; it is not changed, the moves are tried on a copy
+     * @param player the lowercase character of the side to move
+     *
+     * @return the packed move, or Move.NO_MOVE if the position is not in the table or player cannot move
+     *
+     * @pre board != null AND player is one of board's players
+     */
+    public long bestMove(ICheckerBoard board, char player) {
+        if (probe(board, player) == NOT_IN_TABLE) {
+            return Move.NO_MOVE;
+        }
+        ICheckerBoard work = board.copy();
+        MoveBuffer moves = new MoveBuffer();
+        MoveGenerator.generateMoves(work, player, moves);
+        int[] masks = new int[4];
+        long best = Move.NO_MOVE;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            work.applyMove(moves.get(i));
+            readMasks(work, masks);
+            int score = score(value(masks, player == board.getConfig().getPlayerOne() ? 1 : 0));
+            work.undoMove();
+            if (score > bestScore) {
+                bestScore = score;
+                best = moves.get(i);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Ranks the value of the position after a move from the mover's side: the opponent losing soonest first, the
+     * opponent winning latest last.
+     */
+    private static int score(int successor) {
+        if (isLoss(successor)) {
+            return Integer.MAX_VALUE - getDistance(successor);
+        }
+        if (isWin(successor)) {
+            return Integer.MIN_VALUE + 1 + getDistance(successor);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the value of a placement with side (0 for player one, 1 for player two) to move: loss(0) if side has
+     * no pieces, NOT_IN_TABLE if its table is missing.
+     *
+     * @pre [the placement has at most getMaxPieces() pieces]
+     */
+    int value(int[] masks, int side) {
+        int firstMen = Integer.bitCount(masks[0]);
+        int secondMen = Integer.bitCount(masks[1]);
+        int firstKings = Integer.bitCount(masks[2]);
+        int secondKings = Integer.bitCount(masks[3]);
+        if ((side == 0 ? firstMen + firstKings : secondMen + secondKings) == 0) {
+            return loss(0);
+        }
+        int material = material(firstMen, firstKings, secondMen, secondKings, maxPieces);
+        LongBuffer table = tables[material * SIDES + side];
+        if (table == null) {
+            return NOT_IN_TABLE;
+        }
+        long index = indices[material].rank(masks[0], masks[1], masks[2], masks[3]);
+        return read(table, bits[material * SIDES + side], index);
+    }
+
+    /**
+     * Reads board into player one's men, player two's men, player one's kings and player two's kings.
+     *
+     * @return false if board is not 8x8, holds a piece of neither player, or has an uncrowned man on its
+     *         crowning row
+     */
+    static boolean readMasks(ICheckerBoard board, int[] masks) {
+        if (board.getRowNum() != EndgameIndex.DIMENSION || board.getColNum() != EndgameIndex.DIMENSION) {
+            return false;
+        }
+        GameConfig config = board.getConfig();
+        char firstKing = Character.toUpperCase(config.getPlayerOne());
+        char secondKing = Character.toUpperCase(config.getPlayerTwo());
+        masks[0] = masks[1] = masks[2] = masks[3] = 0;
+        for (int dark = 0; dark < EndgameIndex.SQUARES; dark++) {
+            char piece = board.whatsAtPos(EndgameIndex.boardSquare(dark));
+            if (piece == config.getPlayerOne()) {
+                masks[0] |= 1 << dark;
+            } else if (piece == config.getPlayerTwo()) {
+                masks[1] |= 1 << dark;
+            } else if (piece == firstKing) {
+                masks[2] |= 1 << dark;
+            } else if (piece == secondKing) {
+                masks[3] |= 1 << dark;
+            } else if (Character.isLetter(piece)) {
+                return false;
+            }
+        }
+        return (masks[0] & LAST_ROW_MASK) == 0 && (masks[1] & FIRST_ROW_MASK) == 0;
+    }
+
+    void setTable(int slot, LongBuffer table, int valueBits) {
+        tables[slot] = table;
+        bits[slot] = valueBits;
+        int material = slot / SIDES;
+        if (indices[material] == null) {
+            indices[material] = indexOf(material, maxPieces);
+        }
+    }
+
+    /**
+     * Returns the number of table slots of a tablebase of up to maxPieces pieces: one per material and side,
+     * whether or not the material is possible.
+     */
+    static int slotCount(int maxPieces) {
+        int counts = maxPieces + 1;
+        return counts * counts * counts * counts * SIDES;
+    }
+
+    static int material(int firstMen, int firstKings, int secondMen, int secondKings, int maxPieces) {
+        int counts = maxPieces + 1;
+        return ((firstMen * counts + firstKings) * counts + secondMen) * counts + secondKings;
+    }
+
+    static EndgameIndex indexOf(int material, int maxPieces) {
+        int counts = maxPieces + 1;
+        return new EndgameIndex(material / (counts * counts * counts), material / (counts * counts) % counts,
+                material / counts % counts, material % counts);
+    }
+
+    /**
+     * Returns the value at index of a table of valueBits-bit values.
+     */
+    static int read(LongBuffer table, int valueBits, long index) {
+        long bit = index * valueBits;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        long value = table.get(word) >>> shift;
+        if (shift + valueBits > Long.SIZE) {
+            value |= table.get(word + 1) << (Long.SIZE - shift);
+        }
+        return (int) (value & ((1L << valueBits) - 1));
+    }
+
+    /**
+     * Packs values of valueBits bits each into longs, the layout read reads.
+     *
+     * @pre [every value fits in valueBits bits]
+     */
+    static long[] pack(short[] values, int valueBits) {
+        long[] words = new long[(int) (((long) values.length * valueBits + Long.SIZE - 1) / Long.SIZE)];
+        for (int index = 0; index < values.length; index++) {
+            long bit = (long) index * valueBits;
+            int word = (int) (bit >>> 6);
+            int shift = (int) (bit & 63);
+            words[word] |= (long) values[index] << shift;
+            if (shift + valueBits > Long.SIZE) {
+                words[word + 1] |= (long) values[index] >>> (Long.SIZE - shift);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the number of bits needed for values up to maxValue, at least 1.
+     */
+    static int bitsFor(int maxValue) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    @Override
+    public String toString() {
+        int count = 0;
+        for (LongBuffer table : tables) {
+            if (table != null) {
+                count++;
+            }
+        }
+        return "Tablebase[" + maxPieces + " pieces, " + count + " tables]";
+    }
+}
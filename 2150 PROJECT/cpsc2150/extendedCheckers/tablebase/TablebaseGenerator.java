@@ -0,0 +1,621 @@
+package cpsc2150.extendedCheckers.tablebase;
+
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.CheckerBoardBit;
+import cpsc2150.extendedCheckers.models.GameConfig;
+import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.MoveBuffer;
+import cpsc2150.extendedCheckers.models.MoveGenerator;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * TablebaseGenerator solves every 8x8 endgame of up to getMaxPieces() pieces by retrograde analysis and writes the
+ * results as a Tablebase file.
+ *
+ * Materials are solved smallest first: by number of pieces, then by number of men. A capture lowers the number of
+ * pieces and a crowning the number of men, so every move out of a material lands in one already solved, and only
+ * the simple moves within the material are left to work out. Each material is solved, both sides to move together,
+ * in two steps:
+ *      - one forward pass plays every move of every position once. A position with no legal move is loss(0).
+ *        Every other position keeps the number of its moves that stay within the material and what its captures
+ *        and crownings reach: a lost position among those makes it a win, and if all of its moves leave the
+ *        material they decide it
+ *      - positions are then decided in order of distance, from a queue of positions per distance. Deciding a
+ *        position walks its predecessors, generated by unmaking simple moves on EndgameIndex's masks: a
+ *        predecessor of a position lost in d is won in d + 1, and a predecessor whose moves all reach won
+ *        positions is lost, in one more ply than the longest of them, once the last of them is decided
+ * Positions still undecided when the queue runs out are draws. Every position is set up and moved forward once,
+ * and is only revisited when one of its successors is decided, instead of once per distance.
+ *
+ * The forward pass splits both tables into ranges of getGrain() positions on a ForkJoinPool of its own. Each
+ * worker sets positions up on a board of its own and plays the moves MoveGenerator lists with applyMove, which goes
+ * through movePiece, jumpPiece and crownPiece, so the tablebase follows the game's own rules. The predecessors of
+ * the positions decided at one distance are generated the same way, in ranges of getGrain() positions, and then
+ * applied on the calling thread in order, so the result does not depend on the number of threads.
+ *
+ * Run with: java cpsc2150.extendedCheckers.tablebase.TablebaseGenerator file [maxPieces] [threads]
+ *
+ * The default is 4 pieces on every processor. 5 pieces take about 290 million positions and 6 pieces about 5
+ * billion, with the largest 6-piece table at 125 million positions. Solving a material takes 2 bytes a position
+ * for its values, 1 for its move counts and 2 for what its captures and crownings reach, besides its queue.
+ *
+ * @Invariant 2 <= getMaxPieces() AND getThreadCount() >= 1 AND getGrain() >= 1
+ */
+public final class TablebaseGenerator implements AutoCloseable
+{
+    public static final int DEFAULT_MAX_PIECES = 4;
+    public static final int DEFAULT_GRAIN = 1 << 13;
+
+    private static final int SIDES = 2;
+    //values are solved into shorts
+    private static final int MAX_DISTANCE = (Short.MAX_VALUE - 2) / 2;
+
+    //remaining[side][position]: the position has a capture, so no simple move leads out of it
+    private static final byte CAPTURES = -1;
+    //remaining[side][position]: the position is already queued as won through a move within the material
+    private static final byte QUEUED = -2;
+    //exits[side][position]: a capture or crowning reaches a draw or a loss, so the position cannot be lost
+    private static final short HOLDS = -1;
+    //what Worker.exitValue returns for a move that stays within the material
+    private static final int NOT_AN_EXIT = Integer.MIN_VALUE;
+
+    private final int maxPieces;
+    private final int threads;
+    private final int grain;
+    private final ForkJoinPool pool;
+    private final GameConfig config = new GameConfig();
+
+    /**
+     * Creates a generator.
+     *
+     * @pre 2 <= aMaxPieces <= 8 AND aThreads >= 1 AND aGrain >= 1
+     *
+     * @post getMaxPieces() = aMaxPieces AND getThreadCount() = aThreads AND getGrain() = aGrain
+     */
+    public TablebaseGenerator(int aMaxPieces, int aThreads, int aGrain) {
+        maxPieces = aMaxPieces;
+        threads = aThreads;
+        grain = aGrain;
+        pool = new ForkJoinPool(aThreads);
+    }
+
+    /**
+     * Creates a generator splitting its work into DEFAULT_GRAIN positions.
+     */
+    public TablebaseGenerator(int aMaxPieces, int aThreads) {
+        this(aMaxPieces, aThreads, DEFAULT_GRAIN);
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    public int getThreadCount() {
+        return threads;
+    }
+
+    public int getGrain() {
+        return grain;
+    }
+
+    /**
+     * Returns every material with at least one piece a side and at most maxPieces pieces, in solving order.
+     */
+    public static List<EndgameIndex> materials(int maxPieces) {
+        List<EndgameIndex> materials = new ArrayList<>();
+        for (int firstMen = 0; firstMen <= maxPieces; firstMen++) {
+            for (int firstKings = 0; firstMen + firstKings <= maxPieces; firstKings++) {
+                for (int secondMen = 0; firstMen + firstKings + secondMen <= maxPieces; secondMen++) {
+                    for (int secondKings = 0; firstMen + firstKings + secondMen + secondKings <= maxPieces;
+                         secondKings++) {
+                        if (firstMen + firstKings > 0 && secondMen + secondKings > 0) {
+                            materials.add(new EndgameIndex(firstMen, firstKings, secondMen, secondKings));
+                        }
+                    }
+                }
+            }
+        }
+        materials.sort(Comparator.comparingInt(EndgameIndex::getPieceCount)
+                .thenComparingInt(material -> material.getFirstMen() + material.getSecondMen()));
+        return materials;
+    }
+
+    /**
+     * Solves every material and writes the tablebase to path.
+     *
+     * @param path the file to write
+     * @param log told one line per solved material, or null
+     *
+     * @return the solved tablebase, held in memory
+     *
+     * @throws IOException if writing fails
+     *
+     * @pre path != null
+     *
+     * @post [Tablebase.open(path) reads the same values as generate]
+     */
+    public Tablebase generate(Path path, PrintStream log) throws IOException {
+        Tablebase tablebase = new Tablebase(maxPieces);
+        int slots = Tablebase.slotCount(maxPieces);
+        ByteBuffer directory = ByteBuffer.allocate(slots * Tablebase.DIRECTORY_ENTRY_BYTES);
+        long position = Tablebase.HEADER_BYTES + directory.capacity();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (EndgameIndex index : materials(maxPieces)) {
+                long start = System.nanoTime();
+                int material = Tablebase.material(index.getFirstMen(), index.getFirstKings(), index.getSecondMen(),
+                        index.getSecondKings(), maxPieces);
+                int[] longest = new int[1];
+                short[][] values = solve(tablebase, index, material, longest);
+
+                long[] tally = new long[3];
+                for (int side = 0; side < SIDES; side++) {
+                    int maxValue = 0;
+                    for (short value : values[side]) {
+                        maxValue = Math.max(maxValue, value);
+                        tally[value == Tablebase.DRAW ? 1 : Tablebase.isWin(value) ? 0 : 2]++;
+                    }
+                    int bits = Tablebase.bitsFor(maxValue);
+                    long[] words = Tablebase.pack(values[side], bits);
+                    ByteBuffer bytes = ByteBuffer.allocate(words.length * Long.BYTES);
+                    bytes.asLongBuffer().put(words);
+                    writeFully(channel, bytes, position);
+
+                    int slot = material * SIDES + side;
+                    directory.putLong(slot * Tablebase.DIRECTORY_ENTRY_BYTES, position);
+                    directory.putInt(slot * Tablebase.DIRECTORY_ENTRY_BYTES + 8, words.length);
+                    directory.putInt(slot * Tablebase.DIRECTORY_ENTRY_BYTES + 12, bits);
+                    tablebase.setTable(slot, LongBuffer.wrap(words), bits);
+                    position += bytes.capacity();
+                }
+                if (log != null) {
+                    log.printf(Locale.ROOT, "%-12s %,13d positions: %5.1f%% won, %5.1f%% drawn, %5.1f%% lost, " +
+                                    "longest %3d plies, %.2f s%n", index, 2 * index.size(),
+                            100.0 * tally[0] / (2 * index.size()), 100.0 * tally[1] / (2 * index.size()),
+                            100.0 * tally[2] / (2 * index.size()), longest[0], (System.nanoTime() - start) / 1e9);
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES);
+            header.putInt(Tablebase.FILE_MAGIC).putInt(Tablebase.VERSION).putInt(maxPieces).putInt(slots).flip();
+            writeFully(channel, header, 0);
+            directory.clear();
+            writeFully(channel, directory, Tablebase.HEADER_BYTES);
+            channel.force(false);
+        }
+        return tablebase;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source, long at) throws IOException {
+        while (source.hasRemaining()) {
+            at += channel.write(source, at);
+        }
+    }
+
+    /**
+     * Solves one material, both sides to move, given the tablebase of every material solved before it.
+     *
+     * @param longest set to the longest distance decided
+     */
+    private short[][] solve(Tablebase solved, EndgameIndex index, int material, int[] longest) {
+        if (index.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(index + " has too many positions for one table");
+        }
+        int size = (int) index.size();
+        short[][] values = new short[SIDES][size];
+        byte[][] remaining = new byte[SIDES][size];
+        short[][] exits = new short[SIDES][size];
+        for (int side = 0; side < SIDES; side++) {
+            pool.invoke(new ForwardTask(solved, index, material, values, remaining, exits, side, 0, size));
+        }
+
+        // The forward pass left the positions its moves out of the material decide in values: queue them instead
+        List<LongList> queue = new ArrayList<>();
+        for (int side = 0; side < SIDES; side++) {
+            for (int position = 0; position < size; position++) {
+                int value = values[side][position];
+                if (value != Tablebase.DRAW) {
+                    enqueue(queue, Tablebase.getDistance(value), position, side, Tablebase.isLoss(value));
+                    values[side][position] = Tablebase.DRAW;
+                }
+            }
+        }
+
+        for (int distance = 0; distance < queue.size(); distance++) {
+            if (distance > MAX_DISTANCE) {
+                throw new IllegalStateException(index + " needs more than " + MAX_DISTANCE + " plies");
+            }
+            // A position can be queued more than once; the first, shortest, distance it is reached at stands
+            LongList queued = queue.get(distance);
+            LongList decided = new LongList();
+            for (int i = 0; i < queued.size(); i++) {
+                long entry = queued.get(i);
+                int position = (int) (entry >>> 2);
+                int side = (int) (entry >>> 1) & 1;
+                if (values[side][position] == Tablebase.DRAW) {
+                    boolean lost = (entry & 1) != 0;
+                    values[side][position] = (short) (lost ? Tablebase.loss(distance) : Tablebase.win(distance));
+                    decided.add(entry);
+                    longest[0] = distance;
+                }
+            }
+            queue.set(distance, null);
+            if (decided.size() == 0) {
+                continue;
+            }
+
+            LongList predecessors = pool.invoke(new UnmoveTask(index, decided, 0, decided.size()));
+            for (int i = 0; i < predecessors.size(); i++) {
+                long entry = predecessors.get(i);
+                int position = (int) (entry >>> 2);
+                int side = (int) (entry >>> 1) & 1;
+                byte moves = remaining[side][position];
+                if (values[side][position] != Tablebase.DRAW || moves == CAPTURES || moves == QUEUED) {
+                    continue;
+                }
+                if ((entry & 1) != 0) {
+                    // A move to a lost position wins
+                    remaining[side][position] = QUEUED;
+                    enqueue(queue, distance + 1, position, side, false);
+                } else if (--remaining[side][position] == 0 && exits[side][position] != HOLDS) {
+                    // Every move reaches a won position: lost, as late as the longest of them
+                    enqueue(queue, Math.max(distance + 1, exits[side][position]), position, side, true);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static void enqueue(List<LongList> queue, int distance, int position, int side, boolean lost) {
+        while (queue.size() <= distance) {
+            queue.add(new LongList());
+        }
+        queue.get(distance).add(((long) position << 2) | (side << 1) | (lost ? 1 : 0));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * The forward pass over a range of one side's table: on its own thread when the range is at most grain
+     * positions long, by forking its first half and passing over its second half itself otherwise.
+     */
+    private final class ForwardTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Tablebase solved;
+        private final EndgameIndex index;
+        private final int material;
+        private final short[][] values;
+        private final byte[][] remaining;
+        private final short[][] exits;
+        private final int side;
+        private final int from;
+        private final int to;
+
+        ForwardTask(Tablebase aSolved, EndgameIndex anIndex, int aMaterial, short[][] someValues,
+                    byte[][] someRemaining, short[][] someExits, int aSide, int aFrom, int aTo) {
+            solved = aSolved;
+            index = anIndex;
+            material = aMaterial;
+            values = someValues;
+            remaining = someRemaining;
+            exits = someExits;
+            side = aSide;
+            from = aFrom;
+            to = aTo;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int middle = (from + to) >>> 1;
+                ForwardTask first = new ForwardTask(solved, index, material, values, remaining, exits, side, from,
+                        middle);
+                first.fork();
+                new ForwardTask(solved, index, material, values, remaining, exits, side, middle, to).compute();
+                first.join();
+                return;
+            }
+            new Worker(this).pass();
+        }
+    }
+
+    /**
+     * The predecessors of a range of the positions decided at one distance, in order: on its own thread when the
+     * range is at most grain positions long, by forking its first half and doing its second half itself otherwise.
+     * Each predecessor is returned as position << 2 | side << 1 | 1 if the position it leads to is lost.
+     */
+    private final class UnmoveTask extends RecursiveTask<LongList>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final EndgameIndex index;
+        private final LongList decided;
+        private final int from;
+        private final int to;
+
+        UnmoveTask(EndgameIndex anIndex, LongList someDecided, int aFrom, int aTo) {
+            index = anIndex;
+            decided = someDecided;
+            from = aFrom;
+            to = aTo;
+        }
+
+        @Override
+        protected LongList compute() {
+            if (to - from > grain) {
+                int middle = (from + to) >>> 1;
+                UnmoveTask first = new UnmoveTask(index, decided, from, middle);
+                first.fork();
+                LongList second = new UnmoveTask(index, decided, middle, to).compute();
+                LongList predecessors = first.join();
+                predecessors.addAll(second);
+                return predecessors;
+            }
+            LongList predecessors = new LongList();
+            Unmover unmover = new Unmover(index);
+            for (int i = from; i < to; i++) {
+                long entry = decided.get(i);
+                unmover.predecessors((int) (entry >>> 2), (int) (entry >>> 1) & 1, (entry & 1) != 0,
+                        predecessors);
+            }
+            return predecessors;
+        }
+    }
+
+    /**
+     * Generates predecessors: the positions of the same material, with the other side to move, from which a
+     * simple move that crowns nothing leads to a given position. They are found on the masks alone, by stepping
+     * each piece of the side that just moved back against the directions it moves in, onto an empty square.
+     */
+    private final class Unmover
+    {
+        private final EndgameIndex index;
+        private final NeighborTable neighbors = NeighborTable.forDimension(EndgameIndex.DIMENSION);
+        //manDirections[side]: the directions side's men move in, as a bitmask of DirectionEnum ordinals
+        private final int[] manDirections = new int[SIDES];
+        private final int[] masks = new int[4];
+
+        Unmover(EndgameIndex anIndex) {
+            index = anIndex;
+            ICheckerBoard board = new CheckerBoard(config);
+            for (int side = 0; side < SIDES; side++) {
+                char player = side == 0 ? config.getPlayerOne() : config.getPlayerTwo();
+                for (DirectionEnum dir : board.getViableDirections().get(player)) {
+                    manDirections[side] |= 1 << dir.ordinal();
+                }
+            }
+        }
+
+        /**
+         * Adds the predecessors of position, with side to move, to out.
+         */
+        void predecessors(int position, int side, boolean lost, LongList out) {
+            index.unrank(position, masks);
+            int mover = 1 - side;
+            int empty = ~(masks[0] | masks[1] | masks[2] | masks[3]);
+            for (int type = mover; type < masks.length; type += SIDES) {
+                int directions = (type < SIDES) ? manDirections[mover] : (1 << DirectionEnum.COUNT) - 1;
+                int pieces = masks[type];
+                for (int rest = pieces; rest != 0; rest &= rest - 1) {
+                    int dark = Integer.numberOfTrailingZeros(rest);
+                    int square = EndgameIndex.boardSquare(dark);
+                    for (int dir = 0; dir < DirectionEnum.COUNT; dir++) {
+                        if ((directions & (1 << dir)) == 0) {
+                            continue;
+                        }
+                        int before = neighbors.getStep(square, opposite(dir));
+                        if (before == NeighborTable.OFF_BOARD || (empty & (1 << EndgameIndex.darkSquare(before))) == 0) {
+                            continue;
+                        }
+                        masks[type] = pieces & ~(1 << dark) | (1 << EndgameIndex.darkSquare(before));
+                        long predecessor = index.rank(masks[0], masks[1], masks[2], masks[3]);
+                        masks[type] = pieces;
+                        out.add((predecessor << 2) | (mover << 1) | (lost ? 1 : 0));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ordinal of the direction opposite the one with the given ordinal: NE and SW, NW and SE.
+     */
+    private static int opposite(int dirOrdinal) {
+        return DirectionEnum.COUNT - 1 - dirOrdinal;
+    }
+
+    /**
+     * The board and buffers one ForwardTask works with. The board keeps the pieces of the last position set up, so
+     * only the squares that differ are placed, and a move is read back from the squares it can have changed.
+     */
+    private final class Worker
+    {
+        private final ForwardTask task;
+
+        private final ICheckerBoard board = new CheckerBoardBit(config);
+        private final NeighborTable neighbors = NeighborTable.forDimension(EndgameIndex.DIMENSION);
+        private final MoveBuffer moves = new MoveBuffer();
+        //player one's men, player two's men, player one's kings, player two's kings
+        private final char[] pieces = {config.getPlayerOne(), config.getPlayerTwo(),
+                Character.toUpperCase(config.getPlayerOne()), Character.toUpperCase(config.getPlayerTwo())};
+        private final char player;
+        private final int[] masks = new int[4];
+        private final int[] placed = new int[4];
+        private final int[] next = new int[4];
+
+        Worker(ForwardTask aTask) {
+            task = aTask;
+            player = pieces[aTask.side];
+            for (int dark = 0; dark < EndgameIndex.SQUARES; dark++) {
+                board.placePiece(EndgameIndex.boardSquare(dark), CheckerBoard.EMPTY_POS);
+            }
+        }
+
+        void pass() {
+            short[] values = task.values[task.side];
+            byte[] remaining = task.remaining[task.side];
+            short[] exits = task.exits[task.side];
+            for (int position = task.from; position < task.to; position++) {
+                task.index.unrank(position, masks);
+                setUp();
+                if (MoveGenerator.generateMoves(board, player, moves) == 0) {
+                    values[position] = (short) Tablebase.loss(0);
+                    continue;
+                }
+
+                // Moves out of the material have their values already; the ones within it are only counted
+                int fastestWin = Integer.MAX_VALUE;
+                int slowestLoss = 0;
+                boolean holds = false;
+                int within = 0;
+                for (int i = 0; i < moves.size(); i++) {
+                    long move = moves.get(i);
+                    board.applyMove(move);
+                    readSuccessor(EndgameIndex.darkSquare(Move.getDestination(move, neighbors)));
+                    int value = exitValue();
+                    board.undoMove();
+                    if (value == NOT_AN_EXIT) {
+                        within++;
+                    } else if (Tablebase.isLoss(value)) {
+                        fastestWin = Math.min(fastestWin, Tablebase.getDistance(value) + 1);
+                    } else if (Tablebase.isWin(value)) {
+                        slowestLoss = Math.max(slowestLoss, Tablebase.getDistance(value) + 1);
+                    } else {
+                        holds = true;
+                    }
+                }
+                remaining[position] = Move.isCapture(moves.get(0)) ? CAPTURES : (byte) within;
+                exits[position] = (holds || fastestWin != Integer.MAX_VALUE) ? HOLDS : (short) slowestLoss;
+                if (fastestWin != Integer.MAX_VALUE) {
+                    values[position] = (short) Tablebase.win(fastestWin);
+                } else if (within == 0 && !holds) {
+                    values[position] = (short) Tablebase.loss(slowestLoss);
+                }
+            }
+        }
+
+        /**
+         * Reads the board after a move into next: every piece on it stood on a square of masks or moved to
+         * destination.
+         */
+        private void readSuccessor(int destination) {
+            next[0] = next[1] = next[2] = next[3] = 0;
+            int squares = masks[0] | masks[1] | masks[2] | masks[3] | (1 << destination);
+            for (int rest = squares; rest != 0; rest &= rest - 1) {
+                int dark = Integer.numberOfTrailingZeros(rest);
+                char piece = board.whatsAtPos(EndgameIndex.boardSquare(dark));
+                for (int type = 0; type < pieces.length; type++) {
+                    if (piece == pieces[type]) {
+                        next[type] |= 1 << dark;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the value of next for the opponent to move if it is in a material solved before, or
+         * NOT_AN_EXIT if it is in this one.
+         */
+        private int exitValue() {
+            int firstMen = Integer.bitCount(next[0]);
+            int secondMen = Integer.bitCount(next[1]);
+            int firstKings = Integer.bitCount(next[2]);
+            int secondKings = Integer.bitCount(next[3]);
+            if (Tablebase.material(firstMen, firstKings, secondMen, secondKings, maxPieces) == task.material) {
+                return NOT_AN_EXIT;
+            }
+            return task.solved.value(next, 1 - task.side);
+        }
+
+        /**
+         * Puts the pieces of masks on the board, placing only the squares that differ from the last position.
+         */
+        private void setUp() {
+            for (int type = 0; type < pieces.length; type++) {
+                for (int rest = placed[type] & ~masks[type]; rest != 0; rest &= rest - 1) {
+                    board.placePiece(EndgameIndex.boardSquare(Integer.numberOfTrailingZeros(rest)),
+                            CheckerBoard.EMPTY_POS);
+                }
+            }
+            for (int type = 0; type < pieces.length; type++) {
+                for (int rest = masks[type] & ~placed[type]; rest != 0; rest &= rest - 1) {
+                    board.placePiece(EndgameIndex.boardSquare(Integer.numberOfTrailingZeros(rest)), pieces[type]);
+                }
+                placed[type] = masks[type];
+            }
+        }
+    }
+
+    /**
+     * A growable list of longs, for the queue and the predecessors without boxing.
+     */
+    private static final class LongList
+    {
+        private long[] items = new long[16];
+        private int size;
+
+        void add(long item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, 2 * size);
+            }
+            items[size++] = item;
+        }
+
+        void addAll(LongList other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(2 * items.length, size + other.size));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+
+        long get(int i) {
+            return items[i];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TablebaseGenerator file [maxPieces] [threads]");
+            return;
+        }
+        int pieces = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_PIECES;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        try (TablebaseGenerator generator = new TablebaseGenerator(pieces, threads)) {
+            generator.generate(Paths.get(args[0]), System.out);
+        }
+        System.out.printf(Locale.ROOT, "solved up to %d pieces on %d threads in %.1f s%n", pieces, threads,
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,38 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.fixtures.ListCheckerBoardMem;
+import cpsc2150.extendedCheckers.models.*;
+
+/**
+ * BoardFactory builds the board implementations the tests run against, by the letter the tests name them with:
+ * 'M' for CheckerBoardMem, 'B' for CheckerBoardBit, 'L' for the fixtures' ListCheckerBoardMem and anything else
+ * ('F') for CheckerBoard. Every board takes its players and size from a GameConfig, never from CheckersFE.
+ */
+final class BoardFactory
+{
+    private BoardFactory()
+    {
+    }
+
+    static ICheckerBoard makeBoard(char type, GameConfig config)
+    {
+        switch (type) {
+            case 'M':
+                return new CheckerBoardMem(config);
+            case 'B':
+                return new CheckerBoardBit(config);
+            case 'L':
+                return new ListCheckerBoardMem(config);
+            default:
+                return new CheckerBoard(config);
+        }
+    }
+
+    /**
+     * Returns a board of the given size with the default players, 'x' and 'o'.
+     */
+    static ICheckerBoard makeBoard(char type, int dimension)
+    {
+        return makeBoard(type, new GameConfig(GameConfig.DEFAULT_PLAYER_ONE, GameConfig.DEFAULT_PLAYER_TWO, dimension));
+    }
+}
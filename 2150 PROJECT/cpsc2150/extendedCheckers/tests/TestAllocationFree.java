@@ -0,0 +1,126 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestAllocationFree
+{
+    private static final int MAX_MOVES = 400;
+    private static final int WARMUP_GAMES = 300;
+
+    /**
+     * Plays one move for player through the primitive square API: the first jump found, otherwise the first step,
+     * scanning squares from a start offset that rotates with the move number. Returns false if player cannot move.
+     */
+    private boolean playOneMove(ICheckerBoard board, char player, int moveNumber)
+    {
+        int squares = board.getRowNum() * board.getColNum();
+        NeighborTable neighbors = board.getNeighborTable();
+        for (int pass = 0; pass < 2; pass++) {
+            boolean jumping = pass == 0;
+            for (int i = 0; i < squares; i++) {
+                int square = (i + moveNumber * 7) % squares;
+                char piece = board.whatsAtPos(square);
+                if (Character.toLowerCase(piece) != player) {
+                    continue;
+                }
+                ArrayList<DirectionEnum> directions = board.getViableDirections().get(piece);
+                for (int d = 0; d < directions.size(); d++) {
+                    DirectionEnum dir = directions.get(d);
+                    int target = jumping ? neighbors.getJump(square, dir) : neighbors.getStep(square, dir);
+                    if (target == NeighborTable.OFF_BOARD || board.whatsAtPos(target) != ' ') {
+                        continue;
+                    }
+                    int landing;
+                    if (jumping) {
+                        char middle = Character.toLowerCase(board.whatsAtPos(neighbors.getStep(square, dir)));
+                        if (middle == player || middle == ' ' || middle == '*') {
+                            continue;
+                        }
+                        landing = board.jumpPiece(square, dir);
+                    } else {
+                        landing = board.movePiece(square, dir);
+                    }
+                    int landingRow = board.getSquareRow(landing);
+                    if (Character.isLowerCase(board.whatsAtPos(landing))
+                            && (landingRow == 0 || landingRow == board.getRowNum() - 1)) {
+                        board.crownPiece(landing);
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int playGame(ICheckerBoard board)
+    {
+        char player = 'x';
+        int moves = 0;
+        while (moves < MAX_MOVES && playOneMove(board, player, moves)) {
+            moves++;
+            player = (player == 'x') ? 'o' : 'x';
+        }
+        return moves;
+    }
+
+    private void assertGameAllocatesNothing(char type, int dim)
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARMUP_GAMES; i++) {
+            playGame(makeBoard(type, dim));
+        }
+
+        ICheckerBoard board = makeBoard(type, dim);
+        long start = threads.getCurrentThreadAllocatedBytes();
+        int moves = playGame(board);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - start;
+
+        assertTrue(moves > 0);
+        assertEquals("bytes allocated over a " + moves + "-move game on " + type + " " + dim + "x" + dim, 0,
+                allocated);
+    }
+
+    @Test
+    public void Test_primitiveGame_CheckerBoard_AllocatesNothingPerMove()
+    {
+        assertGameAllocatesNothing('F', 8);
+        assertGameAllocatesNothing('F', 16);
+    }
+
+    @Test
+    public void Test_primitiveGame_CheckerBoardMem_AllocatesNothingPerMove()
+    {
+        assertGameAllocatesNothing('M', 8);
+        assertGameAllocatesNothing('M', 16);
+    }
+
+    @Test
+    public void Test_primitiveGame_CheckerBoardBit_AllocatesNothingPerMove()
+    {
+        assertGameAllocatesNothing('B', 8);
+        assertGameAllocatesNothing('B', 16);
+    }
+
+    @Test
+    public void Test_primitiveApi_MatchesBoardPositionApi()
+    {
+        ICheckerBoard primitive = makeBoard('F', 10);
+        ICheckerBoard objects = makeBoard('F', 10);
+
+        int landing = primitive.movePiece(primitive.getSquare(3, 1), DirectionEnum.SE);
+        BoardPosition landingPos = objects.movePiece(new BoardPosition(3, 1), DirectionEnum.SE);
+
+        assertEquals(primitive.getSquare(landingPos.getRow(), landingPos.getColumn()), landing);
+        assertEquals(objects.toString(), primitive.toString());
+    }
+}
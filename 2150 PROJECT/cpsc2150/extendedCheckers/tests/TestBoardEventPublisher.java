@@ -0,0 +1,275 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.events.BoardEvent;
+import cpsc2150.extendedCheckers.events.BoardEventPublisher;
+import cpsc2150.extendedCheckers.events.BoardEventPublisher.OverflowPolicy;
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestBoardEventPublisher
+{
+    /**
+     * Collects everything it is sent, requesting initial events up front.
+     */
+    private static final class Collector implements Flow.Subscriber<BoardEvent>
+    {
+        final List<BoardEvent> events = new ArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        final long initial;
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        Collector(long anInitial)
+        {
+            initial = anInitial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription aSubscription) {
+            subscription = aSubscription;
+            if (initial > 0) {
+                subscription.request(initial);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(BoardEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            finished.countDown();
+        }
+
+        synchronized List<String> descriptions() {
+            List<String> out = new ArrayList<>();
+            for (BoardEvent event : events) {
+                out.add(event.toString());
+            }
+            return out;
+        }
+    }
+
+    /**
+     * An executor that only runs tasks when told to, so tests can fill buffers before anything is delivered.
+     */
+    private static final class ManualExecutor implements Executor
+    {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    private static ICheckerBoard emptyBoard()
+    {
+        ICheckerBoard board = new CheckerBoard(new GameConfig());
+        for (int square = 0; square < 64; square++) {
+            board.placePiece(square, ' ');
+        }
+        return board;
+    }
+
+    @Test
+    public void Test_events_ConsoleMoves_InOrderWithWin() throws Exception {
+        ICheckerBoard board = emptyBoard();
+        board.placePiece(new BoardPosition(2, 2), 'x');
+        board.placePiece(new BoardPosition(5, 1), 'x');
+        board.placePiece(new BoardPosition(6, 2), 'o');
+        board.getPieceCounts().put('o', 1);
+        BoardEventPublisher publisher = new BoardEventPublisher(board);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(collector);
+
+        board.movePiece(new BoardPosition(2, 2), DirectionEnum.SE);
+        BoardPosition landing = board.jumpPiece(new BoardPosition(5, 1), DirectionEnum.SE);
+        board.crownPiece(landing);
+        publisher.close();
+
+        assertTrue(collector.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(collector.completed);
+        List<String> expected = List.of("x moved 2,2 -> 3,3", "x jumped 5,1 -> 7,3 capturing o at 6,2", "x won",
+                "X crowned at 7,3");
+        assertEquals(expected, collector.descriptions());
+        BoardEvent.PieceJumped jump = (BoardEvent.PieceJumped) collector.events.get(1);
+        assertEquals(50, jump.getCaptured());
+        assertEquals(7, jump.getRow(jump.getTo()));
+        assertEquals(0, publisher.getSubscriberCount());
+        assertNull(board.getObserver());
+    }
+
+    @Test
+    public void Test_events_RandomGame_OneEventPerStep() throws Exception {
+        GameSession session = new GameSession(new GameConfig());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BoardEventPublisher publisher = new BoardEventPublisher(session.getBoard(), executor, 4096,
+                OverflowPolicy.ERROR);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(collector);
+        Random random = new Random(9);
+        MoveBuffer moves = new MoveBuffer();
+
+        int steps = 0;
+        for (int ply = 0; ply < 150 && session.getLegalMoves(moves) > 0; ply++) {
+            long move = moves.get(random.nextInt(moves.size()));
+            steps += Move.getStepCount(move);
+            session.play(move);
+        }
+        publisher.close();
+        assertTrue(collector.finished.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        int moveEvents = 0;
+        for (BoardEvent event : collector.events) {
+            if (event instanceof BoardEvent.PieceMoved || event instanceof BoardEvent.PieceJumped) {
+                moveEvents++;
+            }
+        }
+        assertNull(collector.error);
+        assertEquals(steps, moveEvents);
+    }
+
+    @Test
+    public void Test_request_DeliversOnlyWhatWasRequested() {
+        GameSession session = new GameSession(new GameConfig());
+        BoardEventPublisher publisher = new BoardEventPublisher(session.getBoard(), Runnable::run, 16,
+                OverflowPolicy.DROP_OLDEST);
+        Collector collector = new Collector(2);
+        publisher.subscribe(collector);
+        MoveBuffer moves = new MoveBuffer();
+
+        for (int ply = 0; ply < 5; ply++) {
+            session.getLegalMoves(moves);
+            session.play(moves.get(0));
+        }
+        assertEquals(2, collector.events.size());
+        collector.subscription.request(10);
+        assertEquals(5, collector.events.size());
+    }
+
+    /**
+     * Queues ten moves for a subscriber with a four event buffer before any are delivered, and returns the
+     * subscriber once everything has been.
+     */
+    private Collector overflow(OverflowPolicy policy)
+    {
+        ManualExecutor executor = new ManualExecutor();
+        ICheckerBoard board = emptyBoard();
+        board.placePiece(new BoardPosition(0, 0), 'x');
+        BoardEventPublisher publisher = new BoardEventPublisher(board, executor, 4, policy);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(collector);
+
+        int square = 0;
+        for (int step = 0; step < 10; step++) {
+            square = board.movePiece(square, step % 2 == 0 ? DirectionEnum.SE : DirectionEnum.NW);
+        }
+        executor.runAll();
+        return collector;
+    }
+
+    @Test
+    public void Test_overflow_DropOldest_KeepsLatest() {
+        Collector collector = overflow(OverflowPolicy.DROP_OLDEST);
+        assertEquals(4, collector.events.size());
+        assertEquals("x moved 0,0 -> 1,1", collector.descriptions().get(2));
+        assertNull(collector.error);
+    }
+
+    @Test
+    public void Test_overflow_DropNewest_KeepsFirst() {
+        Collector collector = overflow(OverflowPolicy.DROP_NEWEST);
+        assertEquals(4, collector.events.size());
+        assertEquals("x moved 1,1 -> 0,0", collector.descriptions().get(3));
+        assertNull(collector.error);
+    }
+
+    @Test
+    public void Test_overflow_Error_EndsSubscription() {
+        Collector collector = overflow(OverflowPolicy.ERROR);
+        assertTrue(collector.error instanceof IllegalStateException);
+        assertFalse(collector.completed);
+    }
+
+    @Test
+    public void Test_request_NotPositive_SignalsError() {
+        BoardEventPublisher publisher = new BoardEventPublisher(emptyBoard(), Runnable::run, 4,
+                OverflowPolicy.DROP_OLDEST);
+        Collector collector = new Collector(0);
+        publisher.subscribe(collector);
+        collector.subscription.request(0);
+        assertTrue(collector.error instanceof IllegalArgumentException);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void Test_cancel_StopsDelivery() {
+        ICheckerBoard board = emptyBoard();
+        board.placePiece(new BoardPosition(0, 0), 'x');
+        BoardEventPublisher publisher = new BoardEventPublisher(board, Runnable::run, 4, OverflowPolicy.DROP_OLDEST);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(collector);
+
+        board.movePiece(0, DirectionEnum.SE);
+        collector.subscription.cancel();
+        board.movePiece(9, DirectionEnum.NW);
+        assertEquals(1, collector.events.size());
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void Test_noSubscribers_MovePathAllocatesNothing() {
+        ICheckerBoard board = new CheckerBoard(new GameConfig());
+        new BoardEventPublisher(board);
+        MoveBuffer moves = new MoveBuffer();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long allocated = 0;
+        for (int round = 0; round < 200; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            char player = 'x';
+            for (int ply = 0; ply < 40 && MoveGenerator.generateMoves(board, player, moves) > 0; ply++) {
+                board.applyMove(moves.get(ply % moves.size()));
+                player = player == 'x' ? 'o' : 'x';
+            }
+            while (!board.getUndoJournal().isEmpty()) {
+                board.undoMove();
+            }
+            allocated = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        assertEquals(0, allocated);
+    }
+}
@@ -0,0 +1,195 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestBoardRenderer
+{
+    private static final int[] DIMENSIONS = {8, 10, 12, 14, 16};
+    private static final char[] PIECES = {' ', ' ', 'x', 'o', 'X', 'O'};
+
+    /**
+     * The text form boards had before BoardRenderer, kept as the reference output.
+     */
+    private static String reference(ICheckerBoard board)
+    {
+        StringBuilder boardString = new StringBuilder("|  |");
+        for (int col = 0; col < board.getColNum(); col++) {
+            boardString.append(String.format("%2d", col)).append("|");
+        }
+        boardString.append("\n");
+        for (int row = 0; row < board.getRowNum(); row++) {
+            boardString.append("|").append(String.format("%-2d", row));
+            for (int col = 0; col < board.getColNum(); col++) {
+                char piece = board.whatsAtPos(row, col);
+                if (piece == ' ') {
+                    piece = (row + col) % 2 == 0 ? ' ' : '*';
+                }
+                boardString.append("|").append(piece).append(" ");
+            }
+            boardString.append("|\n");
+        }
+        return boardString.toString();
+    }
+
+    /**
+     * Puts random pieces, kings included, on every white tile, keeping men off the rows where boards crown them.
+     */
+    private static ICheckerBoard randomBoard(char type, int dim, Random random)
+    {
+        ICheckerBoard board = makeBoard(type, dim);
+        for (int row = 0; row < dim; row++) {
+            for (int col = row % 2; col < dim; col += 2) {
+                char piece = PIECES[random.nextInt(PIECES.length)];
+                if ((row == 0 || row == dim - 1) && Character.isLowerCase(piece)) {
+                    piece = Character.toUpperCase(piece);
+                }
+                board.placePiece(row * dim + col, piece);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Hands text to its target a character at a time, like an Appendable that is neither a StringBuilder nor a
+     * Writer.
+     */
+    private static final class SlowAppendable implements Appendable
+    {
+        final StringBuilder text = new StringBuilder();
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                text.append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            text.append(c);
+            return this;
+        }
+    }
+
+    @Test
+    public void Test_render_MatchesReference_AllBoardsAndSizes() throws IOException {
+        Random random = new Random(20);
+        for (char type : new char[] {'F', 'M', 'B'}) {
+            for (int dim : DIMENSIONS) {
+                for (int trial = 0; trial < 5; trial++) {
+                    ICheckerBoard board = trial == 0 ? makeBoard(type, dim) : randomBoard(type, dim, random);
+                    String expected = reference(board);
+                    BoardRenderer renderer = BoardRenderer.forDimension(dim);
+
+                    assertEquals(expected, board.toString());
+                    assertEquals(expected.length(), renderer.getLength());
+
+                    StringWriter writer = new StringWriter();
+                    renderer.render(board, writer);
+                    assertEquals(expected, writer.toString());
+
+                    SlowAppendable appendable = new SlowAppendable();
+                    renderer.render(board, appendable);
+                    assertEquals(expected, appendable.text.toString());
+
+                    ByteBuffer bytes = ByteBuffer.allocate(renderer.getLength() + 3);
+                    bytes.put((byte) '#');
+                    assertEquals(expected.length(), renderer.render(board, bytes));
+                    assertEquals("#" + expected, new String(bytes.array(), 0, bytes.position(),
+                            StandardCharsets.US_ASCII));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void Test_render_Snapshot_MatchesBoard() {
+        GameSession session = new GameSession(new GameConfig('r', 'b', 14));
+        MoveBuffer moves = new MoveBuffer();
+        Random random = new Random(21);
+        for (int ply = 0; ply < 40 && session.getLegalMoves(moves) > 0; ply++) {
+            session.play(moves.get(random.nextInt(moves.size())));
+        }
+        assertEquals(reference(session.getBoard()), BoardSnapshot.of(session).toString());
+    }
+
+    @Test
+    public void Test_renderViewport_KeepsOnlyTheBlock() throws IOException {
+        ICheckerBoard board = randomBoard('F', 16, new Random(22));
+        String[] lines = reference(board).split("\n");
+        StringBuilder expected = new StringBuilder();
+        int firstRow = 3;
+        int endRow = 9;
+        int firstCol = 5;
+        int endCol = 12;
+        for (int line = 0; line < lines.length; line++) {
+            if (line == 0 || (line - 1 >= firstRow && line - 1 < endRow)) {
+                String text = lines[line];
+                int label = line == 0 ? 4 : 3;
+                expected.append(text, 0, label).append(text, label + firstCol * 3, label + endCol * 3);
+                expected.append(line == 0 ? "" : "|").append("\n");
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        BoardRenderer.forDimension(16).renderViewport(board, firstRow, endRow, firstCol, endCol, out);
+        assertEquals(expected.toString(), out.toString());
+        assertTrue(out.toString().startsWith("|  | 5| 6|"));
+        assertTrue(out.toString().contains("\n|3 |"));
+    }
+
+    @Test
+    public void Test_renderViewport_WholeBoard_SameAsRender() throws IOException {
+        ICheckerBoard board = randomBoard('M', 10, new Random(23));
+        StringBuilder out = new StringBuilder();
+        BoardRenderer.forDimension(10).renderViewport(board, 0, 10, 0, 10, out);
+        assertEquals(board.toString(), out.toString());
+    }
+
+    @Test
+    public void Test_renderRows_ChangedRowsOnly() throws IOException {
+        GameSession session = new GameSession(new GameConfig());
+        BoardSnapshot before = BoardSnapshot.of(session);
+        MoveBuffer moves = new MoveBuffer();
+        session.getLegalMoves(moves);
+        session.play(moves.get(0));
+
+        BoardRenderer renderer = BoardRenderer.forDimension(8);
+        int changed = renderer.changedRows(before, session.getBoard());
+        assertEquals(2, Integer.bitCount(changed));
+
+        StringBuilder out = new StringBuilder();
+        renderer.renderRows(session.getBoard(), changed, out);
+        String[] lines = session.getBoard().toString().split("\n");
+        StringBuilder expected = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            if ((changed & (1 << row)) != 0) {
+                expected.append(lines[row + 1]).append("\n");
+            }
+        }
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(0, renderer.changedRows(session.getBoard(), session.getBoard()));
+    }
+
+    @Test
+    public void Test_forDimension_SharedPerDimension() {
+        assertSame(BoardRenderer.forDimension(12), BoardRenderer.forDimension(12));
+        assertEquals(12 * 3 + 5, BoardRenderer.forDimension(12).getLineLength());
+    }
+}
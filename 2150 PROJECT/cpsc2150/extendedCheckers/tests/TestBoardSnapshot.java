@@ -0,0 +1,155 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.server.GameRegistry;
+import cpsc2150.extendedCheckers.server.HostedGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestBoardSnapshot
+{
+    private static final int READERS = 8;
+    private static final int MAX_PLIES = 150;
+
+    /**
+     * A seeded random game: the moves played and the board text before each move and after the last one.
+     */
+    private static final class Line
+    {
+        final List<Long> moves = new ArrayList<>();
+        final List<String> boards = new ArrayList<>();
+    }
+
+    private static Line randomLine(GameSession session, long seed)
+    {
+        Line line = new Line();
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+        line.boards.add(session.getBoard().toString());
+        while (line.moves.size() < MAX_PLIES && session.getLegalMoves(moves) > 0) {
+            long move = moves.get(random.nextInt(moves.size()));
+            session.play(move);
+            line.moves.add(move);
+            line.boards.add(session.getBoard().toString());
+        }
+        return line;
+    }
+
+    @Test
+    public void Test_toString_MatchesBoard_AllBoardTypes() {
+        GameConfig config = new GameConfig('r', 'b', 10);
+        ICheckerBoard[] boards = {new CheckerBoard(config), new CheckerBoardMem(config), new CheckerBoardBit(config)};
+        for (ICheckerBoard board : boards) {
+            GameSession session = new GameSession(board);
+            Random random = new Random(7);
+            MoveBuffer moves = new MoveBuffer();
+            for (int ply = 0; ply < 60 && session.getLegalMoves(moves) > 0; ply++) {
+                session.play(moves.get(random.nextInt(moves.size())));
+                BoardSnapshot snapshot = BoardSnapshot.of(session);
+                assertEquals(board.toString(), snapshot.toString());
+                assertEquals(session.getMoveCount(), snapshot.getMoveCount());
+                assertEquals(session.getCurrentPlayer(), snapshot.getPlayerToMove());
+                assertEquals(board.getPositionHash(), snapshot.getPositionHash());
+                assertEquals(board.whatsAtPos(3, 1), snapshot.whatsAtPos(3, 1));
+            }
+        }
+    }
+
+    @Test
+    public void Test_snapshot_UnaffectedByLaterMoves() {
+        GameSession session = new GameSession(new GameConfig());
+        BoardSnapshot start = BoardSnapshot.of(session);
+        String before = start.toString();
+
+        Line line = randomLine(session, 3);
+        assertTrue(line.moves.size() > 0);
+        assertEquals(before, start.toString());
+        assertEquals(0, start.getMoveCount());
+        assertEquals(line.boards.get(0), before);
+    }
+
+    @Test
+    public void Test_refresh_ReusesSnapshotUntilPositionChanges() {
+        GameSession session = new GameSession(new GameConfig());
+        BoardSnapshot start = BoardSnapshot.of(session);
+        assertSame(start, BoardSnapshot.refresh(start, session));
+
+        MoveBuffer moves = new MoveBuffer();
+        session.getLegalMoves(moves);
+        session.play(moves.get(0));
+        BoardSnapshot after = BoardSnapshot.refresh(start, session);
+        assertNotSame(start, after);
+        assertEquals(1, after.getMoveCount());
+
+        // A move and its undo leave the position, and so the snapshot, as they were
+        session.undo();
+        assertEquals(start.toString(), BoardSnapshot.refresh(after, session).toString());
+    }
+
+    /**
+     * Plays a precomputed line through game while READERS threads read its snapshot, checking every snapshot read
+     * is exactly the position after its move count and that no reader sees the game go backwards.
+     */
+    private void watchWhilePlaying(HostedGame game) throws Exception
+    {
+        Line line = randomLine(new GameSession(new GameConfig()), 11);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    int last = 0;
+                    while (!done.get()) {
+                        BoardSnapshot snapshot = game.getSnapshot();
+                        assertTrue(snapshot.getMoveCount() >= last);
+                        assertEquals(line.boards.get(snapshot.getMoveCount()), snapshot.toString());
+                        last = snapshot.getMoveCount();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (long move : line.moves) {
+            int played = game.ask(session -> {
+                session.play(move);
+                return session.getMoveCount();
+            }).join();
+            // The mover always sees its own move in the snapshot
+            assertEquals(played, game.getSnapshot().getMoveCount());
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(line.boards.get(line.moves.size()), game.getSnapshot().toString());
+    }
+
+    @Test
+    public void Test_getSnapshot_GameActor_ConsistentUnderConcurrentReads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        watchWhilePlaying(GameRegistry.actors(pool).getOrCreate("watched", new GameConfig()));
+        pool.shutdown();
+    }
+
+    @Test
+    public void Test_getSnapshot_SynchronizedGame_ConsistentUnderConcurrentReads() throws Exception {
+        watchWhilePlaying(GameRegistry.synchronizedGames().getOrCreate("watched", new GameConfig()));
+    }
+}
@@ -547,5 +547,25 @@ public class TestCheckerBoard
         assertEquals(expectedPosition, actualPosition);
     }
 
+    @Test
+    public void Test_copy_IndependentOfOriginal() {
+        ICheckerBoard cb = makeBoard(10);
+        cb.placePiece(new BoardPosition(4, 4), 'X');
+        cb.switchSideToMove();
+
+        ICheckerBoard copy = cb.copy();
+        assertEquals(cb.toString(), copy.toString());
+        assertEquals(cb.getPieceCounts(), copy.getPieceCounts());
+        assertEquals(cb.getPositionHash(), copy.getPositionHash());
+        assertTrue(copy.isSecondPlayerToMove());
+
+        copy.movePiece(new BoardPosition(4, 4), DirectionEnum.SE);
+        copy.jumpPiece(new BoardPosition(6, 6), DirectionEnum.NW);
+        assertEquals('X', cb.whatsAtPos(new BoardPosition(4, 4)));
+        assertEquals('o', cb.whatsAtPos(new BoardPosition(6, 6)));
+        assertNotEquals(cb.toString(), copy.toString());
+        assertNotEquals(cb.getPieceCounts(), copy.getPieceCounts());
+        assertEquals(copy.computePositionHash(), copy.getPositionHash());
+    }
 
 }
@@ -0,0 +1,254 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.server.CheckersClient;
+import cpsc2150.extendedCheckers.server.CheckersServer;
+import cpsc2150.extendedCheckers.server.ServerGame;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestCheckersServer
+{
+    private static final int PAIRS = 40;
+    private static final int IDLE = 500;
+    private static final int MOVES_PER_GAME = 60;
+
+    /**
+     * Returns the board part of an OK BOARD reply, as ICheckerBoard.toString() gives it.
+     */
+    static String boardOf(String reply)
+    {
+        return reply.substring(reply.indexOf('\n') + 1) + "\n";
+    }
+
+    /**
+     * Has one and two join the named game, then plays it with playRandomMoves.
+     */
+    static ICheckerBoard playRandomGame(CheckersClient one, CheckersClient two, String name, int moves,
+                                                long seed) throws Exception
+    {
+        assertTrue(one.command("join " + name).startsWith("OK JOIN " + name + " x 1"));
+        assertTrue(two.command("join " + name).startsWith("OK JOIN " + name + " o 2"));
+        return playRandomMoves(one, two, moves, seed);
+    }
+
+    /**
+     * Plays up to moves random console moves between one and two, who have just joined the same new game,
+     * following along on a local board, and returns that board.
+     */
+    static ICheckerBoard playRandomMoves(CheckersClient one, CheckersClient two, int moves, long seed) throws Exception
+    {
+        ICheckerBoard mirror = new CheckerBoard(new GameConfig());
+        Random random = new Random(seed);
+        char player = 'x';
+        for (int move = 0; move < moves; move++) {
+            List<String> choices = new ArrayList<>();
+            for (int square = 0; square < 64; square++) {
+                BoardPosition pos = new BoardPosition(square / 8, square % 8);
+                if (Character.toLowerCase(mirror.whatsAtPos(square)) == player) {
+                    for (DirectionEnum dir : CheckersFE.filterValidDirections(mirror, player, pos)) {
+                        choices.add(pos.getRow() + " " + pos.getColumn() + " " + dir);
+                    }
+                }
+            }
+            if (choices.isEmpty()) {
+                break;
+            }
+            String[] choice = choices.get(random.nextInt(choices.size())).split(" ");
+            BoardPosition pos = new BoardPosition(Integer.parseInt(choice[0]), Integer.parseInt(choice[1]));
+            DirectionEnum dir = DirectionEnum.valueOf(choice[2]);
+
+            String reply = (player == 'x' ? one : two).command("move " + String.join(" ", choice));
+            BoardPosition landing = ServerGame.playTurn(mirror, player, pos, dir);
+            assertEquals("OK MOVE " + String.join(" ", choice) + " " + landing.getRow() + " " + landing.getColumn(),
+                    reply);
+            // Every turn hands the move to the other side, so the position hash stays a key for the position
+            assertEquals(player == 'x', mirror.isSecondPlayerToMove());
+            assertEquals(mirror.computePositionHash(), mirror.getPositionHash());
+            if (mirror.checkPlayerWin(player)) {
+                break;
+            }
+            player = (player == 'x') ? 'o' : 'x';
+        }
+        return mirror;
+    }
+
+    @Test
+    public void Test_protocol_JoinMoveBoardResign() throws Exception {
+        try (CheckersServer server = new CheckersServer(0);
+             CheckersClient one = new CheckersClient(server.getPort());
+             CheckersClient two = new CheckersClient(server.getPort())) {
+            assertEquals("OK JOIN g x 1", one.command("join g"));
+            assertEquals("ERR waiting for an opponent", one.command("move 2 0 SE"));
+            assertEquals("OK JOIN g o 2", two.command("join g"));
+            assertEquals("EVENT START g x o 8", one.awaitEvent());
+            assertEquals("EVENT START g x o 8", two.awaitEvent());
+
+            assertEquals("ERR not your turn", two.command("move 5 1 NE"));
+            assertEquals("ERR illegal move", one.command("move 2 0 SW"));
+            assertEquals("OK MOVE 2 0 SE 3 1", one.command("move 2 0 se"));
+            assertEquals("EVENT MOVE x 2 0 SE 3 1", two.awaitEvent());
+
+            ICheckerBoard expected = new CheckerBoard(new GameConfig());
+            expected.movePiece(new BoardPosition(2, 0), DirectionEnum.SE);
+            assertEquals(expected.toString(), boardOf(two.command("board")));
+
+            assertEquals("OK RESIGN", two.command("resign"));
+            assertEquals("EVENT WIN x resign", one.awaitEvent());
+            assertEquals("ERR game over", one.command("move 3 1 SE"));
+            assertEquals("OK BYE", one.command("quit"));
+        }
+    }
+
+    @Test
+    public void Test_protocol_Errors() throws Exception {
+        try (CheckersServer server = new CheckersServer(0);
+             CheckersClient one = new CheckersClient(server.getPort());
+             CheckersClient two = new CheckersClient(server.getPort());
+             CheckersClient three = new CheckersClient(server.getPort())) {
+            assertEquals("ERR unknown command fly", one.command("fly 1 2"));
+            assertEquals("ERR not in a game", one.command("move 2 0 SE"));
+            assertEquals("ERR not in a game", one.command("board"));
+            assertTrue(one.command("join big 9").startsWith("ERR Unsupported board size"));
+            assertEquals("OK JOIN big x 1", one.command("join big 12"));
+            assertEquals("ERR usage: move <row> <col> <NE|NW|SE|SW>", one.command("move 2 0 UP"));
+            assertEquals("ERR already in game big", one.command("join other"));
+            assertEquals("OK JOIN big o 2", two.command("join big"));
+            assertEquals("ERR game big is full", three.command("join big"));
+            assertEquals("ERR off the board", one.command("move 12 0 SE"));
+        }
+    }
+
+    @Test
+    public void Test_server_ClientThatStopsReadingDoesNotStallItsOpponent() throws Exception {
+        ExecutorService opponent = Executors.newSingleThreadExecutor();
+        try (CheckersServer server = new CheckersServer(0);
+             Socket stalled = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             CheckersClient two = new CheckersClient(server.getPort())) {
+            Writer out = new OutputStreamWriter(stalled.getOutputStream(), StandardCharsets.UTF_8);
+            BufferedReader in = new BufferedReader(new InputStreamReader(stalled.getInputStream(),
+                    StandardCharsets.UTF_8));
+            out.write("join stall\n");
+            out.flush();
+            assertEquals("OK JOIN stall x 1", in.readLine());
+            assertEquals("OK JOIN stall o 2", two.command("join stall"));
+            out.write("move 2 0 SE\n");
+            out.flush();
+            assertEquals("EVENT START stall x o 8", two.awaitEvent());
+            assertEquals("EVENT MOVE x 2 0 SE 3 1", two.awaitEvent());
+
+            // Player one asks for the board over and over and never reads a reply, filling its socket
+            try {
+                StringBuilder flood = new StringBuilder();
+                for (int i = 0; i < 100_000; i++) {
+                    flood.append("board\n");
+                }
+                out.write(flood.toString());
+                out.flush();
+            } catch (IOException e) {
+                // The server may already have disconnected a client this far behind
+            }
+
+            // Player two's move sends an event to player one, which must not leave the game locked
+            Future<String> board = opponent.submit(() -> {
+                two.command("move 5 1 NE");
+                return two.command("board");
+            });
+            assertTrue(board.get(30, TimeUnit.SECONDS).startsWith("OK BOARD 9"));
+        } finally {
+            opponent.shutdownNow();
+        }
+    }
+
+    @Test
+    public void Test_protocol_WholeGameMatchesLocalBoard() throws Exception {
+        try (CheckersServer server = new CheckersServer(0);
+             CheckersClient one = new CheckersClient(server.getPort());
+             CheckersClient two = new CheckersClient(server.getPort())) {
+            for (long seed = 0; seed < 5; seed++) {
+                ICheckerBoard mirror = playRandomGame(one, two, "game" + seed, 400, seed);
+                assertEquals(mirror.toString(), boardOf(one.command("board")));
+                one.command("resign");
+                two.command("resign");
+            }
+        }
+    }
+
+    @Test
+    public void Test_endTurn_PassHandsOverTheBoardLikeAMove() {
+        ICheckerBoard passed = new CheckerBoard(new GameConfig());
+        ICheckerBoard played = new CheckerBoard(new GameConfig());
+
+        // x passes on one board and moves on the other; either way o is to move next
+        assertEquals('o', CheckersFE.endTurn(passed, 'x'));
+        assertNotNull(ServerGame.playTurn(played, 'x', new BoardPosition(2, 0), DirectionEnum.SE));
+        assertEquals(played.isSecondPlayerToMove(), passed.isSecondPlayerToMove());
+        assertTrue(passed.isSecondPlayerToMove());
+        assertEquals(passed.computePositionHash(), passed.getPositionHash());
+
+        // o's reply hands both boards back to x, and the passed board hashes as o's move alone
+        assertNotNull(ServerGame.playTurn(passed, 'o', new BoardPosition(5, 1), DirectionEnum.NE));
+        assertNotNull(ServerGame.playTurn(played, 'o', new BoardPosition(5, 1), DirectionEnum.NE));
+        assertEquals(played.isSecondPlayerToMove(), passed.isSecondPlayerToMove());
+        assertFalse(passed.isSecondPlayerToMove());
+        assertEquals(passed.computePositionHash(), passed.getPositionHash());
+        ICheckerBoard expected = new CheckerBoard(new GameConfig());
+        expected.movePiece(new BoardPosition(5, 1), DirectionEnum.NE);
+        assertEquals(expected.getPositionHash(), passed.getPositionHash());
+    }
+
+    @Test
+    public void Test_server_ConcurrentGamesWithIdleConnections() throws Exception {
+        try (CheckersServer server = new CheckersServer(0)) {
+            List<Socket> idle = new ArrayList<>();
+            ExecutorService pool = Executors.newFixedThreadPool(PAIRS);
+            try {
+                for (int i = 0; i < IDLE; i++) {
+                    idle.add(new Socket(InetAddress.getLoopbackAddress(), server.getPort()));
+                }
+
+                List<Future<String>> games = new ArrayList<>();
+                for (int pair = 0; pair < PAIRS; pair++) {
+                    final int seed = pair;
+                    games.add(pool.submit(() -> {
+                        try (CheckersClient one = new CheckersClient(server.getPort());
+                             CheckersClient two = new CheckersClient(server.getPort())) {
+                            ICheckerBoard mirror = playRandomGame(one, two, "pair" + seed, MOVES_PER_GAME, seed);
+                            assertEquals(mirror.toString(), boardOf(two.command("board")));
+                            return mirror.toString();
+                        }
+                    }));
+                }
+                for (Future<String> game : games) {
+                    game.get(2, TimeUnit.MINUTES);
+                }
+                assertTrue(server.getConnectionCount() >= IDLE);
+            } finally {
+                pool.shutdown();
+                for (Socket socket : idle) {
+                    socket.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.server.BoardFrame;
+import cpsc2150.extendedCheckers.server.DeltaBroadcaster;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestDeltaBroadcaster
+{
+    private static char[] squaresOf(ICheckerBoard board)
+    {
+        char[] squares = new char[board.getRowNum() * board.getColNum()];
+        for (int square = 0; square < squares.length; square++) {
+            squares[square] = board.whatsAtPos(square);
+        }
+        return squares;
+    }
+
+    /**
+     * Applies every frame the subscription has waiting to replica, returning how many there were.
+     */
+    private static int catchUp(DeltaBroadcaster.Subscription subscription, char[] replica)
+    {
+        int frames = 0;
+        for (BoardFrame frame = subscription.poll(); frame != null; frame = subscription.poll()) {
+            frame.applyTo(replica);
+            frames++;
+        }
+        return frames;
+    }
+
+    private static ICheckerBoard emptyBoard(GameConfig config)
+    {
+        ICheckerBoard board = new CheckerBoard(config);
+        for (int square = 0; square < config.getDimension() * config.getDimension(); square++) {
+            board.placePiece(square, ' ');
+        }
+        return board;
+    }
+
+    /**
+     * Plays a random game on board with a subscriber catching up after every move, undoing now and then, and
+     * checks the subscriber's copy always matches the board.
+     */
+    private void followRandomGame(ICheckerBoard board, long seed)
+    {
+        GameSession session = new GameSession(board);
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(board);
+        DeltaBroadcaster.Subscription subscription = broadcaster.subscribe();
+        char[] replica = new char[board.getRowNum() * board.getColNum()];
+        catchUp(subscription, replica);
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+
+        for (int ply = 0; ply < 200 && session.getLegalMoves(moves) > 0; ply++) {
+            if (session.getMoveCount() > 0 && random.nextInt(10) == 0) {
+                session.undo();
+            } else {
+                session.play(moves.get(random.nextInt(moves.size())));
+            }
+            broadcaster.flush();
+            assertEquals(1, catchUp(subscription, replica));
+            assertArrayEquals(squaresOf(board), replica);
+        }
+        assertEquals(broadcaster.getSequence(), subscription.getPosition());
+        assertEquals(0, subscription.getSkippedFrames());
+        broadcaster.close();
+        assertNull(board.getObserver());
+    }
+
+    @Test
+    public void Test_subscriber_FollowsRandomGames_AllBoardTypes() {
+        followRandomGame(new CheckerBoard(new GameConfig()), 1);
+        followRandomGame(new CheckerBoardMem(new GameConfig('r', 'b', 12)), 2);
+        followRandomGame(new CheckerBoardBit(new GameConfig('x', 'o', 16)), 3);
+    }
+
+    @Test
+    public void Test_flush_ConsoleMoveWithCrowning_EncodesOneDelta() {
+        ICheckerBoard board = emptyBoard(new GameConfig());
+        board.placePiece(new BoardPosition(6, 2), 'x');
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(board);
+        DeltaBroadcaster.Subscription subscription = broadcaster.subscribe();
+        BoardFrame start = subscription.poll();
+        assertTrue(start.isKeyframe());
+        assertEquals(0, start.getSequence());
+
+        BoardPosition landing = board.movePiece(new BoardPosition(6, 2), DirectionEnum.SE);
+        board.crownPiece(landing);
+        broadcaster.flush();
+
+        BoardFrame frame = subscription.poll();
+        byte[] expected = {BoardFrame.DELTA, 0, 0, 0, 1, BoardFrame.VACATE, 50, BoardFrame.FILL, 59, 'x',
+                BoardFrame.CROWN, 59};
+        assertFalse(frame.isKeyframe());
+        assertEquals(1, frame.getSequence());
+        assertArrayEquals(expected, frame.toByteArray());
+        assertNull(subscription.poll());
+
+        char[] replica = start.keyframeSquares();
+        frame.applyTo(replica);
+        assertArrayEquals(squaresOf(board), replica);
+        assertEquals('X', replica[59]);
+    }
+
+    @Test
+    public void Test_flush_AfterUndo_PublishesKeyframe() {
+        GameSession session = new GameSession(new GameConfig());
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(session.getBoard());
+        DeltaBroadcaster.Subscription subscription = broadcaster.subscribe();
+        subscription.poll();
+        MoveBuffer moves = new MoveBuffer();
+
+        session.getLegalMoves(moves);
+        session.play(moves.get(0));
+        session.undo();
+        broadcaster.flush();
+
+        BoardFrame frame = subscription.poll();
+        assertTrue(frame.isKeyframe());
+        assertEquals(1, frame.getSequence());
+        assertSame(frame, broadcaster.getKeyframe());
+        assertArrayEquals(squaresOf(session.getBoard()), frame.keyframeSquares());
+    }
+
+    @Test
+    public void Test_flush_NothingChanged_PublishesNothing() {
+        ICheckerBoard board = new CheckerBoard(new GameConfig());
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(board);
+        broadcaster.flush();
+        assertEquals(0, broadcaster.getSequence());
+    }
+
+    @Test
+    public void Test_poll_SlowSubscriber_SkipsToKeyframe() {
+        GameSession session = new GameSession(new GameConfig());
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(session.getBoard(), 8, 4);
+        DeltaBroadcaster.Subscription slow = broadcaster.subscribe();
+        char[] replica = new char[64];
+        catchUp(slow, replica);
+        Random random = new Random(4);
+        MoveBuffer moves = new MoveBuffer();
+
+        for (int ply = 0; ply < 30 && session.getLegalMoves(moves) > 0; ply++) {
+            session.play(moves.get(random.nextInt(moves.size())));
+            broadcaster.flush();
+        }
+        BoardFrame first = slow.poll();
+        assertTrue(first.isKeyframe());
+        assertTrue(slow.getSkippedFrames() > 0);
+        first.applyTo(replica);
+        catchUp(slow, replica);
+
+        assertArrayEquals(squaresOf(session.getBoard()), replica);
+        assertEquals(broadcaster.getSequence(), slow.getPosition());
+    }
+
+    @Test
+    public void Test_poll_SubscribersShareFrames() {
+        GameSession session = new GameSession(new GameConfig());
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(session.getBoard());
+        DeltaBroadcaster.Subscription one = broadcaster.subscribe();
+        DeltaBroadcaster.Subscription two = broadcaster.subscribe();
+        assertSame(one.poll(), two.poll());
+
+        MoveBuffer moves = new MoveBuffer();
+        session.getLegalMoves(moves);
+        session.play(moves.get(0));
+        broadcaster.flush();
+        assertSame(one.poll(), two.poll());
+    }
+
+    @Test
+    public void Test_subscribers_ConcurrentWithPlayer_EndOnFinalPosition() throws Exception {
+        GameSession session = new GameSession(new GameConfig('r', 'b', 10));
+        DeltaBroadcaster broadcaster = new DeltaBroadcaster(session.getBoard(), 16, 8);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<char[]> replicas = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int thread = 0; thread < 4; thread++) {
+            List<DeltaBroadcaster.Subscription> subscriptions = new ArrayList<>();
+            List<char[]> mine = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                subscriptions.add(broadcaster.subscribe());
+                mine.add(new char[100]);
+            }
+            replicas.addAll(mine);
+            Thread reader = new Thread(() -> {
+                try {
+                    boolean last = false;
+                    while (!last) {
+                        last = done.get();
+                        for (int i = 0; i < subscriptions.size(); i++) {
+                            catchUp(subscriptions.get(i), mine.get(i));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        Random random = new Random(5);
+        MoveBuffer moves = new MoveBuffer();
+        for (int ply = 0; ply < 2000; ply++) {
+            if (session.getMoveCount() >= 150 || session.getLegalMoves(moves) == 0) {
+                while (session.getMoveCount() > 0) {
+                    session.undo();
+                }
+                session.getLegalMoves(moves);
+            }
+            session.play(moves.get(random.nextInt(moves.size())));
+            broadcaster.flush();
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        for (char[] replica : replicas) {
+            assertArrayEquals(squaresOf(session.getBoard()), replica);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Test_constructor_CapacityNotPowerOfTwo_Throws() {
+        new DeltaBroadcaster(new CheckerBoard(new GameConfig()), 100, 10);
+    }
+}
@@ -0,0 +1,197 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.server.GameActor;
+import cpsc2150.extendedCheckers.server.GameRegistry;
+import cpsc2150.extendedCheckers.server.HostedGame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestGameActor
+{
+    private static final int THREADS = 8;
+    private static final int COMMANDS = 400;
+    private static final int GAMES = 16;
+
+    /**
+     * The moves a hosted game has played, in order. Only commands running on the game touch it.
+     */
+    private static final class History
+    {
+        final List<Long> moves = new ArrayList<>();
+    }
+
+    /**
+     * Plays a random legal move, or takes the last one back when the game is over, recording what it did.
+     * Commands that run at the same time as another would break the counts this checks.
+     */
+    private static Integer playOrUndo(GameSession session, History history, Random random)
+    {
+        assertEquals(history.moves.size(), session.getMoveCount());
+        MoveBuffer moves = new MoveBuffer();
+        if (session.getLegalMoves(moves) == 0) {
+            session.undo();
+            history.moves.remove(history.moves.size() - 1);
+        } else {
+            long move = moves.get(random.nextInt(moves.size()));
+            session.play(move);
+            history.moves.add(move);
+        }
+        return session.getMoveCount();
+    }
+
+    /**
+     * Has THREADS threads hammer GAMES games in registry with moves and renders, then checks each game's board
+     * matches a single-threaded replay of the moves it recorded.
+     */
+    private void hammer(GameRegistry registry) throws Exception
+    {
+        GameConfig config = new GameConfig();
+        History[] histories = new History[GAMES];
+        for (int game = 0; game < GAMES; game++) {
+            histories[game] = new History();
+            registry.getOrCreate("game-" + game, config);
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final long seed = thread;
+            results.add(clients.submit(() -> {
+                Random random = new Random(seed);
+                List<CompletableFuture<?>> pending = new ArrayList<>();
+                for (int i = 0; i < COMMANDS; i++) {
+                    int game = random.nextInt(GAMES);
+                    History history = histories[game];
+                    long commandSeed = random.nextLong();
+                    HostedGame hosted = registry.get("game-" + game);
+                    if (i % 4 == 0) {
+                        pending.add(hosted.ask(session -> session.getBoard().toString()));
+                    } else {
+                        pending.add(hosted.ask(session -> playOrUndo(session, history, new Random(commandSeed))));
+                    }
+                }
+                for (CompletableFuture<?> future : pending) {
+                    future.join();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.SECONDS));
+
+        int played = 0;
+        for (int game = 0; game < GAMES; game++) {
+            GameSession replay = new GameSession(config);
+            for (long move : histories[game].moves) {
+                replay.play(move);
+            }
+            String board = registry.get("game-" + game).ask(session -> session.getBoard().toString()).join();
+            assertEquals(replay.getBoard().toString(), board);
+            played += histories[game].moves.size();
+        }
+        assertTrue(played > 0);
+    }
+
+    @Test
+    public void Test_GameActor_ConcurrentCommands_MatchReplay() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        hammer(GameRegistry.actors(pool));
+        pool.shutdown();
+    }
+
+    @Test
+    public void Test_SynchronizedGame_ConcurrentCommands_MatchReplay() throws Exception {
+        hammer(GameRegistry.synchronizedGames());
+    }
+
+    @Test
+    public void Test_GameActor_RunsCommandsInOrderOneAtATime() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        GameActor actor = new GameActor("ordered", new GameSession(new GameConfig()), pool);
+        AtomicInteger running = new AtomicInteger();
+        List<Integer> order = new ArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            final int index = i;
+            futures.add(actor.ask(session -> {
+                assertEquals(1, running.incrementAndGet());
+                order.add(index);
+                running.decrementAndGet();
+                return index;
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, (int) futures.get(i).join());
+        }
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        assertEquals(0, actor.getQueuedCommands());
+        pool.shutdown();
+    }
+
+    @Test
+    public void Test_GameActor_FailedCommand_CompletesExceptionally() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        GameActor actor = new GameActor("failing", new GameSession(new GameConfig()), pool);
+
+        CompletableFuture<Object> failed = actor.ask(session -> {
+            session.undo();
+            return null;
+        });
+        try {
+            failed.join();
+            fail("undo with no moves should fail");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // The actor keeps serving commands after one fails
+        assertEquals(0, (int) actor.ask(GameSession::getMoveCount).join());
+        pool.shutdown();
+    }
+
+    @Test
+    public void Test_GameRegistry_GetOrCreate_OneGamePerId() throws Exception {
+        GameRegistry registry = GameRegistry.synchronizedGames();
+        GameConfig config = new GameConfig();
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        List<Future<HostedGame>> results = new ArrayList<>();
+
+        for (int i = 0; i < THREADS * 50; i++) {
+            final String id = "game-" + (i % 10);
+            results.add(clients.submit(() -> registry.getOrCreate(id, config)));
+        }
+        Set<HostedGame> distinct = new HashSet<>();
+        for (Future<HostedGame> result : results) {
+            HostedGame game = result.get();
+            assertSame(registry.get(game.getId()), game);
+            distinct.add(game);
+        }
+        clients.shutdown();
+
+        assertEquals(10, distinct.size());
+        assertEquals(10, registry.size());
+        assertNotNull(registry.remove("game-3"));
+        assertNull(registry.get("game-3"));
+        assertEquals(9, registry.games().size());
+    }
+}
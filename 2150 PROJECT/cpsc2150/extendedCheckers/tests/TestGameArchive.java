@@ -0,0 +1,194 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.records.GameArchive;
+import cpsc2150.extendedCheckers.records.GameArchiveWriter;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.records.GameRecordCodec;
+import cpsc2150.extendedCheckers.records.GameRecorder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestGameArchive
+{
+    private static final int MAX_PLIES = 200;
+
+    //small chunks make a small file cross many chunk boundaries
+    private static final int CHUNK_BYTES = 4096;
+
+    private static final GameConfig EIGHT = new GameConfig();
+    private static final GameConfig TEN = new GameConfig('r', 'b', 10);
+
+    /**
+     * Returns count random games, every third one on a 10x10 board between 'r' and 'b'.
+     */
+    private static List<GameRecord> randomGames(int count, long seed)
+    {
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+        List<GameRecord> games = new ArrayList<>();
+        for (int game = 0; game < count; game++) {
+            GameSession session = new GameSession(game % 3 == 2 ? TEN : EIGHT);
+            GameRecorder recorder = GameRecorder.attach(session.getBoard());
+            int plies = random.nextInt(MAX_PLIES);
+            while (session.getMoveCount() < plies && session.getLegalMoves(moves) > 0) {
+                session.play(moves.get(random.nextInt(moves.size())));
+            }
+            games.add(recorder.toRecord(session.getWinner()));
+        }
+        return games;
+    }
+
+    private static Path write(List<GameRecord> games) throws IOException
+    {
+        Path path = Files.createTempFile("games", ".cka");
+        Files.delete(path);
+        try (GameArchiveWriter writer = GameArchiveWriter.open(path)) {
+            for (GameRecord record : games) {
+                writer.append(record);
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void Test_get_EveryGameById() throws IOException {
+        List<GameRecord> games = randomGames(600, 1);
+        Path path = write(games);
+        try {
+            assertTrue(Files.size(path) > 10 * CHUNK_BYTES);
+            GameArchive archive = GameArchive.open(path, CHUNK_BYTES);
+            assertEquals(games.size(), archive.size());
+
+            // Fetch in a scattered order
+            for (int i = 0; i < games.size(); i++) {
+                int id = (i * 337) % games.size();
+                assertEquals(games.get(id), archive.get(id));
+                ByteBuffer bytes = archive.getBytes(id);
+                assertTrue(bytes.isDirect());
+                assertTrue(bytes.isReadOnly());
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                assertArrayEquals(GameRecordCodec.encode(games.get(id)), copy);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void Test_get_OutOfRangeIds() throws IOException {
+        Path path = write(randomGames(3, 2));
+        try {
+            GameArchive archive = GameArchive.open(path);
+            for (long id : new long[] {-1, 3}) {
+                try {
+                    archive.get(id);
+                    fail("Fetched game " + id);
+                } catch (IndexOutOfBoundsException e) {
+                    // expected
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void Test_writer_ReopenAppendsAfterCommittedGames() throws IOException {
+        List<GameRecord> games = randomGames(300, 3);
+        Path path = write(games.subList(0, 100));
+        try {
+            try (GameArchiveWriter writer = GameArchiveWriter.open(path)) {
+                assertEquals(100, writer.getGameCount());
+                for (int i = 100; i < 200; i++) {
+                    assertEquals(i, writer.append(games.get(i)));
+                }
+                writer.commit();
+                assertEquals(200, GameArchive.open(path).size());
+                for (int i = 200; i < 300; i++) {
+                    writer.append(games.get(i));
+                }
+                assertEquals(200, writer.getCommittedCount());
+            }
+
+            GameArchive archive = GameArchive.open(path, CHUNK_BYTES);
+            assertEquals(300, archive.size());
+            for (int id = 0; id < 300; id++) {
+                assertEquals(games.get(id), archive.get(id));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void Test_scan_ReplaysMatchingGamesOnOneBoard() throws IOException {
+        List<GameRecord> games = randomGames(300, 4);
+        Path path = write(games);
+        try {
+            GameArchive archive = GameArchive.open(path, CHUNK_BYTES);
+            List<Long> visited = new ArrayList<>();
+            long count = archive.scan(new CheckerBoardMem(EIGHT), (id, board, steps, winner) -> {
+                GameRecord record = games.get((int) id);
+                assertEquals(EIGHT, record.getConfig());
+                assertEquals(record.getStepCount(), steps);
+                assertEquals(record.getWinner(), winner);
+                assertEquals(record.replay().toString(), board.toString());
+                assertEquals(record.replay(new CheckerBoardMem(EIGHT)).getPieceCounts(), board.getPieceCounts());
+                visited.add(id);
+            });
+            assertEquals(200, count);
+            assertEquals(200, visited.size());
+
+            // A range scan on the other configuration sees only its games in the range
+            long ten = archive.scan(50, 80, new CheckerBoardBit(TEN), (id, board, steps, winner) -> {
+                assertTrue(id >= 50 && id < 80 && id % 3 == 2);
+                assertEquals(games.get((int) id).replay().toString(), board.toString());
+            });
+            assertEquals(10, ten);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void Test_open_EmptyAndDamagedArchives() throws IOException {
+        Path path = write(new ArrayList<>());
+        Path other = Files.createTempFile("not-games", ".txt");
+        try {
+            GameArchive empty = GameArchive.open(path);
+            assertEquals(0, empty.size());
+            assertEquals(0, empty.scan(new CheckerBoard(EIGHT),
+                    (id, board, steps, winner) -> fail("Visited game " + id)));
+
+            try (GameArchiveWriter writer = GameArchiveWriter.open(path)) {
+                writer.append(randomGames(1, 5).get(0));
+            }
+            // Bytes after the last commit mean a writer stopped part way
+            Files.write(path, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+            Files.write(other, "[Result \"*\"]".getBytes());
+            for (Path damaged : new Path[] {path, other}) {
+                try {
+                    GameArchive.open(damaged);
+                    fail("Opened " + damaged);
+                } catch (IOException e) {
+                    // expected
+                }
+            }
+        } finally {
+            Files.delete(path);
+            Files.delete(other);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.records.GameRecordCodec;
+import cpsc2150.extendedCheckers.records.GameRecorder;
+import cpsc2150.extendedCheckers.records.PdnCodec;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestGameRecord
+{
+    private static final int GAMES = 40;
+    private static final int MAX_PLIES = 300;
+
+    /**
+     * Plays a random game through a GameSession with a recorder attached and returns the record, checking that the
+     * recorder saw one turn per move.
+     */
+    private static GameRecord playRandomGame(ICheckerBoard board, Random random)
+    {
+        GameRecorder recorder = GameRecorder.attach(board);
+        GameSession session = new GameSession(board);
+        MoveBuffer moves = new MoveBuffer();
+
+        while (session.getMoveCount() < MAX_PLIES && session.getLegalMoves(moves) > 0) {
+            session.play(moves.get(random.nextInt(moves.size())));
+        }
+        assertEquals(session.getMoveCount(), recorder.getTurnCount());
+        return recorder.toRecord(session.getWinner());
+    }
+
+    private static List<GameRecord> randomGames(long seed)
+    {
+        Random random = new Random(seed);
+        char[] types = {'F', 'M', 'B'};
+        int[] dimensions = {8, 10, 12, 16};
+        List<GameRecord> games = new ArrayList<>();
+        for (int game = 0; game < GAMES; game++) {
+            GameConfig config = new GameConfig((char) ('a' + game % 13), (char) ('n' + game % 13),
+                    dimensions[game % dimensions.length]);
+            ICheckerBoard board = makeBoard(types[game % types.length], config);
+            GameRecord record = playRandomGame(board, random);
+            assertEquals(board.toString(), record.replay().toString());
+            games.add(record);
+        }
+        return games;
+    }
+
+    @Test
+    public void Test_replay_RandomGames_ReachSamePosition() {
+        // randomGames checks every replay against the board the game was played on
+        for (GameRecord record : randomGames(1)) {
+            ICheckerBoard board = record.replay(new CheckerBoardMem(record.getConfig()));
+            assertEquals(record.replay().toString(), board.toString());
+        }
+    }
+
+    @Test
+    public void Test_binary_RoundTrip() {
+        List<GameRecord> games = randomGames(2);
+        int total = 0;
+        for (GameRecord record : games) {
+            total += GameRecordCodec.encodedLength(record);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (GameRecord record : games) {
+            GameRecordCodec.encode(record, buffer);
+        }
+        assertEquals(total, buffer.position());
+
+        buffer.flip();
+        for (GameRecord record : games) {
+            assertEquals(record, GameRecordCodec.decode(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void Test_binary_EightByEightStepsTakeOneByte() {
+        GameRecord record = playRandomGame(new CheckerBoard(new GameConfig()), new Random(3));
+        byte[] bytes = GameRecordCodec.encode(record);
+
+        // dimension, two players, winner and a one-byte step count
+        int header = record.getStepCount() < 128 ? 5 : 6;
+        assertEquals(header + record.getStepCount(), bytes.length);
+        assertEquals(record, GameRecordCodec.decode(bytes));
+    }
+
+    @Test
+    public void Test_binary_CorruptRecordsAreRejected() {
+        byte[] bytes = GameRecordCodec.encode(playRandomGame(new CheckerBoard(new GameConfig()), new Random(4)));
+
+        byte[] badSize = bytes.clone();
+        badSize[0] = 9;
+        byte[] badWinner = bytes.clone();
+        badWinner[3] = 7;
+        for (byte[] corrupt : new byte[][] {badSize, badWinner}) {
+            try {
+                GameRecordCodec.decode(corrupt);
+                fail("Decoded a corrupt record");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void Test_pdn_RoundTrip() {
+        for (GameRecord record : randomGames(5)) {
+            String text = PdnCodec.toPdn(record);
+            GameRecord parsed = PdnCodec.parse(text);
+            assertEquals(record, parsed);
+            assertEquals(text, PdnCodec.toPdn(parsed));
+        }
+    }
+
+    @Test
+    public void Test_pdn_ParseAllReadsEveryGame() {
+        List<GameRecord> games = randomGames(6);
+        StringBuilder text = new StringBuilder();
+        for (GameRecord record : games) {
+            text.append(PdnCodec.toPdn(record));
+        }
+        assertEquals(games, PdnCodec.parseAll(text));
+    }
+
+    @Test
+    public void Test_pdn_ParsesCommentsNumbersAndMarks() {
+        String text = "[Event \"club night\"]\n[Result \"*\"]\n\n" +
+                "1. 9-13 {a quiet start} 22-18 2. 13x22! ; forced\n" +
+                "(2. 10-14 $2) 26x19 $1 *";
+        GameRecord record = PdnCodec.parse(text);
+
+        assertEquals(new GameConfig(), record.getConfig());
+        assertEquals(CheckerBoard.EMPTY_POS, record.getWinner());
+        assertEquals(4, record.getStepCount());
+        assertEquals(GameRecord.step(PdnCodec.squareOf(9, 8), DirectionEnum.SE), record.getStep(0));
+        assertEquals(GameRecord.step(PdnCodec.squareOf(22, 8), DirectionEnum.NW), record.getStep(1));
+        assertEquals(GameRecord.step(PdnCodec.squareOf(13, 8), DirectionEnum.SE), record.getStep(2));
+        assertEquals(GameRecord.step(PdnCodec.squareOf(26, 8), DirectionEnum.NE), record.getStep(3));
+
+        ICheckerBoard board = record.replay();
+        assertEquals('o', board.whatsAtPos(PdnCodec.squareOf(19, 8)));
+        assertEquals(11, (int) board.getPieceCounts().get('x'));
+        assertEquals(11, (int) board.getPieceCounts().get('o'));
+    }
+
+    /**
+     * Returns an 8x8 board with one 'x' man about to capture and crown, and two 'o' men.
+     */
+    private static ICheckerBoard consoleStart()
+    {
+        ICheckerBoard board = new CheckerBoard(new GameConfig());
+        for (int square = 0; square < 64; square++) {
+            board.placePiece(square, ' ');
+        }
+        board.placePiece(new BoardPosition(5, 1), 'x');
+        board.placePiece(new BoardPosition(6, 2), 'o');
+        board.placePiece(new BoardPosition(3, 5), 'o');
+        return board;
+    }
+
+    @Test
+    public void Test_recorder_ConsoleMovesWithCrowning() {
+        // The console plays single steps and crowns with crownPiece, as CheckersFE does
+        ICheckerBoard board = consoleStart();
+        GameRecorder recorder = GameRecorder.attach(board);
+
+        board.movePiece(new BoardPosition(3, 5), DirectionEnum.NE);
+        BoardPosition landed = board.jumpPiece(new BoardPosition(5, 1), DirectionEnum.SE);
+        board.crownPiece(landed);
+        board.movePiece(new BoardPosition(2, 6), DirectionEnum.NW);
+        board.movePiece(landed, DirectionEnum.NE);
+        GameRecord record = recorder.toRecord('x');
+        assertEquals(4, record.getStepCount());
+
+        // Replay needs the same starting position
+        ICheckerBoard replayed = record.replay(consoleStart());
+        assertEquals(board.toString(), replayed.toString());
+        assertEquals('X', replayed.whatsAtPos(new BoardPosition(6, 4)));
+    }
+
+    @Test
+    public void Test_recorder_FollowsUndo() {
+        ICheckerBoard board = new CheckerBoard(new GameConfig());
+        GameRecorder recorder = GameRecorder.attach(board);
+        GameSession session = new GameSession(board);
+        Random random = new Random(7);
+        MoveBuffer moves = new MoveBuffer();
+        List<Integer> stepCounts = new ArrayList<>();
+
+        while (session.getMoveCount() < 80 && session.getLegalMoves(moves) > 0) {
+            stepCounts.add(recorder.getStepCount());
+            session.play(moves.get(random.nextInt(moves.size())));
+        }
+        for (int ply = stepCounts.size() - 1; ply >= stepCounts.size() / 2; ply--) {
+            session.undo();
+            assertEquals((int) stepCounts.get(ply), recorder.getStepCount());
+        }
+        assertEquals(board.toString(), recorder.toRecord(CheckerBoard.EMPTY_POS).replay().toString());
+    }
+}
@@ -0,0 +1,226 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestGameSession
+{
+    private static final int GAMES = 3000;
+    private static final int THREADS = 8;
+    private static final int MAX_PLIES = 200;
+    private static final int[] DIMENSIONS = {8, 10, 12};
+
+    /**
+     * The outcome of one random game, with the game's own letters replaced by 'x' and 'o' so games between
+     * different letters can be compared.
+     */
+    private static final class Outcome
+    {
+        final List<Long> moves = new ArrayList<>();
+        String squares;
+        char winner;
+        int plies;
+    }
+
+    /**
+     * Returns the letters of game number game: every pair of distinct letters comes up as the games go on.
+     */
+    private static GameConfig configFor(int game)
+    {
+        char playerOne = (char) ('a' + game % 26);
+        char playerTwo = (char) ('a' + (game % 26 + 1 + (game / 26) % 25) % 26);
+        return new GameConfig(playerOne, playerTwo, DIMENSIONS[game % DIMENSIONS.length]);
+    }
+
+    private static char canonical(char piece, GameConfig config)
+    {
+        if (Character.toLowerCase(piece) == config.getPlayerOne()) {
+            return Character.isUpperCase(piece) ? 'X' : 'x';
+        }
+        if (Character.toLowerCase(piece) == config.getPlayerTwo()) {
+            return Character.isUpperCase(piece) ? 'O' : 'o';
+        }
+        return piece;
+    }
+
+    /**
+     * Plays a seeded random game through a GameSession, checking after every move that only the game's own
+     * letters are on its board.
+     */
+    private static Outcome playRandomGame(char type, GameConfig config, long seed)
+    {
+        GameSession session = new GameSession(makeBoard(type, config));
+        ICheckerBoard board = session.getBoard();
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+        Outcome outcome = new Outcome();
+
+        while (outcome.plies < MAX_PLIES && session.getLegalMoves(moves) > 0) {
+            long move = moves.get(random.nextInt(moves.size()));
+            session.play(move);
+            outcome.moves.add(move);
+            outcome.plies++;
+
+            for (int square = 0; square < board.getRowNum() * board.getColNum(); square++) {
+                char piece = board.whatsAtPos(square);
+                if (Character.isLetter(piece) && !config.isPiece(piece)) {
+                    throw new AssertionError("Game " + config + " found '" + piece + "' on its board");
+                }
+            }
+        }
+
+        StringBuilder squares = new StringBuilder();
+        for (int square = 0; square < board.getRowNum() * board.getColNum(); square++) {
+            squares.append(canonical(board.whatsAtPos(square), config));
+        }
+        outcome.squares = squares.toString();
+        outcome.winner = session.isOver() ? canonical(session.getWinner(), config) : CheckerBoard.EMPTY_POS;
+        return outcome;
+    }
+
+    @Test
+    public void Test_constructor_UsesConfigPlayersNotCheckersFE() {
+        CheckersFE.setPlayers('x', 'o');
+        GameConfig config = new GameConfig('q', 'k', 10);
+        ICheckerBoard[] boards = {new CheckerBoard(config), new CheckerBoardMem(config), new CheckerBoardBit(config)};
+
+        for (ICheckerBoard cb : boards) {
+            assertSame(config, cb.getConfig());
+            assertEquals(10, cb.getRowNum());
+            assertEquals('q', cb.whatsAtPos(new BoardPosition(0, 0)));
+            assertEquals('k', cb.whatsAtPos(new BoardPosition(9, 9)));
+            assertEquals(20, (int) cb.getPieceCounts().get('q'));
+            assertEquals(config, cb.copy().getConfig());
+        }
+    }
+
+    @Test
+    public void Test_constructor_SizeOnlyUsesCheckersFEShim() {
+        CheckersFE.setPlayers('r', 'b');
+        ICheckerBoard cb = new CheckerBoardMem(8);
+        CheckersFE.setPlayers('x', 'o');
+
+        assertEquals(new GameConfig('r', 'b', 8), cb.getConfig());
+        assertEquals('r', cb.whatsAtPos(new BoardPosition(0, 0)));
+    }
+
+    @Test
+    public void Test_gameConfig_RejectsInvalidSettings() {
+        char[][] players = {{'x', 'x'}, {'x', 'X'}, {'1', 'o'}, {'x', '*'}};
+        for (char[] pair : players) {
+            try {
+                new GameConfig(pair[0], pair[1], 8);
+                fail("Accepted " + pair[0] + " and " + pair[1]);
+            } catch (IllegalArgumentException expected) {
+                // rejected as it should be
+            }
+        }
+        int[] sizes = {6, 9, 18};
+        for (int size : sizes) {
+            try {
+                new GameConfig('x', 'o', size);
+                fail("Accepted size " + size);
+            } catch (IllegalArgumentException expected) {
+                // rejected as it should be
+            }
+        }
+        assertEquals('a', new GameConfig('A', 'b', 8).getPlayerOne());
+    }
+
+    @Test
+    public void Test_checkPlayerWin_UsesBoardConfig() {
+        GameConfig config = new GameConfig('m', 'n', 8);
+        ICheckerBoard cb = new CheckerBoardBit(config);
+        // Player two has lost every man
+        cb.getPieceCounts().put('n', CheckerBoard.NO_PIECES_LEFT);
+        CheckersFE.setPlayers('x', 'o');
+
+        assertTrue(cb.checkPlayerWin('m'));
+        assertFalse(cb.checkPlayerWin('n'));
+    }
+
+    @Test
+    public void Test_play_RejectsIllegalMoveAndUndoRestores() {
+        GameSession session = new GameSession(new GameConfig('d', 'e', 8));
+        String start = session.getBoard().toString();
+        MoveBuffer moves = new MoveBuffer();
+
+        assertEquals('d', session.getCurrentPlayer());
+        assertEquals(7, session.getLegalMoves(moves));
+        try {
+            // Player two's man cannot move on player one's turn
+            session.play(Move.simple(5 * 8 + 1, DirectionEnum.NE));
+            fail("Accepted a move for the wrong side");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, session.getMoveCount());
+        }
+
+        session.play(moves.get(0));
+        assertEquals('e', session.getCurrentPlayer());
+        assertEquals(1, session.getMoveCount());
+        session.undo();
+        assertEquals('d', session.getCurrentPlayer());
+        assertEquals(start, session.getBoard().toString());
+        assertFalse(session.isOver());
+        assertEquals(CheckerBoard.EMPTY_POS, session.getWinner());
+    }
+
+    @Test
+    public void Test_concurrentGames_DifferentLettersDoNotInterfere() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Keep changing the shared compatibility players while the games run: no game may notice
+        Thread meddler = new Thread(() -> {
+            Random random = new Random(99);
+            while (running.get()) {
+                char one = (char) ('a' + random.nextInt(26));
+                CheckersFE.setPlayers(one, (char) ('a' + (one - 'a' + 1 + random.nextInt(25)) % 26));
+            }
+        });
+        meddler.start();
+
+        List<Future<Outcome>> futures = new ArrayList<>();
+        try {
+            for (int game = 0; game < GAMES; game++) {
+                final int index = game;
+                char type = "FMB".charAt(index % 3);
+                futures.add(pool.submit(() -> playRandomGame(type, configFor(index), index)));
+            }
+            for (Future<Outcome> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            running.set(false);
+            meddler.join();
+            pool.shutdown();
+            CheckersFE.setPlayers('x', 'o');
+        }
+
+        // Letters do not change the rules, so each game must match the same seed played alone between x and o
+        for (int game = 0; game < GAMES; game++) {
+            GameConfig reference = new GameConfig('x', 'o', DIMENSIONS[game % DIMENSIONS.length]);
+            Outcome expected = playRandomGame("FMB".charAt(game % 3), reference, game);
+            Outcome actual = futures.get(game).get();
+
+            assertEquals("game " + game, expected.moves, actual.moves);
+            assertEquals("game " + game, expected.squares, actual.squares);
+            assertEquals("game " + game, expected.winner, actual.winner);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestMakeUnmake
+{
+    private static final int GAMES = 40;
+    private static final int MAX_PLIES = 300;
+
+    private ICheckerBoard makeEmptyBoard(char type, int dim)
+    {
+        ICheckerBoard cb = makeBoard(type, dim);
+        for (int square = 0; square < dim * dim; square++) {
+            cb.placePiece(square, ' ');
+        }
+        return cb;
+    }
+
+    /**
+     * Plays random games to the end (or MAX_PLIES), checking after every undo that the board and the piece
+     * counts are exactly what they were before the matching applyMove.
+     */
+    private void playAndUndoRandomGames(char type, int dim, long seed)
+    {
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+
+        for (int game = 0; game < GAMES; game++) {
+            ICheckerBoard cb = makeBoard(type, dim);
+            List<String> boards = new ArrayList<>();
+            List<HashMap<Character, Integer>> counts = new ArrayList<>();
+            char player = 'x';
+
+            while (boards.size() < MAX_PLIES && MoveGenerator.generateMoves(cb, player, moves) > 0) {
+                boards.add(cb.toString());
+                counts.add(new HashMap<>(cb.getPieceCounts()));
+                cb.applyMove(moves.get(random.nextInt(moves.size())));
+                player = (player == 'x') ? 'o' : 'x';
+            }
+            assertEquals(boards.size(), cb.getUndoJournal().size());
+
+            for (int ply = boards.size() - 1; ply >= 0; ply--) {
+                cb.undoMove();
+                assertEquals(boards.get(ply), cb.toString());
+                assertEquals(counts.get(ply), cb.getPieceCounts());
+            }
+            assertTrue(cb.getUndoJournal().isEmpty());
+        }
+    }
+
+    @Test
+    public void Test_applyUndo_RandomGames_CheckerBoard() {
+        playAndUndoRandomGames('F', 8, 1);
+        playAndUndoRandomGames('F', 12, 2);
+    }
+
+    @Test
+    public void Test_applyUndo_RandomGames_CheckerBoardMem() {
+        playAndUndoRandomGames('M', 8, 3);
+        playAndUndoRandomGames('M', 16, 4);
+    }
+
+    @Test
+    public void Test_applyUndo_RandomGames_CheckerBoardBit() {
+        playAndUndoRandomGames('B', 10, 5);
+    }
+
+    @Test
+    public void Test_applyUndo_RandomDescents_CheckerBoard() {
+        // Walk up and down random lines of the same game tree on one board instance
+        ICheckerBoard cb = makeBoard('F', 8);
+        String start = cb.toString();
+        Random random = new Random(6);
+        MoveBuffer moves = new MoveBuffer();
+
+        for (int walk = 0; walk < 200; walk++) {
+            char player = 'x';
+            int depth = 1 + random.nextInt(12);
+            for (int ply = 0; ply < depth && MoveGenerator.generateMoves(cb, player, moves) > 0; ply++) {
+                cb.applyMove(moves.get(random.nextInt(moves.size())));
+                player = (player == 'x') ? 'o' : 'x';
+            }
+            while (!cb.getUndoJournal().isEmpty()) {
+                cb.undoMove();
+            }
+            assertEquals(start, cb.toString());
+        }
+    }
+
+    @Test
+    public void Test_applyMove_DoubleJumpWithCrowning_Undo_CheckerBoardMem() {
+        ICheckerBoard cb = makeEmptyBoard('M', 8);
+        cb.placePiece(new BoardPosition(3, 1), 'x');
+        cb.placePiece(new BoardPosition(4, 2), 'o');
+        cb.placePiece(new BoardPosition(6, 4), 'O');
+        String before = cb.toString();
+        HashMap<Character, Integer> countsBefore = new HashMap<>(cb.getPieceCounts());
+        MoveBuffer moves = new MoveBuffer();
+
+        assertEquals(1, MoveGenerator.generateMoves(cb, 'x', moves));
+        cb.applyMove(moves.get(0));
+
+        assertEquals('X', cb.whatsAtPos(new BoardPosition(7, 5)));
+        assertEquals(' ', cb.whatsAtPos(new BoardPosition(4, 2)));
+        assertEquals(' ', cb.whatsAtPos(new BoardPosition(6, 4)));
+
+        cb.undoMove();
+        assertEquals(before, cb.toString());
+        assertEquals(countsBefore, cb.getPieceCounts());
+    }
+
+    @Test
+    public void Test_applyMove_Crowning_Undo_CheckerBoard() {
+        ICheckerBoard cb = makeEmptyBoard('F', 8);
+        cb.placePiece(new BoardPosition(1, 3), 'o');
+        MoveBuffer moves = new MoveBuffer();
+
+        MoveGenerator.generateMoves(cb, 'o', moves);
+        cb.applyMove(moves.get(0));
+        assertTrue(Character.isUpperCase(cb.whatsAtPos(Move.getDestination(moves.get(0), cb.getNeighborTable()))));
+
+        cb.undoMove();
+        assertEquals('o', cb.whatsAtPos(new BoardPosition(1, 3)));
+        assertEquals(' ', cb.whatsAtPos(new BoardPosition(0, 2)));
+        assertEquals(' ', cb.whatsAtPos(new BoardPosition(0, 4)));
+    }
+}
@@ -0,0 +1,136 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestMoveGenerator
+{
+
+    private ICheckerBoard makeBoard(int dim)
+    {
+        CheckersFE.setPlayers('x', 'o');
+        return new CheckerBoard(dim);
+    }
+
+    private ICheckerBoard makeEmptyBoard(int dim)
+    {
+        ICheckerBoard cb = makeBoard(dim);
+        for (int square = 0; square < dim * dim; square++) {
+            cb.placePiece(square, ' ');
+        }
+        return cb;
+    }
+
+    @Test
+    public void Test_generateMoves_StartingPosition_8x8() {
+        ICheckerBoard cb = makeBoard(8);
+        MoveBuffer moves = new MoveBuffer();
+
+        assertEquals(7, MoveGenerator.generateMoves(cb, 'x', moves));
+        assertEquals(7, MoveGenerator.generateMoves(cb, 'o', moves));
+        for (int i = 0; i < moves.size(); i++) {
+            assertFalse(Move.isCapture(moves.get(i)));
+        }
+    }
+
+    @Test
+    public void Test_generateMoves_StartingPosition_16x16() {
+        ICheckerBoard cb = makeBoard(16);
+        MoveBuffer moves = new MoveBuffer();
+
+        // Front row of 8 men, the one on the edge has a single move
+        assertEquals(15, MoveGenerator.generateMoves(cb, 'x', moves));
+    }
+
+    @Test
+    public void Test_generateMoves_CaptureIsMandatory() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(2, 2), 'x');
+        cb.placePiece(new BoardPosition(3, 3), 'o');
+        cb.placePiece(new BoardPosition(0, 6), 'x');
+        MoveBuffer moves = new MoveBuffer();
+
+        assertEquals(1, MoveGenerator.generateMoves(cb, 'x', moves));
+        long move = moves.get(0);
+        assertTrue(Move.isCapture(move));
+        assertEquals(cb.getSquare(2, 2), Move.getFrom(move));
+        assertEquals(DirectionEnum.SE, Move.getDirection(move, 0));
+        assertEquals(cb.getSquare(4, 4), Move.getDestination(move, cb.getNeighborTable()));
+    }
+
+    @Test
+    public void Test_generateMoves_DoubleJumpChain() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(0, 0), 'x');
+        cb.placePiece(new BoardPosition(1, 1), 'o');
+        cb.placePiece(new BoardPosition(3, 3), 'o');
+        cb.placePiece(new BoardPosition(3, 1), 'o');
+        MoveBuffer moves = new MoveBuffer();
+
+        // From (2,2) the man can continue SE over (3,3) or SW over (3,1): two complete chains
+        assertEquals(2, MoveGenerator.generateMoves(cb, 'x', moves));
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(2, Move.getStepCount(moves.get(i)));
+            assertEquals(DirectionEnum.SE, Move.getDirection(moves.get(i), 0));
+        }
+    }
+
+    @Test
+    public void Test_generateMoves_MenDoNotCaptureBackwards() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(4, 4), 'x');
+        cb.placePiece(new BoardPosition(3, 3), 'o');
+        MoveBuffer moves = new MoveBuffer();
+
+        assertEquals(2, MoveGenerator.generateMoves(cb, 'x', moves));
+        assertFalse(Move.isCapture(moves.get(0)));
+    }
+
+    @Test
+    public void Test_generateMoves_KingCapturesBackwards_NoRepeatedCapture() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(4, 4), 'X');
+        cb.placePiece(new BoardPosition(3, 3), 'o');
+        MoveBuffer moves = new MoveBuffer();
+
+        // The king jumps NW to (2,2) and may not jump the same piece back
+        assertEquals(1, MoveGenerator.generateMoves(cb, 'x', moves));
+        assertEquals(1, Move.getStepCount(moves.get(0)));
+        assertEquals(DirectionEnum.NW, Move.getDirection(moves.get(0), 0));
+    }
+
+    @Test
+    public void Test_generateMoves_CrowningEndsChain() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(5, 1), 'x');
+        cb.placePiece(new BoardPosition(6, 2), 'o');
+        cb.placePiece(new BoardPosition(6, 4), 'o');
+        MoveBuffer moves = new MoveBuffer();
+
+        // Landing on (7,3) crowns the man, so it cannot continue NE over (6,4)
+        assertEquals(1, MoveGenerator.generateMoves(cb, 'x', moves));
+        assertEquals(1, Move.getStepCount(moves.get(0)));
+    }
+
+    @Test
+    public void Test_generateMoves_SameResultOnEveryBoard() {
+        CheckersFE.setPlayers('x', 'o');
+        ICheckerBoard[] boards = {new CheckerBoard(12), new CheckerBoardMem(12), new CheckerBoardBit(12)};
+        MoveBuffer expected = new MoveBuffer();
+        MoveBuffer actual = new MoveBuffer();
+
+        MoveGenerator.generateMoves(boards[0], 'o', expected);
+        for (ICheckerBoard cb : boards) {
+            MoveGenerator.generateMoves(cb, 'o', actual);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), actual.get(i));
+            }
+        }
+    }
+}
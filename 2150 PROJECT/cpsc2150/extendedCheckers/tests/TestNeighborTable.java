@@ -0,0 +1,61 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestNeighborTable
+{
+
+    @Test
+    public void Test_forDimension_SameInstancePerDimension() {
+        assertSame(NeighborTable.forDimension(10), NeighborTable.forDimension(10));
+        assertEquals(12, NeighborTable.forDimension(12).getDimension());
+    }
+
+    @Test
+    public void Test_getStep_Corner_row0_column0() {
+        NeighborTable table = NeighborTable.forDimension(8);
+
+        assertEquals(9, table.getStep(0, DirectionEnum.SE));
+        assertEquals(NeighborTable.OFF_BOARD, table.getStep(0, DirectionEnum.SW));
+        assertEquals(NeighborTable.OFF_BOARD, table.getStep(0, DirectionEnum.NE));
+        assertEquals(NeighborTable.OFF_BOARD, table.getStep(0, DirectionEnum.NW));
+    }
+
+    @Test
+    public void Test_getJump_row2_column2() {
+        NeighborTable table = NeighborTable.forDimension(8);
+        int square = 2 * 8 + 2;
+
+        assertEquals(0, table.getJump(square, DirectionEnum.NW));
+        assertEquals(4, table.getJump(square, DirectionEnum.NE));
+        assertEquals(4 * 8, table.getJump(square, DirectionEnum.SW));
+        assertEquals(4 * 8 + 4, table.getJump(square, DirectionEnum.SE));
+    }
+
+    @Test
+    public void Test_getJump_OneFromEdge_row1_column14_16x16() {
+        NeighborTable table = NeighborTable.forDimension(16);
+        int square = 16 + 14;
+
+        assertEquals(13, table.getStep(square, DirectionEnum.NW));
+        assertEquals(NeighborTable.OFF_BOARD, table.getJump(square, DirectionEnum.NE));
+        assertEquals(NeighborTable.OFF_BOARD, table.getJump(square, DirectionEnum.SE));
+        assertEquals(3 * 16 + 12, table.getJump(square, DirectionEnum.SW));
+    }
+
+    @Test
+    public void Test_getStep_MatchesRowAndColumnOffsets() {
+        NeighborTable table = NeighborTable.forDimension(14);
+        int square = 5 * 14 + 6;
+
+        for (DirectionEnum dir : DirectionEnum.values()) {
+            int expected = (5 + ICheckerBoard.getRowOffset(dir)) * 14 + 6 + ICheckerBoard.getColumnOffset(dir);
+            assertEquals(expected, table.getStep(square, dir));
+        }
+    }
+}
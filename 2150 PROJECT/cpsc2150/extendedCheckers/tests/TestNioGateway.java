@@ -0,0 +1,145 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.server.CheckersClient;
+import cpsc2150.extendedCheckers.server.NioGateway;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestNioGateway
+{
+    private static final int WORKERS = 3;
+    private static final int PAIRS = 40;
+    private static final int MOVES_PER_GAME = 60;
+
+    @Test
+    public void Test_protocol_SameRepliesAsCheckersServer() throws Exception {
+        try (NioGateway gateway = new NioGateway(0, WORKERS);
+             CheckersClient one = new CheckersClient(gateway.getPort());
+             CheckersClient two = new CheckersClient(gateway.getPort())) {
+            assertEquals("OK JOIN g x 1", one.command("join g"));
+            assertEquals("ERR waiting for an opponent", one.command("move 2 0 SE"));
+            assertEquals("OK JOIN g o 2", two.command("JOIN g"));
+            assertEquals("EVENT START g x o 8", one.awaitEvent());
+            assertEquals("EVENT START g x o 8", two.awaitEvent());
+
+            assertEquals("ERR not your turn", two.command("move 5 1 NE"));
+            assertEquals("ERR illegal move", one.command("move 2 0 SW"));
+            assertEquals("OK MOVE 2 0 SE 3 1", one.command("  move 2 0 se\r"));
+            assertEquals("EVENT MOVE x 2 0 SE 3 1", two.awaitEvent());
+
+            ICheckerBoard expected = new CheckerBoard(new GameConfig());
+            expected.movePiece(new BoardPosition(2, 0), DirectionEnum.SE);
+            assertEquals(expected.toString(), TestCheckersServer.boardOf(two.command("board")));
+
+            assertEquals("OK RESIGN", two.command("resign"));
+            assertEquals("EVENT WIN x resign", one.awaitEvent());
+            assertEquals("ERR game over", one.command("move 3 1 SE"));
+            assertEquals("OK BYE", one.command("quit"));
+        }
+    }
+
+    @Test
+    public void Test_protocol_Errors() throws Exception {
+        try (NioGateway gateway = new NioGateway(0, WORKERS);
+             CheckersClient one = new CheckersClient(gateway.getPort());
+             CheckersClient two = new CheckersClient(gateway.getPort());
+             CheckersClient three = new CheckersClient(gateway.getPort())) {
+            assertEquals("ERR unknown command fly", one.command("fly 1 2"));
+            assertEquals("ERR not in a game", one.command("move 2 0 SE"));
+            assertEquals("ERR not in a game", one.command("board"));
+            assertEquals("ERR usage: join <game> [size]", one.command("join"));
+            assertEquals("ERR bad size ten", one.command("join big ten"));
+            assertTrue(one.command("join big 9").startsWith("ERR Unsupported board size"));
+            assertEquals("OK JOIN big x 1", one.command("join big 12"));
+            assertEquals("ERR usage: move <row> <col> <NE|NW|SE|SW>", one.command("move 2 0 UP"));
+            assertEquals("ERR usage: move <row> <col> <dir>", one.command("move 2 0"));
+            assertEquals("ERR already in game big", one.command("join other"));
+            assertEquals("OK JOIN big o 2", two.command("join big"));
+            assertEquals("ERR game big is full", three.command("join big"));
+            assertEquals("ERR off the board", one.command("move 12 0 SE"));
+        }
+    }
+
+    @Test
+    public void Test_gateway_DisconnectResignsGame() throws Exception {
+        try (NioGateway gateway = new NioGateway(0, WORKERS);
+             CheckersClient one = new CheckersClient(gateway.getPort())) {
+            CheckersClient two = new CheckersClient(gateway.getPort());
+            one.command("join left");
+            two.command("join left");
+            two.close();
+
+            assertEquals("EVENT START left x o 8", one.awaitEvent());
+            assertEquals("EVENT WIN x resign", one.awaitEvent());
+            // The name is free again once the game is over
+            assertEquals("OK JOIN left x 1", one.command("join left"));
+        }
+    }
+
+    @Test
+    public void Test_gateway_ConcurrentGamesMatchLocalBoards() throws Exception {
+        try (NioGateway gateway = new NioGateway(0, WORKERS)) {
+            ExecutorService pool = Executors.newFixedThreadPool(PAIRS);
+            try {
+                List<Future<?>> games = new ArrayList<>();
+                for (int pair = 0; pair < PAIRS; pair++) {
+                    final int seed = pair;
+                    games.add(pool.submit(() -> {
+                        try (CheckersClient one = new CheckersClient(gateway.getPort());
+                             CheckersClient two = new CheckersClient(gateway.getPort())) {
+                            ICheckerBoard mirror = TestCheckersServer.playRandomGame(one, two, "pair" + seed,
+                                    MOVES_PER_GAME, seed);
+                            assertEquals(mirror.toString(), TestCheckersServer.boardOf(two.command("board")));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> game : games) {
+                    game.get(2, TimeUnit.MINUTES);
+                }
+            } finally {
+                pool.shutdown();
+            }
+            assertTrue(gateway.getLatency().getCount() >= PAIRS * 3);
+            assertTrue(gateway.getLatency().getPercentile(0.99) >= gateway.getLatency().getPercentile(0.5));
+        }
+    }
+
+    @Test
+    public void Test_gateway_MovesAllocateNothingWhenWarm() throws Exception {
+        try (NioGateway gateway = new NioGateway(0, 1);
+             CheckersClient one = new CheckersClient(gateway.getPort());
+             CheckersClient two = new CheckersClient(gateway.getPort())) {
+            assertTrue(gateway.getAllocatedBytes() >= 0);
+            for (int game = 0; game < 40; game++) {
+                TestCheckersServer.playRandomGame(one, two, "warmup" + game, 400, game);
+                one.command("resign");
+                two.command("resign");
+            }
+
+            // Joining allocates the game, so measure from the first move on
+            one.command("join measured");
+            two.command("join measured");
+            long before = gateway.getAllocatedBytes();
+            TestCheckersServer.playRandomMoves(one, two, 400, 1000);
+            for (int i = 0; i < 1000; i++) {
+                // Refused moves take the same path through the parser and the worker
+                assertTrue(one.command("move 0 0 SE").startsWith("ERR"));
+            }
+            long allocated = gateway.getAllocatedBytes() - before;
+
+            assertTrue("gateway threads allocated " + allocated + " bytes", allocated < 1024);
+        }
+    }
+}
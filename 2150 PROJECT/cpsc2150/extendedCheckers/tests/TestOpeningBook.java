@@ -0,0 +1,163 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.analytics.CorpusGenerator;
+import cpsc2150.extendedCheckers.engine.OpeningBook;
+import cpsc2150.extendedCheckers.engine.OpeningBookBuilder;
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.records.GameRecord;
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestOpeningBook
+{
+    private static final GameConfig EIGHT = new GameConfig();
+
+    private static Path bookFile() throws IOException
+    {
+        Path path = Files.createTempFile("openings", ".ckb");
+        Files.delete(path);
+        return path;
+    }
+
+    @Test
+    public void Test_build_CountsFirstMovesAndResults() throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(3, 8);
+        OpeningBookBuilder builder = new OpeningBookBuilder(4);
+        Map<Long, int[]> firstMoves = new HashMap<>();
+        for (long i = 0; i < 400; i++) {
+            GameRecord record = generator.generate(i);
+            assertEquals(4, builder.add(record));
+
+            // No capture is possible from the start, so the first move is the first step
+            long first = Move.simple(GameRecord.stepSquare(record.getStep(0)),
+                    GameRecord.stepDirection(record.getStep(0)));
+            int[] counts = firstMoves.computeIfAbsent(first, move -> new int[3]);
+            counts[0]++;
+            if (record.getWinner() == EIGHT.getPlayerOne()) {
+                counts[1]++;
+            } else if (record.getWinner() == EIGHT.getPlayerTwo()) {
+                counts[2]++;
+            }
+        }
+        Path path = bookFile();
+        try {
+            int written = builder.write(path, 1);
+            OpeningBook book = OpeningBook.open(path);
+            assertEquals(written, book.size());
+            assertEquals(builder.getEntryCount(), book.size());
+            assertEquals(400, book.getGamesBuiltFrom());
+            assertEquals(4, book.getMaxPlies());
+
+            ICheckerBoard start = new CheckerBoard(EIGHT);
+            int index = book.find(start);
+            assertNotEquals(OpeningBook.NOT_FOUND, index);
+            assertEquals(firstMoves.size(), book.getMoveCount(index));
+            int previous = Integer.MAX_VALUE;
+            for (int i = index; i < index + book.getMoveCount(index); i++) {
+                int[] counts = firstMoves.get(book.getMove(i));
+                assertEquals(counts[0], book.getGames(i));
+                assertEquals(counts[1], book.getWins(i));
+                assertEquals(counts[2], book.getLosses(i));
+                assertEquals(book.getGames(i), book.getWins(i) + book.getDraws(i) + book.getLosses(i));
+                assertTrue(book.getGames(i) <= previous);
+                previous = book.getGames(i);
+            }
+            assertEquals(book.getMove(index), book.bestMove(start, EIGHT.getPlayerOne()));
+
+            // The same squares with the other side to move are a different position
+            start.switchSideToMove();
+            assertEquals(OpeningBook.NOT_FOUND, book.find(start));
+            assertEquals(Move.NO_MOVE, book.bestMove(start, EIGHT.getPlayerTwo()));
+
+            for (int i = 1; i < book.size(); i++) {
+                assertTrue(book.getKey(i - 1) <= book.getKey(i));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void Test_write_DropsRareMovesAndReplacesOldBook() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(10);
+        CorpusGenerator generator = new CorpusGenerator(5, 8);
+        for (long i = 0; i < 300; i++) {
+            builder.add(generator.generate(i));
+        }
+        Path path = bookFile();
+        try {
+            int all = builder.write(path, 1);
+            OpeningBook full = OpeningBook.open(path);
+            int common = builder.write(path, 20);
+            assertTrue(common > 0 && common < all);
+            OpeningBook pruned = OpeningBook.open(path);
+            assertEquals(common, pruned.size());
+            assertEquals(20, pruned.getMinGames());
+            for (int i = 0; i < pruned.size(); i++) {
+                assertTrue(pruned.getGames(i) >= 20);
+            }
+            // A book opened before the rewrite still reads its own file
+            assertEquals(all, full.size());
+            assertTrue(full.getGames(all - 1) >= 1);
+            assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void Test_add_StopsWhereStepsLeaveTheRules() throws IOException {
+        // The third step takes player one's man back where it came from, which only a king may do
+        int square = 2 * 8 + 0;
+        int[] steps = {GameRecord.step(square, DirectionEnum.SE), GameRecord.step(5 * 8 + 3, DirectionEnum.NE),
+                GameRecord.step(3 * 8 + 1, DirectionEnum.NW)};
+        GameRecord record = new GameRecord(EIGHT, steps, CheckerBoard.EMPTY_POS);
+        OpeningBookBuilder builder = new OpeningBookBuilder(10);
+        assertEquals(2, builder.add(record));
+        assertEquals(2, builder.getEntryCount());
+
+        Path path = bookFile();
+        try {
+            builder.write(path, 1);
+            OpeningBook book = OpeningBook.open(path);
+            ICheckerBoard board = new CheckerBoard(EIGHT);
+            board.movePiece(square, DirectionEnum.SE);
+            board.switchSideToMove();
+            int index = book.find(board);
+            assertNotEquals(OpeningBook.NOT_FOUND, index);
+            assertEquals(Move.simple(5 * 8 + 3, DirectionEnum.NE), book.getMove(index));
+            assertEquals(1, book.getDraws(index));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void Test_open_RejectsOtherFiles() throws IOException {
+        Path path = bookFile();
+        try {
+            new OpeningBookBuilder(2).write(path, 1);
+            assertEquals(0, OpeningBook.open(path).size());
+            assertEquals(OpeningBook.NOT_FOUND, OpeningBook.open(path).find(new CheckerBoard(EIGHT)));
+
+            Files.write(path, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+            try {
+                OpeningBook.open(path);
+                fail("Opened a damaged book");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
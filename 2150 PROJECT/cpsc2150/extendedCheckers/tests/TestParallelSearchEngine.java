@@ -0,0 +1,122 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.engine.MaterialEvaluator;
+import cpsc2150.extendedCheckers.engine.ParallelSearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchResult;
+import cpsc2150.extendedCheckers.models.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestParallelSearchEngine
+{
+
+    /**
+     * Plays a seeded random opening of the given length so the searches start from varied positions.
+     */
+    private ICheckerBoard randomPosition(char type, long seed, int plies)
+    {
+        ICheckerBoard cb = makeBoard(type, 8);
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+        char player = 'x';
+        for (int ply = 0; ply < plies && MoveGenerator.generateMoves(cb, player, moves) > 0; ply++) {
+            cb.applyMove(moves.get(random.nextInt(moves.size())));
+            player = (player == 'x') ? 'o' : 'x';
+        }
+        cb.getUndoJournal().clear();
+        return cb;
+    }
+
+    @Test
+    public void Test_search_SameScoreAsSingleThreaded() {
+        // Without a table the score of a fixed-depth search does not depend on the order moves are searched in
+        SearchEngine single = new SearchEngine(new MaterialEvaluator(), null);
+        for (int threads = 1; threads <= 4; threads *= 2) {
+            try (ParallelSearchEngine parallel = new ParallelSearchEngine(threads, new MaterialEvaluator(), null)) {
+                for (long seed = 0; seed < 4; seed++) {
+                    ICheckerBoard cb = randomPosition('F', seed, 8);
+                    SearchResult expected = single.search(cb, 'x', 'o', 60_000, 6);
+                    SearchResult actual = parallel.search(cb, 'x', 'o', 60_000, 6);
+
+                    assertEquals(expected.getScore(), actual.getScore());
+                    assertEquals(expected.getDepth(), actual.getDepth());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void Test_search_OneThreadMatchesSingleThreadedExactly() {
+        ICheckerBoard cb = randomPosition('B', 7, 10);
+        SearchResult expected = new SearchEngine().search(cb, 'x', 'o', 60_000, 7);
+
+        try (ParallelSearchEngine parallel = new ParallelSearchEngine(1)) {
+            SearchResult actual = parallel.search(cb, 'x', 'o', 60_000, 7);
+            assertEquals(expected.getBestMove(), actual.getBestMove());
+            assertEquals(expected.getNodes(), actual.getNodes());
+        }
+    }
+
+    @Test
+    public void Test_search_HelpersStopWithEverySearch() {
+        // The helpers share the table, so each search must stop them before the next one begins
+        try (ParallelSearchEngine parallel = new ParallelSearchEngine(4)) {
+            for (long seed = 0; seed < 4; seed++) {
+                ICheckerBoard cb = randomPosition('B', seed, 8);
+                SearchResult result = parallel.search(cb, 'x', 'o', 60_000, 6);
+                MoveBuffer moves = new MoveBuffer();
+                MoveGenerator.generateMoves(cb, 'x', moves);
+                boolean legal = false;
+                for (int i = 0; i < moves.size(); i++) {
+                    legal |= moves.get(i) == result.getBestMove();
+                }
+
+                assertTrue(legal);
+                assertTrue(moves.size() == 1 || result.isDecisive() || result.getDepth() == 6);
+            }
+        }
+    }
+
+    @Test
+    public void Test_search_LeavesBoardUnchanged_CheckerBoardMem() {
+        ICheckerBoard cb = randomPosition('M', 3, 6);
+        String before = cb.toString();
+        long hash = cb.getPositionHash();
+
+        try (ParallelSearchEngine parallel = new ParallelSearchEngine(3)) {
+            SearchResult result = parallel.search(cb, 'o', 'x', 60_000, 5);
+            assertNotEquals(Move.NO_MOVE, result.getBestMove());
+        }
+        assertEquals(before, cb.toString());
+        assertEquals(hash, cb.getPositionHash());
+    }
+
+    @Test
+    public void Test_search_RespectsTimeBudget() {
+        try (ParallelSearchEngine parallel = new ParallelSearchEngine(2)) {
+            SearchResult result = parallel.search(makeBoard('F', 12), 'x', 'o', 100);
+
+            assertTrue(result.getElapsedNanos() < 300 * 1_000_000L);
+            assertTrue(result.getDepth() >= 1);
+            assertNotEquals(Move.NO_MOVE, result.getBestMove());
+        }
+    }
+
+    @Test
+    public void Test_search_NoLegalMove() {
+        ICheckerBoard cb = makeBoard('F', 8);
+        for (int square = 0; square < 64; square++) {
+            cb.placePiece(square, ' ');
+        }
+        cb.placePiece(new BoardPosition(7, 7), 'o');
+
+        try (ParallelSearchEngine parallel = new ParallelSearchEngine(2)) {
+            assertEquals(Move.NO_MOVE, parallel.search(cb, 'x', 'o', 1_000).getBestMove());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.fixtures.ListCheckerBoardMem;
+import cpsc2150.extendedCheckers.engine.Perft;
+import cpsc2150.extendedCheckers.models.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestPerft
+{
+    private static final int CHECKED_DEPTH = 7;
+
+    private void checkKnownCounts(char type)
+    {
+        ICheckerBoard cb = makeBoard(type, 8);
+        String before = cb.toString();
+        for (int depth = 0; depth <= CHECKED_DEPTH; depth++) {
+            assertEquals(Perft.KNOWN_8X8[depth], Perft.perft(cb, 'x', 'o', depth));
+        }
+        assertEquals(before, cb.toString());
+    }
+
+    @Test
+    public void Test_perft_KnownCounts_CheckerBoard() {
+        checkKnownCounts('F');
+    }
+
+    @Test
+    public void Test_perft_KnownCounts_CheckerBoardMem() {
+        checkKnownCounts('M');
+    }
+
+    @Test
+    public void Test_perft_KnownCounts_CheckerBoardBit() {
+        checkKnownCounts('B');
+    }
+
+    @Test
+    public void Test_perft_KnownCounts_ListCheckerBoardMem() {
+        checkKnownCounts('L');
+    }
+
+    @Test
+    public void Test_perft_Parallel_MatchesSequential() {
+        ICheckerBoard cb = makeBoard('F', 8);
+
+        assertEquals(Perft.KNOWN_8X8[CHECKED_DEPTH], Perft.perft(cb, 'x', 'o', CHECKED_DEPTH, true));
+    }
+
+    @Test
+    public void Test_divide_SumsToPerft_AllBoardsAgree_12x12() {
+        long expected = Perft.perft(makeBoard('F', 12), 'x', 'o', 5);
+
+        for (char type : new char[]{'F', 'M', 'B'}) {
+            Map<Long, Long> divided = Perft.divide(makeBoard(type, 12), 'x', 'o', 5, type == 'B');
+            long total = 0;
+            for (long count : divided.values()) {
+                total += count;
+            }
+            assertEquals(11, divided.size());
+            assertEquals(expected, total);
+        }
+    }
+
+    @Test
+    public void Test_perft_Depth1_EqualsMoveCount_16x16() {
+        ICheckerBoard cb = makeBoard('M', 16);
+
+        assertEquals(MoveGenerator.generateMoves(cb, 'o', new MoveBuffer()), Perft.perft(cb, 'o', 'x', 1));
+    }
+}
@@ -0,0 +1,196 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.analytics.CorpusGenerator;
+import cpsc2150.extendedCheckers.analytics.CorpusStatistics;
+import cpsc2150.extendedCheckers.analytics.ReplayPipeline;
+import cpsc2150.extendedCheckers.analytics.ReplayStatistics;
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.records.GameArchive;
+import cpsc2150.extendedCheckers.records.GameArchiveWriter;
+import cpsc2150.extendedCheckers.records.GameRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestReplayPipeline
+{
+    private static final int GAMES = 500;
+    private static final long SEED = 11;
+
+    //two configurations of the same size share that size's statistics
+    private static final List<GameConfig> CONFIGS = Arrays.asList(new GameConfig(), new GameConfig('r', 'b', 8),
+            new GameConfig('r', 'b', 10));
+
+    private static Path writeCorpus(CorpusGenerator generator, long games, int threads) throws IOException
+    {
+        Path path = Files.createTempFile("corpus", ".cka");
+        Files.delete(path);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (GameArchiveWriter writer = GameArchiveWriter.open(path)) {
+            assertEquals(games, generator.writeTo(writer, games, pool));
+        } finally {
+            pool.shutdown();
+        }
+        return path;
+    }
+
+    /**
+     * Counts record into stats the slow way, looking at the board around every step of a replay.
+     */
+    private static void count(GameRecord record, ReplayStatistics stats)
+    {
+        GameConfig config = record.getConfig();
+        ICheckerBoard board = new CheckerBoard(config);
+        int firstCrown = -1;
+        for (int i = 0; i < record.getStepCount(); i++) {
+            int step = record.getStep(i);
+            int from = GameRecord.stepSquare(step);
+            boolean jump = GameRecord.isJump(board, step);
+            boolean man = Character.isLowerCase(board.whatsAtPos(from));
+            int to = GameRecord.playStep(board, step);
+            if (jump) {
+                // Both squares are white tiles, so their midpoint is the jumped square
+                stats.addCapture((from + to) / 2);
+            }
+            if (man && Character.isUpperCase(board.whatsAtPos(to))) {
+                stats.addCrown(i + 1);
+                if (firstCrown < 0) {
+                    firstCrown = i + 1;
+                }
+            }
+        }
+        char winner = record.getWinner();
+        int side = winner == config.getPlayerOne() ? 1 : winner == config.getPlayerTwo() ? 2 : 0;
+        stats.addGame(record.getStepCount(), side, firstCrown);
+    }
+
+    @Test
+    public void Test_replay_MatchesStepByStepCount() throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(SEED, CONFIGS, 200);
+        Path path = writeCorpus(generator, GAMES, 2);
+        try {
+            GameArchive archive = GameArchive.open(path);
+            ReplayStatistics eight = new ReplayStatistics(8);
+            ReplayStatistics ten = new ReplayStatistics(10);
+            for (long id = 0; id < archive.size(); id++) {
+                GameRecord record = archive.get(id);
+                count(record, record.getConfig().getDimension() == 8 ? eight : ten);
+            }
+
+            CorpusStatistics sequential = ReplayPipeline.replaySequential(archive, 0, GAMES, CheckerBoardBit::new);
+            assertEquals(eight, sequential.get(8));
+            assertEquals(ten, sequential.get(10));
+            assertNull(sequential.get(9));
+            assertEquals(2, sequential.getBoardSizes().size());
+            assertEquals(GAMES, sequential.getGames());
+            assertTrue(eight.getCaptures() > 0 && eight.getCrowns() > 0 && ten.getCaptures() > 0);
+
+            // Any thread count, grain and board class adds up to the same totals
+            try (ReplayPipeline one = new ReplayPipeline(1);
+                 ReplayPipeline four = new ReplayPipeline(4, 7, CheckerBoardMem::new)) {
+                assertEquals(sequential, one.replay(archive));
+                assertEquals(sequential, four.replay(archive));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void Test_replay_RangesMergeToTheWhole() throws IOException {
+        Path path = writeCorpus(new CorpusGenerator(SEED, 8, 12), GAMES, 1);
+        try {
+            GameArchive archive = GameArchive.open(path);
+            try (ReplayPipeline pipeline = new ReplayPipeline(3, 16, CheckerBoard::new)) {
+                CorpusStatistics whole = pipeline.replay(archive);
+                CorpusStatistics parts = pipeline.replay(archive, 123, GAMES);
+                parts.merge(pipeline.replay(archive, 0, 123));
+                assertEquals(whole, parts);
+                assertEquals(0, pipeline.replay(archive, 40, 40).getGames());
+
+                for (ReplayStatistics stats : whole.getBoardSizes()) {
+                    int dimension = stats.getDimension();
+                    long[] heatmap = stats.getCaptureHeatmap();
+                    assertEquals(dimension * dimension, heatmap.length);
+                    assertEquals(stats.getCaptures(), Arrays.stream(heatmap).sum());
+                    for (int square = 0; square < heatmap.length; square++) {
+                        // Pieces never stand on the black tiles
+                        if ((square / dimension + square % dimension) % 2 != 0) {
+                            assertEquals(0, heatmap[square]);
+                        }
+                    }
+                    assertTrue(stats.getPlayerOneWins() + stats.getPlayerTwoWins() <= stats.getGames());
+                    assertEquals((double) stats.getTotalSteps() / stats.getGames(), stats.getAverageSteps(), 1e-9);
+                    assertTrue(stats.getLongestGame() <= CorpusGenerator.DEFAULT_MAX_PLIES * 2L);
+                }
+
+                try {
+                    pipeline.replay(archive, 0, GAMES + 1);
+                    fail("Replayed past the end");
+                } catch (IndexOutOfBoundsException e) {
+                    // expected
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void Test_generator_SameCorpusWhateverTheThreads() throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(SEED, CONFIGS, 100);
+        assertEquals(generator.generate(17), generator.generate(17));
+        assertNotEquals(generator.generate(17), new CorpusGenerator(SEED + 1, CONFIGS, 100).generate(17));
+
+        Path one = writeCorpus(generator, 300, 1);
+        Path four = writeCorpus(generator, 300, 4);
+        try {
+            assertArrayEquals(Files.readAllBytes(one), Files.readAllBytes(four));
+            GameArchive archive = GameArchive.open(four);
+            for (long id = 0; id < archive.size(); id++) {
+                GameRecord record = archive.get(id);
+                assertEquals(generator.generate(id), record);
+                assertTrue(CONFIGS.contains(record.getConfig()));
+            }
+        } finally {
+            Files.delete(one);
+            Files.delete(four);
+        }
+    }
+
+    @Test
+    public void Test_statistics_EmptyAndMerged() {
+        ReplayStatistics empty = new ReplayStatistics(8);
+        assertEquals(0, empty.getAverageSteps(), 0);
+        assertEquals(0, empty.getPlayerOneWinRate(), 0);
+        assertEquals(0, empty.getAverageFirstCrownStep(), 0);
+
+        ReplayStatistics first = new ReplayStatistics(8);
+        first.addGame(40, 1, -1);
+        first.addCapture(9);
+        ReplayStatistics second = new ReplayStatistics(8);
+        second.addGame(60, 2, 30);
+        second.addCrown(30);
+        second.addCrown(50);
+        second.addCapture(9);
+        first.merge(second);
+
+        assertEquals(2, first.getGames());
+        assertEquals(0.5, first.getPlayerOneWinRate(), 0);
+        assertEquals(0.5, first.getPlayerTwoWinRate(), 0);
+        assertEquals(50, first.getAverageSteps(), 0);
+        assertEquals(60, first.getLongestGame());
+        assertEquals(1, first.getCrownedGames());
+        assertEquals(30, first.getAverageFirstCrownStep(), 0);
+        assertEquals(40, first.getAverageCrownStep(), 0);
+        assertEquals(2, first.getCaptureHeatmap()[9]);
+        assertTrue(first.toString().startsWith("8x8: 2 games"));
+    }
+}
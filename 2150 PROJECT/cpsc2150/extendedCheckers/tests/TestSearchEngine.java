@@ -0,0 +1,142 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.engine.Evaluator;
+import cpsc2150.extendedCheckers.engine.MaterialEvaluator;
+import cpsc2150.extendedCheckers.engine.SearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchResult;
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestSearchEngine
+{
+
+    private ICheckerBoard makeBoard(int dim)
+    {
+        CheckersFE.setPlayers('x', 'o');
+        return new CheckerBoard(dim);
+    }
+
+    private ICheckerBoard makeEmptyBoard(int dim)
+    {
+        ICheckerBoard cb = makeBoard(dim);
+        for (int square = 0; square < dim * dim; square++) {
+            cb.placePiece(square, ' ');
+        }
+        return cb;
+    }
+
+    @Test
+    public void Test_search_StartingPosition_LeavesBoardUnchanged() {
+        ICheckerBoard cb = makeBoard(8);
+        String before = cb.toString();
+        long hash = cb.getPositionHash();
+
+        SearchResult result = new SearchEngine().search(cb, 'x', 'o', 10_000, 5);
+
+        assertEquals(before, cb.toString());
+        assertEquals(hash, cb.getPositionHash());
+        assertTrue(cb.getUndoJournal().isEmpty());
+        assertEquals(5, result.getDepth());
+        assertTrue(result.getNodes() > 0);
+        assertNotEquals(Move.NO_MOVE, result.getBestMove());
+    }
+
+    @Test
+    public void Test_search_BestMoveIsLegal() {
+        ICheckerBoard cb = makeBoard(8);
+        MoveBuffer moves = new MoveBuffer();
+        MoveGenerator.generateMoves(cb, 'o', moves);
+
+        long best = new SearchEngine().search(cb, 'o', 'x', 10_000, 4).getBestMove();
+
+        boolean found = false;
+        for (int i = 0; i < moves.size(); i++) {
+            found |= moves.get(i) == best;
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void Test_search_FindsWinningCapture() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(2, 2), 'x');
+        cb.placePiece(new BoardPosition(0, 6), 'x');
+        cb.placePiece(new BoardPosition(3, 3), 'o');
+
+        SearchResult result = new SearchEngine().search(cb, 'x', 'o', 10_000);
+
+        assertTrue(Move.isCapture(result.getBestMove()));
+        assertTrue(result.isDecisive());
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    public void Test_search_AvoidsLosingAPiece() {
+        // The man on (4,2) must not step SW to (5,1), where the king on (6,0) would jump it
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(0, 0), 'x');
+        cb.placePiece(new BoardPosition(4, 2), 'x');
+        cb.placePiece(new BoardPosition(6, 0), 'O');
+        cb.placePiece(new BoardPosition(7, 7), 'o');
+
+        long best = new SearchEngine().search(cb, 'x', 'o', 10_000, 4).getBestMove();
+
+        assertNotEquals(Move.simple(cb.getSquare(4, 2), DirectionEnum.SW), best);
+    }
+
+    @Test
+    public void Test_search_NoLegalMove() {
+        ICheckerBoard cb = makeEmptyBoard(8);
+        cb.placePiece(new BoardPosition(7, 7), 'o');
+
+        SearchResult result = new SearchEngine().search(cb, 'x', 'o', 1_000);
+
+        assertEquals(Move.NO_MOVE, result.getBestMove());
+        assertEquals(0, result.getDepth());
+    }
+
+    @Test
+    public void Test_search_RespectsTimeBudget() {
+        ICheckerBoard cb = makeBoard(10);
+        long budgetMillis = 100;
+
+        SearchResult result = new SearchEngine().search(cb, 'x', 'o', budgetMillis);
+
+        assertTrue(result.getElapsedNanos() < (budgetMillis + 100) * 1_000_000L);
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(result.getNodesPerSecond() > 0);
+        assertNotEquals(Move.NO_MOVE, result.getBestMove());
+    }
+
+    @Test
+    public void Test_search_UsesPluggedEvaluator() {
+        int[] calls = new int[1];
+        Evaluator counting = (board, player) -> {
+            calls[0]++;
+            return new MaterialEvaluator().evaluate(board, player);
+        };
+        SearchEngine engine = new SearchEngine(counting);
+
+        engine.search(makeBoard(8), 'x', 'o', 10_000, 3);
+
+        assertSame(counting, engine.getEvaluator());
+        assertTrue(calls[0] > 0);
+    }
+
+    @Test
+    public void Test_evaluate_MaterialAndSymmetry() {
+        ICheckerBoard cb = makeBoard(8);
+        MaterialEvaluator evaluator = new MaterialEvaluator();
+
+        // The starting position is symmetric
+        assertEquals(0, evaluator.evaluate(cb, 'x'));
+        cb.placePiece(new BoardPosition(0, 0), ' ');
+        assertTrue(evaluator.evaluate(cb, 'x') < 0);
+        assertEquals(-evaluator.evaluate(cb, 'x'), evaluator.evaluate(cb, 'o'));
+    }
+}
@@ -0,0 +1,277 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.models.*;
+import cpsc2150.extendedCheckers.tablebase.EndgameIndex;
+import cpsc2150.extendedCheckers.tablebase.Tablebase;
+import cpsc2150.extendedCheckers.tablebase.TablebaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestTablebase
+{
+    private static final GameConfig EIGHT = new GameConfig();
+    private static final char X = EIGHT.getPlayerOne();
+    private static final char O = EIGHT.getPlayerTwo();
+
+    private static Path file;
+    private static Tablebase generated;
+
+    /**
+     * Generates the 2-piece tablebase once for the tests that read it.
+     */
+    private static synchronized Path twoPieceFile() throws IOException
+    {
+        if (file == null) {
+            Path path = Files.createTempFile("endgames", ".ckt");
+            path.toFile().deleteOnExit();
+            try (TablebaseGenerator generator = new TablebaseGenerator(2, 2, 64)) {
+                generated = generator.generate(path, null);
+            }
+            file = path;
+        }
+        return file;
+    }
+
+    private static ICheckerBoard emptyBoard()
+    {
+        ICheckerBoard board = new CheckerBoard(EIGHT);
+        for (int dark = 0; dark < EndgameIndex.SQUARES; dark++) {
+            board.placePiece(EndgameIndex.boardSquare(dark), CheckerBoard.EMPTY_POS);
+        }
+        return board;
+    }
+
+    private static ICheckerBoard boardOf(int[] masks)
+    {
+        ICheckerBoard board = emptyBoard();
+        char[] pieces = {X, O, Character.toUpperCase(X), Character.toUpperCase(O)};
+        for (int type = 0; type < 4; type++) {
+            for (int dark = 0; dark < EndgameIndex.SQUARES; dark++) {
+                if ((masks[type] & (1 << dark)) != 0) {
+                    board.placePiece(EndgameIndex.boardSquare(dark), pieces[type]);
+                }
+            }
+        }
+        return board;
+    }
+
+    private static boolean hasPieces(ICheckerBoard board, char player)
+    {
+        for (int dark = 0; dark < EndgameIndex.SQUARES; dark++) {
+            if (Character.toLowerCase(board.whatsAtPos(EndgameIndex.boardSquare(dark))) == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void Test_rank_IsABijectionOverEveryPlacement() {
+        int[][] materials = {{1, 0, 1, 0}, {0, 1, 0, 1}, {2, 0, 1, 0}, {0, 1, 1, 1}, {1, 1, 1, 0}, {4, 0, 0, 0}};
+        for (int[] counts : materials) {
+            EndgameIndex index = new EndgameIndex(counts[0], counts[1], counts[2], counts[3]);
+            int[] masks = new int[4];
+            Set<String> seen = new HashSet<>();
+            for (long i = 0; i < index.size(); i++) {
+                index.unrank(i, masks);
+                assertEquals(i, index.rank(masks[0], masks[1], masks[2], masks[3]));
+                assertEquals(counts[0], Integer.bitCount(masks[0]));
+                assertEquals(counts[2], Integer.bitCount(masks[1]));
+                assertEquals(counts[1], Integer.bitCount(masks[2]));
+                assertEquals(counts[3], Integer.bitCount(masks[3]));
+                assertEquals(counts[0] + counts[1] + counts[2] + counts[3],
+                        Integer.bitCount(masks[0] | masks[1] | masks[2] | masks[3]));
+                // No man stands on its crowning row
+                assertEquals(0, masks[0] >>> 28);
+                assertEquals(0, masks[1] & 0xF);
+                assertTrue(seen.add(masks[0] + "," + masks[1] + "," + masks[2] + "," + masks[3]));
+            }
+        }
+        // One man each: 28 squares for player one's, 28 for player two's, less the 24 middle squares they share
+        assertEquals(28 * 28 - 24, new EndgameIndex(1, 0, 1, 0).size());
+        assertEquals(32 * 31, new EndgameIndex(0, 1, 0, 1).size());
+        assertEquals(32L * 31 * 30 / 2, new EndgameIndex(0, 2, 0, 1).size());
+    }
+
+    @Test
+    public void Test_generate_AgreesWithEveryMoveOfEveryPosition() throws IOException {
+        Tablebase tablebase = Tablebase.open(twoPieceFile());
+        assertEquals(2, tablebase.getMaxPieces());
+        assertAgreesWithEveryMove(tablebase, generated, 2);
+    }
+
+    @Test
+    public void Test_generate_AgreesWithEveryMoveOfEveryPosition_ThreePieces() throws IOException {
+        Path path = Files.createTempFile("endgames", ".ckt");
+        try (TablebaseGenerator generator = new TablebaseGenerator(3, 4, 256)) {
+            Tablebase solved = generator.generate(path, null);
+            assertAgreesWithEveryMove(Tablebase.open(path), solved, 3);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Checks every position of every material of exactly pieces pieces, both sides to move, against the values
+     * one move on.
+     */
+    private static void assertAgreesWithEveryMove(Tablebase tablebase, Tablebase generated, int pieces)
+    {
+        MoveBuffer moves = new MoveBuffer();
+        int[] masks = new int[4];
+        int wins = 0;
+        int draws = 0;
+        for (EndgameIndex index : TablebaseGenerator.materials(pieces)) {
+            if (index.getPieceCount() != pieces) {
+                continue;
+            }
+            for (long i = 0; i < index.size(); i++) {
+                index.unrank(i, masks);
+                ICheckerBoard board = boardOf(masks);
+                for (char player : new char[] {X, O}) {
+                    int value = tablebase.probe(board, player);
+                    assertEquals(generated.probe(board, player), value);
+                    char opponent = (player == X) ? O : X;
+
+                    // Check the value against the values one move on
+                    int fastestWin = Integer.MAX_VALUE;
+                    int slowestLoss = -1;
+                    boolean allWon = true;
+                    int count = MoveGenerator.generateMoves(board, player, moves);
+                    for (int m = 0; m < count; m++) {
+                        board.applyMove(moves.get(m));
+                        int after = !hasPieces(board, opponent) ? Tablebase.loss(0) : tablebase.probe(board, opponent);
+                        board.undoMove();
+                        assertNotEquals(Tablebase.NOT_IN_TABLE, after);
+                        if (Tablebase.isLoss(after)) {
+                            fastestWin = Math.min(fastestWin, Tablebase.getDistance(after) + 1);
+                            allWon = false;
+                        } else if (Tablebase.isWin(after)) {
+                            slowestLoss = Math.max(slowestLoss, Tablebase.getDistance(after) + 1);
+                        } else {
+                            allWon = false;
+                        }
+                    }
+                    if (count == 0) {
+                        assertEquals(Tablebase.loss(0), value);
+                    } else if (fastestWin != Integer.MAX_VALUE) {
+                        assertEquals(Tablebase.win(fastestWin), value);
+                        wins++;
+                    } else if (allWon) {
+                        assertEquals(Tablebase.loss(slowestLoss), value);
+                    } else {
+                        assertEquals(Tablebase.DRAW, value);
+                        draws++;
+                    }
+                }
+            }
+        }
+        assertTrue(wins > 0 && draws > 0);
+    }
+
+    @Test
+    public void Test_bestMove_WinsInTheDistanceProbed() throws IOException {
+        Tablebase tablebase = Tablebase.open(twoPieceFile());
+
+        // The longest win of player one's king against player two's man
+        EndgameIndex kingAgainstMan = new EndgameIndex(0, 1, 1, 0);
+        int[] masks = new int[4];
+        ICheckerBoard board = null;
+        int value = Tablebase.DRAW;
+        for (long i = 0; i < kingAgainstMan.size(); i++) {
+            kingAgainstMan.unrank(i, masks);
+            ICheckerBoard candidate = boardOf(masks);
+            int candidateValue = tablebase.probe(candidate, X);
+            if (Tablebase.isWin(candidateValue) &&
+                    (board == null || Tablebase.getDistance(candidateValue) > Tablebase.getDistance(value))) {
+                board = candidate;
+                value = candidateValue;
+            }
+        }
+        assertNotNull(board);
+        assertTrue(Tablebase.getDistance(value) > 2);
+
+        char player = X;
+        for (int distance = Tablebase.getDistance(value); distance > 0; distance--) {
+            long move = tablebase.bestMove(board, player);
+            assertNotEquals(Move.NO_MOVE, move);
+            MoveBuffer moves = new MoveBuffer();
+            MoveGenerator.generateMoves(board, player, moves);
+            boolean legal = false;
+            for (int m = 0; m < moves.size(); m++) {
+                legal |= moves.get(m) == move;
+            }
+            assertTrue(legal);
+            board.applyMove(move);
+            player = (player == X) ? O : X;
+            if (!hasPieces(board, O)) {
+                assertEquals(1, distance);
+            } else {
+                int expected = (player == X) ? Tablebase.win(distance - 1) : Tablebase.loss(distance - 1);
+                assertEquals(expected, tablebase.probe(board, player));
+            }
+        }
+        // Player two is left with nothing to move
+        assertEquals(O, player);
+        assertEquals(0, MoveGenerator.generateMoves(board, O, new MoveBuffer()));
+    }
+
+    @Test
+    public void Test_probe_IgnoresPositionsOutsideTheTables() throws IOException {
+        Tablebase tablebase = Tablebase.open(twoPieceFile());
+        assertEquals(Tablebase.NOT_IN_TABLE, tablebase.probe(new CheckerBoard(EIGHT), X));
+        assertEquals(Move.NO_MOVE, tablebase.bestMove(new CheckerBoard(EIGHT), X));
+
+        // A man blocked in its corner by a king has no move: lost at once
+        ICheckerBoard board = emptyBoard();
+        board.placePiece(6 * 8 + 0, X);
+        board.placePiece(7 * 8 + 1, Character.toUpperCase(O));
+        assertEquals(Tablebase.loss(0), tablebase.probe(board, X));
+
+        board.placePiece(6 * 8 + 0, CheckerBoard.EMPTY_POS);
+        assertEquals(Tablebase.NOT_IN_TABLE, tablebase.probe(board, O));
+        board.placePiece(0, X);
+        board.placePiece(2, X);
+        assertEquals(Tablebase.NOT_IN_TABLE, tablebase.probe(board, X));
+
+        ICheckerBoard ten = new CheckerBoard(new GameConfig(X, O, 10));
+        assertEquals(Tablebase.NOT_IN_TABLE, tablebase.probe(ten, X));
+    }
+
+    @Test
+    public void Test_open_RejectsOtherFiles() throws IOException {
+        Path path = Files.createTempFile("endgames", ".ckt");
+        try {
+            Files.write(path, Files.readAllBytes(twoPieceFile()));
+            assertEquals(Files.size(twoPieceFile()), Files.size(path));
+            Tablebase.open(path);
+
+            // Cut off in the middle of the tables
+            Files.write(path, Arrays.copyOf(Files.readAllBytes(path), (int) Files.size(path) - 8));
+            try {
+                Tablebase.open(path);
+                fail("Opened a truncated tablebase");
+            } catch (IOException e) {
+                // expected
+            }
+            Files.write(path, new byte[] {'C', 'K', 'B', 'K', 0, 0, 0, 1}, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                Tablebase.open(path);
+                fail("Opened a file that is not a tablebase");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
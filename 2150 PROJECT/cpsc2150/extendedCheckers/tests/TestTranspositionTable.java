@@ -0,0 +1,142 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.engine.MaterialEvaluator;
+import cpsc2150.extendedCheckers.engine.SearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchResult;
+import cpsc2150.extendedCheckers.engine.TranspositionTable;
+import cpsc2150.extendedCheckers.models.CheckerBoard;
+
+import cpsc2150.extendedCheckers.views.CheckersFE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestTranspositionTable
+{
+
+    @Test
+    public void Test_constructor_SizeIsPowerOfTwoWithinBudget() {
+        TranspositionTable table = new TranspositionTable(3);
+
+        assertEquals(0, table.getBucketCount() & (table.getBucketCount() - 1));
+        assertTrue(table.getSizeBytes() <= 3L << 20);
+        assertTrue(table.getSizeBytes() > 1L << 20);
+    }
+
+    @Test
+    public void Test_storeProbe_RoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+        table.store(key, 7, TranspositionTable.LOWER_BOUND, -4321, 12);
+        long entry = table.probe(key);
+
+        assertEquals(-4321, TranspositionTable.getScore(entry));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(12, TranspositionTable.getMoveIndex(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(key ^ 1L << 40));
+    }
+
+    @Test
+    public void Test_store_DepthPreferredKeepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deep = 5;
+        long shallow = deep + table.getBucketCount();
+        long newest = deep + 2 * table.getBucketCount();
+
+        table.store(deep, 9, TranspositionTable.EXACT, 100, 0);
+        table.store(shallow, 2, TranspositionTable.EXACT, 200, 1);
+        // The always-replace slot takes the newest shallow entry, the deep one stays
+        table.store(newest, 3, TranspositionTable.EXACT, 300, 2);
+
+        assertEquals(100, TranspositionTable.getScore(table.probe(deep)));
+        assertEquals(TranspositionTable.MISS, table.probe(shallow));
+        assertEquals(300, TranspositionTable.getScore(table.probe(newest)));
+    }
+
+    @Test
+    public void Test_store_OldGenerationGivesWay() {
+        TranspositionTable table = new TranspositionTable(1);
+        long old = 5;
+        long fresh = old + table.getBucketCount();
+
+        table.store(old, 9, TranspositionTable.EXACT, 100, 0);
+        table.newSearch();
+        table.store(fresh, 1, TranspositionTable.EXACT, 200, 0);
+
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.getBound(table.probe(fresh)));
+        assertEquals(TranspositionTable.MISS, table.probe(old));
+    }
+
+    @Test
+    public void Test_metrics_HitsCollisionsAndFill() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(1, 1, TranspositionTable.EXACT, 0, 0);
+
+        table.probe(1);
+        table.probe(1 + table.getBucketCount());
+        table.probe(2);
+
+        assertEquals(3, table.getProbes());
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getCollisions());
+        assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+        assertTrue(table.getFillRate() > 0);
+
+        table.clear();
+        assertEquals(0, table.getProbes());
+        assertEquals(0.0, table.getFillRate(), 0.0);
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+    }
+
+    @Test
+    public void Test_concurrentStoreProbe_NeverReturnsForeignEntry() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        // Every writer stores score = f(key) for keys that share a few buckets, so any entry a reader accepts
+        // for its key must carry that key's score
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = (i * 31L + seed) % 64 * table.getBucketCount() + (i & 3);
+                    table.store(key, i & 63, TranspositionTable.EXACT, (int) (key * 7), i & 7);
+                    long probeKey = (i * 17L + seed) % 64 * table.getBucketCount() + (i & 3);
+                    long entry = table.probe(probeKey);
+                    if (entry != TranspositionTable.MISS && TranspositionTable.getScore(entry) != (int) (probeKey * 7)) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+    }
+
+    @Test
+    public void Test_search_TableSavesNodes() {
+        CheckersFE.setPlayers('x', 'o');
+        SearchEngine withTable = new SearchEngine();
+        SearchEngine withoutTable = new SearchEngine(new MaterialEvaluator(), null);
+
+        SearchResult with = withTable.search(new CheckerBoard(8), 'x', 'o', 60_000, 9);
+        SearchResult without = withoutTable.search(new CheckerBoard(8), 'x', 'o', 60_000, 9);
+
+        assertEquals(9, with.getDepth());
+        assertTrue(with.getNodes() < without.getNodes());
+        assertTrue(withTable.getTranspositionTable().getHits() > 0);
+    }
+}
@@ -0,0 +1,119 @@
+package cpsc2150.extendedCheckers.tests;
+
+import cpsc2150.extendedCheckers.fixtures.ListCheckerBoardMem;
+import cpsc2150.extendedCheckers.models.*;
+
+import cpsc2150.extendedCheckers.util.DirectionEnum;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static cpsc2150.extendedCheckers.tests.BoardFactory.makeBoard;
+import static org.junit.Assert.*;
+
+public class TestZobrist
+{
+    private static final int GAMES = 30;
+    private static final int MAX_PLIES = 200;
+
+    /**
+     * Plays and takes back random games with hash verification on, so every applyMove and undoMove checks the
+     * incremental hash against a full recompute.
+     */
+    private void verifyRandomGames(char type, int dim, long seed)
+    {
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+
+        for (int game = 0; game < GAMES; game++) {
+            ICheckerBoard cb = makeBoard(type, dim);
+            cb.setHashVerification(true);
+            long startHash = cb.getPositionHash();
+            char player = 'x';
+
+            for (int ply = 0; ply < MAX_PLIES && MoveGenerator.generateMoves(cb, player, moves) > 0; ply++) {
+                cb.applyMove(moves.get(random.nextInt(moves.size())));
+                player = (player == 'x') ? 'o' : 'x';
+            }
+            while (!cb.getUndoJournal().isEmpty()) {
+                cb.undoMove();
+            }
+            assertEquals(startHash, cb.getPositionHash());
+        }
+    }
+
+    @Test
+    public void Test_positionHash_RandomGames_CheckerBoard() {
+        verifyRandomGames('F', 8, 11);
+        verifyRandomGames('F', 14, 12);
+    }
+
+    @Test
+    public void Test_positionHash_RandomGames_CheckerBoardMem() {
+        verifyRandomGames('M', 8, 13);
+        verifyRandomGames('M', 16, 14);
+    }
+
+    @Test
+    public void Test_positionHash_RandomGames_CheckerBoardBit() {
+        verifyRandomGames('B', 10, 15);
+    }
+
+    @Test
+    public void Test_positionHash_RandomGames_ListCheckerBoardMem() {
+        verifyRandomGames('L', 8, 16);
+    }
+
+    @Test
+    public void Test_positionHash_FollowsPlacePieceAndCrownPiece() {
+        ICheckerBoard cb = makeBoard('F', 8);
+        long start = cb.getPositionHash();
+        BoardPosition pos = new BoardPosition(3, 1);
+
+        cb.placePiece(pos, 'x');
+        assertNotEquals(start, cb.getPositionHash());
+        cb.crownPiece(pos);
+        assertEquals(cb.computePositionHash(), cb.getPositionHash());
+        cb.placePiece(pos, ' ');
+        assertEquals(start, cb.getPositionHash());
+    }
+
+    @Test
+    public void Test_positionHash_TranspositionsMatch() {
+        ICheckerBoard first = makeBoard('F', 8);
+        ICheckerBoard second = makeBoard('M', 8);
+
+        // The same two men moved in opposite orders reach the same position
+        first.movePiece(new BoardPosition(2, 0), DirectionEnum.SE);
+        first.movePiece(new BoardPosition(2, 4), DirectionEnum.SE);
+        second.movePiece(new BoardPosition(2, 4), DirectionEnum.SE);
+        second.movePiece(new BoardPosition(2, 0), DirectionEnum.SE);
+
+        assertEquals(first.getPositionHash(), second.getPositionHash());
+    }
+
+    @Test
+    public void Test_positionHash_IncludesSideToMove() {
+        ICheckerBoard cb = makeBoard('B', 8);
+        long start = cb.getPositionHash();
+
+        cb.switchSideToMove();
+        assertTrue(cb.isSecondPlayerToMove());
+        assertEquals(start ^ Zobrist.SIDE_TO_MOVE, cb.getPositionHash());
+        assertEquals(cb.computePositionHash(), cb.getPositionHash());
+    }
+
+    @Test
+    public void Test_positionHash_DifferentPositionsDiffer() {
+        ICheckerBoard cb = makeBoard('F', 8);
+        long start = cb.getPositionHash();
+
+        cb.movePiece(new BoardPosition(2, 0), DirectionEnum.SE);
+        long afterMove = cb.getPositionHash();
+        cb.movePiece(new BoardPosition(3, 1), DirectionEnum.NW);
+
+        assertNotEquals(start, afterMove);
+        assertEquals(start, cb.getPositionHash());
+        cb.verifyPositionHash();
+    }
+}
@@ -9,5 +9,28 @@ public enum DirectionEnum
     NE,
     NW,
     SE,
-    SW
+    SW;
+
+    /**
+     * Number of directions, handy for sizing per-direction arrays
+     */
+    public static final int COUNT = 4;
+
+    //values() clones its array on every call, so keep one copy for lookups by ordinal
+    private static final DirectionEnum[] VALUES = values();
+
+    /**
+     * Returns the direction with the given ordinal without allocating
+     *
+     * @param ordinal the ordinal of the wanted direction
+     * @return the DirectionEnum whose ordinal() == ordinal
+     *
+     * @pre 0 <= ordinal < COUNT
+     *
+     * @post fromOrdinal = [the direction with that ordinal]
+     */
+    public static DirectionEnum fromOrdinal(int ordinal)
+    {
+        return VALUES[ordinal];
+    }
 }
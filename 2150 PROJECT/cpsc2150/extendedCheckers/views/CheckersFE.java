@@ -1,12 +1,26 @@
 
 package cpsc2150.extendedCheckers.views;
 
+import cpsc2150.extendedCheckers.engine.OpeningBook;
+import cpsc2150.extendedCheckers.engine.ParallelSearchEngine;
+import cpsc2150.extendedCheckers.engine.SearchResult;
 import cpsc2150.extendedCheckers.models.BoardPosition;
 import cpsc2150.extendedCheckers.models.CheckerBoard;
+import cpsc2150.extendedCheckers.models.CheckerBoardBit;
 import cpsc2150.extendedCheckers.models.CheckerBoardMem;
+import cpsc2150.extendedCheckers.models.GameConfig;
 import cpsc2150.extendedCheckers.models.ICheckerBoard;
+import cpsc2150.extendedCheckers.models.Move;
+import cpsc2150.extendedCheckers.models.NeighborTable;
+import cpsc2150.extendedCheckers.records.GameRecorder;
+import cpsc2150.extendedCheckers.records.PdnCodec;
+import cpsc2150.extendedCheckers.server.CheckersServer;
 import cpsc2150.extendedCheckers.util.DirectionEnum;
 
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -14,30 +28,52 @@ import java.util.*;
  * The primary responsibility of this class is to initialize and start the application.
  *
  * @Invariant
- * - The class does not maintain any state or fields.
+ * - The only state is the shared GameConfig behind the compatibility accessors getPlayerOne and getPlayerTwo.
  * - The main method will be the starting point of execution.
  */
 
 
 public class CheckersFE {
-    private static char playerOne;
-    private static char playerTwo;
+    //the game read by the static player accessors, kept for code written before boards carried a GameConfig
+    private static volatile GameConfig gameConfig = new GameConfig();
+
+    //a game between two computer players is called a draw after this many moves
+    private static final int MAX_COMPUTER_MOVES = 400;
 
 
     /**
      * The entry point for the Checkers application.
      * This method initializes the game, handles user input, and manages the game loop.
      *
-     * @param args Command-line arguments (not used in this implementation).
+     * @param args Command-line arguments: none for a console game, "record file" to also append every finished
+     *             game to file as PDN (see PdnCodec), "book file" to have the computer play, and the players be
+     *             shown, the moves of an OpeningBook while the game is in the book (both may be given), or
+     *             "server [port]" to serve games over TCP with CheckersServer instead.
      *
      * @pre [The program is executed in a Java environment with standard input/output capabilities.]
      *
      * @post [The application is initialized and ready to run.]
-     *       - If valid inputs are provided, a game of Checkers is played between two players.
+     *       - If valid inputs are provided, a game of Checkers is played between two players, either of
+     *         which may be the computer.
      *       - At the end of the game, the user can choose to replay or exit.
      *       - [No state is retained after the program exits.]
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("server")) {
+            CheckersServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        String recordFile = null;
+        OpeningBook book = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equalsIgnoreCase("record")) {
+                recordFile = args[i + 1];
+            } else if (args[i].equalsIgnoreCase("book")) {
+                book = OpeningBook.open(Paths.get(args[i + 1]));
+            }
+        }
 
         Scanner scanner = new Scanner(System.in);
         boolean playAgain = true;
@@ -46,6 +82,8 @@ public class CheckersFE {
 
         while (playAgain) {
             ICheckerBoard board;
+            char playerOne;
+            char playerTwo;
             System.out.println("Player 1, enter your piece: ");
             String input = scanner.nextLine();
             while (input.length() != 1 || !Character.isLetter(input.charAt(0))) {
@@ -63,7 +101,8 @@ public class CheckersFE {
             playerTwo = input2.charAt(0);
 
             // Ensures the pieces are valid and not identical
-            while (playerOne == playerTwo || !Character.isLetter(playerOne) || !Character.isLetter(playerTwo)) {
+            while (Character.toLowerCase(playerOne) == Character.toLowerCase(playerTwo) ||
+                    !Character.isLetter(playerOne) || !Character.isLetter(playerTwo)) {
                 System.out.println("Invalid input. Choose unique, valid characters for your pieces.");
                 System.out.println("Player 1, enter your piece: ");
                 playerOne = scanner.nextLine().charAt(0);
@@ -71,24 +110,64 @@ public class CheckersFE {
                 playerTwo = scanner.nextLine().charAt(0);
             }
 
-            System.out.println("Do you want a fast game (F/f) or a memory efficient game (M/m)?");
+            System.out.println("Do you want a fast game (F/f), a memory efficient game (M/m) or a bitboard game (B/b)?");
             String input3 = scanner.nextLine();
             // Get the board size input
             System.out.println("How big should the board be? It can be 8x8, 10x10, 12x12, 14x14, or 16x16. Enter one number: ");
             int boardSize = Integer.parseInt(scanner.nextLine());
 
+            GameConfig config;
+            try {
+                config = new GameConfig(playerOne, playerTwo, boardSize);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                continue;
+            }
+            gameConfig = config;
+            playerOne = config.getPlayerOne();
+            playerTwo = config.getPlayerTwo();
+
             //Selected board size
             if (input3.equalsIgnoreCase("F")) {
                 // Fast game: use an in-memory board
-                board = new CheckerBoard(boardSize);
+                board = new CheckerBoard(config);
             } else if (input3.equalsIgnoreCase("M")) {
                 // Memory-efficient game: use CheckerBoardMem
-                board = new CheckerBoardMem(boardSize);
+                board = new CheckerBoardMem(config);
+            } else if (input3.equalsIgnoreCase("B")) {
+                // Bitboard game: use CheckerBoardBit
+                board = new CheckerBoardBit(config);
             } else {
-                System.out.println("Invalid choice. Please choose F for fast or M for memory efficient.");
+                System.out.println("Invalid choice. Please choose F for fast, M for memory efficient or B for bitboard.");
                 continue;  // Skip to the next loop iteration
             }
 
+            // Either side (or both, for unattended games) can be played by the search engine
+            System.out.println("Should the computer play player 1 (1), player 2 (2), both (B/b) or neither (N/n)?");
+            String input4 = scanner.nextLine().trim();
+            boolean computerOne = input4.equals("1") || input4.equalsIgnoreCase("B");
+            boolean computerTwo = input4.equals("2") || input4.equalsIgnoreCase("B");
+            ParallelSearchEngine engine = null;
+            long thinkMillis = 0;
+            if (computerOne || computerTwo) {
+                System.out.println("How many milliseconds may the computer think per move? Enter one number: ");
+                thinkMillis = Long.parseLong(scanner.nextLine().trim());
+                while (thinkMillis <= 0) {
+                    System.out.println("Please enter a positive number of milliseconds.");
+                    thinkMillis = Long.parseLong(scanner.nextLine().trim());
+                }
+                System.out.println("How many threads may the computer search with? Enter one number: ");
+                int threads = Integer.parseInt(scanner.nextLine().trim());
+                while (threads <= 0) {
+                    System.out.println("Please enter at least 1 thread.");
+                    threads = Integer.parseInt(scanner.nextLine().trim());
+                }
+                engine = new ParallelSearchEngine(threads);
+            }
+            int computerMoves = 0;
+            GameRecorder recorder = (recordFile != null) ? GameRecorder.attach(board) : null;
+            char winner = CheckerBoard.EMPTY_POS;
+
             char currentPlayer = playerOne;   // Start with player one
 
             System.out.println(board);                      // Display the initial board
@@ -99,9 +178,58 @@ public class CheckersFE {
                 // Check if the current player has won before proceeding
                 if (board.checkPlayerWin(currentPlayer)) {
                     System.out.println("Player " + currentPlayer + " wins!");
+                    winner = currentPlayer;
                     gameOver = true; // End the game
                     break;           // Exit the game loop
                 }
+                if ((currentPlayer == playerOne) ? computerOne : computerTwo) {
+                    char opponent = (currentPlayer == playerOne) ? playerTwo : playerOne;
+                    long move = (book != null) ? book.bestMove(board, currentPlayer) : Move.NO_MOVE;
+                    if (move != Move.NO_MOVE) {
+                        // Known openings are played straight from the book, without searching
+                        System.out.println("Player " + currentPlayer + " plays " +
+                                Move.toString(move, board.getColNum()) + " from the opening book");
+                    } else {
+                        SearchResult result = engine.search(board, currentPlayer, opponent, thinkMillis);
+                        move = result.getBestMove();
+                        if (move == Move.NO_MOVE) {
+                            System.out.println("Player " + currentPlayer + " cannot move. Player " + opponent + " wins!");
+                            winner = opponent;
+                            gameOver = true;
+                            break;
+                        }
+                        System.out.println("Player " + currentPlayer + " plays " + result.describeMove(board.getColNum()) +
+                                " (" + result + ")");
+                        System.out.println("Transposition table: " + engine.getTranspositionTable());
+                    }
+
+                    // Book and searched moves alike are counted and can end the game
+                    board.applyMove(move);
+                    board.getUndoJournal().clear();
+
+                    if (board.checkPlayerWin(currentPlayer)) {
+                        System.out.println("Player " + currentPlayer + " wins!");
+                        winner = currentPlayer;
+                        gameOver = true;
+                        break;
+                    }
+                    System.out.println(board);
+
+                    if (computerOne && computerTwo && ++computerMoves >= MAX_COMPUTER_MOVES) {
+                        System.out.println("No winner after " + MAX_COMPUTER_MOVES + " moves. The game is a draw.");
+                        gameOver = true;
+                        break;
+                    }
+                    currentPlayer = opponent;
+                    continue;
+                }
+
+                // Shows what was played most from this position, if the opening book has it
+                int bookEntry = (book != null) ? book.find(board) : OpeningBook.NOT_FOUND;
+                if (bookEntry != OpeningBook.NOT_FOUND) {
+                    System.out.println("The opening book suggests " + book.describe(bookEntry, board.getColNum()));
+                }
+
                 // Asks the current player to choose a piece to move
                 System.out.println("Player " + currentPlayer + " which piece do you wish to move? Enter the row followed by a space followed by the column.");
                 int row = scanner.nextInt();
@@ -127,7 +255,7 @@ public class CheckersFE {
 
                 // If no directions are available, end turn
                 if (validDirections == null || validDirections.isEmpty()) {
-                    currentPlayer = (currentPlayer == playerOne) ? playerTwo : playerOne; // Switch player
+                    currentPlayer = endTurn(board, currentPlayer); // Switch player
                     continue;
                 }
 
@@ -167,6 +295,7 @@ public class CheckersFE {
                 // Check if the player wins before updating the board
                 if (board.checkPlayerWin(currentPlayer)) {
                     System.out.println("Player " + currentPlayer + " wins!");
+                    winner = currentPlayer;
                     gameOver = true;
                     break;
                 }
@@ -175,7 +304,17 @@ public class CheckersFE {
                 System.out.println(board);  // Display the updated board
 
                                             // Switch to the other player
-                currentPlayer = (currentPlayer == playerOne) ? playerTwo : playerOne;
+                currentPlayer = endTurn(board, currentPlayer);
+            }
+
+            if (engine != null) {
+                engine.close();
+            }
+            if (recorder != null) {
+                try (Writer out = new FileWriter(recordFile, true)) {
+                    PdnCodec.write(recorder.toRecord(winner), out);
+                }
+                System.out.println("Game saved to " + recordFile + " (" + recorder.getStepCount() + " steps)");
             }
 
             // After the game ends, ask if player wants to play again
@@ -225,64 +364,23 @@ public class CheckersFE {
         // Create a new list to store valid directions
         ArrayList<DirectionEnum> validDirections = new ArrayList<>();
 
-        // Iterate through all directions to add valid moves or jumps
-        for (DirectionEnum direction : possibleDirections) {
-            int row = pos.getRow();
-            int col = pos.getColumn();
-
-            switch (direction) {
-                case NE:
-                    if (row - 1 >= 0 && col + 1 < board.getColNum() && board.whatsAtPos(new BoardPosition(row - 1, col + 1)) == CheckerBoard.EMPTY_POS) {
-                        validDirections.add(direction);
-                    }
-                    if (row - 2 >= 0 && col + 2 < board.getColNum()) {
-                        char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                        if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row - 1, col + 1))) == opponent &&
-                                board.whatsAtPos(new BoardPosition(row - 2, col + 2)) == CheckerBoard.EMPTY_POS)
-                        {
-                            validDirections.add(direction);
-                        }
-                    }
-                    break;
-
-                case SE:
-                    if (row + 1 < board.getColNum() && col + 1 < board.getColNum() && board.whatsAtPos(new BoardPosition(row + 1, col + 1)) == CheckerBoard.EMPTY_POS) {
-                        validDirections.add(direction);
-                    }
-                    if (row + 2 < board.getColNum() && col + 2 < board.getColNum()) {
-                        char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                        if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row + 1, col + 1))) == opponent &&
-                                board.whatsAtPos(new BoardPosition(row + 2, col + 2)) == CheckerBoard.EMPTY_POS) {
-                            validDirections.add(direction);
-                        }
-                    }
-                    break;
-
-                case NW:
-                    if (row - 1 >= 0 && col - 1 >= 0 && board.whatsAtPos(new BoardPosition(row - 1, col - 1)) == CheckerBoard.EMPTY_POS) {
-                        validDirections.add(direction);
-                    }
-                    if (row - 2 >= 0 && col - 2 >= 0) {
-                        char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                        if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row - 1, col - 1))) == opponent &&
-                                board.whatsAtPos(new BoardPosition(row - 2, col - 2)) == CheckerBoard.EMPTY_POS) {
-                            validDirections.add(direction);
-                        }
-                    }
-                    break;
+        NeighborTable neighbors = board.getNeighborTable();
+        int square = board.getSquare(pos.getRow(), pos.getColumn());
+        char opponent = board.getConfig().getOpponent(player);
 
-                case SW:
-                    if (row + 1 < board.getRowNum() && col - 1 >= 0 && board.whatsAtPos(new BoardPosition(row + 1, col - 1)) == CheckerBoard.EMPTY_POS) {
-                        validDirections.add(direction);
-                    }
-                    if (row + 2 < board.getRowNum() && col - 2 >= 0) {
-                        char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                        if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row + 1, col - 1))) == opponent &&
-                                board.whatsAtPos(new BoardPosition(row + 2, col - 2)) == CheckerBoard.EMPTY_POS) {
-                            validDirections.add(direction);
-                        }
-                    }
-                    break;
+        // Iterate through all directions to add valid moves or jumps: a table read plus an occupancy check each
+        for (DirectionEnum direction : possibleDirections) {
+            int step = neighbors.getStep(square, direction);
+            if (step == NeighborTable.OFF_BOARD) {
+                continue;
+            }
+            if (board.whatsAtPos(step) == CheckerBoard.EMPTY_POS) {
+                validDirections.add(direction);
+            }
+            int landing = neighbors.getJump(square, direction);
+            if (landing != NeighborTable.OFF_BOARD && Character.toLowerCase(board.whatsAtPos(step)) == opponent &&
+                    board.whatsAtPos(landing) == CheckerBoard.EMPTY_POS) {
+                validDirections.add(direction);
             }
         }
 
@@ -311,78 +409,94 @@ public class CheckersFE {
      *       in the intermediate position and an empty landing position); false otherwise.]
      */
 
-    private static boolean isJump(ICheckerBoard board, char player, BoardPosition startPos, DirectionEnum direction) {
-        int row = startPos.getRow();
-        int col = startPos.getColumn();
-
-        switch (direction) {
-            case NE:
-                if (row - 2 >= 0 && col + 2 < board.getColNum()) {
-                    char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                    if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row - 1, col + 1))) == opponent &&
-                            board.whatsAtPos(new BoardPosition(row - 2, col + 2)) == CheckerBoard.EMPTY_POS) {
-                        return true;
-                    }
-                }
-                break;
-
-            case SE:
-                if (row + 2 < board.getRowNum() && col + 2 < board.getColNum()) {
-                    char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                    if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row + 1, col + 1))) == opponent &&
-                            board.whatsAtPos(new BoardPosition(row + 2, col + 2)) == CheckerBoard.EMPTY_POS) {
-                        return true;
-                    }
-                }
-                break;
-
-            case NW:
-                if (row - 2 >= 0 && col - 2 >= 0) {
-                    char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                    if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row - 1, col - 1))) == opponent &&
-                            board.whatsAtPos(new BoardPosition(row - 2, col - 2)) == CheckerBoard.EMPTY_POS) {
-                        return true;
-                    }
-                }
-                break;
-
-            case SW:
-                if (row + 2 < board.getRowNum() && col - 2 >= 0) {
-                    char opponent = (Character.toLowerCase(player) == CheckersFE.getPlayerOne()) ? CheckersFE.getPlayerTwo() : CheckersFE.getPlayerOne();
-                    if (Character.toLowerCase(board.whatsAtPos(new BoardPosition(row + 1, col - 1))) == opponent &&
-                            board.whatsAtPos(new BoardPosition(row + 2, col - 2)) == CheckerBoard.EMPTY_POS) {
-                        return true;
-                    }
-                }
-                break;
+    public static boolean isJump(ICheckerBoard board, char player, BoardPosition startPos, DirectionEnum direction) {
+        NeighborTable neighbors = board.getNeighborTable();
+        int square = board.getSquare(startPos.getRow(), startPos.getColumn());
+        int landing = neighbors.getJump(square, direction);
+
+        if (landing == NeighborTable.OFF_BOARD) {
+            return false;
         }
-        return false;
+        char opponent = board.getConfig().getOpponent(player);
+        return Character.toLowerCase(board.whatsAtPos(neighbors.getStep(square, direction))) == opponent &&
+                board.whatsAtPos(landing) == CheckerBoard.EMPTY_POS;
+    }
+
+    /**
+     * Ends a console turn, whether a piece moved or the player passed: the board hands the move to the other
+     * side, as applyMove does, so its position hash stays the key of the position and the side to move.
+     *
+     * @param board The current game board, represented as an ICheckerBoard object.
+     * @param player The player whose turn is over, represented as a char.
+     *
+     * @return the player to move next
+     *
+     * @pre board.isSecondPlayerToMove() = (player == board.getConfig().getPlayerTwo())
+     *
+     * @post endTurn = board.getConfig().getOpponent(player) AND
+     *       board.isSecondPlayerToMove() = NOT #board.isSecondPlayerToMove()
+     */
+    public static char endTurn(ICheckerBoard board, char player) {
+        board.switchSideToMove();
+        return board.getConfig().getOpponent(player);
+    }
+
+
+    /**
+     * Returns the game used by the static player accessors and by the board constructors that take only a size.
+     * Each game played in main replaces it; boards built from their own GameConfig never read it.
+     *
+     * @return the current shared GameConfig
+     *
+     * @post getGameConfig = [the last GameConfig set by main or setPlayers, 'x' against 'o' on 8x8 before that]
+     */
+    public static GameConfig getGameConfig()
+    {
+        return gameConfig;
     }
 
 
     /**
-     * Standard getter for player one
+     * Standard getter for player one. Compatibility shim: new code should use ICheckerBoard.getConfig().
      *
      * @return The character of playerOne.
      *
-     * @post [Returns the character that represents playerOne.]
+     * @post [Returns the character that represents playerOne in getGameConfig().]
      */
     public static char getPlayerOne()
     {
-        return playerOne;
+        return gameConfig.getPlayerOne();
     }
 
 
     /**
-     * Standard getter for player two
+     * Standard getter for player two. Compatibility shim: new code should use ICheckerBoard.getConfig().
      *
      * @return The character of playerTwo.
      *
-     * @post [Returns the character that represents playerTwo.]
+     * @post [Returns the character that represents playerTwo in getGameConfig().]
      */
     public static char getPlayerTwo()
     {
-        return playerTwo;
+        return gameConfig.getPlayerTwo();
     }
-}
 
+
+    /**
+     * Sets the characters of both players without going through the console prompts, for
+     * programs that build boards directly (benchmarks, simulators). Compatibility shim: it changes the players of
+     * every board built afterwards with a size-only constructor, so concurrent games should each pass their own
+     * GameConfig instead.
+     *
+     * @param aPlayerOne the character for player one
+     * @param aPlayerTwo the character for player two
+     *
+     * @pre aPlayerOne and aPlayerTwo are distinct lowercase letters
+     *
+     * @post getGameConfig() = new GameConfig(aPlayerOne, aPlayerTwo, #getGameConfig().getDimension())
+     */
+    public static void setPlayers(char aPlayerOne, char aPlayerTwo)
+    {
+        gameConfig = new GameConfig(aPlayerOne, aPlayerTwo, gameConfig.getDimension());
+    }
+}